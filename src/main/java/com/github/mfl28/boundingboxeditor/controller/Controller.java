@@ -20,23 +20,35 @@ package com.github.mfl28.boundingboxeditor.controller;
 
 import com.github.mfl28.boundingboxeditor.controller.utils.KeyCombinationEventHandler;
 import com.github.mfl28.boundingboxeditor.model.Model;
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
 import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
 import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
 import com.github.mfl28.boundingboxeditor.model.data.IoMetaData;
 import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
-import com.github.mfl28.boundingboxeditor.model.io.FileChangeWatcher;
+import com.github.mfl28.boundingboxeditor.model.io.AnnotationFileChangeWatcher;
+import com.github.mfl28.boundingboxeditor.model.io.BatchBoundingBoxPredictor;
+import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictor;
+import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictorConfig;
 import com.github.mfl28.boundingboxeditor.model.io.ImageAnnotationLoadStrategy;
 import com.github.mfl28.boundingboxeditor.model.io.ImageAnnotationSaveStrategy;
+import com.github.mfl28.boundingboxeditor.model.io.ImageFileChangeWatcher;
+import com.github.mfl28.boundingboxeditor.model.io.ImageFileChanges;
+import com.github.mfl28.boundingboxeditor.model.io.ShardedExportConfig;
+import com.github.mfl28.boundingboxeditor.model.io.SpeculativePredictionPrefetcher;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.LoadBalancingPredictorClient;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClientConfig;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.GsonMessageBodyHandler;
 import com.github.mfl28.boundingboxeditor.model.io.results.*;
 import com.github.mfl28.boundingboxeditor.model.io.services.*;
 import com.github.mfl28.boundingboxeditor.ui.*;
 import com.github.mfl28.boundingboxeditor.ui.settings.InferenceSettingsView;
+import com.github.mfl28.boundingboxeditor.ui.statusevents.BoundingBoxPredictionCancelledEvent;
 import com.github.mfl28.boundingboxeditor.ui.statusevents.BoundingBoxPredictionSuccessfulEvent;
 import com.github.mfl28.boundingboxeditor.ui.statusevents.ImageAnnotationsImportingSuccessfulEvent;
+import com.github.mfl28.boundingboxeditor.ui.statusevents.ImageAnnotationsReimportedEvent;
 import com.github.mfl28.boundingboxeditor.ui.statusevents.ImageAnnotationsSavingSuccessfulEvent;
+import com.github.mfl28.boundingboxeditor.ui.statusevents.ImageFilesChangedEvent;
 import com.github.mfl28.boundingboxeditor.ui.statusevents.ImageFilesLoadingSuccessfulEvent;
 import com.github.mfl28.boundingboxeditor.utils.ColorUtils;
 import com.github.mfl28.boundingboxeditor.utils.ImageUtils;
@@ -65,6 +77,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
 import java.util.prefs.Preferences;
 import java.util.stream.Stream;
@@ -93,6 +106,9 @@ public class Controller {
     private static final String LOAD_IMAGE_ANNOTATIONS_DIRECTORY_CHOOSER_TITLE =
             "Load image annotations from a folder containing annotation files";
     private static final String LOAD_IMAGE_ANNOTATIONS_FILE_CHOOSER_TITLE = "Load Image Annotations from File";
+    private static final String LOAD_IMAGE_ANNOTATIONS_ARCHIVE_CHOOSER_TITLE = "Load Image Annotations from Archive";
+    private static final String SAVE_IMAGE_ANNOTATIONS_ARCHIVE_CHOOSER_TITLE = "Save Image Annotations to Archive";
+    private static final String SAVE_SHARDED_DATASET_DIRECTORY_CHOOSER_TITLE = "Save Sharded Dataset to Folder";
     private static final String LOAD_IMAGE_FOLDER_ERROR_DIALOG_TITLE = "Image Folder Loading Error";
     private static final String LOAD_IMAGE_FOLDER_ERROR_DIALOG_CONTENT =
             "The chosen folder does not contain any valid image files.";
@@ -124,6 +140,9 @@ public class Controller {
     private static final String EXIT_APPLICATION_OPTION_DIALOG_TITLE = "Exit Application";
     private static final String EXIT_APPLICATION_OPTION_DIALOG_CONTENT =
             "Do you want to save the existing annotation data?";
+    private static final String EXIT_APPLICATION_BACKGROUND_SAVE_DIALOG_CONTENT =
+            "Annotations are still being saved in the background. Do you want to wait for the saving to finish " +
+                    "before exiting?";
     private static final String IS_WINDOW_MAXIMIZED_PREFERENCE_NAME = "isMaximized";
     private static final String CURRENT_IMAGE_LOADING_DIRECTORY_PREFERENCE_NAME = "currentImageLoadingDirectory";
     private static final String CURRENT_ANNOTATION_LOADING_DIRECTORY_PREFERENCE_NAME =
@@ -137,6 +156,10 @@ public class Controller {
     private static final String KEEP_EXISTING_CATEGORIES_DIALOG_TEXT = "Keep existing categories?";
     private static final String DEFAULT_JSON_EXPORT_FILENAME = "annotations.json";
     private static final String DEFAULT_CSV_EXPORT_FILENAME = "annotations.csv";
+    private static final String DEFAULT_COCO_EXPORT_FILENAME = "instances.json";
+    private static final String DEFAULT_BINARY_PROJECT_EXPORT_FILENAME = "annotations.bbep";
+    private static final String DEFAULT_JSON_LINES_EXPORT_FILENAME = "annotations.jsonl";
+    private static final String DEFAULT_ARCHIVE_EXPORT_FILENAME = "annotations.zip";
     private static final String ANNOTATION_IMPORT_SAVE_EXISTING_DIALOG_CONTENT = "All current annotations are about " +
             "to be removed. Do you want to save them first?";
     private static final String IMAGE_IMPORT_ERROR_ALERT_TITLE = "Image Import Error";
@@ -146,6 +169,9 @@ public class Controller {
     private static final String IMAGE_FILES_CHANGED_ERROR_CONTENT =
             "Image files were changed externally. Will reload folder.";
     private static final String IMAGE_FILE_CHANGE_WATCHER_THREAD_NAME = "ImageFileChangeWatcher";
+    private static final String ANNOTATION_FILE_CHANGE_WATCHER_THREAD_NAME = "AnnotationFileChangeWatcher";
+    // Some file systems store modification times with a precision of only two seconds.
+    private static final long FILE_MODIFICATION_TIME_PRECISION_MILLIS = 2000;
     private static final String SETTINGS_APPLICATION_ERROR_DIALOG_TITLE = "Settings Application Error";
     private static final String SETTINGS_APPLICATION_INVALID_FIELDS_ERROR_DIALOG_CONTENT =
             "Please provide valid values for the indicated fields.";
@@ -166,13 +192,51 @@ public class Controller {
     private static final String IMAGE_FILES_LOADING_PROGRESS_DIALOG_HEADER = "Loading image meta-data";
     private static final String BOUNDING_BOX_PREDICTION_PROGRESS_DIALOG_TITLE = "Predicting";
     private static final String BOUNDING_BOX_PREDICTION_PROGRESS_DIALOG_HEADER = "Predicting bounding boxes";
+    private static final String BATCH_BOUNDING_BOX_PREDICTION_PROGRESS_DIALOG_HEADER =
+            "Predicting bounding boxes for multiple images";
+    private static final String BATCH_BOUNDING_BOX_PREDICTION_ERROR_DIALOG_TITLE = "Bounding Box Prediction Error";
+    private static final String BATCH_BOUNDING_BOX_PREDICTION_INFERENCE_DISABLED_ERROR_DIALOG_CONTENT =
+            "Inference is disabled. You can enable it in the inference settings.";
+    private static final String BATCH_BOUNDING_BOX_PREDICTION_NO_IMAGES_ERROR_DIALOG_CONTENT =
+            "There are no images to predict bounding boxes for.";
+    private static final String BATCH_BOUNDING_BOX_PREDICTION_NOTHING_TO_RESUME_ERROR_DIALOG_CONTENT =
+            "There is no interrupted bounding box prediction to resume.";
     private static final String FETCHING_MODELS_PROGRESS_DIALOG_TITLE = "Fetching Models";
     private static final String FETCHING_MODELS_PROGRESS_DIALOG_HEADER = "Fetching model names from server";
 
     private final ImageAnnotationExportService annotationExportService = new ImageAnnotationExportService();
+    private final ImageAnnotationExportService backgroundAnnotationExportService =
+            new ImageAnnotationExportService();
     private final ImageAnnotationImportService annotationImportService = new ImageAnnotationImportService();
+    /**
+     * Re-imports the annotation files of the last annotation import which were changed externally.
+     */
+    private final ImageAnnotationImportService annotationReimportService = new ImageAnnotationImportService();
+    /**
+     * The externally changed annotation files which were not re-imported yet.
+     */
+    private final Set<Path> pendingChangedAnnotationFiles = new HashSet<>();
+    /**
+     * The modification times of the files in the watched annotation directory which were written by the
+     * editor's own exports. Changes of these files are only re-imported if they were modified again afterwards.
+     */
+    private final Map<Path, FileTime> exportedAnnotationFileTimes = new HashMap<>();
     private final ImageMetaDataLoadingService imageMetaDataLoadingService = new ImageMetaDataLoadingService();
     private final BoundingBoxPredictorService boundingBoxPredictorService = new BoundingBoxPredictorService();
+    private final BatchBoundingBoxPredictorService batchBoundingBoxPredictorService =
+            new BatchBoundingBoxPredictorService();
+    /**
+     * The image-files of the last batch prediction for which no predictions were made yet,
+     * either because the prediction was cancelled or because an error occurred.
+     */
+    private final Set<File> pendingBatchPredictionImageFiles = new LinkedHashSet<>();
+    private final SpeculativePredictionPrefetcher speculativePredictionPrefetcher =
+            new SpeculativePredictionPrefetcher();
+    /**
+     * The direction (1 or -1) of the last navigation between images, used to decide which images
+     * are predicted speculatively.
+     */
+    private int navigationDirection = 1;
     private final ModelNameFetchService modelNameFetchService = new ModelNameFetchService();
     private final Stage stage;
     private final HostServices hostServices;
@@ -189,7 +253,16 @@ public class Controller {
     String lastLoadedImageUrl;
     private final ChangeListener<Number> selectedFileIndexListener = createSelectedFileIndexListener();
     Thread directoryWatcher;
+    Thread annotationDirectoryWatcher;
     private Client client;
+    private BoundingBoxPredictorClient predictorClient;
+    private boolean backgroundSaveEnabled = false;
+    private long backgroundSaveModificationCount;
+    /**
+     * Operations which were requested while a background save was running and which are run once it has finished.
+     */
+    private final Deque<Runnable> operationsAfterBackgroundSave = new ArrayDeque<>();
+    private FileTime annotationExportStartTime;
 
     /**
      * Creates a new controller object that is responsible for handling the application logic and
@@ -214,6 +287,9 @@ public class Controller {
                 .setDisplayedSettingsFromPredictorClientConfig(model.getBoundingBoxPredictorClientConfig());
         view.getInferenceSettingsView()
                 .setDisplayedSettingsFromPredictorConfig(model.getBoundingBoxPredictorConfig());
+        view.getInferenceSettingsView()
+                .setDisplayedEndpointStatistics(predictorClient instanceof LoadBalancingPredictorClient lbClient ?
+                        lbClient.getEndpointStatistics() : Collections.emptyList());
         view.getUiSettingsView()
                 .setDisplayedSettingsFromUISettingsConfig(view.getUiSettingsConfig());
         view.getEditorSettingsView()
@@ -255,12 +331,18 @@ public class Controller {
         view.getEditorSettingsView()
                 .applyDisplayedSettingsToEditorSettingsConfig(view.getEditorSettingsConfig());
 
+        // The inference servers or the model might have changed.
+        predictorClient = null;
+
         if(!inferenceWasEnabled && model.getBoundingBoxPredictorConfig().isInferenceEnabled()) {
             makeClientAvailable();
         } else if(inferenceWasEnabled && !model.getBoundingBoxPredictorConfig().isInferenceEnabled()) {
             makeClientUnavailable();
         }
 
+        // Prefetched predictions might have been made with different settings.
+        speculativePredictionPrefetcher.cancelAll();
+
         if(buttonType.equals(ButtonType.APPLY)) {
             event.consume();
         }
@@ -285,6 +367,49 @@ public class Controller {
         }
     }
 
+    /**
+     * Handles the event of the user requesting bounding box predictions for all currently loaded images.
+     *
+     * @param onlyUnannotatedImages if true, only images without any bounding shapes are predicted
+     */
+    public void onRegisterPerformBatchBoundingBoxPredictionAction(boolean onlyUnannotatedImages) {
+        if(!model.containsImageFiles()) {
+            return;
+        }
+
+        updateModelFromView();
+
+        final Map<String, ImageAnnotation> fileNameToAnnotationMap = model.getImageFileNameToAnnotationMap();
+
+        final List<File> imageFiles = model.getImageFiles().stream()
+                .filter(imageFile -> {
+                    if(!onlyUnannotatedImages) {
+                        return true;
+                    }
+
+                    final ImageAnnotation annotation = fileNameToAnnotationMap.get(imageFile.getName());
+                    return annotation == null || annotation.getBoundingShapeData().isEmpty();
+                })
+                .toList();
+
+        initiateBatchBoundingBoxPrediction(imageFiles);
+    }
+
+    /**
+     * Handles the event of the user requesting to resume a cancelled (or partially failed) bounding box
+     * prediction over multiple images.
+     */
+    public void onRegisterResumeBatchBoundingBoxPredictionAction() {
+        if(pendingBatchPredictionImageFiles.isEmpty()) {
+            MainView.displayErrorAlert(BATCH_BOUNDING_BOX_PREDICTION_ERROR_DIALOG_TITLE,
+                    BATCH_BOUNDING_BOX_PREDICTION_NOTHING_TO_RESUME_ERROR_DIALOG_CONTENT, stage);
+            return;
+        }
+
+        updateModelFromView();
+        startBatchBoundingBoxPredictionService(List.copyOf(pendingBatchPredictionImageFiles));
+    }
+
     /**
      * Initiates the loading of image files from a provided folder.
      *
@@ -343,7 +468,60 @@ public class Controller {
         File destination = getAnnotationSavingDestination(saveFormat);
 
         if(destination != null) {
-            initiateAnnotationExport(destination, saveFormat, null);
+            startAnnotationExport(destination, saveFormat);
+        }
+    }
+
+    /**
+     * Handles the event of the user requesting to save the current image-annotations into a ZIP-archive.
+     *
+     * @param saveFormat the format of the annotation files written into the archive
+     */
+    public void onRegisterSaveAnnotationsToArchiveAction(ImageAnnotationSaveStrategy.Type saveFormat) {
+        final File destination = MainView.displayFileChooserAndGetChoice(SAVE_IMAGE_ANNOTATIONS_ARCHIVE_CHOOSER_TITLE,
+                stage,
+                ioMetaData.getDefaultAnnotationSavingDirectory(),
+                DEFAULT_ARCHIVE_EXPORT_FILENAME,
+                new FileChooser.ExtensionFilter("ZIP archives", "*.zip", "*.ZIP"),
+                MainView.FileChooserType.SAVE);
+
+        if(destination != null) {
+            startAnnotationExport(destination, saveFormat);
+        }
+    }
+
+    /**
+     * Handles the event of the user switching the background save mode on or off. In background save mode,
+     * annotations are saved from a snapshot of the current annotation data without blocking the user interface,
+     * so that the user can keep on editing while the snapshot is written.
+     *
+     * @param enabled true to enable the background save mode, false to disable it
+     */
+    public void onRegisterBackgroundSaveToggledAction(boolean enabled) {
+        backgroundSaveEnabled = enabled;
+    }
+
+    /**
+     * Handles the event of the user requesting to save the current image-annotations as a dataset
+     * which is split into train/validation/test shards.
+     *
+     * @param saveFormat the format the shards are saved in
+     */
+    public void onRegisterSaveAnnotationsAsShardedDatasetAction(ImageAnnotationSaveStrategy.Type saveFormat) {
+        updateModelFromView();
+
+        if(!model.containsAnnotations() && !view.containsBoundingShapeViews()) {
+            MainView.displayErrorAlert(SAVE_IMAGE_ANNOTATIONS_ERROR_DIALOG_TITLE,
+                    NO_IMAGE_ANNOTATIONS_TO_SAVE_ERROR_DIALOG_CONTENT, stage);
+            return;
+        }
+
+        final File destination =
+                MainView.displayDirectoryChooserAndGetChoice(SAVE_SHARDED_DATASET_DIRECTORY_CHOOSER_TITLE, stage,
+                        ioMetaData.getDefaultAnnotationSavingDirectory());
+
+        if(destination != null) {
+            initiateShardedAnnotationExport(destination, saveFormat, ShardedExportConfig.createDefault());
         }
     }
 
@@ -358,6 +536,25 @@ public class Controller {
         }
     }
 
+    /**
+     * Handles the event of the user requesting to import image-annotations from a ZIP- or TAR-archive.
+     *
+     * @param loadFormat the format of the annotation files contained in the archive
+     */
+    public void onRegisterImportAnnotationsFromArchiveAction(ImageAnnotationLoadStrategy.Type loadFormat) {
+        final File source = MainView.displayFileChooserAndGetChoice(LOAD_IMAGE_ANNOTATIONS_ARCHIVE_CHOOSER_TITLE,
+                stage,
+                ioMetaData.getDefaultAnnotationLoadingDirectory(),
+                null,
+                new FileChooser.ExtensionFilter("Archives", "*.zip", "*.ZIP", "*.tar", "*.TAR",
+                        "*.tar.gz", "*.TAR.GZ", "*.tgz", "*.TGZ"),
+                MainView.FileChooserType.OPEN);
+
+        if(source != null) {
+            initiateAnnotationImport(source, loadFormat);
+        }
+    }
+
     public void onRegisterModelNameFetchingAction() {
         modelNameFetchService.reset();
         final BoundingBoxPredictorClientConfig clientConfig = new BoundingBoxPredictorClientConfig();
@@ -417,6 +614,18 @@ public class Controller {
         startBoundingBoxPredictionService(imageFile);
     }
 
+    void initiateBatchBoundingBoxPrediction(List<File> imageFiles) {
+        if(imageFiles.isEmpty()) {
+            MainView.displayErrorAlert(BATCH_BOUNDING_BOX_PREDICTION_ERROR_DIALOG_TITLE,
+                    BATCH_BOUNDING_BOX_PREDICTION_NO_IMAGES_ERROR_DIALOG_CONTENT, stage);
+            return;
+        }
+
+        pendingBatchPredictionImageFiles.clear();
+        pendingBatchPredictionImageFiles.addAll(imageFiles);
+        startBatchBoundingBoxPredictionService(imageFiles);
+    }
+
     /**
      * Handles the event of the user adding a new object category.
      */
@@ -459,6 +668,21 @@ public class Controller {
     public void onRegisterExitAction() {
         view.getEditorImagePane().finalizeBoundingShapeDrawing();
 
+        if(backgroundAnnotationExportService.isRunning()) {
+            ButtonBar.ButtonData answer =
+                    MainView.displayYesNoCancelDialogAndGetResult(EXIT_APPLICATION_OPTION_DIALOG_TITLE,
+                            EXIT_APPLICATION_BACKGROUND_SAVE_DIALOG_CONTENT, stage);
+
+            if(answer == ButtonBar.ButtonData.YES) {
+                runAfterBackgroundSave(this::onRegisterExitAction);
+                return;
+            } else if(answer == ButtonBar.ButtonData.CANCEL_CLOSE) {
+                return;
+            }
+
+            backgroundAnnotationExportService.cancel();
+        }
+
         updateModelFromView();
 
         if(!model.isSaved()) {
@@ -469,7 +693,7 @@ public class Controller {
             if(answer == ButtonBar.ButtonData.YES) {
                 initiateAnnotationSavingWithFormatChoiceAndRunOnSaveSuccess(() -> {
                     savePreferences();
-                    interruptDirectoryWatcher();
+                    interruptDirectoryWatchers();
                     Platform.exit();
                 });
 
@@ -480,7 +704,7 @@ public class Controller {
         }
 
         savePreferences();
-        interruptDirectoryWatcher();
+        interruptDirectoryWatchers();
         makeClientUnavailable();
         Platform.exit();
     }
@@ -686,16 +910,35 @@ public class Controller {
                     .register(MultiPartFeature.class)
                     .register(GsonMessageBodyHandler.class)
                     .build();
+            predictorClient = null;
         }
     }
 
     void makeClientUnavailable() {
+        speculativePredictionPrefetcher.cancelAll();
+
+        predictorClient = null;
+
         if(client != null) {
             client.close();
             client = null;
         }
     }
 
+    /**
+     * Returns the client used for predictions. The client is kept until the settings are applied, so
+     * that clients distributing predictions over several inference servers can track the servers' load.
+     *
+     * @return the predictor client
+     */
+    BoundingBoxPredictorClient getPredictorClient() {
+        if(predictorClient == null) {
+            predictorClient = BoundingBoxPredictorClient.create(client, model.getBoundingBoxPredictorClientConfig());
+        }
+
+        return predictorClient;
+    }
+
     IoMetaData getIoMetaData() {
         return ioMetaData;
     }
@@ -704,6 +947,14 @@ public class Controller {
         return annotationExportService;
     }
 
+    ImageAnnotationExportService getBackgroundAnnotationExportService() {
+        return backgroundAnnotationExportService;
+    }
+
+    boolean isBackgroundSaveEnabled() {
+        return backgroundSaveEnabled;
+    }
+
     ImageAnnotationImportService getAnnotationImportService() {
         return annotationImportService;
     }
@@ -716,6 +967,14 @@ public class Controller {
         return boundingBoxPredictorService;
     }
 
+    BatchBoundingBoxPredictorService getBatchBoundingBoxPredictorService() {
+        return batchBoundingBoxPredictorService;
+    }
+
+    Set<File> getPendingBatchPredictionImageFiles() {
+        return pendingBatchPredictionImageFiles;
+    }
+
     ModelNameFetchService getModelNameFetchService() {
         return modelNameFetchService;
     }
@@ -727,11 +986,36 @@ public class Controller {
     void initiateAnnotationExport(File destination,
                                   ImageAnnotationSaveStrategy.Type exportFormat,
                                   Runnable chainedOperation) {
+        if(backgroundAnnotationExportService.isRunning()) {
+            runAfterBackgroundSave(() -> initiateAnnotationExport(destination, exportFormat, chainedOperation));
+            return;
+        }
+
+        markAnnotationExportStart();
         annotationExportService.reset();
         annotationExportService.setDestination(destination);
         annotationExportService.setExportFormat(exportFormat);
         annotationExportService.setAnnotationData(model.createImageAnnotationData());
         annotationExportService.setChainedOperation(chainedOperation);
+        annotationExportService.setShardedExportConfig(null);
+        annotationExportService.restart();
+    }
+
+    void initiateShardedAnnotationExport(File destination, ImageAnnotationSaveStrategy.Type exportFormat,
+                                         ShardedExportConfig shardedExportConfig) {
+        if(backgroundAnnotationExportService.isRunning()) {
+            runAfterBackgroundSave(() -> initiateShardedAnnotationExport(destination, exportFormat,
+                    shardedExportConfig));
+            return;
+        }
+
+        markAnnotationExportStart();
+        annotationExportService.reset();
+        annotationExportService.setDestination(destination);
+        annotationExportService.setExportFormat(exportFormat);
+        annotationExportService.setAnnotationData(model.createImageAnnotationData());
+        annotationExportService.setChainedOperation(null);
+        annotationExportService.setShardedExportConfig(shardedExportConfig);
         annotationExportService.restart();
     }
 
@@ -739,6 +1023,49 @@ public class Controller {
         initiateAnnotationExport(destination, exportFormat, null);
     }
 
+    void initiateBackgroundAnnotationExport(File destination, ImageAnnotationSaveStrategy.Type exportFormat) {
+        if(backgroundAnnotationExportService.isRunning()) {
+            // Restarting the service would not stop the running save from writing to the same files.
+            runAfterBackgroundSave(() -> initiateBackgroundAnnotationExport(destination, exportFormat));
+            return;
+        }
+
+        backgroundSaveModificationCount = model.getModificationCount();
+        markAnnotationExportStart();
+        backgroundAnnotationExportService.reset();
+        backgroundAnnotationExportService.setDestination(destination);
+        backgroundAnnotationExportService.setExportFormat(exportFormat);
+        backgroundAnnotationExportService.setAnnotationData(model.createImageAnnotationDataSnapshot());
+        backgroundAnnotationExportService.setChainedOperation(null);
+        backgroundAnnotationExportService.setShardedExportConfig(null);
+        backgroundAnnotationExportService.restart();
+    }
+
+    /**
+     * Runs the provided operation right away if no background save is running, otherwise
+     * once the running background save has finished, failed or was cancelled.
+     *
+     * @param operation the operation to run
+     */
+    void runAfterBackgroundSave(Runnable operation) {
+        operationsAfterBackgroundSave.addLast(operation);
+        runOperationsAfterBackgroundSave();
+    }
+
+    private void runOperationsAfterBackgroundSave() {
+        while(!operationsAfterBackgroundSave.isEmpty() && !backgroundAnnotationExportService.isRunning()) {
+            operationsAfterBackgroundSave.removeFirst().run();
+        }
+    }
+
+    private void startAnnotationExport(File destination, ImageAnnotationSaveStrategy.Type exportFormat) {
+        if(backgroundSaveEnabled) {
+            initiateBackgroundAnnotationExport(destination, exportFormat);
+        } else {
+            initiateAnnotationExport(destination, exportFormat, null);
+        }
+    }
+
     private List<KeyCombinationEventHandler> createKeyCombinationHandlers() {
         return List.of(
                 new KeyCombinationEventHandler(KeyCombination.NO_MATCH, null,
@@ -799,8 +1126,11 @@ public class Controller {
 
         if(predictionResult.getNrSuccessfullyProcessedItems() != 0) {
             model.updateFromImageAnnotationData(predictionResult.getImageAnnotationData(),
-                    predictionResult.getOperationType());
-            view.getStatusBar().setStatusEvent(new BoundingBoxPredictionSuccessfulEvent(predictionResult));
+                    predictionResult.getOperationType(), predictionResult.getImageFileNameToReplacedShapes());
+            view.getStatusBar().setStatusEvent(model.getBoundingBoxPredictorConfig().isSpeculativePrediction() ?
+                    new BoundingBoxPredictionSuccessfulEvent(predictionResult,
+                            speculativePredictionPrefetcher.getHitStatistics()) :
+                    new BoundingBoxPredictionSuccessfulEvent(predictionResult));
         }
 
         updateViewFileExplorerFileInfoElements();
@@ -813,6 +1143,45 @@ public class Controller {
         }
     }
 
+    private void onBatchBoundingBoxPredictionBatchReceived(BatchBoundingBoxPredictor.Batch batch) {
+        batch.predictedImageFiles().forEach(pendingBatchPredictionImageFiles::remove);
+
+        final Collection<ImageAnnotation> predictedAnnotations = batch.imageAnnotationData().imageAnnotations();
+
+        if(predictedAnnotations.isEmpty() || !model.containsImageFiles()) {
+            return;
+        }
+
+        model.updateFromImageAnnotationData(batch.imageAnnotationData(),
+                IOResult.OperationType.BOUNDING_BOX_PREDICTION, batch.imageFileNameToReplacedShapes());
+
+        updateViewFileExplorerFileInfoElements();
+
+        final String currentImageFileName = model.getCurrentImageFileName();
+
+        if(predictedAnnotations.stream()
+                .anyMatch(annotation -> annotation.getImageFileName().equals(currentImageFileName))) {
+            reloadCurrentAnnotationInView();
+        }
+    }
+
+    private void onBatchBoundingBoxPredictionSucceeded(WorkerStateEvent event) {
+        final BatchBoundingBoxPredictionResult predictionResult = batchBoundingBoxPredictorService.getValue();
+
+        if(predictionResult.getNrSuccessfullyProcessedItems() != 0) {
+            view.getStatusBar().setStatusEvent(new BoundingBoxPredictionSuccessfulEvent(predictionResult));
+        }
+
+        if(!predictionResult.getErrorTableEntries().isEmpty()) {
+            batchBoundingBoxPredictorService.getProgressViewer().hideProgress();
+            MainView.displayIOResultErrorInfoAlert(predictionResult, stage);
+        }
+    }
+
+    private void onBatchBoundingBoxPredictionCancelled(WorkerStateEvent event) {
+        view.getStatusBar().setStatusEvent(new BoundingBoxPredictionCancelledEvent());
+    }
+
     private void reloadCurrentAnnotationInView() {
         final ImageAnnotation annotation = model.getCurrentImageAnnotation();
 
@@ -826,15 +1195,52 @@ public class Controller {
         }
     }
 
+    private void startBatchBoundingBoxPredictionService(List<File> imageFiles) {
+        if(!model.getBoundingBoxPredictorConfig().isInferenceEnabled()) {
+            MainView.displayErrorAlert(BATCH_BOUNDING_BOX_PREDICTION_ERROR_DIALOG_TITLE,
+                    BATCH_BOUNDING_BOX_PREDICTION_INFERENCE_DISABLED_ERROR_DIALOG_CONTENT, stage);
+            return;
+        }
+
+        batchBoundingBoxPredictorService.reset();
+        batchBoundingBoxPredictorService.setImageFiles(imageFiles);
+        batchBoundingBoxPredictorService.setImageFileNameToMetaData(
+                new HashMap<>(model.getImageFileNameToMetaDataMap()));
+        batchBoundingBoxPredictorService.setCategoryNameToCategoryMap(model.getCategoryNameToCategoryMap());
+        batchBoundingBoxPredictorService.setBoundingBoxPredictorConfig(model.getBoundingBoxPredictorConfig());
+        batchBoundingBoxPredictorService.setPredictionCache(model.getPredictionCache());
+        batchBoundingBoxPredictorService.setBatchConsumer(this::onBatchBoundingBoxPredictionBatchReceived);
+        batchBoundingBoxPredictorService.setImageFileNameToExistingShapes(
+                model.createImageFileNameToBoundingShapeDataSnapshot());
+        batchBoundingBoxPredictorService
+                .setPredictorClient(getPredictorClient());
+
+        batchBoundingBoxPredictorService.restart();
+    }
+
     private void startAnnotationImportService(File source, ImageAnnotationLoadStrategy.Type importFormat) {
+        interruptAnnotationDirectoryWatcher();
         annotationImportService.reset();
         annotationImportService.setSource(source);
         annotationImportService.setImportFormat(importFormat);
+        annotationImportService.setAnnotationFiles(null);
         annotationImportService.setImportableFileNames(model.getImageFileNameSet());
         annotationImportService.setCategoryNameToCategoryMap(model.getCategoryNameToCategoryMap());
+        annotationImportService.setAnnotationMerger(model.getBoundingBoxPredictorConfig().createAnnotationMerger(),
+                model.createImageFileNameToBoundingShapeDataSnapshot());
         annotationImportService.restart();
     }
 
+    private void startAnnotationReimportService() {
+        annotationReimportService.reset();
+        annotationReimportService.setAnnotationFiles(Set.copyOf(pendingChangedAnnotationFiles));
+        annotationReimportService.setImportableFileNames(model.getImageFileNameSet());
+        annotationReimportService.setCategoryNameToCategoryMap(model.getCategoryNameToCategoryMap());
+        annotationReimportService.setAnnotationMerger(null, null);
+        pendingChangedAnnotationFiles.clear();
+        annotationReimportService.restart();
+    }
+
     private void startImageMetaDataLoadingService(File source, List<File> imageFiles, boolean reload) {
         imageMetaDataLoadingService.reset();
         imageMetaDataLoadingService.setSource(source);
@@ -844,15 +1250,24 @@ public class Controller {
     }
 
     private void startBoundingBoxPredictionService(File imageFile) {
+        final ImageAnnotation existingImageAnnotation =
+                model.getImageFileNameToAnnotationMap().get(imageFile.getName());
+
         boundingBoxPredictorService.reset();
         boundingBoxPredictorService.setImageFile(imageFile);
         boundingBoxPredictorService.setCategoryNameToCategoryMap(model.getCategoryNameToCategoryMap());
         boundingBoxPredictorService.setImageMetaData(model.getImageFileNameToMetaDataMap().get(imageFile.getName()));
         boundingBoxPredictorService.setBoundingBoxPredictorConfig(model.getBoundingBoxPredictorConfig());
+        boundingBoxPredictorService.setPredictionCache(model.getPredictionCache());
+        boundingBoxPredictorService.setExistingShapes(
+                existingImageAnnotation != null ? List.copyOf(existingImageAnnotation.getBoundingShapeData()) :
+                        Collections.emptyList());
+        boundingBoxPredictorService.setPrefetchedImage(
+                model.getBoundingBoxPredictorConfig().isSpeculativePrediction() ?
+                        speculativePredictionPrefetcher.take(imageFile.getName()) : null);
 
         boundingBoxPredictorService
-                .setPredictorClient(BoundingBoxPredictorClient.create(client,
-                        model.getBoundingBoxPredictorClientConfig()));
+                .setPredictorClient(getPredictorClient());
 
         boundingBoxPredictorService.restart();
     }
@@ -865,7 +1280,23 @@ public class Controller {
         annotationExportProgressDialog.setOwnerParentWindow(stage);
         annotationExportService.setProgressViewer(annotationExportProgressDialog);
         annotationExportService.setOnSucceeded(this::onAnnotationExportSucceeded);
-        annotationExportService.setOnFailed(this::onIoServiceFailed);
+        annotationExportService.setOnFailed(event -> {
+            onAnnotationExportFinished(annotationExportService.getDestination());
+            onIoServiceFailed(event);
+        });
+        annotationExportService.setOnCancelled(event ->
+                onAnnotationExportFinished(annotationExportService.getDestination()));
+
+        backgroundAnnotationExportService.setOnSucceeded(this::onBackgroundAnnotationExportSucceeded);
+        backgroundAnnotationExportService.setOnFailed(event -> {
+            onAnnotationExportFinished(backgroundAnnotationExportService.getDestination());
+            onIoServiceFailed(event);
+            runOperationsAfterBackgroundSave();
+        });
+        backgroundAnnotationExportService.setOnCancelled(event -> {
+            onAnnotationExportFinished(backgroundAnnotationExportService.getDestination());
+            runOperationsAfterBackgroundSave();
+        });
 
         final ServiceProgressDialog annotationImportProgressDialog =
                 MainView.createServiceProgressDialog(annotationImportService,
@@ -876,6 +1307,9 @@ public class Controller {
         annotationImportService.setOnSucceeded(this::onAnnotationImportSucceeded);
         annotationImportService.setOnFailed(this::onIoServiceFailed);
 
+        annotationReimportService.setOnSucceeded(this::onAnnotationReimportSucceeded);
+        annotationReimportService.setOnFailed(this::onIoServiceFailed);
+
         final ServiceProgressDialog imageMetaDataLoadingProgressDialog =
                 MainView.createServiceProgressDialog(imageMetaDataLoadingService,
                         IMAGE_FILES_LOADING_PROGRESS_DIALOG_TITLE,
@@ -894,6 +1328,23 @@ public class Controller {
         boundingBoxPredictorService.setOnSucceeded(this::onBoundingBoxPredictionSucceeded);
         boundingBoxPredictorService.setOnFailed(this::onIoServiceFailed);
 
+        final ServiceProgressDialog batchPredictorProgressDialog =
+                MainView.createServiceProgressDialog(batchBoundingBoxPredictorService,
+                        BOUNDING_BOX_PREDICTION_PROGRESS_DIALOG_TITLE,
+                        BATCH_BOUNDING_BOX_PREDICTION_PROGRESS_DIALOG_HEADER);
+        batchPredictorProgressDialog.setOwnerParentWindow(stage);
+        batchPredictorProgressDialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        // Closing the dialog while the prediction is still running means the user cancelled it.
+        batchPredictorProgressDialog.setOnHidden(event -> {
+            if(batchBoundingBoxPredictorService.isRunning()) {
+                batchBoundingBoxPredictorService.cancel();
+            }
+        });
+        batchBoundingBoxPredictorService.setProgressViewer(batchPredictorProgressDialog);
+        batchBoundingBoxPredictorService.setOnSucceeded(this::onBatchBoundingBoxPredictionSucceeded);
+        batchBoundingBoxPredictorService.setOnCancelled(this::onBatchBoundingBoxPredictionCancelled);
+        batchBoundingBoxPredictorService.setOnFailed(this::onIoServiceFailed);
+
         modelNameFetchService.setOnFailed(this::onIoServiceFailed);
         modelNameFetchService.setOnSucceeded(this::onModelNameFetchingSucceeded);
     }
@@ -1002,7 +1453,7 @@ public class Controller {
     private void onValidFilesPresentHandler(boolean keepCategories) {
         ImageMetaDataLoadingResult result = imageMetaDataLoadingService.getValue();
 
-        interruptDirectoryWatcher();
+        interruptDirectoryWatchers();
 
         model.clearAnnotationData(keepCategories);
         model.getImageFileNameToMetaDataMap().clear();
@@ -1017,19 +1468,79 @@ public class Controller {
         view.getStatusBar()
                 .setStatusEvent(new ImageFilesLoadingSuccessfulEvent(result, imageMetaDataLoadingService.getSource()));
 
-        directoryWatcher = new Thread(new FileChangeWatcher(imageMetaDataLoadingService.getSource().toPath(),
-                model.getImageFileNameSet(), () -> {
-            MainView.displayErrorAlert(IMAGE_FILES_CHANGED_ERROR_TITLE, IMAGE_FILES_CHANGED_ERROR_CONTENT, stage);
-            Controller.this.initiateCurrentFolderReloading();
-        }), IMAGE_FILE_CHANGE_WATCHER_THREAD_NAME);
+        directoryWatcher = new Thread(new ImageFileChangeWatcher(imageMetaDataLoadingService.getSource().toPath(),
+                model.getImageFileNameSet(), this::onImageFilesChanged), IMAGE_FILE_CHANGE_WATCHER_THREAD_NAME);
         directoryWatcher.start();
     }
 
+    private void onImageFilesChanged(ImageFileChanges imageFileChanges) {
+        if(!model.containsImageFiles()) {
+            return;
+        }
+
+        if(imageFileChanges.addedFiles().isEmpty()
+                && imageFileChanges.removedFileNames().size() >= model.getImageFileNameSet().size()) {
+            // No image-files remain, the reload reports the empty folder.
+            MainView.displayErrorAlert(IMAGE_FILES_CHANGED_ERROR_TITLE, IMAGE_FILES_CHANGED_ERROR_CONTENT, stage);
+            initiateCurrentFolderReloading();
+            return;
+        }
+
+        updateModelFromView();
+
+        if(!imageFileChanges.removedFileNames().isEmpty() || !imageFileChanges.modifiedFiles().isEmpty()) {
+            speculativePredictionPrefetcher.cancelAll();
+        }
+
+        final Set<String> changedFileNames = new HashSet<>(imageFileChanges.removedFileNames());
+        imageFileChanges.modifiedFiles().forEach(file -> changedFileNames.add(file.getName()));
+
+        // The file-index listener stays detached until the file-list's selection, which is adjusted when its
+        // items change, points to the new file-index again.
+        model.fileIndexProperty().removeListener(selectedFileIndexListener);
+        final boolean currentImageFileChanged = model.updateImageFiles(imageFileChanges);
+        final int currentFileIndex = model.getCurrentFileIndex();
+
+        view.getImageFileExplorer().updateImageMetaData(model.getImageMetaDataList(), changedFileNames);
+        view.getImageFileListView().getSelectionModel().select(currentFileIndex);
+        model.fileIndexProperty().set(currentFileIndex);
+        model.fileIndexProperty().addListener(selectedFileIndexListener);
+
+        updateViewFileExplorerFileInfoElements();
+
+        if(currentImageFileChanged) {
+            reloadCurrentImageInView();
+        }
+
+        view.getObjectCategoryTable().refresh();
+        updateStageTitle();
+        view.getStatusBar().setStatusEvent(new ImageFilesChangedEvent(imageFileChanges));
+    }
+
+    private void reloadCurrentImageInView() {
+        final Image currentImage = view.getCurrentImage();
+
+        if(currentImage != null) {
+            currentImage.progressProperty().removeListener(imageLoadProgressListener);
+            currentImage.cancel();
+        }
+
+        view.getCurrentBoundingShapes().removeListener(boundingShapeCountPerCategoryListener);
+        view.getEditorImagePane().removeAllCurrentBoundingShapes();
+        view.getObjectTree().reset();
+        view.getEditorImagePane().getImageLoadingProgressIndicator().setVisible(true);
+        view.getEditor().getEditorToolBar().getPredictButton().setDisable(true);
+        lastLoadedImageUrl = null;
+
+        updateViewImageFromModel();
+    }
+
     private void onAnnotationImportSucceeded(WorkerStateEvent workerStateEvent) {
         ImageAnnotationImportResult importResult = annotationImportService.getValue();
 
         if(importResult.getNrSuccessfullyProcessedItems() != 0) {
-            model.updateFromImageAnnotationData(importResult.getImageAnnotationData(), importResult.getOperationType());
+            model.updateFromImageAnnotationData(importResult.getImageAnnotationData(), importResult.getOperationType(),
+                    importResult.getImageFileNameToReplacedShapes());
             view.getStatusBar().setStatusEvent(new ImageAnnotationsImportingSuccessfulEvent(importResult));
         }
 
@@ -1048,6 +1559,72 @@ public class Controller {
         }
 
         setCurrentAnnotationLoadingDirectory(annotationImportService.getSource());
+        startAnnotationDirectoryWatcher(annotationImportService.getSource(), annotationImportService.getImportFormat());
+    }
+
+    private void onAnnotationFilesChanged(File source, Set<Path> changedAnnotationFiles) {
+        // Changes reported by a watcher of a previous import are ignored.
+        if(!model.containsImageFiles() || !source.equals(annotationReimportService.getSource())
+                || annotationDirectoryWatcher == null || !annotationDirectoryWatcher.isAlive()) {
+            return;
+        }
+
+        pendingChangedAnnotationFiles.addAll(changedAnnotationFiles);
+        reimportPendingChangedAnnotationFiles();
+    }
+
+    private void reimportPendingChangedAnnotationFiles() {
+        // Files written by a running export can only be told apart once the export has finished.
+        if(annotationReimportService.isRunning() || annotationImportService.isRunning()
+                || isAnnotationExportRunning()) {
+            return;
+        }
+
+        pendingChangedAnnotationFiles.removeIf(this::isUnmodifiedExportedAnnotationFile);
+
+        if(!pendingChangedAnnotationFiles.isEmpty()) {
+            startAnnotationReimportService();
+        }
+    }
+
+    private void onAnnotationReimportSucceeded(WorkerStateEvent workerStateEvent) {
+        final ImageAnnotationImportResult reimportResult = annotationReimportService.getValue();
+
+        if(reimportResult.getNrSuccessfullyProcessedItems() != 0 && model.containsImageFiles()) {
+            updateModelFromView();
+
+            // The re-imported annotations replace the existing annotations of their images.
+            final Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes = new HashMap<>();
+            boolean currentAnnotationReimported = false;
+
+            for(ImageAnnotation imageAnnotation : reimportResult.getImageAnnotationData().imageAnnotations()) {
+                final String imageFileName = imageAnnotation.getImageFileName();
+                final ImageAnnotation existingImageAnnotation =
+                        model.getImageFileNameToAnnotationMap().get(imageFileName);
+
+                if(existingImageAnnotation != null) {
+                    imageFileNameToReplacedShapes.put(imageFileName,
+                            List.copyOf(existingImageAnnotation.getBoundingShapeData()));
+                }
+
+                currentAnnotationReimported |= imageFileName.equals(model.getCurrentImageFileName());
+            }
+
+            model.updateFromImageAnnotationData(reimportResult.getImageAnnotationData(),
+                    reimportResult.getOperationType(), imageFileNameToReplacedShapes);
+
+            updateViewFileExplorerFileInfoElements();
+
+            if(currentAnnotationReimported) {
+                reloadCurrentAnnotationInView();
+            }
+        }
+
+        if(reimportResult.getNrSuccessfullyProcessedItems() != 0 || !reimportResult.getErrorTableEntries().isEmpty()) {
+            view.getStatusBar().setStatusEvent(new ImageAnnotationsReimportedEvent(reimportResult));
+        }
+
+        reimportPendingChangedAnnotationFiles();
     }
 
 
@@ -1074,12 +1651,32 @@ public class Controller {
         }
 
         setCurrentAnnotationSavingDirectory(annotationExportService.getDestination());
+        onAnnotationExportFinished(annotationExportService.getDestination());
 
         if(annotationExportService.getChainedOperation() != null) {
             annotationExportService.getChainedOperation().run();
         }
     }
 
+    private void onBackgroundAnnotationExportSucceeded(WorkerStateEvent event) {
+        final IOResult saveResult = backgroundAnnotationExportService.getValue();
+
+        if(saveResult.getNrSuccessfullyProcessedItems() != 0) {
+            view.getStatusBar().setStatusEvent(new ImageAnnotationsSavingSuccessfulEvent(saveResult));
+        }
+
+        if(!saveResult.getErrorTableEntries().isEmpty()) {
+            MainView.displayIOResultErrorInfoAlert(saveResult, stage);
+        } else {
+            // Changes made while the snapshot was written are not contained in the saved data.
+            model.setSavedIfUnmodifiedSince(backgroundSaveModificationCount);
+        }
+
+        setCurrentAnnotationSavingDirectory(backgroundAnnotationExportService.getDestination());
+        onAnnotationExportFinished(backgroundAnnotationExportService.getDestination());
+        runOperationsAfterBackgroundSave();
+    }
+
     private void updateViewFileExplorerFileInfoElements() {
         final Map<String, ImageAnnotation> fileNameToAnnotationMap = model.getImageFileNameToAnnotationMap();
 
@@ -1206,6 +1803,30 @@ public class Controller {
                             "*.csv",
                             "*.CSV"),
                     MainView.FileChooserType.SAVE);
+        } else if(saveFormat.equals(ImageAnnotationSaveStrategy.Type.COCO)) {
+            destination = MainView.displayFileChooserAndGetChoice(SAVE_IMAGE_ANNOTATIONS_FILE_CHOOSER_TITLE, stage,
+                    ioMetaData.getDefaultAnnotationSavingDirectory(),
+                    DEFAULT_COCO_EXPORT_FILENAME,
+                    new FileChooser.ExtensionFilter("JSON files",
+                            "*.json",
+                            "*.JSON"),
+                    MainView.FileChooserType.SAVE);
+        } else if(saveFormat.equals(ImageAnnotationSaveStrategy.Type.BINARY_PROJECT)) {
+            destination = MainView.displayFileChooserAndGetChoice(SAVE_IMAGE_ANNOTATIONS_FILE_CHOOSER_TITLE, stage,
+                    ioMetaData.getDefaultAnnotationSavingDirectory(),
+                    DEFAULT_BINARY_PROJECT_EXPORT_FILENAME,
+                    new FileChooser.ExtensionFilter("Binary project files",
+                            "*.bbep",
+                            "*.BBEP"),
+                    MainView.FileChooserType.SAVE);
+        } else if(saveFormat.equals(ImageAnnotationSaveStrategy.Type.JSON_LINES)) {
+            destination = MainView.displayFileChooserAndGetChoice(SAVE_IMAGE_ANNOTATIONS_FILE_CHOOSER_TITLE, stage,
+                    ioMetaData.getDefaultAnnotationSavingDirectory(),
+                    DEFAULT_JSON_LINES_EXPORT_FILENAME,
+                    new FileChooser.ExtensionFilter("JSON Lines files",
+                            "*.jsonl",
+                            "*.JSONL"),
+                    MainView.FileChooserType.SAVE);
         } else {
             destination =
                     MainView.displayDirectoryChooserAndGetChoice(SAVE_IMAGE_ANNOTATIONS_DIRECTORY_CHOOSER_TITLE, stage,
@@ -1229,15 +1850,128 @@ public class Controller {
                     new FileChooser.ExtensionFilter("CSV files", "*.csv",
                             "*.CSV"),
                     MainView.FileChooserType.OPEN);
+            case COCO -> MainView.displayFileChooserAndGetChoice(LOAD_IMAGE_ANNOTATIONS_FILE_CHOOSER_TITLE, stage,
+                    ioMetaData.getDefaultAnnotationLoadingDirectory(),
+                    DEFAULT_COCO_EXPORT_FILENAME,
+                    new FileChooser.ExtensionFilter("JSON files", "*.json",
+                            "*.JSON"),
+                    MainView.FileChooserType.OPEN);
+            case BINARY_PROJECT -> MainView.displayFileChooserAndGetChoice(LOAD_IMAGE_ANNOTATIONS_FILE_CHOOSER_TITLE,
+                    stage,
+                    ioMetaData.getDefaultAnnotationLoadingDirectory(),
+                    DEFAULT_BINARY_PROJECT_EXPORT_FILENAME,
+                    new FileChooser.ExtensionFilter("Binary project files", "*.bbep",
+                            "*.BBEP"),
+                    MainView.FileChooserType.OPEN);
+            case JSON_LINES -> MainView.displayFileChooserAndGetChoice(LOAD_IMAGE_ANNOTATIONS_FILE_CHOOSER_TITLE, stage,
+                    ioMetaData.getDefaultAnnotationLoadingDirectory(),
+                    DEFAULT_JSON_LINES_EXPORT_FILENAME,
+                    new FileChooser.ExtensionFilter("JSON Lines files", "*.jsonl",
+                            "*.JSONL"),
+                    MainView.FileChooserType.OPEN);
             default -> MainView.displayDirectoryChooserAndGetChoice(LOAD_IMAGE_ANNOTATIONS_DIRECTORY_CHOOSER_TITLE, stage,
                     ioMetaData.getDefaultAnnotationLoadingDirectory());
         };
     }
 
-    private void interruptDirectoryWatcher() {
+    private void interruptDirectoryWatchers() {
         if(directoryWatcher != null && directoryWatcher.isAlive()) {
             directoryWatcher.interrupt();
         }
+
+        interruptAnnotationDirectoryWatcher();
+    }
+
+    private void interruptAnnotationDirectoryWatcher() {
+        if(annotationDirectoryWatcher != null && annotationDirectoryWatcher.isAlive()) {
+            annotationDirectoryWatcher.interrupt();
+        }
+
+        pendingChangedAnnotationFiles.clear();
+    }
+
+    private void startAnnotationDirectoryWatcher(File source, ImageAnnotationLoadStrategy.Type importFormat) {
+        interruptAnnotationDirectoryWatcher();
+        exportedAnnotationFileTimes.clear();
+
+        annotationReimportService.setSource(source);
+        annotationReimportService.setImportFormat(importFormat);
+
+        annotationDirectoryWatcher = new Thread(new AnnotationFileChangeWatcher(source.toPath(),
+                changedAnnotationFiles -> onAnnotationFilesChanged(source, changedAnnotationFiles)),
+                ANNOTATION_FILE_CHANGE_WATCHER_THREAD_NAME);
+        annotationDirectoryWatcher.start();
+    }
+
+    private void markAnnotationExportStart() {
+        // The earliest start of overlapping exports is kept, as all of their files have to be recorded.
+        if(!isAnnotationExportRunning()) {
+            annotationExportStartTime =
+                    FileTime.fromMillis(System.currentTimeMillis() - FILE_MODIFICATION_TIME_PRECISION_MILLIS);
+        }
+    }
+
+    private boolean isAnnotationExportRunning() {
+        return annotationExportService.isRunning() || backgroundAnnotationExportService.isRunning();
+    }
+
+    private void onAnnotationExportFinished(File destination) {
+        recordExportedAnnotationFiles(destination);
+        reimportPendingChangedAnnotationFiles();
+    }
+
+    private void recordExportedAnnotationFiles(File destination) {
+        final File watchedSource = annotationReimportService.getSource();
+
+        if(destination == null || annotationExportStartTime == null || watchedSource == null
+                || annotationDirectoryWatcher == null || !annotationDirectoryWatcher.isAlive()) {
+            return;
+        }
+
+        final File watchedDirectory = watchedSource.isDirectory() ? watchedSource : watchedSource.getParentFile();
+        final File writtenDirectory = destination.isDirectory() ? destination : destination.getParentFile();
+
+        if(!watchedDirectory.equals(writtenDirectory)) {
+            return;
+        }
+
+        // Only files which were modified since the start of the export can have been written by it.
+        try(Stream<Path> paths = destination.isDirectory() ? Files.list(destination.toPath()) :
+                Stream.of(destination.toPath())) {
+            paths.filter(Files::isRegularFile).forEach(path -> {
+                final FileTime modificationTime = getLastModifiedTime(path);
+
+                if(modificationTime != null && modificationTime.compareTo(annotationExportStartTime) >= 0) {
+                    exportedAnnotationFileTimes.put(path.toAbsolutePath().normalize(), modificationTime);
+                }
+            });
+        } catch(IOException e) {
+            // Unrecorded files are re-imported as if they were changed externally.
+        }
+    }
+
+    private boolean isUnmodifiedExportedAnnotationFile(Path path) {
+        final Path normalizedPath = path.toAbsolutePath().normalize();
+        final FileTime exportedModificationTime = exportedAnnotationFileTimes.get(normalizedPath);
+
+        if(exportedModificationTime == null) {
+            return false;
+        }
+
+        if(exportedModificationTime.equals(getLastModifiedTime(path))) {
+            return true;
+        }
+
+        exportedAnnotationFileTimes.remove(normalizedPath);
+        return false;
+    }
+
+    private static FileTime getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch(IOException e) {
+            return null;
+        }
     }
 
     private void handleNavigateNextKeyPressed() {
@@ -1309,6 +2043,9 @@ public class Controller {
         });
 
         view.getStatusBar().savedStatusProperty().bind(model.savedProperty());
+        view.getStatusBar().backgroundSaveRunningProperty().bind(backgroundAnnotationExportService.runningProperty());
+        view.getStatusBar().backgroundSaveProgressProperty()
+                .bind(backgroundAnnotationExportService.progressProperty());
 
         view.getEditor().getEditorToolBar().getPredictButton()
                 .visibleProperty().bind(model.getBoundingBoxPredictorConfig().inferenceEnabledProperty());
@@ -1419,7 +2156,12 @@ public class Controller {
 
             updateStageTitle();
 
+            navigationDirection = newValue.intValue() >= oldValue.intValue() ? 1 : -1;
+
             if(navigateNextKeyPressed.get() ^ navigatePreviousKeyPressed.get()) {
+                // Images passed while a navigation key is held are not worth predicting.
+                speculativePredictionPrefetcher.cancelAll();
+
                 // If a navigation key is pressed, image loading is skipped (but the image file index is still updated).
                 // Once the navigation key is released the image corresponding to the file index at the point of the release
                 // will be loaded.
@@ -1434,10 +2176,37 @@ public class Controller {
             } else {
                 // Load the image corresponding to the current file index into the view-component.
                 updateViewImageFromModel();
+                updateSpeculativePredictions();
             }
         };
     }
 
+    private void updateSpeculativePredictions() {
+        final BoundingBoxPredictorConfig predictorConfig = model.getBoundingBoxPredictorConfig();
+
+        if(!predictorConfig.isInferenceEnabled() || !predictorConfig.isSpeculativePrediction() || client == null) {
+            speculativePredictionPrefetcher.cancelAll();
+            return;
+        }
+
+        final List<File> imageFiles = model.getImageFiles();
+        final List<File> upcomingImageFiles = new ArrayList<>();
+
+        for(int i = 1; i <= predictorConfig.getSpeculativePredictionLookahead(); ++i) {
+            final int fileIndex = model.getCurrentFileIndex() + navigationDirection * i;
+
+            if(fileIndex < 0 || fileIndex >= imageFiles.size()) {
+                break;
+            }
+
+            upcomingImageFiles.add(imageFiles.get(fileIndex));
+        }
+
+        // Prefetches of images outside the new window, e.g. after a jump to a different image, are cancelled.
+        speculativePredictionPrefetcher.prefetch(upcomingImageFiles, model.getImageFileNameToMetaDataMap(),
+                new BoundingBoxPredictor(getPredictorClient(), predictorConfig, model.getPredictionCache()));
+    }
+
     private ChangeListener<Boolean> createImageNavigationKeyPressedListener() {
         return new ChangeListener<>() {
             @Override
@@ -1445,6 +2214,7 @@ public class Controller {
                 if(!Boolean.TRUE.equals(newValue)) {
                     // Load the image corresponding to the current file index into the view-component.
                     updateViewImageFromModel();
+                    updateSpeculativePredictions();
                     observable.removeListener(this);
                 }
             }
@@ -1563,10 +2333,12 @@ public class Controller {
     }
 
     private void clearViewAndModel() {
-        interruptDirectoryWatcher();
+        interruptDirectoryWatchers();
 
         model.fileIndexProperty().removeListener(selectedFileIndexListener);
         model.clear();
+        pendingBatchPredictionImageFiles.clear();
+        speculativePredictionPrefetcher.cancelAll();
 
         view.reset();
 
@@ -19,7 +19,10 @@
 package com.github.mfl28.boundingboxeditor.model;
 
 import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.AnnotationMerger;
 import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictorConfig;
+import com.github.mfl28.boundingboxeditor.model.io.ImageFileChanges;
+import com.github.mfl28.boundingboxeditor.model.io.PredictionCache;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClientConfig;
 import com.github.mfl28.boundingboxeditor.model.io.results.IOResult;
 import javafx.beans.property.BooleanProperty;
@@ -83,10 +86,17 @@ public class Model {
     private final BooleanProperty nextImageFileExists = new SimpleBooleanProperty(false);
     private final BooleanProperty previousImageFileExists = new SimpleBooleanProperty(false);
     private final BooleanProperty saved = new SimpleBooleanProperty(true);
+    /**
+     * Counts the changes made to the annotation data. Used to decide if a snapshot of the
+     * annotation data, which was saved in the background, still reflects the current state.
+     */
+    private long modificationCount = 0;
 
     private final BoundingBoxPredictorClientConfig
             boundingBoxPredictorClientConfig = new BoundingBoxPredictorClientConfig();
     private final BoundingBoxPredictorConfig boundingBoxPredictorConfig = new BoundingBoxPredictorConfig();
+    private final PredictionCache predictionCache =
+            new PredictionCache(PredictionCache.DEFAULT_DIRECTORY, PredictionCache.DEFAULT_MAX_SIZE_IN_BYTES);
 
     /**
      * Maps the filenames of the currently loaded image-files onto the corresponding {@link File} objects. A
@@ -115,6 +125,32 @@ public class Model {
         return saved;
     }
 
+    /**
+     * Returns the number of changes made to the annotation data so far.
+     *
+     * @return the modification count
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Marks the annotation data as saved, provided that it was not changed since the
+     * provided modification count was obtained. Changes made in the meantime are
+     * not contained in the saved data and therefore keep the data in the unsaved state.
+     *
+     * @param snapshotModificationCount the modification count at the time the saved data was captured
+     * @return true if the data was marked as saved, false otherwise
+     */
+    public boolean setSavedIfUnmodifiedSince(long snapshotModificationCount) {
+        if(modificationCount != snapshotModificationCount) {
+            return false;
+        }
+
+        saved.set(true);
+        return true;
+    }
+
     /**
      * Returns a property representing the number of currently set image-files.
      *
@@ -163,15 +199,16 @@ public class Model {
 
         if(!boundingShapeData.isEmpty()) {
             if(!imageAnnotation.getBoundingShapeData().equals(boundingShapeData)) {
-                saved.set(false);
+                markModified();
             }
 
             imageAnnotation.setBoundingShapeData(boundingShapeData);
             imageFileNameToAnnotation.put(fileName, imageAnnotation);
         } else {
             if(imageFileNameToAnnotation.remove(fileName) != null && !imageFileNameToAnnotation.isEmpty()) {
-                saved.set(false);
+                markModified();
             } else if(imageFileNameToAnnotation.isEmpty()) {
+                modificationCount++;
                 saved.set(true);
             }
         }
@@ -197,7 +234,14 @@ public class Model {
         for(final ImageAnnotation annotation : imageAnnotations) {
             ImageAnnotation imageAnnotation = imageFileNameToAnnotation.get(annotation.getImageFileName());
             if(imageAnnotation == null) {
-                annotation.setImageMetaData(imageFileNameToMetaData.get(annotation.getImageFileName()));
+                final ImageMetaData imageMetaData = imageFileNameToMetaData.get(annotation.getImageFileName());
+
+                // Metadata that was stored with the annotations is kept if the image's metadata is not known yet.
+                if(imageMetaData != null || annotation.getImageMetaData() == null
+                        || !annotation.getImageMetaData().hasDetails()) {
+                    annotation.setImageMetaData(imageMetaData);
+                }
+
                 imageFileNameToAnnotation.put(annotation.getImageFileName(), annotation);
             } else {
                 imageAnnotation.getBoundingShapeData().addAll(annotation.getBoundingShapeData());
@@ -209,6 +253,8 @@ public class Model {
         }
 
         if(boundingShapesAdded) {
+            modificationCount++;
+
             if(operationType.equals(IOResult.OperationType.ANNOTATION_IMPORT)) {
                 saved.set(noCurrentAnnotations);
             } else if(operationType.equals(IOResult.OperationType.BOUNDING_BOX_PREDICTION)) {
@@ -217,6 +263,43 @@ public class Model {
         }
     }
 
+    private void removeReplacedBoundingShapeData(Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes) {
+        boolean boundingShapesRemoved = false;
+
+        for(Map.Entry<String, List<BoundingShapeData>> entry : imageFileNameToReplacedShapes.entrySet()) {
+            final ImageAnnotation imageAnnotation = imageFileNameToAnnotation.get(entry.getKey());
+
+            if(imageAnnotation == null) {
+                continue;
+            }
+
+            // Shapes are matched by value, as the model's shapes might have been recreated from the view
+            // since the snapshot was taken.
+            final Map<BoundingShapeData, Integer> shapeToRemainingRemovals = new HashMap<>();
+            entry.getValue().forEach(shape -> shapeToRemainingRemovals.merge(shape, 1, Integer::sum));
+
+            boundingShapesRemoved |= imageAnnotation.getBoundingShapeData().removeIf(shape -> {
+                if(shapeToRemainingRemovals.computeIfPresent(shape, (key, count) -> count - 1) == null) {
+                    return false;
+                }
+
+                shapeToRemainingRemovals.remove(shape, 0);
+                decrementBoundingShapeCounts(shape);
+                return true;
+            });
+        }
+
+        if(boundingShapesRemoved) {
+            markModified();
+        }
+    }
+
+    private void decrementBoundingShapeCounts(BoundingShapeData boundingShapeData) {
+        categoryToAssignedBoundingShapesCount.computeIfPresent(boundingShapeData.getCategoryName(),
+                (key, count) -> count - 1);
+        boundingShapeData.getParts().forEach(this::decrementBoundingShapeCounts);
+    }
+
     public ImageMetaData getCurrentImageMetaData() {
         return imageFileNameToMetaData.computeIfAbsent(getCurrentImageFileName(),
                 key -> {
@@ -232,9 +315,10 @@ public class Model {
                     ImageAnnotation currentImageAnnotation =
                             getCurrentImageAnnotation();
 
+                    // Stored metadata does not contain the location of the image-file.
                     if(currentImageAnnotation != null &&
-                            !currentImageAnnotation.getImageMetaData()
-                                    .hasDetails()) {
+                            (!currentImageAnnotation.getImageMetaData().hasDetails()
+                                    || currentImageAnnotation.getImageMetaData().getFileUrl() == null)) {
                         currentImageAnnotation.setImageMetaData(newMetaData);
                     }
 
@@ -296,6 +380,10 @@ public class Model {
         return boundingBoxPredictorConfig;
     }
 
+    public PredictionCache getPredictionCache() {
+        return predictionCache;
+    }
+
     /**
      * Returns the currently existing image-annotation data.
      *
@@ -306,6 +394,55 @@ public class Model {
                 getCategoryNameToCategoryMap());
     }
 
+    /**
+     * Returns a snapshot of the currently existing image-annotation data which is not affected
+     * by subsequent changes to the model. Only the annotation objects and containers are copied,
+     * the {@link BoundingShapeData} elements are shared: they are never modified once they were added
+     * to the model, as the view creates new shape data objects with their own tag and part lists
+     * whenever the model is updated. This makes the snapshot cheap enough to be taken on the UI-thread.
+     *
+     * @return the image-annotation data snapshot
+     */
+    public ImageAnnotationData createImageAnnotationDataSnapshot() {
+        final List<ImageAnnotation> imageAnnotationsSnapshot = imageFileNameToAnnotation.values().stream()
+                .map(imageAnnotation -> new ImageAnnotation(imageAnnotation.getImageMetaData(),
+                        new ArrayList<>(imageAnnotation.getBoundingShapeData())))
+                .toList();
+
+        return new ImageAnnotationData(imageAnnotationsSnapshot,
+                new HashMap<>(categoryToAssignedBoundingShapesCount),
+                getCategoryNameToCategoryMap());
+    }
+
+    /**
+     * Returns a snapshot of the top-level bounding-shape data of all annotated images. Only the lists are
+     * copied, so that the snapshot can be taken on the UI-thread and used to merge predicted or imported
+     * annotations in the background (see {@link AnnotationMerger}).
+     *
+     * @return the bounding-shape data per image file name
+     */
+    public Map<String, List<BoundingShapeData>> createImageFileNameToBoundingShapeDataSnapshot() {
+        final Map<String, List<BoundingShapeData>> snapshot = new HashMap<>();
+        imageFileNameToAnnotation.forEach((fileName, imageAnnotation) ->
+                snapshot.put(fileName, List.copyOf(imageAnnotation.getBoundingShapeData())));
+        return snapshot;
+    }
+
+    /**
+     * Updates the model data from an {@link ImageAnnotationData} object after removing the existing
+     * bounding-shapes which are replaced by the new data (see {@link AnnotationMerger}).
+     *
+     * @param imageAnnotationData           the image-annotation data
+     * @param operationType                 the type of the operation which produced the data
+     * @param imageFileNameToReplacedShapes the replaced bounding-shapes per image file name
+     */
+    public void updateFromImageAnnotationData(ImageAnnotationData imageAnnotationData,
+                                              IOResult.OperationType operationType,
+                                              Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes) {
+        removeReplacedBoundingShapeData(imageFileNameToReplacedShapes);
+        updateFromImageAnnotationData(imageAnnotationData, operationType);
+    }
+
     /**
      * Updates the model data from an {@link ImageAnnotationData} object.
      *
@@ -464,6 +601,78 @@ public class Model {
         fileIndex.set(0);
     }
 
+    /**
+     * Applies external changes of the currently set image-files, keeping the annotations of unchanged and
+     * modified image-files. Annotations of removed image-files are removed. Added image-files are inserted
+     * according to their names, the image-files are expected to be sorted by name. The file-index is updated
+     * to keep the current image-file or, if it was removed, to point to the image-file now at its position.
+     * At least one image-file must remain.
+     *
+     * @param imageFileChanges the changes
+     * @return true if the current image-file was removed or modified, false otherwise
+     */
+    public boolean updateImageFiles(ImageFileChanges imageFileChanges) {
+        final String currentImageFileName = getCurrentImageFileName();
+        final Set<String> removedFileNames = imageFileChanges.removedFileNames();
+
+        for(String removedFileName : removedFileNames) {
+            final ImageAnnotation imageAnnotation = imageFileNameToAnnotation.remove(removedFileName);
+
+            if(imageAnnotation != null && !imageAnnotation.getBoundingShapeData().isEmpty()) {
+                imageAnnotation.getBoundingShapeData().forEach(this::decrementBoundingShapeCounts);
+                markModified();
+            }
+
+            imageFileNameToMetaData.remove(removedFileName);
+        }
+
+        imageFileNameToMetaData.putAll(imageFileChanges.fileNameToMetaData());
+
+        for(File modifiedFile : imageFileChanges.modifiedFiles()) {
+            final ImageAnnotation imageAnnotation = imageFileNameToAnnotation.get(modifiedFile.getName());
+
+            if(imageAnnotation != null) {
+                imageAnnotation.setImageMetaData(imageFileNameToMetaData.get(modifiedFile.getName()));
+            }
+        }
+
+        final List<File> existingFiles = imageFileNameToFile.valueList();
+        final List<File> addedFiles = imageFileChanges.addedFiles();
+        final LinkedHashMap<String, File> updatedImageFileNameToFile = new LinkedHashMap<>();
+        int addedFileIndex = 0;
+
+        // Merges the sorted lists of remaining and added files in linear time.
+        for(File existingFile : existingFiles) {
+            if(removedFileNames.contains(existingFile.getName())) {
+                continue;
+            }
+
+            while(addedFileIndex < addedFiles.size()
+                    && addedFiles.get(addedFileIndex).getName().compareTo(existingFile.getName()) < 0) {
+                final File addedFile = addedFiles.get(addedFileIndex++);
+                updatedImageFileNameToFile.put(addedFile.getName(), addedFile);
+            }
+
+            updatedImageFileNameToFile.put(existingFile.getName(), existingFile);
+        }
+
+        addedFiles.subList(addedFileIndex, addedFiles.size())
+                  .forEach(addedFile -> updatedImageFileNameToFile.put(addedFile.getName(), addedFile));
+
+        final int currentFileIndex = fileIndex.get();
+        imageFileNameToFile = ListOrderedMap.listOrderedMap(updatedImageFileNameToFile);
+        nrImageFiles.set(imageFileNameToFile.size());
+
+        if(imageFileNameToFile.containsKey(currentImageFileName)) {
+            fileIndex.set(imageFileNameToFile.indexOf(currentImageFileName));
+            return imageFileChanges.modifiedFiles().stream()
+                                   .anyMatch(file -> file.getName().equals(currentImageFileName));
+        }
+
+        fileIndex.set(Math.min(currentFileIndex, imageFileNameToFile.size() - 1));
+        return true;
+    }
+
     /**
      * Increments the file-index by 1.
      */
@@ -490,9 +699,15 @@ public class Model {
 
         categoryToAssignedBoundingShapesCount.clear();
 
+        modificationCount++;
         saved.set(true);
     }
 
+    private void markModified() {
+        modificationCount++;
+        saved.set(false);
+    }
+
     public Map<String, ObjectCategory> getCategoryNameToCategoryMap() {
         return objectCategories.stream()
                 .collect(Collectors.toMap(ObjectCategory::getName, Function.identity()));
@@ -31,6 +31,8 @@ public abstract class BoundingShapeData {
     private final ObjectCategory category;
     private final List<String> tags;
     private List<BoundingShapeData> parts = Collections.emptyList();
+    // Not exported, only kept while the annotations are edited.
+    private transient Double score;
 
     protected BoundingShapeData(ObjectCategory category, List<String> tags) {
         this.category = category;
@@ -84,6 +86,24 @@ public abstract class BoundingShapeData {
         this.parts = parts;
     }
 
+    /**
+     * Returns the confidence score of a predicted bounding-shape.
+     *
+     * @return the score or null if the bounding-shape was not predicted
+     */
+    public Double getScore() {
+        return score;
+    }
+
+    /**
+     * Sets the confidence score of a predicted bounding-shape.
+     *
+     * @param score the score
+     */
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
     public abstract <T> T accept(BoundingShapeDataVisitor<T> visitor);
 
     @Override
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the number of concurrent prediction requests using additive-increase/multiplicative-decrease (AIMD).
+ * The limit starts low and grows by one per successful request (slow start) until the first overload signal,
+ * after that by one per round of {@code limit} successful requests. A request which the server rejected as
+ * overloaded (see {@link RequestOutcome#OVERLOADED}) or a successful request whose latency exceeds the baseline
+ * latency by more than the latency tolerance (i.e. the request was queued on the server) is an overload signal
+ * and shrinks the limit by {@link #DECREASE_FACTOR}. Only one decrease happens per round, requests started before
+ * the last decrease do not shrink the limit again. Other failures (e.g. invalid images) neither shrink nor grow
+ * the limit. The baseline latency is the lowest latency of the current and the previous window of
+ * {@link #MIN_LATENCY_WINDOW_SIZE} successful requests, so that it is re-learned if the server's unloaded latency
+ * changes, but never reset to a single sample.
+ */
+public class AdaptiveConcurrencyLimiter {
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    private static final double DECREASE_FACTOR = 0.75;
+    private static final int MIN_LIMIT = 1;
+    private static final int MIN_LATENCY_WINDOW_SIZE = 500;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final LongSupplier nanoClock;
+    private double limit;
+    private boolean slowStart = true;
+    private int nrInFlightRequests = 0;
+    private int nrWaitingRequests = 0;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private long previousWindowMinLatencyNanos = Long.MAX_VALUE;
+    private int nrSamplesInWindow = 0;
+    private long lastDecreaseTime;
+
+    /**
+     * Creates a new limiter starting with a single concurrent request.
+     *
+     * @param maxLimit the upper bound of the limit
+     */
+    public AdaptiveConcurrencyLimiter(int maxLimit) {
+        this(MIN_LIMIT, maxLimit, DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param initialLimit     the initial limit
+     * @param maxLimit         the upper bound of the limit
+     * @param latencyTolerance the factor by which a request's latency may exceed the lowest observed latency
+     *                         before it is considered an overload signal
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int maxLimit, double latencyTolerance) {
+        this(initialLimit, maxLimit, latencyTolerance, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int maxLimit, double latencyTolerance, LongSupplier nanoClock) {
+        if(maxLimit < MIN_LIMIT) {
+            throw new IllegalArgumentException("Maximum limit must be positive.");
+        }
+
+        if(initialLimit < MIN_LIMIT || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Initial limit must be positive and not exceed the maximum limit.");
+        }
+
+        if(latencyTolerance <= 1.0) {
+            throw new IllegalArgumentException("Latency tolerance must be greater than one.");
+        }
+
+        this.limit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.nanoClock = nanoClock;
+        this.lastDecreaseTime = nanoClock.getAsLong();
+    }
+
+    /**
+     * Waits until a request may be sent.
+     *
+     * @return the start time of the request which must be passed to {@link #release(long, RequestOutcome)}
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     */
+    public synchronized long acquire() throws InterruptedException {
+        ++nrWaitingRequests;
+
+        try {
+            while(nrInFlightRequests >= getLimit()) {
+                wait();
+            }
+        } finally {
+            --nrWaitingRequests;
+        }
+
+        ++nrInFlightRequests;
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * Signals that a request acquired by {@link #acquire()} has finished and adapts the limit.
+     *
+     * @param startTime the start time returned by {@link #acquire()}
+     * @param outcome   the outcome of the request
+     */
+    public synchronized void release(long startTime, RequestOutcome outcome) {
+        final long now = nanoClock.getAsLong();
+        final long latencyNanos = now - startTime;
+        final boolean limitWasReached = nrInFlightRequests >= getLimit();
+
+        --nrInFlightRequests;
+
+        if(outcome == RequestOutcome.SUCCEEDED) {
+            addLatencySample(latencyNanos);
+        }
+
+        // Other failures say nothing about the server's load and leave the limit unchanged.
+        final boolean overloaded = outcome == RequestOutcome.OVERLOADED || (outcome == RequestOutcome.SUCCEEDED
+                && latencyNanos > latencyTolerance * getBaselineLatencyNanos());
+
+        if(overloaded) {
+            // Requests started before the last decrease saw the old limit and are not taken into account again.
+            if(startTime - lastDecreaseTime >= 0) {
+                limit = Math.max(MIN_LIMIT, limit * DECREASE_FACTOR);
+                slowStart = false;
+                lastDecreaseTime = now;
+            }
+        } else if(outcome == RequestOutcome.SUCCEEDED && limitWasReached) {
+            // The limit is only raised if it was actually exhausted.
+            limit = Math.min(maxLimit, limit + (slowStart ? 1.0 : 1.0 / limit));
+        }
+
+        notifyAll();
+    }
+
+    private void addLatencySample(long latencyNanos) {
+        minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+
+        if(++nrSamplesInWindow >= MIN_LATENCY_WINDOW_SIZE) {
+            previousWindowMinLatencyNanos = minLatencyNanos;
+            minLatencyNanos = Long.MAX_VALUE;
+            nrSamplesInWindow = 0;
+        }
+    }
+
+    private long getBaselineLatencyNanos() {
+        return Math.min(minLatencyNanos, previousWindowMinLatencyNanos);
+    }
+
+    /**
+     * Returns the current limit of concurrent requests.
+     *
+     * @return the limit
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized int getNrInFlightRequests() {
+        return nrInFlightRequests;
+    }
+
+    /**
+     * Returns the number of requests waiting for the limit.
+     *
+     * @return the number of waiting requests
+     */
+    public synchronized int getQueueDepth() {
+        return nrWaitingRequests;
+    }
+
+    /**
+     * The outcome of a request.
+     */
+    public enum RequestOutcome {
+        /**
+         * The request succeeded, its latency is taken into account.
+         */
+        SUCCEEDED,
+        /**
+         * The request failed for a reason unrelated to the server's load.
+         */
+        FAILED,
+        /**
+         * The request timed out or the server rejected it as overloaded (HTTP status 429 or 503).
+         */
+        OVERLOADED
+    }
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import javafx.beans.property.DoubleProperty;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.CloseShieldInputStream;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads annotation files directly from ZIP- and (optionally gzip-compressed) TAR-archives without
+ * extracting them to disk. Entries are decompressed sequentially by the calling thread while the contents
+ * of already decompressed entries are parsed by a pool of worker threads, so that decompression and parsing
+ * overlap. Entries are matched by their file name regardless of the folder they are contained in, both slashes
+ * and backslashes (used by some archivers on Windows) are treated as folder separators.
+ */
+final class AnnotationArchiveReader {
+    private static final String ZIP_EXTENSION = ".zip";
+    private static final String TAR_EXTENSION = ".tar";
+    private static final List<String> GZIPPED_TAR_EXTENSIONS = List.of(".tar.gz", ".tgz");
+    private static final String MAC_OS_METADATA_FOLDER_NAME = "__MACOSX";
+    private static final String MAC_OS_RESOURCE_FORK_PREFIX = "._";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PENDING_ENTRIES_PER_WORKER = 4;
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final int MAX_TAR_HEADER_DATA_SIZE = 1024 * 1024;
+    private static final String PAX_PATH_KEY = "path=";
+
+    private AnnotationArchiveReader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Checks if a path denotes a supported archive file.
+     *
+     * @param path the path to check
+     * @return true if the path is a regular file with a ZIP- or TAR-archive extension, false otherwise
+     */
+    static boolean isArchive(Path path) {
+        if(path.getFileName() == null || !Files.isRegularFile(path)) {
+            return false;
+        }
+
+        final String fileName = path.getFileName().toString().toLowerCase(Locale.ENGLISH);
+
+        return fileName.endsWith(ZIP_EXTENSION) || fileName.endsWith(TAR_EXTENSION)
+                || GZIPPED_TAR_EXTENSIONS.stream().anyMatch(fileName::endsWith);
+    }
+
+    /**
+     * Reads all entries of an archive whose file names are accepted by a filter and passes
+     * their contents to a handler. The handler is called concurrently from several worker threads
+     * and must therefore be thread-safe. If a handler throws, no further entries are read, handlers which have
+     * not started yet are cancelled and the exception is rethrown. No handler is running anymore when this
+     * method returns or throws.
+     * The provided progress is updated with the fraction of compressed archive bytes read so far.
+     *
+     * @param archivePath    the path of the archive
+     * @param fileNameFilter the filter deciding which entries (by file name) are read
+     * @param entryHandler   the handler receiving the file name and the content of each read entry
+     * @param progress       the progress property
+     * @throws IOException if the archive could not be read
+     */
+    static void readEntries(Path archivePath, Predicate<String> fileNameFilter,
+                            BiConsumer<String, byte[]> entryHandler, DoubleProperty progress) throws IOException {
+        final double archiveSize = Math.max(Files.size(archivePath), 1);
+        final int nrWorkers = Runtime.getRuntime().availableProcessors();
+        // Bounds the number of decompressed entries kept in memory while waiting to be parsed.
+        final Semaphore pendingEntries = new Semaphore(nrWorkers * MAX_PENDING_ENTRIES_PER_WORKER);
+        final ExecutorService executorService = Executors.newFixedThreadPool(nrWorkers);
+        final List<Future<?>> parseTasks = new ArrayList<>();
+        final AtomicReference<Throwable> handlerFailure = new AtomicReference<>();
+
+        try(BoundedInputStream countingInputStream = BoundedInputStream.builder()
+                .setInputStream(Files.newInputStream(archivePath))
+                .get();
+            EntryIterator entryIterator = openEntryIterator(archivePath, countingInputStream)) {
+            String entryName;
+
+            while(handlerFailure.get() == null && (entryName = nextEntryName(entryIterator)) != null) {
+                final String fileName = getFileName(entryName);
+
+                if(isIgnoredEntry(entryName, fileName) || !fileNameFilter.test(fileName)) {
+                    continue;
+                }
+
+                final byte[] content = entryIterator.entryInputStream().readAllBytes();
+
+                pendingEntries.acquire();
+                parseTasks.add(executorService.submit(() -> {
+                    try {
+                        entryHandler.accept(fileName, content);
+                    } catch(RuntimeException | Error e) {
+                        handlerFailure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        pendingEntries.release();
+                    }
+                }));
+
+                progress.set(countingInputStream.getCount() / archiveSize);
+            }
+
+            // A failed handler fails the whole read, waiting handlers are cancelled when the executor is shut down.
+            rethrowHandlerFailure(handlerFailure.get());
+            awaitCompletion(parseTasks);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reading of archive was interrupted.");
+        } finally {
+            shutdownAndAwaitTermination(executorService, parseTasks);
+        }
+    }
+
+    /**
+     * Opens the first entry of an archive whose file name is accepted by a filter for streaming.
+     * Closing the returned stream closes the archive.
+     *
+     * @param archivePath    the path of the archive
+     * @param fileNameFilter the filter deciding which entry (by file name) is opened
+     * @return the stream of the entry's content
+     * @throws IOException if the archive could not be read or does not contain a matching entry
+     */
+    static ArchiveEntryInputStream openFirstEntry(Path archivePath, Predicate<String> fileNameFilter)
+            throws IOException {
+        final EntryIterator entryIterator = openEntryIterator(archivePath, Files.newInputStream(archivePath));
+
+        try {
+            String entryName;
+
+            while((entryName = nextEntryName(entryIterator)) != null) {
+                final String fileName = getFileName(entryName);
+
+                if(!isIgnoredEntry(entryName, fileName) && fileNameFilter.test(fileName)) {
+                    return new ArchiveEntryInputStream(fileName, entryIterator);
+                }
+            }
+        } catch(IOException | RuntimeException e) {
+            entryIterator.close();
+            throw e;
+        }
+
+        entryIterator.close();
+        throw new NoSuchFileException(archivePath.toString(), null, "Archive does not contain a matching file.");
+    }
+
+    private static EntryIterator openEntryIterator(Path archivePath, InputStream archiveInputStream)
+            throws IOException {
+        final String fileName = archivePath.getFileName().toString().toLowerCase(Locale.ENGLISH);
+        final InputStream bufferedInputStream = new BufferedInputStream(archiveInputStream, BUFFER_SIZE);
+
+        try {
+            if(fileName.endsWith(ZIP_EXTENSION)) {
+                return new ZipEntryIterator(new ZipInputStream(bufferedInputStream, StandardCharsets.UTF_8));
+            } else if(fileName.endsWith(TAR_EXTENSION)) {
+                return new TarEntryIterator(bufferedInputStream);
+            } else {
+                return new TarEntryIterator(new GZIPInputStream(bufferedInputStream, BUFFER_SIZE));
+            }
+        } catch(IOException e) {
+            bufferedInputStream.close();
+            throw e;
+        }
+    }
+
+    private static void awaitCompletion(List<Future<?>> tasks) throws IOException, InterruptedException {
+        for(Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch(ExecutionException e) {
+                if(e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                } else if(e.getCause() instanceof Error error) {
+                    throw error;
+                }
+
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    private static void rethrowHandlerFailure(Throwable failure) {
+        if(failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if(failure instanceof Error error) {
+            throw error;
+        }
+    }
+
+    /**
+     * Cancels all parse tasks which have not yet completed and waits until the running ones
+     * have finished, so that no handler modifies the caller's results after reading has ended.
+     *
+     * @param executorService the executor running the tasks
+     * @param tasks           the tasks
+     */
+    private static void shutdownAndAwaitTermination(ExecutorService executorService, List<Future<?>> tasks) {
+        tasks.forEach(task -> task.cancel(true));
+        executorService.shutdownNow();
+
+        boolean interrupted = Thread.interrupted();
+
+        while(!executorService.isTerminated()) {
+            try {
+                executorService.awaitTermination(1, TimeUnit.SECONDS);
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String nextEntryName(EntryIterator entryIterator) throws IOException {
+        final String entryName = entryIterator.nextEntry();
+        return entryName != null ? entryName.replace('\\', '/') : null;
+    }
+
+    private static String getFileName(String entryName) {
+        return entryName.substring(entryName.lastIndexOf('/') + 1);
+    }
+
+    private static boolean isIgnoredEntry(String entryName, String fileName) {
+        return fileName.isEmpty() || fileName.startsWith(MAC_OS_RESOURCE_FORK_PREFIX)
+                || entryName.startsWith(MAC_OS_METADATA_FOLDER_NAME + "/")
+                || entryName.contains("/" + MAC_OS_METADATA_FOLDER_NAME + "/");
+    }
+
+    /**
+     * Iterates over the regular file entries of an archive.
+     */
+    private interface EntryIterator extends Closeable {
+        /**
+         * Advances to the next regular file entry, skipping any unread content of the current entry.
+         *
+         * @return the name of the entry including its folders, or null if there are no more entries
+         * @throws IOException if the archive could not be read
+         */
+        String nextEntry() throws IOException;
+
+        /**
+         * Returns a stream of the current entry's content. Closing the stream does not close the archive.
+         *
+         * @return the stream
+         */
+        InputStream entryInputStream();
+    }
+
+    /**
+     * A stream of the content of a single archive entry which closes the archive when closed.
+     */
+    static final class ArchiveEntryInputStream extends FilterInputStream {
+        private final String fileName;
+        private final Closeable archive;
+
+        private ArchiveEntryInputStream(String fileName, EntryIterator entryIterator) {
+            super(entryIterator.entryInputStream());
+            this.fileName = fileName;
+            this.archive = entryIterator;
+        }
+
+        /**
+         * Returns the file name of the entry.
+         *
+         * @return the file name
+         */
+        String getFileName() {
+            return fileName;
+        }
+
+        @Override
+        public void close() throws IOException {
+            archive.close();
+        }
+    }
+
+    private static final class ZipEntryIterator implements EntryIterator {
+        private final ZipInputStream zipInputStream;
+
+        ZipEntryIterator(ZipInputStream zipInputStream) {
+            this.zipInputStream = zipInputStream;
+        }
+
+        @Override
+        public String nextEntry() throws IOException {
+            ZipEntry entry;
+
+            while((entry = zipInputStream.getNextEntry()) != null) {
+                if(!entry.isDirectory()) {
+                    return entry.getName();
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public InputStream entryInputStream() {
+            return CloseShieldInputStream.wrap(zipInputStream);
+        }
+
+        @Override
+        public void close() throws IOException {
+            zipInputStream.close();
+        }
+    }
+
+    /**
+     * Minimal reader for ustar-, GNU- and pax-TAR-archives supporting long file names.
+     */
+    private static final class TarEntryIterator implements EntryIterator {
+        private static final int NAME_OFFSET = 0;
+        private static final int NAME_LENGTH = 100;
+        private static final int SIZE_OFFSET = 124;
+        private static final int SIZE_LENGTH = 12;
+        private static final int TYPE_OFFSET = 156;
+        private static final int MAGIC_OFFSET = 257;
+        private static final int PREFIX_OFFSET = 345;
+        private static final int PREFIX_LENGTH = 155;
+        private static final byte[] USTAR_MAGIC = "ustar".getBytes(StandardCharsets.US_ASCII);
+
+        private final InputStream inputStream;
+        private final byte[] header = new byte[TAR_BLOCK_SIZE];
+        private InputStream currentEntryInputStream;
+        private long currentEntryPadding;
+
+        TarEntryIterator(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public String nextEntry() throws IOException {
+            if(currentEntryInputStream != null) {
+                IOUtils.consume(currentEntryInputStream);
+                IOUtils.skipFully(inputStream, currentEntryPadding);
+                currentEntryInputStream = null;
+            }
+
+            String longName = null;
+
+            while(true) {
+                final int nrReadBytes = IOUtils.read(inputStream, header);
+
+                if(nrReadBytes == 0) {
+                    return null;
+                } else if(nrReadBytes < TAR_BLOCK_SIZE) {
+                    throw new EOFException("Truncated tar archive.");
+                } else if(isZeroBlock()) {
+                    return null;
+                }
+
+                final long size = parseSize();
+                final byte type = header[TYPE_OFFSET];
+
+                if(type == 'L') {
+                    final byte[] data = readHeaderData(size);
+                    longName = parseString(data, 0, data.length);
+                    continue;
+                } else if(type == 'x') {
+                    longName = parsePaxPath(readHeaderData(size), longName);
+                    continue;
+                }
+
+                final String name = longName != null ? longName : parseName();
+                longName = null;
+
+                if(type == '0' || type == 0 || type == '7') {
+                    currentEntryInputStream = BoundedInputStream.builder()
+                            .setInputStream(inputStream)
+                            .setMaxCount(size)
+                            .setPropagateClose(false)
+                            .get();
+                    currentEntryPadding = getPadding(size);
+                    return name;
+                }
+
+                IOUtils.skipFully(inputStream, size + getPadding(size));
+            }
+        }
+
+        @Override
+        public InputStream entryInputStream() {
+            return currentEntryInputStream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+
+        private boolean isZeroBlock() {
+            for(byte value : header) {
+                if(value != 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private long parseSize() throws IOException {
+            if((header[SIZE_OFFSET] & 0x80) != 0) {
+                // Base-256 encoding used for entries larger than 8 GiB.
+                long size = header[SIZE_OFFSET] & 0x7f;
+
+                for(int i = SIZE_OFFSET + 1; i < SIZE_OFFSET + SIZE_LENGTH; ++i) {
+                    size = (size << 8) | (header[i] & 0xff);
+                }
+
+                return size;
+            }
+
+            long size = 0;
+            boolean foundDigit = false;
+
+            for(int i = SIZE_OFFSET; i < SIZE_OFFSET + SIZE_LENGTH; ++i) {
+                final byte value = header[i];
+
+                if(value == 0 || value == ' ') {
+                    if(foundDigit) {
+                        break;
+                    }
+
+                    continue;
+                }
+
+                if(value < '0' || value > '7') {
+                    throw new IOException("Invalid tar entry size.");
+                }
+
+                size = size * 8 + (value - '0');
+                foundDigit = true;
+            }
+
+            return size;
+        }
+
+        private String parseName() {
+            final String name = parseString(header, NAME_OFFSET, NAME_LENGTH);
+
+            if(hasUstarMagic()) {
+                final String prefix = parseString(header, PREFIX_OFFSET, PREFIX_LENGTH);
+
+                if(!prefix.isEmpty()) {
+                    return prefix + "/" + name;
+                }
+            }
+
+            return name;
+        }
+
+        private boolean hasUstarMagic() {
+            for(int i = 0; i != USTAR_MAGIC.length; ++i) {
+                if(header[MAGIC_OFFSET + i] != USTAR_MAGIC[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private byte[] readHeaderData(long size) throws IOException {
+            if(size > MAX_TAR_HEADER_DATA_SIZE) {
+                throw new IOException("Invalid tar extended header.");
+            }
+
+            final byte[] data = new byte[(int) size];
+            IOUtils.readFully(inputStream, data);
+            IOUtils.skipFully(inputStream, getPadding(size));
+
+            return data;
+        }
+
+        private static String parsePaxPath(byte[] data, String defaultPath) throws IOException {
+            // Pax records have the form "<length> <key>=<value>\n", where length is given in bytes.
+            String path = defaultPath;
+            int position = 0;
+
+            while(position < data.length) {
+                int spaceIndex = position;
+
+                while(spaceIndex < data.length && data[spaceIndex] != ' ') {
+                    ++spaceIndex;
+                }
+
+                if(spaceIndex == data.length) {
+                    break;
+                }
+
+                final int recordLength;
+
+                try {
+                    recordLength = Integer.parseInt(
+                            new String(data, position, spaceIndex - position, StandardCharsets.US_ASCII));
+                } catch(NumberFormatException e) {
+                    throw new IOException("Invalid tar extended header.", e);
+                }
+
+                if(recordLength < spaceIndex - position + 2 || position + recordLength > data.length) {
+                    throw new IOException("Invalid tar extended header.");
+                }
+
+                final String record = new String(data, spaceIndex + 1,
+                        position + recordLength - spaceIndex - 2, StandardCharsets.UTF_8);
+
+                if(record.startsWith(PAX_PATH_KEY)) {
+                    path = record.substring(PAX_PATH_KEY.length());
+                }
+
+                position += recordLength;
+            }
+
+            return path;
+        }
+
+        private static String parseString(byte[] data, int offset, int length) {
+            int end = offset;
+
+            while(end < offset + length && data[end] != 0) {
+                ++end;
+            }
+
+            return new String(data, offset, end - offset, StandardCharsets.UTF_8);
+        }
+
+        private static long getPadding(long size) {
+            return (TAR_BLOCK_SIZE - (size % TAR_BLOCK_SIZE)) % TAR_BLOCK_SIZE;
+        }
+    }
+}
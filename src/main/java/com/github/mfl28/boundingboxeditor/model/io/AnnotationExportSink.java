@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.function.IOConsumer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The destination of the files written by an export, which is either a folder
+ * (see {@link ExportTransaction}) or a ZIP-archive (see {@link ZipExportArchive}). Written files only become
+ * visible at the destination when the sink is committed, closing a sink without committing it discards all
+ * written files. Files can be written concurrently from several threads.
+ */
+interface AnnotationExportSink extends Closeable {
+    String ZIP_ARCHIVE_EXTENSION = ".zip";
+
+    /**
+     * Opens the sink for a destination path. Paths of non-folders with the ".zip"-extension are
+     * treated as archives, all other paths as folders.
+     *
+     * @param destination the destination path
+     * @return the sink
+     * @throws IOException if the sink could not be opened
+     */
+    static AnnotationExportSink open(Path destination) throws IOException {
+        return isArchive(destination) ? ZipExportArchive.create(destination) : ExportTransaction.begin(destination);
+    }
+
+    /**
+     * Checks if a destination path denotes a ZIP-archive.
+     *
+     * @param destination the destination path
+     * @return true if the path has the ".zip"-extension and is not a folder, false otherwise
+     */
+    static boolean isArchive(Path destination) {
+        return destination.getFileName() != null
+                && destination.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(ZIP_ARCHIVE_EXTENSION)
+                && !Files.isDirectory(destination);
+    }
+
+    /**
+     * Writes the single file of an export which produces exactly one file. If the destination
+     * denotes a ZIP-archive, the file is streamed into the archive as its only entry, named like the archive
+     * but with the provided file extension. Otherwise, the destination file is replaced atomically.
+     *
+     * @param destination   the destination path
+     * @param fileExtension the extension of the file (including the dot), used to name an archive entry
+     * @param contentWriter the writer writing the content of the file
+     * @throws IOException if the file could not be written
+     */
+    static void writeSingleFile(Path destination, String fileExtension, IOConsumer<OutputStream> contentWriter)
+            throws IOException {
+        if(!isArchive(destination)) {
+            ExportTransaction.writeAtomically(destination, contentWriter);
+            return;
+        }
+
+        try(ZipExportArchive archive = ZipExportArchive.create(destination)) {
+            archive.writeStreamed(FilenameUtils.getBaseName(destination.getFileName().toString()) + fileExtension,
+                    contentWriter);
+            archive.commit();
+        }
+    }
+
+    /**
+     * Writes a file. Closing the stream provided to the content writer has no effect.
+     * If the writer throws an exception, the file is discarded.
+     *
+     * @param fileName      the name of the file (relative to the destination)
+     * @param contentWriter the writer writing the content of the file to the provided stream
+     * @throws IOException if the file could not be written
+     */
+    void write(String fileName, IOConsumer<OutputStream> contentWriter) throws IOException;
+
+    /**
+     * Makes all written files visible at the destination.
+     *
+     * @throws IOException if the files could not be committed
+     */
+    void commit() throws IOException;
+}
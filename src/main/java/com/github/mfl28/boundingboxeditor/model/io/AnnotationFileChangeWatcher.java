@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Watches the source of the last image-annotation import and reports the existing annotation files which were
+ * changed externally, so that they can be re-imported incrementally. If the source is a single file (e.g. a
+ * JSON-file or an archive), its parent directory is watched and only changes of the file itself are reported.
+ * Removed annotation files are not reported, as their annotations might have been edited in the meantime.
+ */
+public class AnnotationFileChangeWatcher implements Runnable {
+    // Annotation files are only loaded from the top level of a folder.
+    private static final int ANNOTATION_FILE_DEPTH = 1;
+    private final Path source;
+    private final Consumer<Set<Path>> onFilesChangedHandler;
+
+    /**
+     * Creates a new annotation file change watcher.
+     *
+     * @param source                the folder or file from which the annotations were imported
+     * @param onFilesChangedHandler the handler of the changed annotation files, called on the JavaFX
+     *                              application thread
+     */
+    public AnnotationFileChangeWatcher(Path source, Consumer<Set<Path>> onFilesChangedHandler) {
+        this.source = source;
+        this.onFilesChangedHandler = onFilesChangedHandler;
+    }
+
+    @Override
+    public void run() {
+        final Path directoryToWatch = Files.isDirectory(source) ? source : source.getParent();
+
+        try {
+            new RecursiveFileWatcher(directoryToWatch, ANNOTATION_FILE_DEPTH,
+                                     changes -> reportChanges(getChangedAnnotationFiles(changes))).watch();
+        } catch(InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } catch(IOException e) {
+            // The source cannot be watched, external changes are not re-imported.
+        }
+    }
+
+    Set<Path> getChangedAnnotationFiles(RecursiveFileWatcher.Changes changes) {
+        if(!Files.isDirectory(source)) {
+            return changes.affects(source) && Files.isRegularFile(source) ? Set.of(source) : Set.of();
+        }
+
+        return changes.changedPaths().stream()
+                      .filter(Files::isRegularFile)
+                      .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private void reportChanges(Set<Path> changedAnnotationFiles) {
+        if(!changedAnnotationFiles.isEmpty()) {
+            Platform.runLater(() -> onFilesChangedHandler.accept(changedAnnotationFiles));
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.*;
+
+/**
+ * Merges predicted or imported bounding shapes into existing annotations. A new shape is a duplicate of an
+ * existing shape of the same category if the intersection over union (IoU) of their bounding rectangles is at
+ * least the IoU threshold. Duplicates are handled according to the merge {@link Policy}.
+ * <p>
+ * The existing shapes of each image are indexed in an STR-tree, so that merging n new into m existing shapes
+ * takes O((n + m) log m) time. The merger does not modify any annotations, it can therefore be run off the
+ * JavaFX application thread on a snapshot of the existing shapes. The returned {@link MergeResult} is then
+ * applied to the model.
+ */
+public class AnnotationMerger {
+    public static final double DEFAULT_IOU_THRESHOLD = 0.5;
+    // Shapes without a score were drawn by the user or imported and are trusted more than any prediction.
+    private static final double UNSCORED_SHAPE_SCORE = 1.0;
+    private static final ShapeEnvelopeVisitor shapeEnvelopeVisitor = new ShapeEnvelopeVisitor();
+    private final Policy policy;
+    private final double iouThreshold;
+
+    /**
+     * Creates a new annotation merger.
+     *
+     * @param policy       the handling of new shapes which duplicate existing shapes
+     * @param iouThreshold the minimal intersection over union of duplicate shapes, in (0, 1]
+     */
+    public AnnotationMerger(Policy policy, double iouThreshold) {
+        if(iouThreshold <= 0 || iouThreshold > 1) {
+            throw new IllegalArgumentException("IoU threshold must be in (0, 1].");
+        }
+
+        this.policy = policy;
+        this.iouThreshold = iouThreshold;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Merges new annotation data into existing shapes.
+     *
+     * @param newData                        the predicted or imported annotation data
+     * @param imageFileNameToExistingShapes  the existing top-level shapes per image file name, not modified
+     * @return the annotation data containing only the shapes to add (with adjusted shape counts), the
+     * existing shapes to remove and the merge counts
+     */
+    public MergeResult merge(ImageAnnotationData newData,
+                             Map<String, List<BoundingShapeData>> imageFileNameToExistingShapes) {
+        if(policy == Policy.ADD_ALL) {
+            return new MergeResult(newData, Collections.emptyMap(), 0, 0);
+        }
+
+        final List<ImageAnnotation> mergedAnnotations = new ArrayList<>(newData.imageAnnotations().size());
+        final Map<String, Integer> categoryNameToShapeCount =
+                new HashMap<>(newData.categoryNameToBoundingShapeCountMap());
+        final Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes = new HashMap<>();
+        int nrMergedShapes = 0;
+        int nrDroppedShapes = 0;
+
+        for(ImageAnnotation imageAnnotation : newData.imageAnnotations()) {
+            final ImageMergeResult imageMergeResult = mergeImage(
+                    imageFileNameToExistingShapes.getOrDefault(imageAnnotation.getImageFileName(), List.of()),
+                    imageAnnotation.getBoundingShapeData());
+
+            if(!imageMergeResult.replacedShapes().isEmpty()) {
+                imageFileNameToReplacedShapes.put(imageAnnotation.getImageFileName(),
+                        imageMergeResult.replacedShapes());
+            }
+
+            imageMergeResult.droppedShapes().forEach(shape -> removeShapeCounts(categoryNameToShapeCount, shape));
+            nrMergedShapes += imageMergeResult.replacedShapes().size();
+            nrDroppedShapes += imageMergeResult.droppedShapes().size();
+
+            mergedAnnotations.add(new ImageAnnotation(imageAnnotation.getImageMetaData(),
+                    new ArrayList<>(imageMergeResult.addedShapes())));
+        }
+
+        return new MergeResult(new ImageAnnotationData(mergedAnnotations, categoryNameToShapeCount,
+                newData.categoryNameToCategoryMap()), imageFileNameToReplacedShapes, nrMergedShapes, nrDroppedShapes);
+    }
+
+    /**
+     * Merges the new shapes of a single image into its existing shapes. New shapes are visited in order of
+     * decreasing score, each existing shape is replaced at most once.
+     *
+     * @param existingShapes the existing top-level shapes of the image
+     * @param newShapes      the new top-level shapes of the image
+     * @return the shapes to add, the existing shapes to remove and the dropped new shapes
+     */
+    ImageMergeResult mergeImage(List<BoundingShapeData> existingShapes, List<BoundingShapeData> newShapes) {
+        if(policy == Policy.ADD_ALL || existingShapes.isEmpty() || newShapes.isEmpty()) {
+            return new ImageMergeResult(newShapes, List.of(), List.of());
+        }
+
+        final STRtree existingShapeIndex = new STRtree();
+
+        for(BoundingShapeData existingShape : existingShapes) {
+            existingShapeIndex.insert(existingShape.accept(shapeEnvelopeVisitor), existingShape);
+        }
+
+        final List<Integer> visitOrder = new ArrayList<>(newShapes.size());
+
+        for(int i = 0; i < newShapes.size(); ++i) {
+            visitOrder.add(i);
+        }
+
+        visitOrder.sort(Comparator.comparingDouble((Integer i) -> getScore(newShapes.get(i))).reversed());
+
+        final boolean[] dropped = new boolean[newShapes.size()];
+        final Set<BoundingShapeData> replacedShapes = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<BoundingShapeData> orderedReplacedShapes = new ArrayList<>();
+
+        for(int index : visitOrder) {
+            final BoundingShapeData newShape = newShapes.get(index);
+            final BoundingShapeData duplicate = findBestDuplicate(existingShapeIndex, newShape);
+
+            if(duplicate == null) {
+                continue;
+            }
+
+            if(policy == Policy.SKIP || replacedShapes.contains(duplicate)
+                    || (policy == Policy.KEEP_HIGHER_SCORE && getScore(newShape) <= getScore(duplicate))) {
+                dropped[index] = true;
+            } else {
+                replacedShapes.add(duplicate);
+                orderedReplacedShapes.add(duplicate);
+            }
+        }
+
+        final List<BoundingShapeData> addedShapes = new ArrayList<>();
+        final List<BoundingShapeData> droppedShapes = new ArrayList<>();
+
+        for(int i = 0; i < newShapes.size(); ++i) {
+            if(dropped[i]) {
+                droppedShapes.add(newShapes.get(i));
+            } else {
+                addedShapes.add(newShapes.get(i));
+            }
+        }
+
+        return new ImageMergeResult(addedShapes, orderedReplacedShapes, droppedShapes);
+    }
+
+    private static double getScore(BoundingShapeData shape) {
+        return shape.getScore() != null ? shape.getScore() : UNSCORED_SHAPE_SCORE;
+    }
+
+    private static void removeShapeCounts(Map<String, Integer> categoryNameToShapeCount, BoundingShapeData shape) {
+        categoryNameToShapeCount.computeIfPresent(shape.getCategoryName(), (key, count) -> count - 1);
+        shape.getParts().forEach(part -> removeShapeCounts(categoryNameToShapeCount, part));
+    }
+
+    private static double intersectionOverUnion(Envelope envelope, Envelope otherEnvelope) {
+        final double intersectionArea = envelope.intersection(otherEnvelope).getArea();
+        final double unionArea = envelope.getArea() + otherEnvelope.getArea() - intersectionArea;
+        return unionArea > 0 ? intersectionArea / unionArea : 0;
+    }
+
+    private BoundingShapeData findBestDuplicate(STRtree existingShapeIndex, BoundingShapeData newShape) {
+        final Envelope newShapeEnvelope = newShape.accept(shapeEnvelopeVisitor);
+        BoundingShapeData bestDuplicate = null;
+        double bestIntersectionOverUnion = iouThreshold;
+
+        for(Object candidate : existingShapeIndex.query(newShapeEnvelope)) {
+            final BoundingShapeData existingShape = (BoundingShapeData) candidate;
+
+            if(!existingShape.getCategoryName().equals(newShape.getCategoryName())) {
+                continue;
+            }
+
+            final double intersectionOverUnion =
+                    intersectionOverUnion(existingShape.accept(shapeEnvelopeVisitor), newShapeEnvelope);
+
+            if(intersectionOverUnion >= bestIntersectionOverUnion) {
+                bestIntersectionOverUnion = intersectionOverUnion;
+                bestDuplicate = existingShape;
+            }
+        }
+
+        return bestDuplicate;
+    }
+
+    /**
+     * The handling of new shapes which duplicate existing shapes.
+     */
+    public enum Policy {
+        /**
+         * All new shapes are added, duplicates are not detected.
+         */
+        ADD_ALL("Keep all"),
+        /**
+         * Duplicate new shapes are dropped.
+         */
+        SKIP("Skip duplicates"),
+        /**
+         * Duplicate new shapes replace the existing shapes.
+         */
+        REPLACE("Replace duplicates"),
+        /**
+         * Duplicate new shapes replace the existing shapes if their score is higher. Shapes without a score
+         * (drawn or imported) are never replaced.
+         */
+        KEEP_HIGHER_SCORE("Keep higher score");
+
+        private final String name;
+
+        Policy(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * The result of merging new annotation data into existing shapes.
+     *
+     * @param imageAnnotationData           the annotation data containing the shapes to add
+     * @param imageFileNameToReplacedShapes the existing shapes to remove per image file name
+     * @param nrMergedShapes                the number of existing shapes replaced by new shapes
+     * @param nrDroppedShapes               the number of new shapes dropped as duplicates
+     */
+    public record MergeResult(ImageAnnotationData imageAnnotationData,
+                              Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes,
+                              int nrMergedShapes, int nrDroppedShapes) {
+    }
+
+    record ImageMergeResult(List<BoundingShapeData> addedShapes, List<BoundingShapeData> replacedShapes,
+                            List<BoundingShapeData> droppedShapes) {
+    }
+
+    private static class ShapeEnvelopeVisitor implements BoundingShapeDataVisitor<Envelope> {
+        @Override
+        public Envelope visit(BoundingBoxData boundingBoxData) {
+            return new Envelope(boundingBoxData.getXMinRelative(), boundingBoxData.getXMaxRelative(),
+                    boundingBoxData.getYMinRelative(), boundingBoxData.getYMaxRelative());
+        }
+
+        @Override
+        public Envelope visit(BoundingPolygonData boundingPolygonData) {
+            final List<Double> points = boundingPolygonData.getRelativePointsInImage();
+            final Envelope envelope = new Envelope();
+
+            for(int i = 0; i + 1 < points.size(); i += 2) {
+                envelope.expandToInclude(points.get(i), points.get(i + 1));
+            }
+
+            return envelope;
+        }
+    }
+}
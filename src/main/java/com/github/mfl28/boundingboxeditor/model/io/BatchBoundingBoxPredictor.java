@@ -0,0 +1,569 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.results.BatchBoundingBoxPredictionResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.BoundingBoxPredictionResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Predicts bounding boxes for multiple image-files using a staged pipeline: A pool of preprocessing workers
+ * decodes, resizes and encodes the images ({@link BoundingBoxPredictor#prepare}) and hands them over to
+ * the inference stage via a bounded queue. The inference stage keeps a bounded number of prediction requests
+ * in flight ({@link BoundingBoxPredictor#predict(BoundingBoxPredictor.PreparedImage, Map)}), so that the CPU
+ * and the network are busy at the same time. The number of requests in flight is either fixed or adapted to the
+ * server's load by an {@link AdaptiveConcurrencyLimiter}. Predicted annotations are handed out in batches as soon as they
+ * are available, so that they can be added to the model while the prediction is still running.
+ */
+public class BatchBoundingBoxPredictor {
+    public static final int DEFAULT_BATCH_SIZE = 32;
+    public static final int DEFAULT_NR_PREPROCESSING_WORKERS = Runtime.getRuntime().availableProcessors();
+    private static final int HAND_OFF_QUEUE_CAPACITY_PER_REQUEST = 2;
+    private static final long MAX_BATCH_DELAY_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final String MISSING_IMAGE_METADATA_ERROR_MESSAGE = "Image metadata was not loaded.";
+    private static final String NON_EXISTENT_IMAGE_ERROR_MESSAGE = "Image file does not exist.";
+
+    private final BoundingBoxPredictor predictor;
+    private final int maxInFlightRequests;
+    private final int batchSize;
+    private final int nrPreprocessingWorkers;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Creates a new batch bounding box predictor using {@link #DEFAULT_NR_PREPROCESSING_WORKERS}
+     * preprocessing workers.
+     *
+     * @param client              the client used to send the prediction requests
+     * @param predictorConfig     the prediction configuration
+     * @param maxInFlightRequests the maximum number of prediction requests in flight at the same time
+     * @param batchSize           the maximum number of predicted images handed out per batch
+     */
+    public BatchBoundingBoxPredictor(BoundingBoxPredictorClient client, BoundingBoxPredictorConfig predictorConfig,
+                                     int maxInFlightRequests, int batchSize) {
+        this(client, predictorConfig, maxInFlightRequests, batchSize, DEFAULT_NR_PREPROCESSING_WORKERS);
+    }
+
+    /**
+     * Creates a new batch bounding box predictor.
+     *
+     * @param client                 the client used to send the prediction requests
+     * @param predictorConfig        the prediction configuration
+     * @param maxInFlightRequests    the maximum number of prediction requests in flight at the same time
+     * @param batchSize              the maximum number of predicted images handed out per batch
+     * @param nrPreprocessingWorkers the number of workers decoding, resizing and encoding images
+     */
+    public BatchBoundingBoxPredictor(BoundingBoxPredictorClient client, BoundingBoxPredictorConfig predictorConfig,
+                                     int maxInFlightRequests, int batchSize, int nrPreprocessingWorkers) {
+        this(new BoundingBoxPredictor(client, predictorConfig), maxInFlightRequests, batchSize,
+                nrPreprocessingWorkers);
+    }
+
+    /**
+     * Creates a new batch bounding box predictor using a configured single-image predictor.
+     *
+     * @param predictor              the predictor used to prepare and predict the single images
+     * @param maxInFlightRequests    the maximum number of prediction requests in flight at the same time
+     * @param batchSize              the maximum number of predicted images handed out per batch
+     * @param nrPreprocessingWorkers the number of workers decoding, resizing and encoding images
+     */
+    public BatchBoundingBoxPredictor(BoundingBoxPredictor predictor, int maxInFlightRequests, int batchSize,
+                                     int nrPreprocessingWorkers) {
+        this(predictor, maxInFlightRequests, null, batchSize, nrPreprocessingWorkers);
+    }
+
+    /**
+     * Creates a new batch bounding box predictor which adapts the number of prediction requests in flight
+     * to the server's load.
+     *
+     * @param predictor              the predictor used to prepare and predict the single images
+     * @param concurrencyLimiter     the limiter deciding how many requests may be in flight, at most
+     *                               {@link AdaptiveConcurrencyLimiter#getMaxLimit()} requests are in flight
+     * @param batchSize              the maximum number of predicted images handed out per batch
+     * @param nrPreprocessingWorkers the number of workers decoding, resizing and encoding images
+     */
+    public BatchBoundingBoxPredictor(BoundingBoxPredictor predictor, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                     int batchSize, int nrPreprocessingWorkers) {
+        this(predictor, concurrencyLimiter.getMaxLimit(), concurrencyLimiter, batchSize, nrPreprocessingWorkers);
+    }
+
+    private BatchBoundingBoxPredictor(BoundingBoxPredictor predictor, int maxInFlightRequests,
+                                      AdaptiveConcurrencyLimiter concurrencyLimiter, int batchSize,
+                                      int nrPreprocessingWorkers) {
+        if(maxInFlightRequests < 1) {
+            throw new IllegalArgumentException("Maximum number of in-flight requests must be positive.");
+        }
+
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+
+        if(nrPreprocessingWorkers < 1) {
+            throw new IllegalArgumentException("Number of preprocessing workers must be positive.");
+        }
+
+        this.predictor = predictor;
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.batchSize = batchSize;
+        this.nrPreprocessingWorkers = nrPreprocessingWorkers;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Predicts bounding boxes for the provided image-files. If the calling thread is interrupted, no further
+     * requests are sent, the predictions completed so far are handed out and the method returns.
+     *
+     * @param imageFiles                         the image-files to predict
+     * @param imageFileNameToMetaData            the metadata of the image-files, must not be modified
+     *                                           while the prediction is running
+     * @param existingCategoryNameToCategoryMap  the currently existing categories
+     * @param batchConsumer                      receives the batches of predicted annotations
+     * @param statisticsConsumer                 receives the statistics of the prediction after each batch
+     * @return the result of the prediction
+     * @throws Exception if the prediction could not be performed
+     */
+    public BatchBoundingBoxPredictionResult predict(List<File> imageFiles,
+                                                    Map<String, ImageMetaData> imageFileNameToMetaData,
+                                                    Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                                    Consumer<Batch> batchConsumer,
+                                                    Consumer<PredictionStatistics> statisticsConsumer)
+            throws Exception {
+        return IOOperationTimer.time(() -> {
+            // Guarded by its own lock, see BoundingBoxPredictor.
+            final Map<String, ObjectCategory> categoryNameToCategoryMap =
+                    new HashMap<>(existingCategoryNameToCategoryMap);
+            final Map<String, Integer> totalCategoryToCount = new HashMap<>();
+            final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
+            final StatisticsRecorder statisticsRecorder = new StatisticsRecorder(imageFiles.size());
+            final BatchCollector batchCollector = new BatchCollector(categoryNameToCategoryMap, batchConsumer);
+            final long startTime = System.nanoTime();
+
+            final BlockingQueue<HandOff> handOffQueue =
+                    new ArrayBlockingQueue<>(HAND_OFF_QUEUE_CAPACITY_PER_REQUEST * maxInFlightRequests);
+            final BlockingQueue<ImagePrediction> completedPredictions = new LinkedBlockingQueue<>();
+            final ExecutorService preprocessingExecutor = Executors.newFixedThreadPool(nrPreprocessingWorkers);
+            final ExecutorService inferenceExecutor = Executors.newFixedThreadPool(maxInFlightRequests);
+
+            int nrProcessedImages = 0;
+            int nrSuccessfullyPredictedImages = 0;
+
+            try {
+                for(File imageFile : imageFiles) {
+                    final ImageMetaData imageMetaData = imageFileNameToMetaData.get(imageFile.getName());
+                    preprocessingExecutor.execute(() ->
+                            runPreprocessingStage(imageFile, imageMetaData, handOffQueue, completedPredictions));
+                }
+
+                for(int i = 0; i < maxInFlightRequests; ++i) {
+                    inferenceExecutor.execute(() ->
+                            runInferenceStage(handOffQueue, completedPredictions, categoryNameToCategoryMap));
+                }
+
+                while(nrProcessedImages < imageFiles.size()) {
+                    final ImagePrediction imagePrediction = completedPredictions.take();
+
+                    ++nrProcessedImages;
+                    statisticsRecorder.record(imagePrediction);
+
+                    if(imagePrediction.errorInfoEntries().isEmpty()) {
+                        ++nrSuccessfullyPredictedImages;
+                        imagePrediction.categoryToCount().forEach((category, count) ->
+                                totalCategoryToCount.merge(category, count, Integer::sum));
+                        batchCollector.add(imagePrediction);
+                    } else {
+                        errorInfoEntries.addAll(imagePrediction.errorInfoEntries());
+                    }
+
+                    if(batchCollector.size() >= batchSize || batchCollector.isOverdue()) {
+                        batchCollector.flush();
+                        statisticsConsumer.accept(statisticsRecorder.createStatistics(nrProcessedImages,
+                                imageFiles.size(), System.nanoTime() - startTime, getConcurrencyLimit(),
+                                getQueueDepth(handOffQueue)));
+                    }
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                preprocessingExecutor.shutdownNow();
+                inferenceExecutor.shutdownNow();
+            }
+
+            batchCollector.flush();
+
+            final PredictionStatistics statistics = statisticsRecorder.createStatistics(nrProcessedImages,
+                    imageFiles.size(), System.nanoTime() - startTime, getConcurrencyLimit(),
+                    getQueueDepth(handOffQueue));
+            statisticsConsumer.accept(statistics);
+
+            final Map<String, ObjectCategory> categoryNameToCategoryMapSnapshot;
+
+            synchronized(categoryNameToCategoryMap) {
+                categoryNameToCategoryMapSnapshot = new HashMap<>(categoryNameToCategoryMap);
+            }
+
+            return new BatchBoundingBoxPredictionResult(nrSuccessfullyPredictedImages, errorInfoEntries,
+                    new ImageAnnotationData(Collections.emptyList(), totalCategoryToCount,
+                            categoryNameToCategoryMapSnapshot),
+                    statistics);
+        });
+    }
+
+    private int getConcurrencyLimit() {
+        return concurrencyLimiter != null ? concurrencyLimiter.getLimit() : maxInFlightRequests;
+    }
+
+    private int getQueueDepth(BlockingQueue<HandOff> handOffQueue) {
+        return handOffQueue.size() + (concurrencyLimiter != null ? concurrencyLimiter.getQueueDepth() : 0);
+    }
+
+    private void runPreprocessingStage(File imageFile, ImageMetaData imageMetaData,
+                                       BlockingQueue<HandOff> handOffQueue,
+                                       BlockingQueue<ImagePrediction> completedPredictions) {
+        final long startTime = System.nanoTime();
+
+        if(imageMetaData == null) {
+            completedPredictions.add(ImagePrediction.failed(imageFile, StageTimes.preprocessingOnly(0), 0,
+                    MISSING_IMAGE_METADATA_ERROR_MESSAGE));
+            return;
+        }
+
+        try {
+            final BoundingBoxPredictor.PreparedImage preparedImage = predictor.prepare(imageFile, imageMetaData);
+            // Blocks if the inference stage cannot keep up, which bounds the memory used by prepared images.
+            handOffQueue.put(new HandOff(preparedImage, System.nanoTime() - startTime, System.nanoTime()));
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(FileNotFoundException e) {
+            completedPredictions.add(ImagePrediction.failed(imageFile,
+                    StageTimes.preprocessingOnly(System.nanoTime() - startTime), 0, NON_EXISTENT_IMAGE_ERROR_MESSAGE));
+        } catch(Exception e) {
+            completedPredictions.add(ImagePrediction.failed(imageFile,
+                    StageTimes.preprocessingOnly(System.nanoTime() - startTime), 0, e.getMessage()));
+        }
+    }
+
+    private void runInferenceStage(BlockingQueue<HandOff> handOffQueue,
+                                   BlockingQueue<ImagePrediction> completedPredictions,
+                                   Map<String, ObjectCategory> categoryNameToCategoryMap) {
+        try {
+            while(!Thread.currentThread().isInterrupted()) {
+                final long waitStartTime = System.nanoTime();
+                final HandOff handOff = handOffQueue.take();
+                final long takeTime = System.nanoTime();
+                // Cached predictions do not send a request and are not limited.
+                final boolean limited = concurrencyLimiter != null && !handOff.preparedImage().isCached();
+                final long requestStartTime = limited ? concurrencyLimiter.acquire() : System.nanoTime();
+
+                final File imageFile = handOff.preparedImage().imageFile();
+                final long uploadedBytes =
+                        handOff.preparedImage().data() == null ? 0 : handOff.preparedImage().data().length;
+                ImagePrediction imagePrediction;
+                boolean released = !limited;
+
+                try {
+                    final BoundingBoxPredictionResult result =
+                            predictor.predict(handOff.preparedImage(), categoryNameToCategoryMap);
+
+                    if(!released) {
+                        concurrencyLimiter.release(requestStartTime, getRequestOutcome(result));
+                        released = true;
+                    }
+
+                    final StageTimes stageTimes = new StageTimes(handOff.preprocessingNanos(),
+                            requestStartTime - handOff.handOffTime(), takeTime - waitStartTime,
+                            System.nanoTime() - requestStartTime);
+
+                    imagePrediction = ImagePrediction.fromResult(imageFile, result, stageTimes, uploadedBytes);
+                } catch(RuntimeException e) {
+                    if(!released) {
+                        concurrencyLimiter.release(requestStartTime,
+                                AdaptiveConcurrencyLimiter.RequestOutcome.FAILED);
+                    }
+
+                    imagePrediction = ImagePrediction.failed(imageFile,
+                            new StageTimes(handOff.preprocessingNanos(), requestStartTime - handOff.handOffTime(),
+                                    takeTime - waitStartTime, System.nanoTime() - requestStartTime),
+                            uploadedBytes, e.getMessage());
+                }
+
+                completedPredictions.add(imagePrediction);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter.RequestOutcome getRequestOutcome(BoundingBoxPredictionResult result) {
+        if(result.getErrorTableEntries().isEmpty()) {
+            return AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED;
+        }
+
+        return result.isServerOverloaded() ? AdaptiveConcurrencyLimiter.RequestOutcome.OVERLOADED :
+                AdaptiveConcurrencyLimiter.RequestOutcome.FAILED;
+    }
+
+    /**
+     * A batch of predicted image-annotations.
+     *
+     * @param predictedImageFiles           the image-files for which predictions were successfully made
+     * @param imageAnnotationData           the predicted annotations, images without predicted bounding boxes
+     *                                      are not contained
+     * @param imageFileNameToReplacedShapes the existing shapes replaced by predictions per image file name,
+     *                                      see {@link AnnotationMerger}
+     */
+    public record Batch(List<File> predictedImageFiles, ImageAnnotationData imageAnnotationData,
+                        Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes) {
+        public Batch(List<File> predictedImageFiles, ImageAnnotationData imageAnnotationData) {
+            this(predictedImageFiles, imageAnnotationData, Collections.emptyMap());
+        }
+    }
+
+    /**
+     * Throughput and latency statistics of a running or finished batch prediction.
+     *
+     * @param nrProcessedImages the number of images processed so far
+     * @param nrImages          the total number of images
+     * @param imagesPerSecond   the number of processed images per second
+     * @param p50LatencyMillis  the median request latency in milliseconds
+     * @param p90LatencyMillis  the 90th percentile of the request latency in milliseconds
+     * @param p99LatencyMillis  the 99th percentile of the request latency in milliseconds
+     * @param uploadedBytes     the total number of image bytes sent to the prediction server
+     * @param stageTimings      the mean times spent in the pipeline stages
+     * @param concurrencyLimit  the current maximum number of requests in flight
+     * @param queueDepth        the number of prepared images waiting to be sent
+     */
+    public record PredictionStatistics(int nrProcessedImages, int nrImages, double imagesPerSecond,
+                                       long p50LatencyMillis, long p90LatencyMillis, long p99LatencyMillis,
+                                       long uploadedBytes, StageTimings stageTimings, int concurrencyLimit,
+                                       int queueDepth) {
+        /**
+         * Returns a short human-readable summary of the statistics.
+         *
+         * @return the summary
+         */
+        public String getSummary() {
+            return String.format(Locale.ENGLISH,
+                    "Predicted %d of %d images (%.1f images/s)%nLatency p50: %d ms, p90: %d ms, p99: %d ms, " +
+                            "uploaded %.1f MB%nConcurrency limit: %d, queued images: %d%n%s",
+                    nrProcessedImages, nrImages, imagesPerSecond,
+                    p50LatencyMillis, p90LatencyMillis, p99LatencyMillis, uploadedBytes / 1e6,
+                    concurrencyLimit, queueDepth, stageTimings.getSummary());
+        }
+    }
+
+    /**
+     * The mean times per image spent in the stages of the prediction pipeline. A long hand-off wait means that
+     * the inference stage is the bottleneck, a long inference idle time means that the preprocessing stage
+     * cannot keep up with the requests.
+     *
+     * @param meanPreprocessingMillis the mean time for decoding, resizing and encoding an image
+     * @param meanHandOffWaitMillis   the mean time a prepared image waited for the inference stage
+     * @param meanInferenceIdleMillis the mean time the inference stage waited for a prepared image
+     * @param meanInferenceMillis     the mean time of a prediction request including the extraction of
+     *                                the bounding boxes
+     */
+    public record StageTimings(double meanPreprocessingMillis, double meanHandOffWaitMillis,
+                               double meanInferenceIdleMillis, double meanInferenceMillis) {
+        /**
+         * Returns a short human-readable summary of the stage timings.
+         *
+         * @return the summary
+         */
+        public String getSummary() {
+            return String.format(Locale.ENGLISH,
+                    "Mean stage times: preprocessing %.1f ms, hand-off %.1f ms, request %.1f ms (idle %.1f ms)",
+                    meanPreprocessingMillis, meanHandOffWaitMillis, meanInferenceMillis, meanInferenceIdleMillis);
+        }
+    }
+
+    private record HandOff(BoundingBoxPredictor.PreparedImage preparedImage, long preprocessingNanos,
+                           long handOffTime) {
+    }
+
+    private record StageTimes(long preprocessingNanos, long handOffWaitNanos, long inferenceIdleNanos,
+                              long inferenceNanos) {
+        static StageTimes preprocessingOnly(long preprocessingNanos) {
+            return new StageTimes(preprocessingNanos, -1, -1, -1);
+        }
+
+        boolean reachedInference() {
+            return inferenceNanos >= 0;
+        }
+    }
+
+    private record ImagePrediction(File imageFile, ImageAnnotation imageAnnotation,
+                                   Map<String, Integer> categoryToCount, StageTimes stageTimes, long uploadedBytes,
+                                   List<IOErrorInfoEntry> errorInfoEntries) {
+        static ImagePrediction fromResult(File imageFile, BoundingBoxPredictionResult result, StageTimes stageTimes,
+                                          long uploadedBytes) {
+            if(!result.getErrorTableEntries().isEmpty()) {
+                // Errors are reported per image instead of per client.
+                return new ImagePrediction(imageFile, null, Collections.emptyMap(), stageTimes, uploadedBytes,
+                        result.getErrorTableEntries().stream()
+                                .map(entry -> new IOErrorInfoEntry(imageFile.getName(), entry.getErrorDescription()))
+                                .toList());
+            }
+
+            final ImageAnnotationData imageAnnotationData = result.getImageAnnotationData();
+
+            return new ImagePrediction(imageFile, imageAnnotationData.imageAnnotations().iterator().next(),
+                    imageAnnotationData.categoryNameToBoundingShapeCountMap(), stageTimes, uploadedBytes,
+                    Collections.emptyList());
+        }
+
+        static ImagePrediction failed(File imageFile, StageTimes stageTimes, long uploadedBytes, String errorMessage) {
+            return new ImagePrediction(imageFile, null, Collections.emptyMap(), stageTimes, uploadedBytes,
+                    List.of(new IOErrorInfoEntry(imageFile.getName(), errorMessage)));
+        }
+    }
+
+    private static class BatchCollector {
+        private final Map<String, ObjectCategory> categoryNameToCategoryMap;
+        private final Consumer<Batch> batchConsumer;
+        private List<File> predictedImageFiles = new ArrayList<>();
+        private List<ImageAnnotation> imageAnnotations = new ArrayList<>();
+        private Map<String, Integer> categoryToCount = new HashMap<>();
+        private long lastFlushTime = System.nanoTime();
+
+        BatchCollector(Map<String, ObjectCategory> categoryNameToCategoryMap, Consumer<Batch> batchConsumer) {
+            this.categoryNameToCategoryMap = categoryNameToCategoryMap;
+            this.batchConsumer = batchConsumer;
+        }
+
+        void add(ImagePrediction imagePrediction) {
+            predictedImageFiles.add(imagePrediction.imageFile());
+
+            if(!imagePrediction.imageAnnotation().getBoundingShapeData().isEmpty()) {
+                imageAnnotations.add(imagePrediction.imageAnnotation());
+                imagePrediction.categoryToCount().forEach((category, count) ->
+                        categoryToCount.merge(category, count, Integer::sum));
+            }
+        }
+
+        int size() {
+            return predictedImageFiles.size();
+        }
+
+        boolean isOverdue() {
+            return System.nanoTime() - lastFlushTime >= MAX_BATCH_DELAY_IN_NANOS;
+        }
+
+        void flush() {
+            lastFlushTime = System.nanoTime();
+
+            if(predictedImageFiles.isEmpty()) {
+                return;
+            }
+
+            final Map<String, ObjectCategory> categoryNameToCategoryMapSnapshot;
+
+            synchronized(categoryNameToCategoryMap) {
+                categoryNameToCategoryMapSnapshot = new HashMap<>(categoryNameToCategoryMap);
+            }
+
+            batchConsumer.accept(new Batch(predictedImageFiles,
+                    new ImageAnnotationData(imageAnnotations, categoryToCount, categoryNameToCategoryMapSnapshot)));
+
+            predictedImageFiles = new ArrayList<>();
+            imageAnnotations = new ArrayList<>();
+            categoryToCount = new HashMap<>();
+        }
+    }
+
+    private static class StatisticsRecorder {
+        private long[] inferenceLatenciesInNanos;
+        private int nrInferences = 0;
+        private int nrPreprocessedImages = 0;
+        private long totalPreprocessingNanos = 0;
+        private long totalHandOffWaitNanos = 0;
+        private long totalInferenceIdleNanos = 0;
+        private long totalInferenceNanos = 0;
+        private long totalUploadedBytes = 0;
+
+        StatisticsRecorder(int expectedSize) {
+            inferenceLatenciesInNanos = new long[Math.max(expectedSize, 1)];
+        }
+
+        void record(ImagePrediction imagePrediction) {
+            final StageTimes stageTimes = imagePrediction.stageTimes();
+
+            ++nrPreprocessedImages;
+            totalUploadedBytes += imagePrediction.uploadedBytes();
+            totalPreprocessingNanos += stageTimes.preprocessingNanos();
+
+            if(!stageTimes.reachedInference()) {
+                return;
+            }
+
+            if(nrInferences == inferenceLatenciesInNanos.length) {
+                inferenceLatenciesInNanos = Arrays.copyOf(inferenceLatenciesInNanos, 2 * nrInferences);
+            }
+
+            inferenceLatenciesInNanos[nrInferences++] = stageTimes.inferenceNanos();
+            totalHandOffWaitNanos += stageTimes.handOffWaitNanos();
+            totalInferenceIdleNanos += stageTimes.inferenceIdleNanos();
+            totalInferenceNanos += stageTimes.inferenceNanos();
+        }
+
+        PredictionStatistics createStatistics(int nrProcessedImages, int nrImages, long elapsedNanos,
+                                              int concurrencyLimit, int queueDepth) {
+            final long[] sortedLatencies = Arrays.copyOf(inferenceLatenciesInNanos, nrInferences);
+            Arrays.sort(sortedLatencies);
+
+            final double imagesPerSecond = elapsedNanos > 0 ?
+                    nrProcessedImages / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)) : 0;
+
+            final StageTimings stageTimings = new StageTimings(
+                    meanInMillis(totalPreprocessingNanos, nrPreprocessedImages),
+                    meanInMillis(totalHandOffWaitNanos, nrInferences),
+                    meanInMillis(totalInferenceIdleNanos, nrInferences),
+                    meanInMillis(totalInferenceNanos, nrInferences));
+
+            return new PredictionStatistics(nrProcessedImages, nrImages, imagesPerSecond,
+                    percentileInMillis(sortedLatencies, 50), percentileInMillis(sortedLatencies, 90),
+                    percentileInMillis(sortedLatencies, 99), totalUploadedBytes, stageTimings, concurrencyLimit,
+                    queueDepth);
+        }
+
+        private static double meanInMillis(long totalNanos, int count) {
+            return count != 0 ? totalNanos / (double) count / TimeUnit.MILLISECONDS.toNanos(1) : 0;
+        }
+
+        private static long percentileInMillis(long[] sortedValues, int percentile) {
+            if(sortedValues.length == 0) {
+                return 0;
+            }
+
+            // Nearest-rank method.
+            final int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+            return TimeUnit.NANOSECONDS.toMillis(sortedValues[Math.max(rank, 1) - 1]);
+        }
+    }
+}
@@ -0,0 +1,523 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import javafx.scene.paint.Color;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Reading and encoding of the binary project format. A project file has the following layout:
+ * <pre>
+ * header:        magic (int), version (int), index offset (long), index length (long)
+ * image blocks:  one block per image, superseded blocks of previous saves may remain as unreferenced space
+ * index:         string table, category table, per-image entries (file name id, block offset, block length, crc32)
+ * </pre>
+ * The string table holds file names, category names and tags, all other parts reference strings by their id.
+ * An image block starts with the image's metadata (width, height, depth and orientation, all zero if unknown),
+ * followed by the image's shapes (including nested parts in pre-order) stored column-wise: shape types,
+ * category ids, parent indices, coordinate counts, tag counts, tag ids and finally all coordinates.
+ * The string table is only ever appended to, so that unchanged image blocks stay valid across saves.
+ */
+final class BinaryProjectFile implements Closeable {
+    static final int MAGIC = 0x42424550;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 24;
+    private static final byte BOX_SHAPE_TYPE = 0;
+    private static final byte POLYGON_SHAPE_TYPE = 1;
+    private static final int NR_BOX_COORDINATES = 4;
+    private static final int IMAGE_METADATA_SIZE = 2 * Double.BYTES + 2 * Integer.BYTES;
+    private static final String INVALID_FILE_ERROR_MESSAGE = "Invalid binary project file.";
+    private static final String INVALID_IMAGE_BLOCK_ERROR_MESSAGE = "Invalid image data block.";
+
+    private final FileChannel channel;
+    private final List<String> strings;
+    private final List<CategoryEntry> categories;
+    private final List<ImageEntry> imageEntries;
+    private final long fileSize;
+
+    private BinaryProjectFile(FileChannel channel, long fileSize, List<String> strings,
+                              List<CategoryEntry> categories, List<ImageEntry> imageEntries) {
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.strings = strings;
+        this.categories = categories;
+        this.imageEntries = imageEntries;
+    }
+
+    /**
+     * Opens a project file and reads its index. Image blocks are only read and decoded on request. Requested
+     * regions are read into heap buffers rather than memory-mapped, as a mapping would keep the file locked on
+     * some platforms until it is garbage-collected, which prevents the file from being replaced when saving.
+     *
+     * @param path the path of the project file
+     * @return the opened project file
+     * @throws IOException if the file could not be read
+     */
+    static BinaryProjectFile open(Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            final long fileSize = channel.size();
+            final ByteBuffer header = region(channel, fileSize, 0, HEADER_SIZE);
+
+            if(header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(INVALID_FILE_ERROR_MESSAGE);
+            }
+
+            final long indexOffset = header.getLong();
+            final long indexLength = header.getLong();
+
+            if(indexLength > Integer.MAX_VALUE) {
+                throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(INVALID_FILE_ERROR_MESSAGE);
+            }
+
+            final ByteBuffer index = region(channel, fileSize, indexOffset, (int) indexLength);
+
+            final List<String> strings = new ArrayList<>();
+            final List<CategoryEntry> categories = new ArrayList<>();
+            final List<ImageEntry> imageEntries = new ArrayList<>();
+
+            readIndex(index, strings, categories, imageEntries);
+
+            return new BinaryProjectFile(channel, fileSize, strings, categories, imageEntries);
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Encodes the header of a project file.
+     *
+     * @param indexOffset the offset of the index
+     * @param indexLength the length of the index in bytes
+     * @return the encoded header
+     */
+    static ByteBuffer encodeHeader(long indexOffset, long indexLength) {
+        return ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(indexOffset)
+                .putLong(indexLength)
+                .flip();
+    }
+
+    /**
+     * Encodes the index of a project file.
+     *
+     * @param strings      the string table
+     * @param categories   the category table
+     * @param imageEntries the image entries
+     * @return the encoded index
+     */
+    static ByteBuffer encodeIndex(List<String> strings, List<CategoryEntry> categories,
+                                  List<ImageEntry> imageEntries) {
+        final List<byte[]> encodedStrings = new ArrayList<>(strings.size());
+        int size = Integer.BYTES * 3;
+
+        for(String string : strings) {
+            final byte[] encodedString = string.getBytes(StandardCharsets.UTF_8);
+            encodedStrings.add(encodedString);
+            size += Integer.BYTES + encodedString.length;
+        }
+
+        size += categories.size() * 2 * Integer.BYTES;
+        size += imageEntries.size() * (3 * Integer.BYTES + Long.BYTES);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        buffer.putInt(encodedStrings.size());
+
+        for(byte[] encodedString : encodedStrings) {
+            buffer.putInt(encodedString.length).put(encodedString);
+        }
+
+        buffer.putInt(categories.size());
+
+        for(CategoryEntry category : categories) {
+            buffer.putInt(category.nameId()).putInt(category.argb());
+        }
+
+        buffer.putInt(imageEntries.size());
+
+        for(ImageEntry imageEntry : imageEntries) {
+            buffer.putInt(imageEntry.fileNameId())
+                    .putLong(imageEntry.blockOffset())
+                    .putInt(imageEntry.blockLength())
+                    .putInt(imageEntry.checksum());
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Encodes the metadata and shapes of an image-annotation into an image block.
+     *
+     * @param imageAnnotation the image-annotation
+     * @param stringIds       the string-table ids of all file names, category names and tags
+     * @return the encoded block
+     */
+    static ByteBuffer encodeImageBlock(ImageAnnotation imageAnnotation, Map<String, Integer> stringIds) {
+        final List<BoundingShapeData> shapes = new ArrayList<>();
+        final List<Integer> parentIndices = new ArrayList<>();
+
+        flattenShapes(imageAnnotation.getBoundingShapeData(), -1, shapes, parentIndices);
+
+        final int nrShapes = shapes.size();
+        int nrTags = 0;
+        int nrCoordinates = 0;
+
+        for(BoundingShapeData shape : shapes) {
+            nrTags += shape.getTags().size();
+            nrCoordinates += getNrCoordinates(shape);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(IMAGE_METADATA_SIZE + Integer.BYTES
+                + nrShapes * (1 + 4 * Integer.BYTES) + Integer.BYTES + nrTags * Integer.BYTES
+                + nrCoordinates * Double.BYTES);
+
+        final ImageMetaData imageMetaData = imageAnnotation.getImageMetaData();
+
+        if(imageMetaData.hasDetails()) {
+            buffer.putDouble(imageMetaData.getImageWidth())
+                    .putDouble(imageMetaData.getImageHeight())
+                    .putInt(imageMetaData.getImageDepth())
+                    .putInt(imageMetaData.getOrientation());
+        } else {
+            buffer.putDouble(0).putDouble(0).putInt(0).putInt(0);
+        }
+
+        buffer.putInt(nrShapes);
+
+        for(BoundingShapeData shape : shapes) {
+            buffer.put(shape instanceof BoundingPolygonData ? POLYGON_SHAPE_TYPE : BOX_SHAPE_TYPE);
+        }
+
+        for(BoundingShapeData shape : shapes) {
+            buffer.putInt(stringIds.get(shape.getCategoryName()));
+        }
+
+        for(Integer parentIndex : parentIndices) {
+            buffer.putInt(parentIndex);
+        }
+
+        for(BoundingShapeData shape : shapes) {
+            buffer.putInt(getNrCoordinates(shape));
+        }
+
+        for(BoundingShapeData shape : shapes) {
+            buffer.putInt(shape.getTags().size());
+        }
+
+        buffer.putInt(nrTags);
+
+        for(BoundingShapeData shape : shapes) {
+            for(String tag : shape.getTags()) {
+                buffer.putInt(stringIds.get(tag));
+            }
+        }
+
+        for(BoundingShapeData shape : shapes) {
+            if(shape instanceof BoundingPolygonData polygon) {
+                for(Double value : polygon.getRelativePointsInImage()) {
+                    buffer.putDouble(value);
+                }
+            } else if(shape instanceof BoundingBoxData box) {
+                buffer.putDouble(box.getXMinRelative())
+                        .putDouble(box.getYMinRelative())
+                        .putDouble(box.getXMaxRelative())
+                        .putDouble(box.getYMaxRelative());
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Computes the checksum of an encoded block.
+     *
+     * @param block the block
+     * @return the checksum
+     */
+    static int checksum(ByteBuffer block) {
+        final CRC32 crc = new CRC32();
+        crc.update(block.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Converts a color to an int in ARGB-format.
+     *
+     * @param color the color
+     * @return the converted color
+     */
+    static int toArgb(Color color) {
+        return ((int) Math.round(color.getOpacity() * 255) << 24)
+                | ((int) Math.round(color.getRed() * 255) << 16)
+                | ((int) Math.round(color.getGreen() * 255) << 8)
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    /**
+     * Converts an int in ARGB-format to a color.
+     *
+     * @param argb the color as int
+     * @return the converted color
+     */
+    static Color fromArgb(int argb) {
+        return Color.rgb((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0);
+    }
+
+    /**
+     * Returns the string table.
+     *
+     * @return the strings
+     */
+    List<String> getStrings() {
+        return strings;
+    }
+
+    /**
+     * Returns the category table.
+     *
+     * @return the categories
+     */
+    List<CategoryEntry> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Returns the index entries of all images.
+     *
+     * @return the image entries
+     */
+    List<ImageEntry> getImageEntries() {
+        return imageEntries;
+    }
+
+    /**
+     * Decodes the metadata and shapes of a single image. This method can be called concurrently.
+     *
+     * @param imageEntry     the index entry of the image
+     * @param categoryLookup a function returning the category for a category name
+     * @return the image-annotation holding the top-level shapes of the image
+     * @throws IOException if the image block could not be read
+     */
+    ImageAnnotation readImageAnnotation(ImageEntry imageEntry, Function<String, ObjectCategory> categoryLookup)
+            throws IOException {
+        final ByteBuffer block = region(channel, fileSize, imageEntry.blockOffset(), imageEntry.blockLength());
+        final ImageMetaData imageMetaData = readImageMetaData(block, getString(imageEntry.fileNameId()));
+
+        final int nrShapes = block.getInt();
+
+        if(nrShapes < 0 || nrShapes > block.remaining()) {
+            throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(INVALID_IMAGE_BLOCK_ERROR_MESSAGE);
+        }
+
+        final byte[] types = new byte[nrShapes];
+        block.get(types);
+
+        final int[] categoryIds = readInts(block, nrShapes);
+        final int[] parentIndices = readInts(block, nrShapes);
+        final int[] coordinateCounts = readInts(block, nrShapes);
+        final int[] tagCounts = readInts(block, nrShapes);
+        final int[] tagIds = readInts(block, block.getInt());
+
+        final BoundingShapeData[] shapes = new BoundingShapeData[nrShapes];
+        final List<List<BoundingShapeData>> parts = new ArrayList<>(Collections.nCopies(nrShapes, null));
+        final List<BoundingShapeData> topLevelShapes = new ArrayList<>();
+        int tagPosition = 0;
+
+        for(int i = 0; i < nrShapes; ++i) {
+            final ObjectCategory category = categoryLookup.apply(getString(categoryIds[i]));
+            final List<String> tags = new ArrayList<>(tagCounts[i]);
+
+            for(int j = 0; j < tagCounts[i]; ++j) {
+                tags.add(getString(tagIds[tagPosition++]));
+            }
+
+            if(types[i] == BOX_SHAPE_TYPE && coordinateCounts[i] == NR_BOX_COORDINATES) {
+                shapes[i] = new BoundingBoxData(category, block.getDouble(), block.getDouble(), block.getDouble(),
+                        block.getDouble(), tags);
+            } else if(types[i] == POLYGON_SHAPE_TYPE && coordinateCounts[i] >= 6 && coordinateCounts[i] % 2 == 0) {
+                final List<Double> points = new ArrayList<>(coordinateCounts[i]);
+
+                for(int j = 0; j < coordinateCounts[i]; ++j) {
+                    points.add(block.getDouble());
+                }
+
+                shapes[i] = new BoundingPolygonData(category, points, tags);
+            } else {
+                throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(
+                        INVALID_IMAGE_BLOCK_ERROR_MESSAGE);
+            }
+
+            final int parentIndex = parentIndices[i];
+
+            if(parentIndex == -1) {
+                topLevelShapes.add(shapes[i]);
+            } else if(parentIndex >= 0 && parentIndex < i) {
+                if(parts.get(parentIndex) == null) {
+                    parts.set(parentIndex, new ArrayList<>());
+                }
+
+                parts.get(parentIndex).add(shapes[i]);
+            } else {
+                throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(
+                        INVALID_IMAGE_BLOCK_ERROR_MESSAGE);
+            }
+        }
+
+        for(int i = 0; i < nrShapes; ++i) {
+            if(parts.get(i) != null) {
+                shapes[i].setParts(parts.get(i));
+            }
+        }
+
+        return new ImageAnnotation(imageMetaData, topLevelShapes);
+    }
+
+    /**
+     * Returns a string from the string table.
+     *
+     * @param id the id of the string
+     * @return the string
+     */
+    String getString(int id) {
+        if(id < 0 || id >= strings.size()) {
+            throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(INVALID_FILE_ERROR_MESSAGE);
+        }
+
+        return strings.get(id);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void readIndex(ByteBuffer index, List<String> strings, List<CategoryEntry> categories,
+                                  List<ImageEntry> imageEntries) {
+        final int nrStrings = index.getInt();
+
+        for(int i = 0; i < nrStrings; ++i) {
+            final byte[] encodedString = new byte[index.getInt()];
+            index.get(encodedString);
+            strings.add(new String(encodedString, StandardCharsets.UTF_8));
+        }
+
+        final int nrCategories = index.getInt();
+
+        for(int i = 0; i < nrCategories; ++i) {
+            categories.add(new CategoryEntry(index.getInt(), index.getInt()));
+        }
+
+        final int nrImages = index.getInt();
+
+        for(int i = 0; i < nrImages; ++i) {
+            imageEntries.add(new ImageEntry(index.getInt(), index.getLong(), index.getInt(), index.getInt()));
+        }
+    }
+
+    private static ImageMetaData readImageMetaData(ByteBuffer block, String fileName) {
+        final double imageWidth = block.getDouble();
+        final double imageHeight = block.getDouble();
+        final int imageDepth = block.getInt();
+        final int orientation = block.getInt();
+
+        // Folder name and url depend on where the images are loaded from and are therefore not stored.
+        return imageDepth > 0 ? new ImageMetaData(fileName, null, null, imageWidth, imageHeight, imageDepth,
+                orientation) : new ImageMetaData(fileName);
+    }
+
+    private static ByteBuffer region(FileChannel channel, long fileSize, long offset, int length)
+            throws IOException {
+        if(offset < 0 || length < 0 || offset + length > fileSize) {
+            throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(INVALID_FILE_ERROR_MESSAGE);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(INVALID_FILE_ERROR_MESSAGE);
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        if(count < 0 || count > buffer.remaining() / Integer.BYTES) {
+            throw new ImageAnnotationLoadStrategy.InvalidAnnotationFormatException(INVALID_IMAGE_BLOCK_ERROR_MESSAGE);
+        }
+
+        final int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+
+        return values;
+    }
+
+    private static void flattenShapes(List<BoundingShapeData> shapes, int parentIndex,
+                                      List<BoundingShapeData> flattenedShapes, List<Integer> parentIndices) {
+        for(BoundingShapeData shape : shapes) {
+            final int index = flattenedShapes.size();
+            flattenedShapes.add(shape);
+            parentIndices.add(parentIndex);
+            flattenShapes(shape.getParts(), index, flattenedShapes, parentIndices);
+        }
+    }
+
+    private static int getNrCoordinates(BoundingShapeData shape) {
+        return shape instanceof BoundingPolygonData polygon
+                ? polygon.getRelativePointsInImage().size() : NR_BOX_COORDINATES;
+    }
+
+    /**
+     * An entry of the category table.
+     *
+     * @param nameId the string-table id of the category name
+     * @param argb   the category color
+     */
+    record CategoryEntry(int nameId, int argb) {
+    }
+
+    /**
+     * An entry of the per-image index.
+     *
+     * @param fileNameId  the string-table id of the image file name
+     * @param blockOffset the offset of the image block in the file
+     * @param blockLength the length of the image block in bytes
+     * @param checksum    the crc32 checksum of the image block
+     */
+    record ImageEntry(int fileNameId, long blockOffset, int blockLength, int checksum) {
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.DoubleProperty;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads image-annotations from a binary project file (see {@link BinaryProjectFile}). Only the blocks of images
+ * that belong to the currently loaded image files are read and decoded.
+ */
+public class BinaryProjectLoadStrategy implements ImageAnnotationLoadStrategy {
+    @Override
+    public ImageAnnotationImportResult load(Path path, Set<String> filesToLoad,
+                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                            DoubleProperty progress) throws IOException {
+        final String projectFileName = path.getFileName().toString();
+        final List<IOErrorInfoEntry> errorInfoEntries = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, Integer> categoryNameToBoundingShapesCountMap = new ConcurrentHashMap<>();
+        final Map<String, ObjectCategory> categoryNameToCategoryMap =
+                new ConcurrentHashMap<>(existingCategoryNameToCategoryMap);
+
+        progress.set(0);
+
+        try(BinaryProjectFile projectFile = BinaryProjectFile.open(path)) {
+            final Map<String, Color> storedCategoryColors = new HashMap<>();
+
+            for(BinaryProjectFile.CategoryEntry category : projectFile.getCategories()) {
+                storedCategoryColors.put(projectFile.getString(category.nameId()),
+                        BinaryProjectFile.fromArgb(category.argb()));
+            }
+
+            final List<BinaryProjectFile.ImageEntry> imageEntriesToLoad = new ArrayList<>();
+
+            for(BinaryProjectFile.ImageEntry imageEntry : projectFile.getImageEntries()) {
+                final String fileName = projectFile.getString(imageEntry.fileNameId());
+
+                if(filesToLoad.contains(fileName)) {
+                    imageEntriesToLoad.add(imageEntry);
+                } else {
+                    errorInfoEntries.add(new IOErrorInfoEntry(projectFileName,
+                            "Image " + fileName + " does not belong to currently loaded image files."));
+                }
+            }
+
+            final int totalNrImages = imageEntriesToLoad.size();
+            final AtomicInteger nrProcessedImages = new AtomicInteger(0);
+
+            final List<ImageAnnotation> imageAnnotations = imageEntriesToLoad.parallelStream()
+                    .map(imageEntry -> {
+                        final String fileName = projectFile.getString(imageEntry.fileNameId());
+                        final ImageAnnotation imageAnnotation;
+
+                        try {
+                            imageAnnotation = projectFile.readImageAnnotation(imageEntry,
+                                    categoryName -> categoryNameToCategoryMap.computeIfAbsent(categoryName,
+                                            key -> new ObjectCategory(key,
+                                                    storedCategoryColors.getOrDefault(key, Color.GRAY))));
+                        } catch(IOException e) {
+                            throw new UncheckedIOException(e);
+                        } catch(InvalidAnnotationFormatException | BufferUnderflowException e) {
+                            errorInfoEntries.add(new IOErrorInfoEntry(fileName,
+                                    e.getMessage() != null ? e.getMessage() : "Invalid image data block."));
+                            return null;
+                        } finally {
+                            progress.set(1.0 * nrProcessedImages.incrementAndGet() / totalNrImages);
+                        }
+
+                        countShapes(imageAnnotation.getBoundingShapeData(), categoryNameToBoundingShapesCountMap);
+
+                        return imageAnnotation.getBoundingShapeData().isEmpty() ? null : imageAnnotation;
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            progress.set(1.0);
+
+            return new ImageAnnotationImportResult(
+                    imageAnnotations.size(),
+                    errorInfoEntries,
+                    new ImageAnnotationData(imageAnnotations, categoryNameToBoundingShapesCountMap,
+                            categoryNameToCategoryMap)
+            );
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        } catch(InvalidAnnotationFormatException | BufferUnderflowException e) {
+            errorInfoEntries.add(new IOErrorInfoEntry(projectFileName,
+                    e.getMessage() != null ? e.getMessage() : "Invalid binary project file."));
+
+            return new ImageAnnotationImportResult(0, errorInfoEntries, ImageAnnotationData.empty());
+        }
+    }
+
+    private static void countShapes(List<BoundingShapeData> shapes, Map<String, Integer> categoryNameToCountMap) {
+        for(BoundingShapeData shape : shapes) {
+            categoryNameToCountMap.merge(shape.getCategoryName(), 1, Integer::sum);
+            countShapes(shape.getParts(), categoryNameToCountMap);
+        }
+    }
+}
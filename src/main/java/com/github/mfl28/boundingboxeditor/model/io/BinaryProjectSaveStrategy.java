@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import javafx.beans.property.DoubleProperty;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Saves image-annotations to a binary project file (see {@link BinaryProjectFile}). If the destination already
+ * is a project file, the save is incremental: blocks of unchanged images are kept, blocks of changed or new images
+ * are appended and a new index is written, after which the header is updated to point to it. Once the space taken
+ * by superseded blocks and indices exceeds the live data, the file is compacted by rewriting it completely.
+ * Saving into a ZIP-archive always writes the project completely.
+ */
+public class BinaryProjectSaveStrategy implements ImageAnnotationSaveStrategy {
+    private static final double MAX_UNREFERENCED_SPACE_RATIO = 1.0;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String FILE_EXTENSION = ".bbep";
+
+    @Override
+    public ImageAnnotationExportResult save(ImageAnnotationData annotations, Path destination,
+                                            DoubleProperty progress) {
+        final List<IOErrorInfoEntry> errorEntries = new ArrayList<>();
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>(annotations.imageAnnotations());
+
+        progress.set(0);
+
+        try {
+            final ExistingProject existingProject = readExistingProject(destination);
+
+            final List<String> strings = new ArrayList<>(existingProject.strings());
+            final Map<String, Integer> stringIds = new HashMap<>();
+
+            for(int i = 0; i < strings.size(); ++i) {
+                stringIds.putIfAbsent(strings.get(i), i);
+            }
+
+            internStrings(imageAnnotations, annotations.categoryNameToCategoryMap(), strings, stringIds);
+
+            final List<ByteBuffer> blocks = imageAnnotations.parallelStream()
+                    .map(imageAnnotation -> BinaryProjectFile.encodeImageBlock(imageAnnotation, stringIds))
+                    .toList();
+
+            final List<BinaryProjectFile.CategoryEntry> categories =
+                    createCategoryEntries(annotations.categoryNameToCategoryMap(), stringIds);
+
+            if(AnnotationExportSink.isArchive(destination)) {
+                writeToArchive(destination, imageAnnotations, blocks, strings, stringIds, categories, progress);
+            } else if(existingProject.imageEntries().isEmpty()
+                    || !writeIncrementally(destination, existingProject, imageAnnotations, blocks, strings,
+                    stringIds, categories, progress)) {
+                writeCompletely(destination, imageAnnotations, blocks, strings, stringIds, categories, progress);
+            }
+        } catch(IOException e) {
+            errorEntries.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
+            return new ImageAnnotationExportResult(0, errorEntries);
+        }
+
+        progress.set(1.0);
+
+        return new ImageAnnotationExportResult(imageAnnotations.size(), errorEntries);
+    }
+
+    private static ExistingProject readExistingProject(Path destination) throws IOException {
+        if(!Files.isRegularFile(destination) || AnnotationExportSink.isArchive(destination)) {
+            return new ExistingProject(Collections.emptyList(), Collections.emptyList(), 0);
+        }
+
+        try(BinaryProjectFile projectFile = BinaryProjectFile.open(destination)) {
+            return new ExistingProject(projectFile.getStrings(), projectFile.getImageEntries(),
+                    Files.size(destination));
+        } catch(ImageAnnotationLoadStrategy.InvalidAnnotationFormatException | BufferUnderflowException e) {
+            // Not a (valid) project file, it will be overwritten completely.
+            return new ExistingProject(Collections.emptyList(), Collections.emptyList(), 0);
+        }
+    }
+
+    private static void internStrings(List<ImageAnnotation> imageAnnotations,
+                                      Map<String, ObjectCategory> categoryNameToCategoryMap,
+                                      List<String> strings, Map<String, Integer> stringIds) {
+        final Deque<BoundingShapeData> shapeStack = new ArrayDeque<>();
+
+        categoryNameToCategoryMap.keySet().stream().sorted().forEach(name -> intern(name, strings, stringIds));
+
+        for(ImageAnnotation imageAnnotation : imageAnnotations) {
+            intern(imageAnnotation.getImageFileName(), strings, stringIds);
+            shapeStack.addAll(imageAnnotation.getBoundingShapeData());
+
+            while(!shapeStack.isEmpty()) {
+                final BoundingShapeData shape = shapeStack.pop();
+                intern(shape.getCategoryName(), strings, stringIds);
+                shape.getTags().forEach(tag -> intern(tag, strings, stringIds));
+                shapeStack.addAll(shape.getParts());
+            }
+        }
+    }
+
+    private static void intern(String string, List<String> strings, Map<String, Integer> stringIds) {
+        if(stringIds.putIfAbsent(string, strings.size()) == null) {
+            strings.add(string);
+        }
+    }
+
+    private static List<BinaryProjectFile.CategoryEntry> createCategoryEntries(
+            Map<String, ObjectCategory> categoryNameToCategoryMap, Map<String, Integer> stringIds) {
+        return categoryNameToCategoryMap.values().stream()
+                .sorted(Comparator.comparing(ObjectCategory::getName))
+                .map(category -> new BinaryProjectFile.CategoryEntry(stringIds.get(category.getName()),
+                        BinaryProjectFile.toArgb(category.getColor())))
+                .toList();
+    }
+
+    private static boolean writeIncrementally(Path destination, ExistingProject existingProject,
+                                              List<ImageAnnotation> imageAnnotations, List<ByteBuffer> blocks,
+                                              List<String> strings, Map<String, Integer> stringIds,
+                                              List<BinaryProjectFile.CategoryEntry> categories,
+                                              DoubleProperty progress) throws IOException {
+        final Map<Integer, BinaryProjectFile.ImageEntry> fileNameIdToExistingEntry = new HashMap<>();
+
+        for(BinaryProjectFile.ImageEntry imageEntry : existingProject.imageEntries()) {
+            fileNameIdToExistingEntry.put(imageEntry.fileNameId(), imageEntry);
+        }
+
+        final List<BinaryProjectFile.ImageEntry> imageEntries = new ArrayList<>(imageAnnotations.size());
+        final List<Integer> changedBlockIndices = new ArrayList<>();
+        long position = existingProject.fileSize();
+        long liveBytes = BinaryProjectFile.HEADER_SIZE;
+
+        for(int i = 0; i < imageAnnotations.size(); ++i) {
+            final int fileNameId = stringIds.get(imageAnnotations.get(i).getImageFileName());
+            final ByteBuffer block = blocks.get(i);
+            final int checksum = BinaryProjectFile.checksum(block);
+            final BinaryProjectFile.ImageEntry existingEntry = fileNameIdToExistingEntry.get(fileNameId);
+
+            if(existingEntry != null && existingEntry.blockLength() == block.remaining()
+                    && existingEntry.checksum() == checksum) {
+                imageEntries.add(existingEntry);
+            } else {
+                imageEntries.add(new BinaryProjectFile.ImageEntry(fileNameId, position, block.remaining(), checksum));
+                changedBlockIndices.add(i);
+                position += block.remaining();
+            }
+
+            liveBytes += block.remaining();
+        }
+
+        final ByteBuffer index = BinaryProjectFile.encodeIndex(strings, categories, imageEntries);
+        final long indexOffset = position;
+        liveBytes += index.remaining();
+
+        if(indexOffset + index.remaining() - liveBytes > liveBytes * MAX_UNREFERENCED_SPACE_RATIO) {
+            return false;
+        }
+
+        try(FileChannel channel = FileChannel.open(destination, StandardOpenOption.WRITE)) {
+            for(int j = 0; j < changedBlockIndices.size(); ++j) {
+                final int blockIndex = changedBlockIndices.get(j);
+                writeFully(channel, blocks.get(blockIndex).duplicate(), imageEntries.get(blockIndex).blockOffset());
+                progress.set(1.0 * (j + 1) / changedBlockIndices.size());
+            }
+
+            writeFully(channel, index, indexOffset);
+            // The new blocks and index have to be persisted before the header points to them.
+            channel.force(false);
+            writeFully(channel, BinaryProjectFile.encodeHeader(indexOffset, index.limit()), 0);
+            channel.force(true);
+        }
+
+        return true;
+    }
+
+    private static void writeCompletely(Path destination, List<ImageAnnotation> imageAnnotations,
+                                        List<ByteBuffer> blocks, List<String> strings, Map<String, Integer> stringIds,
+                                        List<BinaryProjectFile.CategoryEntry> categories,
+                                        DoubleProperty progress) throws IOException {
+        final Path tempFile = destination.resolveSibling(destination.getFileName().toString() + TEMP_FILE_SUFFIX);
+        final List<BinaryProjectFile.ImageEntry> imageEntries = new ArrayList<>(imageAnnotations.size());
+
+        try(FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = BinaryProjectFile.HEADER_SIZE;
+
+            for(int i = 0; i < imageAnnotations.size(); ++i) {
+                final ByteBuffer block = blocks.get(i);
+                imageEntries.add(new BinaryProjectFile.ImageEntry(
+                        stringIds.get(imageAnnotations.get(i).getImageFileName()), position, block.remaining(),
+                        BinaryProjectFile.checksum(block)));
+                position += writeFully(channel, block.duplicate(), position);
+                progress.set(1.0 * (i + 1) / imageAnnotations.size());
+            }
+
+            final ByteBuffer index = BinaryProjectFile.encodeIndex(strings, categories, imageEntries);
+            final int indexLength = index.remaining();
+
+            writeFully(channel, index, position);
+            writeFully(channel, BinaryProjectFile.encodeHeader(position, indexLength), 0);
+            channel.force(true);
+        }
+
+        try {
+            Files.move(tempFile, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeToArchive(Path destination, List<ImageAnnotation> imageAnnotations,
+                                       List<ByteBuffer> blocks, List<String> strings, Map<String, Integer> stringIds,
+                                       List<BinaryProjectFile.CategoryEntry> categories,
+                                       DoubleProperty progress) throws IOException {
+        final List<BinaryProjectFile.ImageEntry> imageEntries = new ArrayList<>(imageAnnotations.size());
+        long position = BinaryProjectFile.HEADER_SIZE;
+
+        for(int i = 0; i < imageAnnotations.size(); ++i) {
+            final ByteBuffer block = blocks.get(i);
+            imageEntries.add(new BinaryProjectFile.ImageEntry(
+                    stringIds.get(imageAnnotations.get(i).getImageFileName()), position, block.remaining(),
+                    BinaryProjectFile.checksum(block)));
+            position += block.remaining();
+        }
+
+        final ByteBuffer index = BinaryProjectFile.encodeIndex(strings, categories, imageEntries);
+        final ByteBuffer header = BinaryProjectFile.encodeHeader(position, index.remaining());
+
+        // Archive entries can only be written sequentially, therefore the header is written first.
+        AnnotationExportSink.writeSingleFile(destination, FILE_EXTENSION, outputStream -> {
+            final WritableByteChannel channel = Channels.newChannel(outputStream);
+            writeFully(channel, header);
+
+            for(int i = 0; i < blocks.size(); ++i) {
+                writeFully(channel, blocks.get(i).duplicate());
+                progress.set(1.0 * (i + 1) / blocks.size());
+            }
+
+            writeFully(channel, index);
+        });
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        final int length = buffer.remaining();
+        long currentPosition = position;
+
+        while(buffer.hasRemaining()) {
+            currentPosition += channel.write(buffer, currentPosition);
+        }
+
+        return length;
+    }
+
+    private record ExistingProject(List<String> strings, List<BinaryProjectFile.ImageEntry> imageEntries,
+                                   long fileSize) {
+    }
+}
@@ -21,6 +21,8 @@ package com.github.mfl28.boundingboxeditor.model.io;
 import com.github.mfl28.boundingboxeditor.model.data.*;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictionEntry;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.DecodedImagePredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.PredictionClientException;
 import com.github.mfl28.boundingboxeditor.model.io.results.BoundingBoxPredictionResult;
 import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
 import com.github.mfl28.boundingboxeditor.utils.ColorUtils;
@@ -29,74 +31,141 @@ import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class BoundingBoxPredictor {
-    private static final String DEFAULT_IMAGE_STREAM_FORMAT_NAME = "png";
+    private static final String PNG_FORMAT_NAME = "png";
+    private static final String JPEG_FORMAT_NAME = "jpeg";
     private static final String NON_EXISTENT_IMAGE_ERROR_MESSAGE = "Image file does not exist.";
     private final BoundingBoxPredictorClient client;
     private final BoundingBoxPredictorConfig predictorConfig;
-    private double predictedImageWidth;
-    private double predictedImageHeight;
+    private final PredictionCache predictionCache;
 
     public BoundingBoxPredictor(BoundingBoxPredictorClient client, BoundingBoxPredictorConfig predictorConfig) {
+        this(client, predictorConfig, null);
+    }
+
+    /**
+     * Creates a new bounding box predictor.
+     *
+     * @param client          the client used to send the prediction requests
+     * @param predictorConfig the prediction configuration
+     * @param predictionCache the cache of raw predictions, predictions are not cached if this is null, if
+     *                        caching is disabled in the configuration or if the client does not provide
+     *                        a model name
+     */
+    public BoundingBoxPredictor(BoundingBoxPredictorClient client, BoundingBoxPredictorConfig predictorConfig,
+                                PredictionCache predictionCache) {
         this.client = client;
         this.predictorConfig = predictorConfig;
+        this.predictionCache = predictionCache;
     }
 
     public BoundingBoxPredictionResult predict(File imageFile, ImageMetaData imageMetaData,
                                                Map<String, ObjectCategory> existingCategoryNameToCategoryMap)
             throws Exception {
         return IOOperationTimer.time(() -> {
-            final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
+            final PreparedImage preparedImage;
 
-            final List<BoundingBoxPredictionEntry> boundingBoxPredictions;
-
-            try(final InputStream inputStream = createInputStream(imageFile, imageMetaData)) {
-                boundingBoxPredictions = client.predict(inputStream);
+            try {
+                preparedImage = prepare(imageFile, imageMetaData);
             } catch(FileNotFoundException e) {
-                errorInfoEntries.add(new IOErrorInfoEntry(imageFile.getName(), NON_EXISTENT_IMAGE_ERROR_MESSAGE));
                 return new BoundingBoxPredictionResult(
                         0,
-                        errorInfoEntries,
+                        List.of(new IOErrorInfoEntry(imageFile.getName(), NON_EXISTENT_IMAGE_ERROR_MESSAGE)),
                         ImageAnnotationData.empty()
                 );
             } catch(Exception e) {
-                errorInfoEntries.add(new IOErrorInfoEntry(client.getName(), e.getMessage()));
                 return new BoundingBoxPredictionResult(
                         0,
-                        errorInfoEntries,
+                        List.of(new IOErrorInfoEntry(client.getName(), e.getMessage())),
                         ImageAnnotationData.empty());
             }
 
-            final Map<String, Integer> categoryToCount = new HashMap<>();
-            final ImageAnnotation imageAnnotation = new ImageAnnotation(imageMetaData);
-
-            final PredictionExtractor predictionExtractor = new PredictionExtractor(existingCategoryNameToCategoryMap,
-                    categoryToCount);
+            return predict(preparedImage, existingCategoryNameToCategoryMap);
+        });
+    }
 
-            imageAnnotation.getBoundingShapeData()
-                    .addAll(boundingBoxPredictions.stream()
-                            .filter(prediction ->
-                                    Double.compare(prediction.score(),
-                                            predictorConfig
-                                                    .getMinimumScore()) >=
-                                            0)
-                            .map(predictionExtractor::extract).toList());
+    /**
+     * Predicts bounding boxes for an image-file using a prefetched prediction (see {@link #prefetch}) if one
+     * is provided. A running prefetch is waited for, if the prefetch failed or was cancelled, a regular
+     * prediction is performed.
+     *
+     * @param imageFile                         the image-file
+     * @param imageMetaData                     the metadata of the image-file
+     * @param existingCategoryNameToCategoryMap the currently existing categories, new categories are added
+     * @param prefetch                          the prefetched prediction or null
+     * @return the prediction result
+     * @throws Exception if the prediction could not be performed
+     */
+    public BoundingBoxPredictionResult predict(File imageFile, ImageMetaData imageMetaData,
+                                               Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                               Future<PreparedImage> prefetch) throws Exception {
+        if(prefetch != null) {
+            try {
+                final PreparedImage preparedImage = prefetch.get();
+                return IOOperationTimer.time(() -> predict(preparedImage, existingCategoryNameToCategoryMap));
+            } catch(ExecutionException | CancellationException e) {
+                // Falls back to a regular prediction.
+            }
+        }
 
-            return new BoundingBoxPredictionResult(1, errorInfoEntries,
-                    new ImageAnnotationData(List.of(imageAnnotation), categoryToCount,
-                            existingCategoryNameToCategoryMap));
-        });
+        return predict(imageFile, imageMetaData, existingCategoryNameToCategoryMap);
     }
 
-    private InputStream createInputStream(File imageFile, ImageMetaData imageMetaData) throws IOException {
+    /**
+     * Performs the CPU-bound part of a prediction, i.e. decoding, resizing, reorienting and encoding of the
+     * image-file, depending on the predictor configuration. The returned image can then be sent to the
+     * prediction server using {@link #predict(PreparedImage, Map)}, possibly on a different thread.
+     * If a cached prediction of the image exists, the image is not decoded and the cached predictions are
+     * returned as part of the prepared image instead.
+     *
+     * @param imageFile     the image-file
+     * @param imageMetaData the metadata of the image-file
+     * @return the prepared image
+     * @throws IOException if the image-file could not be read or encoded
+     */
+    public PreparedImage prepare(File imageFile, ImageMetaData imageMetaData) throws IOException {
+        if(!imageFile.isFile()) {
+            throw new FileNotFoundException(imageFile.getPath());
+        }
+
+        byte[] imageContent = null;
+        PredictionCache.Key cacheKey = null;
+
+        if(shouldUseCache()) {
+            imageContent = Files.readAllBytes(imageFile.toPath());
+            cacheKey = PredictionCache.createKey(imageContent, client.getModelName(), getPreprocessingSettings());
+
+            final Optional<PredictionCache.Entry> cachedEntry = predictionCache.get(cacheKey);
+
+            if(cachedEntry.isPresent()) {
+                return new PreparedImage(imageFile, imageMetaData, null, null, cachedEntry.get().imageWidth(),
+                        cachedEntry.get().imageHeight(), cacheKey, cachedEntry.get().predictions());
+            }
+        }
+
+        if(client instanceof DecodedImagePredictorClient decodedImageClient) {
+            return prepareDecodedImage(imageFile, imageMetaData, decodedImageClient, cacheKey);
+        }
+
         if(shouldResize()) {
             Image image = new Image(
                     imageFile.toURI().toString(),
@@ -110,21 +179,160 @@ public class BoundingBoxPredictor {
                 image = ImageUtils.reorientImage(image, imageMetaData.getOrientation());
             }
 
-            predictedImageWidth = image.getWidth();
-            predictedImageHeight = image.getHeight();
+            return new PreparedImage(imageFile, imageMetaData, encodeImage(image), null, image.getWidth(),
+                    image.getHeight(), cacheKey, null);
+        }
 
-            return imageToInputStream(image);
-        } else {
-            predictedImageWidth = imageMetaData.getOrientedWidth();
-            predictedImageHeight = imageMetaData.getOrientedHeight();
+        if(imageMetaData.getOrientation() != 1 || !canSendUnchanged(imageFile)) {
+            Image image = new Image(imageFile.toURI().toString(), false);
 
             if(imageMetaData.getOrientation() != 1) {
-                final Image image = new Image(imageFile.toURI().toString(), false);
-                return imageToInputStream(ImageUtils.reorientImage(image, imageMetaData.getOrientation()));
+                image = ImageUtils.reorientImage(image, imageMetaData.getOrientation());
             }
 
-            return new FileInputStream(imageFile);
+            return new PreparedImage(imageFile, imageMetaData, encodeImage(image), null,
+                    imageMetaData.getOrientedWidth(), imageMetaData.getOrientedHeight(), cacheKey, null);
         }
+
+        if(imageContent == null) {
+            imageContent = Files.readAllBytes(imageFile.toPath());
+        }
+
+        return new PreparedImage(imageFile, imageMetaData, imageContent, null,
+                imageMetaData.getOrientedWidth(), imageMetaData.getOrientedHeight(), cacheKey, null);
+    }
+
+    /**
+     * Performs the IO-bound part of a prediction, i.e. sends the prepared image to the prediction server and
+     * extracts the predicted bounding boxes from the response. If the prepared image contains cached
+     * predictions, no request is sent. The score threshold is always applied to the raw predictions,
+     * so changes of the threshold also apply to cached predictions.
+     *
+     * @param preparedImage                     the image prepared using {@link #prepare(File, ImageMetaData)}
+     * @param existingCategoryNameToCategoryMap the currently existing categories, new categories are added
+     * @return the prediction result
+     */
+    public BoundingBoxPredictionResult predict(PreparedImage preparedImage,
+                                               Map<String, ObjectCategory> existingCategoryNameToCategoryMap) {
+        final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
+
+        final List<BoundingBoxPredictionEntry> boundingBoxPredictions;
+
+        if(preparedImage.isCached()) {
+            boundingBoxPredictions = preparedImage.cachedPredictions();
+        } else {
+            try {
+                boundingBoxPredictions = requestPredictions(preparedImage);
+            } catch(Exception e) {
+                errorInfoEntries.add(new IOErrorInfoEntry(client.getName(), e.getMessage()));
+                return new BoundingBoxPredictionResult(errorInfoEntries,
+                        e instanceof PredictionClientException predictionClientException
+                                && predictionClientException.isOverloadSignal());
+            }
+        }
+
+        final Map<String, Integer> categoryToCount = new HashMap<>();
+        final ImageAnnotation imageAnnotation = new ImageAnnotation(preparedImage.imageMetaData());
+
+        // The category map may be shared by predictors running concurrently (batch prediction),
+        // therefore categories are looked up and created under its lock.
+        synchronized(existingCategoryNameToCategoryMap) {
+            final PredictionExtractor predictionExtractor =
+                    new PredictionExtractor(existingCategoryNameToCategoryMap, categoryToCount,
+                            preparedImage.width(), preparedImage.height());
+
+            imageAnnotation.getBoundingShapeData()
+                    .addAll(boundingBoxPredictions.stream()
+                            .filter(prediction ->
+                                    Double.compare(prediction.score(),
+                                            predictorConfig
+                                                    .getMinimumScore()) >=
+                                            0)
+                            .map(predictionExtractor::extract).toList());
+        }
+
+        return new BoundingBoxPredictionResult(1, errorInfoEntries,
+                new ImageAnnotationData(List.of(imageAnnotation), categoryToCount,
+                        existingCategoryNameToCategoryMap));
+    }
+
+    /**
+     * Prepares the image-file and sends it to the prediction server, without extracting the predicted
+     * bounding boxes. The returned image contains the raw predictions and can later be passed to
+     * {@link #predict(PreparedImage, Map)}, which then does not send a request. This allows predictions
+     * to be computed ahead of time without modifying any categories.
+     *
+     * @param imageFile     the image-file
+     * @param imageMetaData the metadata of the image-file
+     * @return the prepared image containing the raw predictions
+     * @throws IOException               if the image-file could not be read or encoded
+     * @throws PredictionClientException if the prediction request failed
+     */
+    public PreparedImage prefetch(File imageFile, ImageMetaData imageMetaData)
+            throws IOException, PredictionClientException {
+        final PreparedImage preparedImage = prepare(imageFile, imageMetaData);
+
+        if(preparedImage.isCached()) {
+            return preparedImage;
+        }
+
+        return new PreparedImage(imageFile, imageMetaData, null, null, preparedImage.width(),
+                preparedImage.height(), preparedImage.cacheKey(), requestPredictions(preparedImage));
+    }
+
+    private List<BoundingBoxPredictionEntry> requestPredictions(PreparedImage preparedImage)
+            throws IOException, PredictionClientException {
+        final List<BoundingBoxPredictionEntry> boundingBoxPredictions;
+
+        if(preparedImage.decodedImage() != null && client instanceof DecodedImagePredictorClient decodedImageClient) {
+            boundingBoxPredictions = decodedImageClient.predict(preparedImage.decodedImage());
+        } else {
+            try(final InputStream inputStream = new ByteArrayInputStream(preparedImage.data())) {
+                boundingBoxPredictions = client.predict(inputStream);
+            }
+        }
+
+        if(preparedImage.cacheKey() != null) {
+            predictionCache.put(preparedImage.cacheKey(), new PredictionCache.Entry(boundingBoxPredictions,
+                    preparedImage.width(), preparedImage.height()));
+        }
+
+        return boundingBoxPredictions;
+    }
+
+    private PreparedImage prepareDecodedImage(File imageFile, ImageMetaData imageMetaData,
+                                              DecodedImagePredictorClient decodedImageClient,
+                                              PredictionCache.Key cacheKey) throws IOException {
+        final int inputWidth;
+        final int inputHeight;
+
+        try {
+            inputWidth = decodedImageClient.getInputWidth();
+            inputHeight = decodedImageClient.getInputHeight();
+        } catch(PredictionClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        // The image is decoded at most at the input size of the model and passed to the client without
+        // encoding it, the resize and upload encoding settings therefore do not apply.
+        Image image = new Image(
+                imageFile.toURI().toString(),
+                imageMetaData.getOrientation() < 5 ? inputWidth : inputHeight,
+                imageMetaData.getOrientation() < 5 ? inputHeight : inputWidth,
+                true,
+                true,
+                false);
+
+        if(image.isError()) {
+            throw new IOException(image.getException().getMessage());
+        }
+
+        if(imageMetaData.getOrientation() != 1) {
+            image = ImageUtils.reorientImage(image, imageMetaData.getOrientation());
+        }
+
+        return new PreparedImage(imageFile, imageMetaData, null, image, image.getWidth(), image.getHeight(),
+                cacheKey, null);
     }
 
     private boolean shouldResize() {
@@ -132,25 +340,125 @@ public class BoundingBoxPredictor {
                 !(predictorConfig.getImageResizeWidth() == 0 && predictorConfig.getImageResizeHeight() == 0);
     }
 
-    private InputStream imageToInputStream(Image image) throws IOException {
+    private boolean shouldUseCache() {
+        return predictionCache != null && predictorConfig.isCachePredictions() && client.getModelName() != null;
+    }
+
+    private String getPreprocessingSettings() {
+        if(client instanceof DecodedImagePredictorClient) {
+            return "decoded";
+        }
+
+        final StringBuilder settings = new StringBuilder();
+
+        if(shouldResize()) {
+            settings.append("resize=").append(predictorConfig.getImageResizeWidth())
+                    .append('x').append(predictorConfig.getImageResizeHeight())
+                    .append(",keepRatio=").append(predictorConfig.getImageResizeKeepRatio());
+        } else {
+            settings.append("resize=none");
+        }
+
+        settings.append(",encoding=").append(predictorConfig.getUploadEncoding().name());
+
+        if(predictorConfig.getUploadEncoding() == BoundingBoxPredictorConfig.UploadEncoding.JPEG) {
+            settings.append(",quality=").append(predictorConfig.getJpegQuality());
+        }
+
+        return settings.toString();
+    }
+
+    private boolean canSendUnchanged(File imageFile) {
+        final String fileName = imageFile.getName().toLowerCase(Locale.ENGLISH);
+
+        return switch(predictorConfig.getUploadEncoding()) {
+            case ORIGINAL -> true;
+            case JPEG -> fileName.endsWith(".jpg") || fileName.endsWith(".jpeg");
+            case PNG -> fileName.endsWith(".png");
+        };
+    }
+
+    private byte[] encodeImage(Image image) throws IOException {
+        if(image.isError()) {
+            throw new IOException(image.getException().getMessage());
+        }
+
         final BufferedImage bufferedImage = SwingFXUtils.fromFXImage(image, null);
 
         try(final ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            ImageIO.write(bufferedImage, DEFAULT_IMAGE_STREAM_FORMAT_NAME, outputStream);
-            return new ByteArrayInputStream(outputStream.toByteArray());
+            if(predictorConfig.getUploadEncoding() == BoundingBoxPredictorConfig.UploadEncoding.JPEG) {
+                writeJpeg(bufferedImage, outputStream);
+            } else {
+                ImageIO.write(bufferedImage, PNG_FORMAT_NAME, outputStream);
+            }
+
+            return outputStream.toByteArray();
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream outputStream) throws IOException {
+        // JPEG does not support an alpha channel.
+        final BufferedImage rgbImage = new BufferedImage(image.getWidth(), image.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = rgbImage.createGraphics();
+
+        try {
+            graphics.drawImage(image, 0, 0, java.awt.Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName(JPEG_FORMAT_NAME).next();
+        final ImageWriteParam writeParam = writer.getDefaultWriteParam();
+        writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        writeParam.setCompressionQuality((float) predictorConfig.getJpegQuality());
+
+        try(final ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(rgbImage, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * An image-file which was prepared to be sent to the prediction server.
+     *
+     * @param imageFile         the image-file
+     * @param imageMetaData     the metadata of the image-file
+     * @param data              the encoded image data which is sent to the server, null if the predictions
+     *                          were cached or if the image is passed to the client decoded
+     * @param decodedImage      the decoded image which is passed to a {@link DecodedImagePredictorClient},
+     *                          null otherwise
+     * @param width             the width of the encoded or decoded image
+     * @param height            the height of the encoded or decoded image
+     * @param cacheKey          the key under which the predictions are cached, null if caching is not used
+     * @param cachedPredictions the raw predictions if they are already available (cached or prefetched),
+     *                          null otherwise
+     */
+    public record PreparedImage(File imageFile, ImageMetaData imageMetaData, byte[] data, Image decodedImage,
+                                double width, double height, PredictionCache.Key cacheKey,
+                                List<BoundingBoxPredictionEntry> cachedPredictions) {
+        public boolean isCached() {
+            return cachedPredictions != null;
         }
     }
 
     private class PredictionExtractor {
         private final Map<String, ObjectCategory> existingCategoryNameToCategoryMap;
         private final Map<String, Integer> categoryNameToShapeCount;
+        private final double predictedImageWidth;
+        private final double predictedImageHeight;
         private CaseInsensitiveMap<String, ObjectCategory> mergedCategoryNameToCategoryMap;
 
         public PredictionExtractor(
                 Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
-                Map<String, Integer> categoryNameToShapeCount) {
+                Map<String, Integer> categoryNameToShapeCount,
+                double predictedImageWidth, double predictedImageHeight) {
             this.existingCategoryNameToCategoryMap = existingCategoryNameToCategoryMap;
             this.categoryNameToShapeCount = categoryNameToShapeCount;
+            this.predictedImageWidth = predictedImageWidth;
+            this.predictedImageHeight = predictedImageHeight;
 
             if(predictorConfig.isMergeCategories()) {
                 mergedCategoryNameToCategoryMap = new CaseInsensitiveMap<>(existingCategoryNameToCategoryMap);
@@ -187,7 +495,10 @@ public class BoundingBoxPredictor {
 
             categoryNameToShapeCount.merge(objectCategory.getName(), 1, Integer::sum);
 
-            return new BoundingBoxData(objectCategory, xMin, yMin, xMax, yMax, new ArrayList<>());
+            final BoundingBoxData boundingBoxData =
+                    new BoundingBoxData(objectCategory, xMin, yMin, xMax, yMax, new ArrayList<>());
+            boundingBoxData.setScore(prediction.score());
+            return boundingBoxData;
         }
     }
 }
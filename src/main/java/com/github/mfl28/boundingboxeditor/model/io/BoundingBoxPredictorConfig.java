@@ -28,6 +28,16 @@ public class BoundingBoxPredictorConfig {
     private final IntegerProperty imageResizeHeight = new SimpleIntegerProperty(600);
     private final BooleanProperty imageResizeKeepRatio = new SimpleBooleanProperty(true);
     private final BooleanProperty mergeCategories = new SimpleBooleanProperty(true);
+    private final IntegerProperty maxConcurrentRequests = new SimpleIntegerProperty(4);
+    private final BooleanProperty adaptiveConcurrency = new SimpleBooleanProperty(false);
+    private final ObjectProperty<UploadEncoding> uploadEncoding = new SimpleObjectProperty<>(UploadEncoding.ORIGINAL);
+    private final DoubleProperty jpegQuality = new SimpleDoubleProperty(0.9);
+    private final BooleanProperty cachePredictions = new SimpleBooleanProperty(false);
+    private final BooleanProperty speculativePrediction = new SimpleBooleanProperty(false);
+    private final IntegerProperty speculativePredictionLookahead = new SimpleIntegerProperty(3);
+    private final ObjectProperty<AnnotationMerger.Policy> mergePolicy =
+            new SimpleObjectProperty<>(AnnotationMerger.Policy.ADD_ALL);
+    private final DoubleProperty mergeIouThreshold = new SimpleDoubleProperty(AnnotationMerger.DEFAULT_IOU_THRESHOLD);
 
     public double getMinimumScore() {
         return minimumScore.get();
@@ -88,4 +98,115 @@ public class BoundingBoxPredictorConfig {
     public void setMergeCategories(boolean mergeCategories) {
         this.mergeCategories.set(mergeCategories);
     }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests.get();
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests.set(maxConcurrentRequests);
+    }
+
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency.get();
+    }
+
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency.set(adaptiveConcurrency);
+    }
+
+    public UploadEncoding getUploadEncoding() {
+        return uploadEncoding.get();
+    }
+
+    public void setUploadEncoding(UploadEncoding uploadEncoding) {
+        this.uploadEncoding.set(uploadEncoding);
+    }
+
+    public double getJpegQuality() {
+        return jpegQuality.get();
+    }
+
+    public void setJpegQuality(double jpegQuality) {
+        this.jpegQuality.set(jpegQuality);
+    }
+
+    public boolean isCachePredictions() {
+        return cachePredictions.get();
+    }
+
+    public void setCachePredictions(boolean cachePredictions) {
+        this.cachePredictions.set(cachePredictions);
+    }
+
+    public boolean isSpeculativePrediction() {
+        return speculativePrediction.get();
+    }
+
+    public void setSpeculativePrediction(boolean speculativePrediction) {
+        this.speculativePrediction.set(speculativePrediction);
+    }
+
+    public int getSpeculativePredictionLookahead() {
+        return speculativePredictionLookahead.get();
+    }
+
+    public void setSpeculativePredictionLookahead(int speculativePredictionLookahead) {
+        this.speculativePredictionLookahead.set(speculativePredictionLookahead);
+    }
+
+    public AnnotationMerger.Policy getMergePolicy() {
+        return mergePolicy.get();
+    }
+
+    public void setMergePolicy(AnnotationMerger.Policy mergePolicy) {
+        this.mergePolicy.set(mergePolicy);
+    }
+
+    public double getMergeIouThreshold() {
+        return mergeIouThreshold.get();
+    }
+
+    public void setMergeIouThreshold(double mergeIouThreshold) {
+        this.mergeIouThreshold.set(mergeIouThreshold);
+    }
+
+    /**
+     * Creates a merger of predicted or imported shapes into existing annotations using the
+     * configured merge policy and IoU threshold.
+     *
+     * @return the merger
+     */
+    public AnnotationMerger createAnnotationMerger() {
+        return new AnnotationMerger(getMergePolicy(), getMergeIouThreshold());
+    }
+
+    /**
+     * The encoding of the images sent to the prediction server.
+     */
+    public enum UploadEncoding {
+        /**
+         * Image-files are sent unchanged, images which need to be resized or reoriented are encoded as PNG.
+         */
+        ORIGINAL("Original"),
+        /**
+         * Images are sent as JPEG, JPEG-files which do not need to be transformed are sent unchanged.
+         */
+        JPEG("JPEG"),
+        /**
+         * Images are sent as PNG, PNG-files which do not need to be transformed are sent unchanged.
+         */
+        PNG("PNG");
+
+        private final String name;
+
+        UploadEncoding(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
 }
@@ -0,0 +1,463 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import com.github.mfl28.boundingboxeditor.utils.ColorUtils;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import javafx.beans.property.DoubleProperty;
+import javafx.scene.paint.Color;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.github.mfl28.boundingboxeditor.model.io.COCOSaveStrategy.*;
+
+/**
+ * Loads image-annotations from a single file in the COCO object-detection format described at
+ * <a href="https://cocodataset.org/#format-data">...</a>. The file is read in a streaming fashion, only the
+ * (small) image and category tables are kept in memory while the annotations are read. If the annotations
+ * precede the image or category tables in the file, the file is read a second time.
+ */
+public class COCOLoadStrategy implements ImageAnnotationLoadStrategy {
+    private static final String MISSING_IMAGES_ERROR_MESSAGE = "Missing images element.";
+    private static final String MISSING_CATEGORIES_ERROR_MESSAGE = "Missing categories element.";
+    private static final String INVALID_IMAGE_ERROR_MESSAGE = "Missing or invalid id, file_name, width or height " +
+            "in images element.";
+    private static final String INVALID_CATEGORY_ERROR_MESSAGE = "Missing or invalid id or name in categories element.";
+    private static final String INVALID_COLOR_ERROR_MESSAGE = "Invalid color in categories element.";
+    private static final String IMAGE_ATTRIBUTION_MESSAGE_PART = " in annotation for image ";
+    private static final double PROGRESS_UPDATE_STEP = 0.01;
+
+    private int nrCompletedPasses = 0;
+
+    @Override
+    public ImageAnnotationImportResult load(Path path, Set<String> filesToLoad,
+                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                            DoubleProperty progress) throws IOException {
+        final LoadContext context = new LoadContext(path, filesToLoad, existingCategoryNameToCategoryMap, progress);
+
+        progress.set(0);
+
+        try {
+            final boolean annotationsRead = readDocument(context, false);
+
+            if(!context.imagesRead) {
+                context.addError(MISSING_IMAGES_ERROR_MESSAGE);
+            } else if(!context.categoriesRead) {
+                context.addError(MISSING_CATEGORIES_ERROR_MESSAGE);
+            } else if(!annotationsRead) {
+                readDocument(context, true);
+            }
+        } catch(IllegalStateException | NumberFormatException | IOException e) {
+            // Syntax errors are reported as IOExceptions (MalformedJsonException), unexpected tokens
+            // as IllegalStateExceptions.
+            context.addError(e.getMessage());
+
+            return new ImageAnnotationImportResult(0, context.errorInfoEntries, ImageAnnotationData.empty());
+        } finally {
+            nrCompletedPasses = context.completedPasses;
+        }
+
+        progress.set(1.0);
+
+        return new ImageAnnotationImportResult(
+                context.imageIdToAnnotation.size(),
+                context.errorInfoEntries,
+                new ImageAnnotationData(new ArrayList<>(context.imageIdToAnnotation.values()),
+                        context.categoryNameToBoundingShapesCountMap, existingCategoryNameToCategoryMap)
+        );
+    }
+
+    /**
+     * Returns the number of times the file was read by the last call to load.
+     *
+     * @return the number of passes
+     */
+    int getNrCompletedPasses() {
+        return nrCompletedPasses;
+    }
+
+    /**
+     * Reads the top-level object of the annotation file.
+     *
+     * @param context             the load context
+     * @param onlyReadAnnotations if true, only the annotations array is read, all other elements are skipped
+     * @return true if the annotations were read, false if they have been skipped because they
+     * precede the images or categories in the file
+     */
+    private static boolean readDocument(LoadContext context, boolean onlyReadAnnotations) throws IOException {
+        boolean annotationsRead = false;
+
+        try(BoundedInputStream countingStream = BoundedInputStream.builder()
+                .setInputStream(new BufferedInputStream(Files.newInputStream(context.path)))
+                .get();
+            JsonReader reader = new JsonReader(new InputStreamReader(countingStream, StandardCharsets.UTF_8))) {
+            context.countingStream = countingStream;
+            reader.beginObject();
+
+            while(reader.hasNext()) {
+                final String name = reader.nextName();
+
+                if(IMAGES_SERIALIZED_NAME.equals(name) && !onlyReadAnnotations) {
+                    readImages(reader, context);
+                } else if(CATEGORIES_SERIALIZED_NAME.equals(name) && !onlyReadAnnotations) {
+                    readCategories(reader, context);
+                } else if(ANNOTATIONS_SERIALIZED_NAME.equals(name)
+                        && (onlyReadAnnotations || (context.imagesRead && context.categoriesRead))) {
+                    readAnnotations(reader, context);
+                    annotationsRead = true;
+                } else {
+                    if(ANNOTATIONS_SERIALIZED_NAME.equals(name)) {
+                        context.needsSecondPass = true;
+                    }
+
+                    reader.skipValue();
+                }
+
+                context.updateProgress();
+            }
+
+            reader.endObject();
+        } finally {
+            context.completedPasses++;
+        }
+
+        return annotationsRead;
+    }
+
+    private static void readImages(JsonReader reader, LoadContext context) throws IOException {
+        reader.beginArray();
+
+        while(reader.hasNext()) {
+            Integer id = null;
+            String fileName = null;
+            double width = 0;
+            double height = 0;
+
+            reader.beginObject();
+
+            while(reader.hasNext()) {
+                switch(reader.nextName()) {
+                    case ID_SERIALIZED_NAME -> id = reader.nextInt();
+                    case FILE_NAME_SERIALIZED_NAME -> fileName = reader.nextString();
+                    case WIDTH_SERIALIZED_NAME -> width = reader.nextDouble();
+                    case HEIGHT_SERIALIZED_NAME -> height = reader.nextDouble();
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if(id == null || fileName == null || width <= 0 || height <= 0) {
+                context.addError(INVALID_IMAGE_ERROR_MESSAGE);
+            } else if(!context.filesToLoad.contains(fileName)) {
+                context.skippedImageIds.add(id);
+                context.addError("Image " + fileName + " does not belong to currently loaded image files.");
+            } else {
+                context.imageIdToImage.put(id, new COCOImage(fileName, width, height));
+            }
+        }
+
+        reader.endArray();
+        context.imagesRead = true;
+    }
+
+    private static void readCategories(JsonReader reader, LoadContext context) throws IOException {
+        reader.beginArray();
+
+        while(reader.hasNext()) {
+            Integer id = null;
+            String name = null;
+            String color = null;
+
+            reader.beginObject();
+
+            while(reader.hasNext()) {
+                switch(reader.nextName()) {
+                    case ID_SERIALIZED_NAME -> id = reader.nextInt();
+                    case NAME_SERIALIZED_NAME -> name = reader.nextString();
+                    case COLOR_SERIALIZED_NAME -> color = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if(id == null || name == null || name.isBlank()) {
+                context.addError(INVALID_CATEGORY_ERROR_MESSAGE);
+                continue;
+            }
+
+            final Color categoryColor = parseColor(color, context);
+
+            context.categoryIdToCategory.put(id, context.categoryNameToCategoryMap.computeIfAbsent(name,
+                    key -> new ObjectCategory(key, categoryColor)));
+        }
+
+        reader.endArray();
+        context.categoriesRead = true;
+    }
+
+    private static Color parseColor(String color, LoadContext context) {
+        if(color != null) {
+            try {
+                return Color.web(color);
+            } catch(IllegalArgumentException e) {
+                context.addError(INVALID_COLOR_ERROR_MESSAGE);
+            }
+        }
+
+        return ColorUtils.createRandomColor();
+    }
+
+    private static void readAnnotations(JsonReader reader, LoadContext context) throws IOException {
+        reader.beginArray();
+
+        while(reader.hasNext()) {
+            final COCOObject cocoObject = readObject(reader);
+
+            if(cocoObject.imageId == null) {
+                context.addError("Missing image_id in annotations element.");
+            } else if(!context.skippedImageIds.contains(cocoObject.imageId)) {
+                final COCOImage image = context.imageIdToImage.get(cocoObject.imageId);
+
+                if(image == null) {
+                    context.addError("Invalid image_id " + cocoObject.imageId + " in annotations element.");
+                } else {
+                    final List<BoundingShapeData> boundingShapeData = createBoundingShapeData(cocoObject, image,
+                            context);
+
+                    if(!boundingShapeData.isEmpty()) {
+                        context.imageIdToAnnotation.computeIfAbsent(cocoObject.imageId,
+                                        key -> new ImageAnnotation(new ImageMetaData(image.fileName())))
+                                .getBoundingShapeData().addAll(boundingShapeData);
+                    }
+                }
+            }
+
+            context.updateProgress();
+        }
+
+        reader.endArray();
+    }
+
+    private static COCOObject readObject(JsonReader reader) throws IOException {
+        final COCOObject cocoObject = new COCOObject();
+
+        reader.beginObject();
+
+        while(reader.hasNext()) {
+            switch(reader.nextName()) {
+                case IMAGE_ID_SERIALIZED_NAME -> cocoObject.imageId = reader.nextInt();
+                case CATEGORY_ID_SERIALIZED_NAME -> cocoObject.categoryId = reader.nextInt();
+                case BBOX_SERIALIZED_NAME -> cocoObject.bbox = readNumbers(reader);
+                case SEGMENTATION_SERIALIZED_NAME -> readSegmentation(reader, cocoObject);
+                case TAGS_SERIALIZED_NAME -> {
+                    reader.beginArray();
+
+                    while(reader.hasNext()) {
+                        cocoObject.tags.add(reader.nextString());
+                    }
+
+                    reader.endArray();
+                }
+                case PARTS_SERIALIZED_NAME -> {
+                    reader.beginArray();
+
+                    while(reader.hasNext()) {
+                        cocoObject.parts.add(readObject(reader));
+                    }
+
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return cocoObject;
+    }
+
+    private static void readSegmentation(JsonReader reader, COCOObject cocoObject) throws IOException {
+        if(reader.peek() != JsonToken.BEGIN_ARRAY) {
+            // Run-length encoded masks (used for crowd annotations) are not supported, the bbox is used instead.
+            reader.skipValue();
+            return;
+        }
+
+        reader.beginArray();
+
+        while(reader.hasNext()) {
+            cocoObject.polygons.add(readNumbers(reader));
+        }
+
+        reader.endArray();
+    }
+
+    private static List<Double> readNumbers(JsonReader reader) throws IOException {
+        final List<Double> numbers = new ArrayList<>();
+
+        reader.beginArray();
+
+        while(reader.hasNext()) {
+            numbers.add(reader.nextDouble());
+        }
+
+        reader.endArray();
+
+        return numbers;
+    }
+
+    private static List<BoundingShapeData> createBoundingShapeData(COCOObject cocoObject, COCOImage image,
+                                                                   LoadContext context) {
+        final ObjectCategory category = cocoObject.categoryId != null
+                ? context.categoryIdToCategory.get(cocoObject.categoryId) : null;
+
+        if(category == null) {
+            context.addError("Missing or invalid category_id" + IMAGE_ATTRIBUTION_MESSAGE_PART +
+                    image.fileName() + ".");
+            return Collections.emptyList();
+        }
+
+        final List<BoundingShapeData> result = new ArrayList<>();
+
+        for(List<Double> polygon : cocoObject.polygons) {
+            if(polygon.size() < 6 || polygon.size() % 2 != 0) {
+                context.addError("Invalid number of segmentation coordinates" + IMAGE_ATTRIBUTION_MESSAGE_PART +
+                        image.fileName() + ".");
+                continue;
+            }
+
+            final List<Double> relativePoints = new ArrayList<>(polygon.size());
+
+            for(int i = 0; i < polygon.size(); i += 2) {
+                relativePoints.add(clampRatio(polygon.get(i) / image.width()));
+                relativePoints.add(clampRatio(polygon.get(i + 1) / image.height()));
+            }
+
+            result.add(new BoundingPolygonData(category, relativePoints, new ArrayList<>(cocoObject.tags)));
+        }
+
+        if(result.isEmpty() && cocoObject.polygons.isEmpty()) {
+            if(cocoObject.bbox == null || cocoObject.bbox.size() != 4) {
+                context.addError("Missing or invalid bbox" + IMAGE_ATTRIBUTION_MESSAGE_PART +
+                        image.fileName() + ".");
+                return Collections.emptyList();
+            }
+
+            final double xMin = cocoObject.bbox.get(0);
+            final double yMin = cocoObject.bbox.get(1);
+
+            result.add(new BoundingBoxData(category,
+                    clampRatio(xMin / image.width()),
+                    clampRatio(yMin / image.height()),
+                    clampRatio((xMin + cocoObject.bbox.get(2)) / image.width()),
+                    clampRatio((yMin + cocoObject.bbox.get(3)) / image.height()),
+                    new ArrayList<>(cocoObject.tags)));
+        }
+
+        if(!result.isEmpty() && !cocoObject.parts.isEmpty()) {
+            final List<BoundingShapeData> parts = new ArrayList<>();
+
+            for(COCOObject part : cocoObject.parts) {
+                parts.addAll(createBoundingShapeData(part, image, context));
+            }
+
+            result.getFirst().setParts(parts);
+        }
+
+        result.forEach(boundingShapeData -> context.categoryNameToBoundingShapesCountMap
+                .merge(boundingShapeData.getCategoryName(), 1, Integer::sum));
+
+        return result;
+    }
+
+    private static double clampRatio(double value) {
+        return Math.clamp(value, 0.0, 1.0);
+    }
+
+    private record COCOImage(String fileName, double width, double height) {
+    }
+
+    private static class COCOObject {
+        private final List<List<Double>> polygons = new ArrayList<>();
+        private final List<String> tags = new ArrayList<>();
+        private final List<COCOObject> parts = new ArrayList<>();
+        private Integer imageId;
+        private Integer categoryId;
+        private List<Double> bbox;
+    }
+
+    private static class LoadContext {
+        private final Path path;
+        private final String annotationFileName;
+        private final Set<String> filesToLoad;
+        private final Map<String, ObjectCategory> categoryNameToCategoryMap;
+        private final DoubleProperty progress;
+        private final long fileSize;
+        private final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
+        private final Map<String, Integer> categoryNameToBoundingShapesCountMap = new HashMap<>();
+        private final Map<Integer, COCOImage> imageIdToImage = new HashMap<>();
+        private final Set<Integer> skippedImageIds = new HashSet<>();
+        private final Map<Integer, ObjectCategory> categoryIdToCategory = new HashMap<>();
+        private final Map<Integer, ImageAnnotation> imageIdToAnnotation = new LinkedHashMap<>();
+        private BoundedInputStream countingStream;
+        private boolean imagesRead = false;
+        private boolean categoriesRead = false;
+        private boolean needsSecondPass = false;
+        private int completedPasses = 0;
+        private double lastReportedProgress = 0;
+
+        LoadContext(Path path, Set<String> filesToLoad, Map<String, ObjectCategory> categoryNameToCategoryMap,
+                    DoubleProperty progress) throws IOException {
+            this.path = path;
+            this.annotationFileName = path.getFileName().toString();
+            this.filesToLoad = filesToLoad;
+            this.categoryNameToCategoryMap = categoryNameToCategoryMap;
+            this.progress = progress;
+            this.fileSize = Math.max(Files.size(path), 1);
+        }
+
+        void addError(String message) {
+            errorInfoEntries.add(new IOErrorInfoEntry(annotationFileName, message));
+        }
+
+        void updateProgress() {
+            // Once it is known that a second pass is needed, each pass is weighted with half of the total progress.
+            final double passProgress = Math.min(1.0, (double) countingStream.getCount() / fileSize);
+            final double currentProgress = needsSecondPass ? (completedPasses + passProgress) / 2 : passProgress;
+
+            if(currentProgress - lastReportedProgress >= PROGRESS_UPDATE_STEP) {
+                lastReportedProgress = currentProgress;
+                progress.set(currentProgress);
+            }
+        }
+    }
+}
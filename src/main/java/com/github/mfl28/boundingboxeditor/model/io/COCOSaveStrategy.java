@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.github.mfl28.boundingboxeditor.utils.ColorUtils;
+import com.google.gson.stream.JsonWriter;
+import javafx.beans.property.DoubleProperty;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Saves image-annotations to a single file in the COCO object-detection format described at
+ * <a href="https://cocodataset.org/#format-data">...</a>. The file is written in a streaming fashion, so that
+ * no intermediate json-tree of the whole dataset is created. Tags, parts and category colors, which have no
+ * counterpart in the COCO-format, are written to the additional fields "tags", "parts" and "color".
+ */
+public class COCOSaveStrategy implements ImageAnnotationSaveStrategy {
+    static final String IMAGES_SERIALIZED_NAME = "images";
+    static final String ANNOTATIONS_SERIALIZED_NAME = "annotations";
+    static final String CATEGORIES_SERIALIZED_NAME = "categories";
+    static final String ID_SERIALIZED_NAME = "id";
+    static final String FILE_NAME_SERIALIZED_NAME = "file_name";
+    static final String WIDTH_SERIALIZED_NAME = "width";
+    static final String HEIGHT_SERIALIZED_NAME = "height";
+    static final String IMAGE_ID_SERIALIZED_NAME = "image_id";
+    static final String CATEGORY_ID_SERIALIZED_NAME = "category_id";
+    static final String BBOX_SERIALIZED_NAME = "bbox";
+    static final String AREA_SERIALIZED_NAME = "area";
+    static final String SEGMENTATION_SERIALIZED_NAME = "segmentation";
+    static final String ISCROWD_SERIALIZED_NAME = "iscrowd";
+    static final String NAME_SERIALIZED_NAME = "name";
+    static final String SUPERCATEGORY_SERIALIZED_NAME = "supercategory";
+    static final String COLOR_SERIALIZED_NAME = "color";
+    static final String TAGS_SERIALIZED_NAME = "tags";
+    static final String PARTS_SERIALIZED_NAME = "parts";
+    private static final double COORDINATE_PRECISION = 1000.0;
+    private static final String FILE_EXTENSION = ".json";
+    private static final String MISSING_IMAGE_SIZE_ERROR_MESSAGE =
+            "Image size is unknown, open the image at least once before saving.";
+
+    @Override
+    public ImageAnnotationExportResult save(ImageAnnotationData annotations, Path destination,
+                                            DoubleProperty progress) {
+        final List<IOErrorInfoEntry> errorEntries = new ArrayList<>();
+        final Map<String, Integer> categoryNameToId = createCategoryIds(annotations.imageAnnotations());
+        final int totalNrAnnotations = annotations.imageAnnotations().size();
+        final List<ImageAnnotation> savedAnnotations = new ArrayList<>(totalNrAnnotations);
+
+        for(ImageAnnotation imageAnnotation : annotations.imageAnnotations()) {
+            if(!imageAnnotation.getImageMetaData().hasDetails() || imageAnnotation.getOrientedImageWidth() <= 0
+                    || imageAnnotation.getOrientedImageHeight() <= 0) {
+                errorEntries.add(new IOErrorInfoEntry(imageAnnotation.getImageFileName(),
+                        MISSING_IMAGE_SIZE_ERROR_MESSAGE));
+            } else {
+                savedAnnotations.add(imageAnnotation);
+            }
+        }
+
+        try {
+            AnnotationExportSink.writeSingleFile(destination, FILE_EXTENSION, outputStream -> {
+                try(JsonWriter writer = new JsonWriter(
+                        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)))) {
+                    writer.beginObject();
+
+                    writer.name(IMAGES_SERIALIZED_NAME).beginArray();
+
+                    for(int i = 0; i < savedAnnotations.size(); ++i) {
+                        writeImage(writer, savedAnnotations.get(i), i + 1);
+                    }
+
+                    writer.endArray();
+
+                    // Categories precede the annotations, so that loaders can resolve category ids in a single pass.
+                    writer.name(CATEGORIES_SERIALIZED_NAME).beginArray();
+
+                    for(Map.Entry<String, Integer> entry : categoryNameToId.entrySet()) {
+                        writeCategory(writer, entry.getKey(), entry.getValue(),
+                                annotations.categoryNameToCategoryMap().get(entry.getKey()));
+                    }
+
+                    writer.endArray();
+
+                    writer.name(ANNOTATIONS_SERIALIZED_NAME).beginArray();
+
+                    int annotationId = 1;
+
+                    for(int i = 0; i < savedAnnotations.size(); ++i) {
+                        final ImageAnnotation imageAnnotation = savedAnnotations.get(i);
+
+                        for(BoundingShapeData boundingShapeData : imageAnnotation.getBoundingShapeData()) {
+                            writer.beginObject();
+                            writer.name(ID_SERIALIZED_NAME).value(annotationId++);
+                            writer.name(IMAGE_ID_SERIALIZED_NAME).value(i + 1);
+                            writer.name(ISCROWD_SERIALIZED_NAME).value(0);
+                            writeShapeFields(writer, boundingShapeData, imageAnnotation, categoryNameToId);
+                            writer.endObject();
+                        }
+
+                        progress.set(1.0 * (i + 1) / savedAnnotations.size());
+                    }
+
+                    writer.endArray();
+
+                    writer.endObject();
+                }
+            });
+        } catch(IOException e) {
+            errorEntries.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
+
+            return new ImageAnnotationExportResult(0, errorEntries);
+        }
+
+        return new ImageAnnotationExportResult(savedAnnotations.size(), errorEntries);
+    }
+
+    private static Map<String, Integer> createCategoryIds(Collection<ImageAnnotation> imageAnnotations) {
+        final SortedSet<String> categoryNames = new TreeSet<>();
+        final Deque<BoundingShapeData> shapeStack = new ArrayDeque<>();
+
+        for(ImageAnnotation imageAnnotation : imageAnnotations) {
+            shapeStack.addAll(imageAnnotation.getBoundingShapeData());
+
+            while(!shapeStack.isEmpty()) {
+                final BoundingShapeData boundingShapeData = shapeStack.pop();
+                categoryNames.add(boundingShapeData.getCategoryName());
+                shapeStack.addAll(boundingShapeData.getParts());
+            }
+        }
+
+        final Map<String, Integer> categoryNameToId = new LinkedHashMap<>();
+        categoryNames.forEach(name -> categoryNameToId.put(name, categoryNameToId.size() + 1));
+
+        return categoryNameToId;
+    }
+
+    private static void writeImage(JsonWriter writer, ImageAnnotation imageAnnotation, int imageId)
+            throws IOException {
+        writer.beginObject();
+        writer.name(ID_SERIALIZED_NAME).value(imageId);
+        writer.name(FILE_NAME_SERIALIZED_NAME).value(imageAnnotation.getImageFileName());
+        writer.name(WIDTH_SERIALIZED_NAME).value(Math.round(imageAnnotation.getOrientedImageWidth()));
+        writer.name(HEIGHT_SERIALIZED_NAME).value(Math.round(imageAnnotation.getOrientedImageHeight()));
+        writer.endObject();
+    }
+
+    private static void writeCategory(JsonWriter writer, String name, int id, ObjectCategory category)
+            throws IOException {
+        writer.beginObject();
+        writer.name(ID_SERIALIZED_NAME).value(id);
+        writer.name(NAME_SERIALIZED_NAME).value(name);
+        writer.name(SUPERCATEGORY_SERIALIZED_NAME).value(name);
+
+        if(category != null) {
+            writer.name(COLOR_SERIALIZED_NAME).value(ColorUtils.colorToHexString(category.getColor()));
+        }
+
+        writer.endObject();
+    }
+
+    private static void writeShapeFields(JsonWriter writer, BoundingShapeData boundingShapeData,
+                                         ImageAnnotation imageAnnotation, Map<String, Integer> categoryNameToId)
+            throws IOException {
+        final ShapeGeometry geometry = boundingShapeData.accept(
+                new ShapeGeometryVisitor(imageAnnotation.getOrientedImageWidth(),
+                        imageAnnotation.getOrientedImageHeight()));
+
+        writer.name(CATEGORY_ID_SERIALIZED_NAME).value(categoryNameToId.get(boundingShapeData.getCategoryName()));
+
+        writer.name(BBOX_SERIALIZED_NAME).beginArray();
+        writer.value(round(geometry.bounds().getMinX()));
+        writer.value(round(geometry.bounds().getMinY()));
+        writer.value(round(geometry.bounds().getWidth()));
+        writer.value(round(geometry.bounds().getHeight()));
+        writer.endArray();
+
+        writer.name(AREA_SERIALIZED_NAME).value(round(geometry.area()));
+
+        writer.name(SEGMENTATION_SERIALIZED_NAME).beginArray();
+
+        if(!geometry.polygonPoints().isEmpty()) {
+            writer.beginArray();
+
+            for(Double value : geometry.polygonPoints()) {
+                writer.value(round(value));
+            }
+
+            writer.endArray();
+        }
+
+        writer.endArray();
+
+        if(!boundingShapeData.getTags().isEmpty()) {
+            writer.name(TAGS_SERIALIZED_NAME).beginArray();
+
+            for(String tag : boundingShapeData.getTags()) {
+                writer.value(tag);
+            }
+
+            writer.endArray();
+        }
+
+        if(!boundingShapeData.getParts().isEmpty()) {
+            writer.name(PARTS_SERIALIZED_NAME).beginArray();
+
+            for(BoundingShapeData part : boundingShapeData.getParts()) {
+                writer.beginObject();
+                writeShapeFields(writer, part, imageAnnotation, categoryNameToId);
+                writer.endObject();
+            }
+
+            writer.endArray();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * COORDINATE_PRECISION) / COORDINATE_PRECISION;
+    }
+
+    private record ShapeGeometry(Bounds bounds, double area, List<Double> polygonPoints) {
+    }
+
+    private record ShapeGeometryVisitor(double imageWidth, double imageHeight)
+            implements BoundingShapeDataVisitor<ShapeGeometry> {
+        @Override
+        public ShapeGeometry visit(BoundingBoxData boundingBoxData) {
+            final Bounds bounds = boundingBoxData.getAbsoluteBoundsInImage(imageWidth, imageHeight);
+            return new ShapeGeometry(bounds, bounds.getWidth() * bounds.getHeight(), Collections.emptyList());
+        }
+
+        @Override
+        public ShapeGeometry visit(BoundingPolygonData boundingPolygonData) {
+            final List<Double> points = boundingPolygonData.getAbsolutePointsInImage(imageWidth, imageHeight);
+
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            double doubleSignedArea = 0;
+
+            for(int i = 0; i < points.size(); i += 2) {
+                final double x = points.get(i);
+                final double y = points.get(i + 1);
+                final double nextX = points.get((i + 2) % points.size());
+                final double nextY = points.get((i + 3) % points.size());
+
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                doubleSignedArea += x * nextY - nextX * y;
+            }
+
+            return new ShapeGeometry(new BoundingBox(minX, minY, maxX - minX, maxY - minY),
+                    Math.abs(doubleSignedArea) / 2, points);
+        }
+    }
+}
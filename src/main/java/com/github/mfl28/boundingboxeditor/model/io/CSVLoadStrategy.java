@@ -18,7 +18,10 @@
  */
 package com.github.mfl28.boundingboxeditor.model.io;
 
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvParser;
@@ -29,21 +32,61 @@ import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
 import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
 import com.github.mfl28.boundingboxeditor.utils.ColorUtils;
 import javafx.beans.property.DoubleProperty;
+import org.apache.commons.io.function.IOSupplier;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
+/**
+ * Implements the loading of image-annotations from a csv-file. Large files are split into
+ * byte-ranges (aligned on line boundaries) which are parsed in parallel. The partial results
+ * of all ranges are merged in file order, so that the outcome is the same as for a sequential
+ * parse. Note that the parallel mode assumes that quoted fields do not contain line breaks, i.e. that every
+ * line holds exactly one row.
+ */
 public class CSVLoadStrategy implements ImageAnnotationLoadStrategy {
+    private static final long DEFAULT_MIN_CHUNK_SIZE_IN_BYTES = 8L * 1024 * 1024;
+    private static final int MAX_NR_CHUNKS_PER_PROCESSOR = 4;
+    private static final String LINE_MESSAGE_PART = "Line ";
+    private static final long NO_LINE_NUMBER = -1;
+    private final long minChunkSizeInBytes;
+
+    /**
+     * Creates a new csv loading-strategy which parses files in parallel if they are large enough.
+     */
+    public CSVLoadStrategy() {
+        this(DEFAULT_MIN_CHUNK_SIZE_IN_BYTES);
+    }
+
+    /**
+     * Creates a new csv loading-strategy.
+     *
+     * @param minChunkSizeInBytes the minimal size of a byte-range that is parsed by a single worker, files
+     *                            smaller than twice this size are parsed sequentially
+     */
+    CSVLoadStrategy(long minChunkSizeInBytes) {
+        this.minChunkSizeInBytes = minChunkSizeInBytes;
+    }
 
-    private static boolean filterRow(Set<String> filesToLoad, CSVRow csvRow, List<IOErrorInfoEntry> errorInfoEntries) {
+    private static boolean filterRow(Set<String> filesToLoad, CSVRow csvRow, List<ParseError> parseErrors) {
         if (filesToLoad.contains(csvRow.getFilename())) {
             return true;
         }
 
-        errorInfoEntries.add(new IOErrorInfoEntry(csvRow.getFilename(),
+        parseErrors.add(new ParseError(csvRow.getFilename(),
                 "Image " + csvRow.getFilename() +
-                        " does not belong to currently loaded image files."));
+                        " does not belong to currently loaded image files.", NO_LINE_NUMBER));
 
         return false;
     }
@@ -77,61 +120,253 @@ public class CSVLoadStrategy implements ImageAnnotationLoadStrategy {
                 Collections.emptyList());
     }
 
-    @Override
-    public ImageAnnotationImportResult load(Path path, Set<String> filesToLoad,
-                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
-                                            DoubleProperty progress) throws IOException {
-        final Map<String, Integer> categoryNameToBoundingShapesCountMap = new HashMap<>();
-        final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
-        final Map<String, ImageAnnotation> filenameAnnotationMap = new HashMap<>();
-
-        progress.set(0);
-
+    private static ObjectReader createCsvReader() {
         final var csvMapper = new CsvMapper();
         final var csvSchema = csvMapper.schemaFor(CSVRow.class)
                 .withHeader()
                 .withColumnReordering(true)
                 .withStrictHeaders(true);
 
-        try (MappingIterator<CSVRow> it = csvMapper
+        return csvMapper
                 .readerFor(CSVRow.class)
                 .with(csvSchema)
                 .without(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
                 .without(CsvParser.Feature.ALLOW_TRAILING_COMMA)
+                .with(CsvParser.Feature.SKIP_EMPTY_LINES)
                 .with(CsvParser.Feature.FAIL_ON_MISSING_COLUMNS)
-                .with(CsvParser.Feature.FAIL_ON_MISSING_HEADER_COLUMNS)
-                .readValues(path.toFile())) {
+                .with(CsvParser.Feature.FAIL_ON_MISSING_HEADER_COLUMNS);
+    }
+
+    private static void parseRows(IOSupplier<MappingIterator<CSVRow>> rowIteratorSupplier, String sourceName,
+                                  Set<String> filesToLoad, Map<String, ObjectCategory> categoryNameToCategoryMap,
+                                  CSVParseResult parseResult) throws IOException {
+        try (MappingIterator<CSVRow> it = rowIteratorSupplier.get()) {
             it.forEachRemaining(csvRow -> {
+                        ++parseResult.nrRows;
+
                         try {
-                            if (filterRow(filesToLoad, csvRow, errorInfoEntries)) {
-                                updateAnnotations(csvRow, filenameAnnotationMap,
-                                        existingCategoryNameToCategoryMap,
-                                        categoryNameToBoundingShapesCountMap);
+                            if (filterRow(filesToLoad, csvRow, parseResult.parseErrors)) {
+                                updateAnnotations(csvRow, parseResult.filenameAnnotationMap,
+                                        categoryNameToCategoryMap,
+                                        parseResult.categoryNameToShapeCountMap);
                             }
 
                         } catch (RuntimeJsonMappingException exception) {
-                            errorInfoEntries.add(new IOErrorInfoEntry(path.getFileName().toString(),
-                                    exception.getMessage()));
+                            parseResult.parseErrors.add(exception.getCause() instanceof JsonProcessingException cause ?
+                                    createParseError(sourceName, cause) :
+                                    new ParseError(sourceName, exception.getMessage(), NO_LINE_NUMBER));
                         }
                     }
             );
         } catch (CsvReadException exception) {
-            errorInfoEntries.add(new IOErrorInfoEntry(path.getFileName().toString(),
-                    exception.getMessage()));
+            parseResult.parseErrors.add(createParseError(sourceName, exception));
+            parseResult.aborted = true;
+        } catch (RuntimeJsonMappingException exception) {
+            // Read errors of rows are wrapped by the iterator.
+            if (!(exception.getCause() instanceof CsvReadException cause)) {
+                throw exception;
+            }
+
+            parseResult.parseErrors.add(createParseError(sourceName, cause));
+            parseResult.aborted = true;
+        }
+    }
+
+    private static ParseError createParseError(String sourceName, JsonProcessingException exception) {
+        final JsonLocation location = exception.getLocation();
+
+        if (location == null || location.getLineNr() < 1) {
+            return new ParseError(sourceName, exception.getMessage(), NO_LINE_NUMBER);
         }
 
+        return new ParseError(sourceName, exception.getOriginalMessage(), location.getLineNr());
+    }
+
+    @Override
+    public ImageAnnotationImportResult load(Path path, Set<String> filesToLoad,
+                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                            DoubleProperty progress) throws IOException {
+        progress.set(0);
+
+        final ObjectReader csvReader = createCsvReader();
+        final String sourceName = path.getFileName().toString();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long headerEnd = LineAlignedChunking.findNextLineStart(channel, 0, size);
+            final long nrChunks = Math.min((size - headerEnd) / minChunkSizeInBytes,
+                    (long) MAX_NR_CHUNKS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+
+            if (nrChunks >= 2) {
+                final byte[] headerBytes = new byte[(int) headerEnd];
+                channel.read(ByteBuffer.wrap(headerBytes), 0);
+
+                return loadChunked(path, channel, csvReader, headerBytes,
+                        LineAlignedChunking.createChunks(channel, headerEnd, size, (int) nrChunks),
+                        filesToLoad, existingCategoryNameToCategoryMap, progress);
+            }
+        }
+
+        final CSVParseResult parseResult = new CSVParseResult();
+
+        parseRows(() -> csvReader.readValues(path.toFile()), sourceName, filesToLoad,
+                existingCategoryNameToCategoryMap, parseResult);
+
         var imageAnnotationData = new ImageAnnotationData(
-                filenameAnnotationMap.values(), categoryNameToBoundingShapesCountMap,
+                parseResult.filenameAnnotationMap.values(), parseResult.categoryNameToShapeCountMap,
                 existingCategoryNameToCategoryMap);
 
         progress.set(1.0);
 
         return new ImageAnnotationImportResult(
                 imageAnnotationData.imageAnnotations().size(),
-                errorInfoEntries,
-                imageAnnotationData
+                parseResult.createErrorInfoEntries(0),
+                imageAnnotationData,
+                parseResult.nrRows
         );
     }
 
-}
+    private ImageAnnotationImportResult loadChunked(Path path, FileChannel channel, ObjectReader csvReader,
+                                                    byte[] headerBytes,
+                                                    List<LineAlignedChunking.Chunk> chunks, Set<String> filesToLoad,
+                                                    Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                                    DoubleProperty progress) throws IOException {
+        final String sourceName = path.getFileName().toString();
+        final Map<String, ObjectCategory> categoryNameToCategoryMap =
+                new ConcurrentHashMap<>(existingCategoryNameToCategoryMap);
+
+        // The header is validated once up front, so that header errors are reported only a single time.
+        final CSVParseResult headerParseResult = new CSVParseResult();
+        parseRows(() -> csvReader.readValues(headerBytes), sourceName, filesToLoad, categoryNameToCategoryMap,
+                headerParseResult);
+
+        if (headerParseResult.aborted) {
+            progress.set(1.0);
+            return new ImageAnnotationImportResult(0, headerParseResult.createErrorInfoEntries(0),
+                    ImageAnnotationData.empty());
+        }
+
+        final long totalNrBytes = chunks.getLast().end() - chunks.getFirst().start();
+        final AtomicLong nrProcessedBytes = new AtomicLong(0);
 
+        final List<CSVParseResult> chunkParseResults;
+
+        try {
+            chunkParseResults = chunks.parallelStream()
+                    .map(chunk -> {
+                        final CSVParseResult chunkParseResult = new CSVParseResult();
+
+                        try {
+                            parseRows(() -> csvReader.readValues(openChunkInputStream(path, headerBytes, chunk)),
+                                    sourceName, filesToLoad, categoryNameToCategoryMap, chunkParseResult);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } catch (RuntimeException e) {
+                            // Rethrown during the in-order merge, if no previous chunk aborted the parsing.
+                            chunkParseResult.failure = e;
+                        }
+
+                        progress.set(1.0 * nrProcessedBytes.addAndGet(chunk.length()) / totalNrBytes);
+
+                        return chunkParseResult;
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        final MergedParseResult mergedParseResult = mergeInOrder(channel, chunks, chunkParseResults);
+
+        var imageAnnotationData = new ImageAnnotationData(
+                mergedParseResult.filenameAnnotationMap.values(), mergedParseResult.categoryNameToShapeCountMap,
+                categoryNameToCategoryMap);
+
+        progress.set(1.0);
+
+        return new ImageAnnotationImportResult(
+                imageAnnotationData.imageAnnotations().size(),
+                mergedParseResult.errorInfoEntries,
+                imageAnnotationData,
+                mergedParseResult.nrRows
+        );
+    }
+
+    private static InputStream openChunkInputStream(Path path, byte[] headerBytes, LineAlignedChunking.Chunk chunk)
+            throws IOException {
+        return new SequenceInputStream(new ByteArrayInputStream(headerBytes),
+                LineAlignedChunking.openChunkInputStream(path, chunk));
+    }
+
+    private static MergedParseResult mergeInOrder(FileChannel channel, List<LineAlignedChunking.Chunk> chunks,
+                                                  List<CSVParseResult> chunkParseResults) throws IOException {
+        final MergedParseResult mergedParseResult = new MergedParseResult();
+        // Line numbers of errors are relative to the chunk, whose first line is the header. As rows can be
+        // separated by blank lines or span several lines, the preceding lines are counted in the file itself,
+        // which is only done for chunks that contain errors.
+        long nrPrecedingDataLines = 0;
+        long countedDataEnd = chunks.getFirst().start();
+
+        for (int i = 0; i < chunkParseResults.size(); ++i) {
+            final CSVParseResult chunkParseResult = chunkParseResults.get(i);
+
+            if (chunkParseResult.failure != null) {
+                throw chunkParseResult.failure;
+            }
+
+            chunkParseResult.filenameAnnotationMap.forEach((filename, imageAnnotation) ->
+                    mergedParseResult.filenameAnnotationMap.merge(filename, imageAnnotation,
+                            (existing, added) -> {
+                                existing.getBoundingShapeData().addAll(added.getBoundingShapeData());
+                                return existing;
+                            }));
+            chunkParseResult.categoryNameToShapeCountMap.forEach((categoryName, count) ->
+                    mergedParseResult.categoryNameToShapeCountMap.merge(categoryName, count, Integer::sum));
+
+            if (!chunkParseResult.parseErrors.isEmpty()) {
+                nrPrecedingDataLines +=
+                        LineAlignedChunking.countLineBreaks(channel, countedDataEnd, chunks.get(i).start());
+                countedDataEnd = chunks.get(i).start();
+                mergedParseResult.errorInfoEntries.addAll(
+                        chunkParseResult.createErrorInfoEntries(nrPrecedingDataLines));
+            }
+
+            mergedParseResult.nrRows += chunkParseResult.nrRows;
+
+            if (chunkParseResult.aborted) {
+                // A sequential parse would have stopped here, so later chunks are discarded.
+                break;
+            }
+        }
+
+        return mergedParseResult;
+    }
+
+    private record ParseError(String sourceName, String message, long lineNumber) {
+        IOErrorInfoEntry toErrorInfoEntry(long nrPrecedingDataLines) {
+            return new IOErrorInfoEntry(sourceName, lineNumber == NO_LINE_NUMBER ? message :
+                    LINE_MESSAGE_PART + (nrPrecedingDataLines + lineNumber) + ": " + message);
+        }
+    }
+
+    private static class CSVParseResult {
+        private final Map<String, ImageAnnotation> filenameAnnotationMap = new HashMap<>();
+        private final Map<String, Integer> categoryNameToShapeCountMap = new HashMap<>();
+        private final List<ParseError> parseErrors = new ArrayList<>();
+        private long nrRows = 0;
+        private boolean aborted = false;
+        private RuntimeException failure;
+
+        List<IOErrorInfoEntry> createErrorInfoEntries(long nrPrecedingDataLines) {
+            return parseErrors.stream()
+                    .map(parseError -> parseError.toErrorInfoEntry(nrPrecedingDataLines))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static class MergedParseResult {
+        private final Map<String, ImageAnnotation> filenameAnnotationMap = new HashMap<>();
+        private final Map<String, Integer> categoryNameToShapeCountMap = new HashMap<>();
+        private final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
+        private long nrRows = 0;
+    }
+}
@@ -28,9 +28,10 @@ import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExport
 import javafx.beans.property.DoubleProperty;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -45,6 +46,8 @@ import java.util.stream.Stream;
  * The CSVSaveStrategy supports {@link BoundingBoxData} only.
  */
 public class CSVSaveStrategy implements ImageAnnotationSaveStrategy {
+    private static final String FILE_EXTENSION = ".csv";
+
     @Override
     public ImageAnnotationExportResult save(ImageAnnotationData annotations, Path destination,
                                             DoubleProperty progress) {
@@ -53,25 +56,28 @@ public class CSVSaveStrategy implements ImageAnnotationSaveStrategy {
 
         final List<IOErrorInfoEntry> errorEntries = new ArrayList<>();
 
-        try (var writer = Files.newBufferedWriter(destination, StandardCharsets.UTF_8)) {
-            var csvMapper = new CsvMapper();
-            var csvSchema = csvMapper.schemaFor(CSVRow.class).withHeader();
-
-            try (var valuesWriter = csvMapper.writer(csvSchema).writeValues(writer)) {
-                valuesWriter.writeAll(
-                        annotations.imageAnnotations().stream()
-                                .flatMap(
-                                        imageAnnotation -> {
-                                            progress.set(1.0 * nrProcessedAnnotations.getAndIncrement() / totalNrAnnotations);
-
-                                            return imageAnnotation.getBoundingShapeData().stream()
-                                                    .flatMap(this::extractBoundingBoxDataElements)
-                                                    .map(boundingBoxData -> Pair.of(imageAnnotation, boundingBoxData));
-                                        })
-                                .map(pair -> CSVRow.fromData(pair.getLeft(), pair.getRight()))
-                                .toList()
-                );
-            }
+        try {
+            AnnotationExportSink.writeSingleFile(destination, FILE_EXTENSION, outputStream -> {
+                var csvMapper = new CsvMapper();
+                var csvSchema = csvMapper.schemaFor(CSVRow.class).withHeader();
+
+                try (var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                     var valuesWriter = csvMapper.writer(csvSchema).writeValues(writer)) {
+                    valuesWriter.writeAll(
+                            annotations.imageAnnotations().stream()
+                                    .flatMap(
+                                            imageAnnotation -> {
+                                                progress.set(1.0 * nrProcessedAnnotations.getAndIncrement() / totalNrAnnotations);
+
+                                                return imageAnnotation.getBoundingShapeData().stream()
+                                                        .flatMap(this::extractBoundingBoxDataElements)
+                                                        .map(boundingBoxData -> Pair.of(imageAnnotation, boundingBoxData));
+                                            })
+                                    .map(pair -> CSVRow.fromData(pair.getLeft(), pair.getRight()))
+                                    .toList()
+                    );
+                }
+            });
         } catch (IOException e) {
             errorEntries.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
         }
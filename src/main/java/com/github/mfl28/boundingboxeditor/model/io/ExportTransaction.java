@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.apache.commons.io.function.IOConsumer;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Groups the files written by an export into a batch which becomes visible in the destination folder
+ * only when the batch is committed. Each file is first written to a hidden temporary file in the same folder and
+ * flushed to the storage device by the thread that wrote it, so that concurrently writing threads share the cost of
+ * flushing. Committing atomically renames all staged files to their final names and syncs the folder once for the
+ * whole batch. An interrupted export therefore never leaves partially written files behind, and existing files are
+ * either replaced completely or not at all. Staging files is thread-safe.
+ */
+final class ExportTransaction implements AnnotationExportSink {
+    private static final String TEMP_FILE_PREFIX = ".";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final boolean durable;
+    private final String transactionId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong tempFileCounter = new AtomicLong(0);
+    private final List<StagedFile> stagedFiles = new ArrayList<>();
+    private boolean completed;
+
+    private ExportTransaction(Path directory, boolean durable) {
+        this.directory = directory;
+        this.durable = durable;
+    }
+
+    /**
+     * Begins a new transaction whose files are flushed to the storage device before they are committed.
+     *
+     * @param directory the folder the files will be written to
+     * @return the transaction
+     */
+    static ExportTransaction begin(Path directory) {
+        return new ExportTransaction(directory, true);
+    }
+
+    /**
+     * Begins a new transaction, optionally skipping flushing files and the folder to the storage device.
+     * Non-durable transactions still commit files atomically but may lose committed files on a system crash.
+     *
+     * @param directory the folder the files will be written to
+     * @param durable   true if files and the folder should be flushed to the storage device
+     * @return the transaction
+     */
+    static ExportTransaction begin(Path directory, boolean durable) {
+        return new ExportTransaction(directory, durable);
+    }
+
+    /**
+     * Writes a single file by writing its content to a temporary sibling file which then
+     * atomically replaces the destination.
+     *
+     * @param destination   the path of the file
+     * @param contentWriter the writer writing the content to the provided stream
+     * @throws IOException if the file could not be written
+     */
+    static void writeAtomically(Path destination, IOConsumer<OutputStream> contentWriter) throws IOException {
+        final Path absoluteDestination = destination.toAbsolutePath();
+
+        try(ExportTransaction transaction = begin(absoluteDestination.getParent())) {
+            transaction.write(absoluteDestination.getFileName().toString(), contentWriter);
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Writes the content of a file to a temporary file which will be renamed to the provided
+     * file name when the transaction is committed. If the writer throws an exception, the temporary file
+     * is deleted and the file will not be committed.
+     *
+     * @param fileName      the file name (relative to the transaction's folder) of the file
+     * @param contentWriter the writer writing the content to the provided stream
+     * @throws IOException if the content could not be written
+     */
+    @Override
+    public void write(String fileName, IOConsumer<OutputStream> contentWriter) throws IOException {
+        final Path tempFile = directory.resolve(TEMP_FILE_PREFIX + fileName + "." + transactionId + "-"
+                + tempFileCounter.incrementAndGet() + TEMP_FILE_SUFFIX);
+
+        try(FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            final OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel),
+                    BUFFER_SIZE);
+            contentWriter.accept(CloseShieldOutputStream.wrap(outputStream));
+            outputStream.flush();
+
+            if(durable) {
+                channel.force(false);
+            }
+        } catch(IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        synchronized(stagedFiles) {
+            if(completed) {
+                Files.deleteIfExists(tempFile);
+                throw new IOException("Export transaction was already completed.");
+            }
+
+            stagedFiles.add(new StagedFile(tempFile, directory.resolve(fileName)));
+        }
+    }
+
+    /**
+     * Commits all staged files by atomically renaming them to their final names, replacing any
+     * existing files. The folder is synced once after all files were renamed.
+     *
+     * @throws IOException if a file could not be renamed, in this case all not yet renamed
+     *                     staged files are deleted
+     */
+    @Override
+    public void commit() throws IOException {
+        final List<StagedFile> filesToCommit;
+
+        synchronized(stagedFiles) {
+            if(completed) {
+                throw new IOException("Export transaction was already completed.");
+            }
+
+            completed = true;
+            filesToCommit = new ArrayList<>(stagedFiles);
+            stagedFiles.clear();
+        }
+
+        try {
+            for(int i = 0; i != filesToCommit.size(); ++i) {
+                final StagedFile stagedFile = filesToCommit.get(i);
+                Files.move(stagedFile.tempFile(), stagedFile.target(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                filesToCommit.set(i, null);
+            }
+        } finally {
+            deleteTempFiles(filesToCommit);
+        }
+
+        if(durable) {
+            syncDirectory(directory);
+        }
+    }
+
+    /**
+     * Discards all staged files, unless the transaction was already committed.
+     *
+     * @throws IOException if a temporary file could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        final List<StagedFile> filesToDiscard;
+
+        synchronized(stagedFiles) {
+            completed = true;
+            filesToDiscard = new ArrayList<>(stagedFiles);
+            stagedFiles.clear();
+        }
+
+        deleteTempFiles(filesToDiscard);
+    }
+
+    private static void deleteTempFiles(List<StagedFile> files) throws IOException {
+        IOException exception = null;
+
+        for(StagedFile file : files) {
+            if(file == null) {
+                continue;
+            }
+
+            try {
+                Files.deleteIfExists(file.tempFile());
+            } catch(IOException e) {
+                exception = e;
+            }
+        }
+
+        if(exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Flushes the entries of a folder (e.g. renamed files) to the storage device.
+     *
+     * @param directory the folder
+     * @throws IOException if the folder could not be synced
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        if(System.getProperty("os.name", "").toLowerCase(Locale.ENGLISH).startsWith("windows")) {
+            // Folders cannot be opened for syncing on Windows, where renames are journaled by the file system.
+            return;
+        }
+
+        try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private record StagedFile(Path tempFile, Path target) {
+    }
+}
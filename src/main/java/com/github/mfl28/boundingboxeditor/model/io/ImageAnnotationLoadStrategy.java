@@ -25,6 +25,7 @@ import javafx.beans.property.DoubleProperty;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -44,6 +45,9 @@ public interface ImageAnnotationLoadStrategy {
             case YOLO -> new YOLOLoadStrategy();
             case JSON -> new JSONLoadStrategy();
             case CSV -> new CSVLoadStrategy();
+            case COCO -> new COCOLoadStrategy();
+            case BINARY_PROJECT -> new BinaryProjectLoadStrategy();
+            case JSON_LINES -> new JSONLinesLoadStrategy();
         };
     }
 
@@ -61,7 +65,25 @@ public interface ImageAnnotationLoadStrategy {
                                      Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
                                      DoubleProperty progress) throws IOException;
 
-    enum Type {PASCAL_VOC, YOLO, JSON, CSV}
+    /**
+     * Loads the provided image-annotation files from the provided directory path into the program. This is
+     * used to incrementally re-import annotation files which were changed externally. Strategies which do not
+     * store the annotations of each image in a separate file load all annotations of the path.
+     *
+     * @param path            the path of the directory containing the image-annotation files
+     * @param annotationFiles the paths of the image-annotation files to load
+     * @param filesToLoad     the set of files whose annotations can be imported
+     * @param progress        the progress-property that will be updated during the loading-operation
+     * @return an {@link IOResult} containing information about the finished loading
+     * @throws IOException if the directory denoted by the path could not be opened
+     */
+    default ImageAnnotationImportResult load(Path path, Collection<Path> annotationFiles, Set<String> filesToLoad,
+                                             Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                             DoubleProperty progress) throws IOException {
+        return load(path, filesToLoad, existingCategoryNameToCategoryMap, progress);
+    }
+
+    enum Type {PASCAL_VOC, YOLO, JSON, CSV, COCO, BINARY_PROJECT, JSON_LINES}
 
     @SuppressWarnings("serial")
     class InvalidAnnotationFormatException extends RuntimeException {
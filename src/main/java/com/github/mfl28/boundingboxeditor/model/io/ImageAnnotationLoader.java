@@ -26,6 +26,7 @@ import javafx.beans.property.SimpleDoubleProperty;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -63,6 +64,24 @@ public class ImageAnnotationLoader {
                 .load(annotationsFolderPath, filesToLoad, existingCategoryNameToCategoryMap, progress));
     }
 
+    /**
+     * Loads the provided image-annotation files as specified by the wrapped {@link ImageAnnotationLoadStrategy}
+     * into the model-component of the program.
+     *
+     * @param annotationsFolderPath the path of the folder containing the image-annotation files
+     * @param annotationFiles       the paths of the image-annotation files to load
+     * @return an {@link IOResult} containing information about the finished loading
+     * @throws IOException if the directory denoted by the path could not be opened
+     */
+    public ImageAnnotationImportResult load(final Path annotationsFolderPath, final Collection<Path> annotationFiles,
+                                            final Set<String> filesToLoad,
+                                            final Map<String, ObjectCategory> existingCategoryNameToCategoryMap)
+            throws Exception {
+        return IOOperationTimer.time(() -> loadStrategy
+                .load(annotationsFolderPath, annotationFiles, filesToLoad, existingCategoryNameToCategoryMap,
+                      progress));
+    }
+
     /**
      * Returns a property representing the progress of the loading-operation which can be bound
      * to update the progress of a {@link javafx.concurrent.Service} performing the loading.
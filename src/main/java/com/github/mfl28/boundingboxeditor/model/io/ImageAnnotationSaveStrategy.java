@@ -41,6 +41,9 @@ public interface ImageAnnotationSaveStrategy {
             case YOLO -> new YOLOSaveStrategy();
             case JSON -> new JSONSaveStrategy();
             case CSV -> new CSVSaveStrategy();
+            case COCO -> new COCOSaveStrategy();
+            case BINARY_PROJECT -> new BinaryProjectSaveStrategy();
+            case JSON_LINES -> new JSONLinesSaveStrategy();
         };
     }
 
@@ -78,6 +81,24 @@ public interface ImageAnnotationSaveStrategy {
             public String toString() {
                 return "CSV";
             }
+        },
+        COCO {
+            @Override
+            public String toString() {
+                return "COCO";
+            }
+        },
+        BINARY_PROJECT {
+            @Override
+            public String toString() {
+                return "Binary project";
+            }
+        },
+        JSON_LINES {
+            @Override
+            public String toString() {
+                return "JSON Lines";
+            }
         }
     }
 }
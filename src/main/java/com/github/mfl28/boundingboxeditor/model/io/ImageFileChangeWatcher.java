@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Watches the image-files of the currently loaded folder and reports external changes incrementally.
+ * The file-system events are coalesced into batches by a {@link RecursiveFileWatcher}. The
+ * changed files of a batch are classified into added, removed and modified image-files and only the metadata
+ * of the added and modified files is read, so that the cost of a change is proportional to the number
+ * of changed files.
+ */
+public class ImageFileChangeWatcher implements Runnable {
+    // Image-files are only loaded from the top level of a folder.
+    private static final int IMAGE_FILE_DEPTH = 1;
+    private final Path directoryToWatch;
+    private final Set<String> knownFileNames;
+    private final Consumer<ImageFileChanges> onFilesChangedHandler;
+
+    /**
+     * Creates a new image-file change watcher.
+     *
+     * @param directoryToWatch      the path to the directory that should be watched
+     * @param imageFileNames        the names of the currently loaded image-files
+     * @param onFilesChangedHandler the handler of the changes, called on the JavaFX application thread
+     */
+    public ImageFileChangeWatcher(Path directoryToWatch, Set<String> imageFileNames,
+                                  Consumer<ImageFileChanges> onFilesChangedHandler) {
+        this.directoryToWatch = directoryToWatch;
+        this.knownFileNames = new HashSet<>(imageFileNames);
+        this.onFilesChangedHandler = onFilesChangedHandler;
+    }
+
+    @Override
+    public void run() {
+        try {
+            new RecursiveFileWatcher(directoryToWatch, IMAGE_FILE_DEPTH, this::onFilesChanged).watch();
+        } catch(InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } catch(IOException e) {
+            // The folder cannot be watched, reporting all image-files as removed initiates a full reload.
+            reportChanges(new ImageFileChanges(Collections.emptyList(), Set.copyOf(knownFileNames),
+                                               Collections.emptyList(), Collections.emptyMap()));
+        }
+    }
+
+    /**
+     * Classifies changed files into added, removed and modified image-files by comparing the current state
+     * of the watched directory with the known image-files and reads the metadata of the added and modified
+     * image-files. Files whose metadata cannot be read are not image-files, modified files which became
+     * unreadable are therefore reported as removed.
+     *
+     * @param changedFileNames the names of the files for which events were received
+     * @return the changes
+     */
+    ImageFileChanges reconcile(Set<String> changedFileNames) {
+        final List<File> candidateFiles = new ArrayList<>();
+        final Set<String> removedFileNames = new HashSet<>();
+
+        for(String fileName : changedFileNames) {
+            final File file = directoryToWatch.resolve(fileName).toFile();
+
+            if(file.isFile() && !file.isHidden()) {
+                candidateFiles.add(file);
+            } else if(knownFileNames.contains(fileName)) {
+                removedFileNames.add(fileName);
+            }
+        }
+
+        final Map<String, ImageMetaData> fileNameToMetaData = new ConcurrentHashMap<>();
+
+        candidateFiles.parallelStream().forEach(file -> {
+            try {
+                fileNameToMetaData.put(file.getName(), ImageMetaData.fromFile(file));
+            } catch(Exception e) {
+                // Not a (supported) image-file or not yet completely written.
+            }
+        });
+
+        final List<File> addedFiles = new ArrayList<>();
+        final List<File> modifiedFiles = new ArrayList<>();
+
+        for(File file : candidateFiles) {
+            final boolean known = knownFileNames.contains(file.getName());
+
+            if(!fileNameToMetaData.containsKey(file.getName())) {
+                if(known) {
+                    removedFileNames.add(file.getName());
+                }
+            } else if(known) {
+                modifiedFiles.add(file);
+            } else {
+                addedFiles.add(file);
+            }
+        }
+
+        addedFiles.sort(Comparator.comparing(File::getName));
+        addedFiles.forEach(file -> knownFileNames.add(file.getName()));
+        knownFileNames.removeAll(removedFileNames);
+
+        return new ImageFileChanges(addedFiles, removedFileNames, modifiedFiles, fileNameToMetaData);
+    }
+
+    private void onFilesChanged(RecursiveFileWatcher.Changes changes) {
+        final Set<String> changedFileNames = new HashSet<>();
+
+        for(Path path : changes.changedPaths()) {
+            if(directoryToWatch.equals(path.getParent())) {
+                changedFileNames.add(path.getFileName().toString());
+            }
+        }
+
+        for(String fileName : knownFileNames) {
+            if(changes.affects(directoryToWatch.resolve(fileName))) {
+                changedFileNames.add(fileName);
+            }
+        }
+
+        reportChanges(reconcile(changedFileNames));
+    }
+
+    private void reportChanges(ImageFileChanges imageFileChanges) {
+        if(!imageFileChanges.isEmpty()) {
+            Platform.runLater(() -> onFilesChangedHandler.accept(imageFileChanges));
+        }
+    }
+}
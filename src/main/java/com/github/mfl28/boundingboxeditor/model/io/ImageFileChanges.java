@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Externally added, removed and modified image-files of the currently loaded folder.
+ *
+ * @param addedFiles         the added image-files, sorted by name
+ * @param removedFileNames   the names of the removed image-files
+ * @param modifiedFiles      the modified image-files
+ * @param fileNameToMetaData the metadata of the added and modified image-files
+ */
+public record ImageFileChanges(List<File> addedFiles, Set<String> removedFileNames, List<File> modifiedFiles,
+                               Map<String, ImageMetaData> fileNameToMetaData) {
+    public boolean isEmpty() {
+        return addedFiles.isEmpty() && removedFileNames.isEmpty() && modifiedFiles.isEmpty();
+    }
+
+    /**
+     * Returns a short human-readable summary of the changes.
+     *
+     * @return the summary
+     */
+    public String getSummary() {
+        return addedFiles.size() + " added, " + removedFileNames.size() + " removed, " + modifiedFiles.size()
+                + " modified";
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import com.google.gson.*;
+import javafx.beans.property.DoubleProperty;
+import org.apache.commons.io.function.IOFunction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads image-annotations from a JSON Lines file, in which every line holds the annotation of a single image
+ * (see {@link JSONLinesSaveStrategy}). Large files are split into byte-ranges (aligned on line boundaries) which
+ * are parsed in parallel and merged in file order. If an image occurs on several lines, the last valid line wins,
+ * a line with an empty objects element removes the annotation of its image. Errors are reported with the number
+ * of the line they occurred in and do not affect any other line.
+ */
+public class JSONLinesLoadStrategy implements ImageAnnotationLoadStrategy {
+    static final long DEFAULT_MIN_CHUNK_SIZE_IN_BYTES = 4L * 1024 * 1024;
+    private static final int MAX_NR_CHUNKS_PER_PROCESSOR = 4;
+    private static final String FILE_EXTENSION = ".jsonl";
+    private static final String IMAGE_META_DATA_SERIALIZED_NAME = "image";
+    private static final String IMAGE_FILE_NAME_SERIALIZED_NAME = "fileName";
+    private static final String BOUNDING_SHAPE_DATA_SERIALIZED_NAME = "objects";
+    private static final String LINE_MESSAGE_PART = "Line ";
+    private final long minChunkSizeInBytes;
+
+    /**
+     * Creates a new JSON Lines loading-strategy which parses files in parallel if they are large enough.
+     */
+    public JSONLinesLoadStrategy() {
+        this(DEFAULT_MIN_CHUNK_SIZE_IN_BYTES);
+    }
+
+    /**
+     * Creates a new JSON Lines loading-strategy.
+     *
+     * @param minChunkSizeInBytes the minimal size of a byte-range that is parsed by a single worker, files
+     *                            smaller than twice this size are parsed sequentially
+     */
+    JSONLinesLoadStrategy(long minChunkSizeInBytes) {
+        this.minChunkSizeInBytes = minChunkSizeInBytes;
+    }
+
+    @Override
+    public ImageAnnotationImportResult load(Path path, Set<String> filesToLoad,
+                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                            DoubleProperty progress) throws IOException {
+        progress.set(0);
+
+        final Map<String, ObjectCategory> categoryNameToCategoryMap =
+                new ConcurrentHashMap<>(existingCategoryNameToCategoryMap);
+        final String sourceName;
+        final List<JSONLinesParseResult> chunkParseResults;
+
+        if(AnnotationArchiveReader.isArchive(path)) {
+            try(final AnnotationArchiveReader.ArchiveEntryInputStream entryInputStream =
+                        AnnotationArchiveReader.openFirstEntry(path, fileName -> fileName.endsWith(FILE_EXTENSION));
+                final BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(entryInputStream, StandardCharsets.UTF_8))) {
+                sourceName = entryInputStream.getFileName();
+                chunkParseResults = List.of(parseLines(reader, sourceName, filesToLoad, categoryNameToCategoryMap));
+            }
+        } else {
+            sourceName = path.getFileName().toString();
+            chunkParseResults = parseChunks(path, minChunkSizeInBytes,
+                    reader -> parseLines(reader, sourceName, filesToLoad, categoryNameToCategoryMap), progress);
+        }
+
+        final ImageAnnotationImportResult importResult =
+                mergeInOrder(chunkParseResults, sourceName, existingCategoryNameToCategoryMap);
+
+        progress.set(1.0);
+
+        return importResult;
+    }
+
+    /**
+     * Splits a file into byte-ranges that are aligned on line boundaries and applies a parser to each range in
+     * parallel.
+     *
+     * @param path                the file
+     * @param minChunkSizeInBytes the minimal size of a byte-range that is parsed by a single worker
+     * @param chunkParser         the parser which is applied to a reader of a single byte-range
+     * @param progress            the progress-property that is updated with the share of parsed bytes
+     * @param <T>                 the type of the result of a single byte-range
+     * @return the results of all byte-ranges in file order
+     * @throws IOException if the file could not be read
+     */
+    static <T> List<T> parseChunks(Path path, long minChunkSizeInBytes, IOFunction<BufferedReader, T> chunkParser,
+                                   DoubleProperty progress) throws IOException {
+        final List<LineAlignedChunking.Chunk> chunks;
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long nrChunks = Math.clamp(size / minChunkSizeInBytes, 1,
+                    (long) MAX_NR_CHUNKS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+
+            chunks = LineAlignedChunking.createChunks(channel, 0, size, (int) nrChunks);
+        }
+
+        if(chunks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final long totalNrBytes = chunks.getLast().end();
+        final AtomicLong nrProcessedBytes = new AtomicLong(0);
+
+        try {
+            return chunks.parallelStream()
+                    .map(chunk -> {
+                        final T chunkResult;
+
+                        try(BufferedReader reader = new BufferedReader(new InputStreamReader(
+                                LineAlignedChunking.openChunkInputStream(path, chunk), StandardCharsets.UTF_8))) {
+                            chunkResult = chunkParser.apply(reader);
+                        } catch(IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+
+                        progress.set(1.0 * nrProcessedBytes.addAndGet(chunk.length()) / totalNrBytes);
+
+                        return chunkResult;
+                    })
+                    .toList();
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the file name of the image a parsed line refers to.
+     *
+     * @param jsonObject the parsed line
+     * @return the image file name or null if the line does not contain one
+     */
+    static String parseImageFileName(JsonObject jsonObject) {
+        if(jsonObject.get(IMAGE_META_DATA_SERIALIZED_NAME) instanceof JsonObject imageMetaDataObject
+                && imageMetaDataObject.get(IMAGE_FILE_NAME_SERIALIZED_NAME) instanceof JsonPrimitive fileName) {
+            return fileName.getAsString();
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns true if a parsed line removes the annotation of its image.
+     *
+     * @param jsonObject the parsed line
+     * @return true if the objects element of the line is an empty array
+     */
+    static boolean isRemovalLine(JsonObject jsonObject) {
+        return jsonObject.get(BOUNDING_SHAPE_DATA_SERIALIZED_NAME) instanceof JsonArray objects && objects.isEmpty();
+    }
+
+    private static JSONLinesParseResult parseLines(BufferedReader reader, String sourceName, Set<String> filesToLoad,
+                                                   Map<String, ObjectCategory> categoryNameToCategoryMap)
+            throws IOException {
+        final JSONLinesParseResult parseResult = new JSONLinesParseResult();
+        final List<IOErrorInfoEntry> lineErrorInfoEntries = new ArrayList<>();
+        final AtomicReference<String> currentImageFileName = new AtomicReference<>();
+
+        // Shapes are counted after merging, so that shapes of superseded lines are not included.
+        final Gson gson = JSONLoadStrategy.createGsonBuilder(lineErrorInfoEntries, sourceName, currentImageFileName,
+                filesToLoad, categoryNameToCategoryMap, new HashMap<>()).create();
+
+        String line;
+
+        while((line = reader.readLine()) != null) {
+            ++parseResult.nrLines;
+
+            if(line.isBlank()) {
+                continue;
+            }
+
+            try {
+                final JsonObject jsonObject = JsonParser.parseString(line).getAsJsonObject();
+                final String imageFileName = parseImageFileName(jsonObject);
+
+                if(imageFileName != null && isRemovalLine(jsonObject)) {
+                    parseResult.parsedLines.add(new ParsedLine(imageFileName, null));
+                } else {
+                    final ImageAnnotation imageAnnotation = gson.fromJson(jsonObject, ImageAnnotation.class);
+
+                    if(imageAnnotation != null) {
+                        parseResult.parsedLines.add(new ParsedLine(imageAnnotation.getImageFileName(),
+                                imageAnnotation));
+                    }
+                }
+            } catch(JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+                lineErrorInfoEntries.add(new IOErrorInfoEntry(sourceName,
+                        e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            }
+
+            for(IOErrorInfoEntry errorInfoEntry : lineErrorInfoEntries) {
+                parseResult.lineErrors.add(new LineError(parseResult.nrLines, errorInfoEntry.getErrorDescription()));
+            }
+
+            lineErrorInfoEntries.clear();
+        }
+
+        return parseResult;
+    }
+
+    private static ImageAnnotationImportResult mergeInOrder(List<JSONLinesParseResult> chunkParseResults,
+                                                            String sourceName,
+                                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap) {
+        final Map<String, ImageAnnotation> fileNameToAnnotationMap = new LinkedHashMap<>();
+        final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
+        long nrPrecedingLines = 0;
+
+        for(JSONLinesParseResult chunkParseResult : chunkParseResults) {
+            for(ParsedLine parsedLine : chunkParseResult.parsedLines) {
+                if(parsedLine.imageAnnotation() == null) {
+                    fileNameToAnnotationMap.remove(parsedLine.imageFileName());
+                } else {
+                    fileNameToAnnotationMap.put(parsedLine.imageFileName(), parsedLine.imageAnnotation());
+                }
+            }
+
+            for(LineError lineError : chunkParseResult.lineErrors) {
+                errorInfoEntries.add(new IOErrorInfoEntry(sourceName, LINE_MESSAGE_PART +
+                        (nrPrecedingLines + lineError.lineNumber()) + ": " + lineError.message()));
+            }
+
+            nrPrecedingLines += chunkParseResult.nrLines;
+        }
+
+        final Map<String, Integer> categoryNameToBoundingShapesCountMap = new HashMap<>();
+        final Map<String, ObjectCategory> categoryNameToCategoryMap = new HashMap<>(existingCategoryNameToCategoryMap);
+
+        for(ImageAnnotation imageAnnotation : fileNameToAnnotationMap.values()) {
+            registerShapes(imageAnnotation.getBoundingShapeData(), categoryNameToBoundingShapesCountMap,
+                    categoryNameToCategoryMap);
+        }
+
+        return new ImageAnnotationImportResult(
+                fileNameToAnnotationMap.size(),
+                errorInfoEntries,
+                new ImageAnnotationData(fileNameToAnnotationMap.values(), categoryNameToBoundingShapesCountMap,
+                        categoryNameToCategoryMap),
+                nrPrecedingLines
+        );
+    }
+
+    private static void registerShapes(List<BoundingShapeData> shapes, Map<String, Integer> categoryNameToCountMap,
+                                       Map<String, ObjectCategory> categoryNameToCategoryMap) {
+        for(BoundingShapeData shape : shapes) {
+            categoryNameToCountMap.merge(shape.getCategoryName(), 1, Integer::sum);
+            categoryNameToCategoryMap.putIfAbsent(shape.getCategoryName(), shape.getCategory());
+            registerShapes(shape.getParts(), categoryNameToCountMap, categoryNameToCategoryMap);
+        }
+    }
+
+    private record ParsedLine(String imageFileName, ImageAnnotation imageAnnotation) {
+    }
+
+    private record LineError(long lineNumber, String message) {
+    }
+
+    private static class JSONLinesParseResult {
+        private final List<ParsedLine> parsedLines = new ArrayList<>();
+        private final List<LineError> lineErrors = new ArrayList<>();
+        private long nrLines = 0;
+    }
+}
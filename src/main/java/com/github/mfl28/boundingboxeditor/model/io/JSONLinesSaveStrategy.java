@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.google.gson.*;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Saves image-annotations to a JSON Lines file which holds the annotation of a single image per line. Lines are
+ * serialized in parallel into one buffer per batch of images, the buffers are then written in order. If the
+ * destination already is a valid JSON Lines file, the save is incremental: only lines of new or changed images and
+ * removal lines (with an empty objects element) for images that are no longer annotated are appended. Once the
+ * space taken by superseded lines exceeds the live data, the file is rewritten completely. Saving into a
+ * ZIP-archive always writes the file completely.
+ */
+public class JSONLinesSaveStrategy implements ImageAnnotationSaveStrategy {
+    private static final double MAX_UNREFERENCED_SPACE_RATIO = 1.0;
+    private static final int MAX_NR_BATCHES_PER_PROCESSOR = 4;
+    private static final int MIN_NR_IMAGES_PER_BATCH = 256;
+    private static final String FILE_EXTENSION = ".jsonl";
+    private static final String IMAGE_META_DATA_SERIALIZED_NAME = "image";
+    private static final String IMAGE_FILE_NAME_SERIALIZED_NAME = "fileName";
+    private static final String BOUNDING_SHAPE_DATA_SERIALIZED_NAME = "objects";
+    private static final byte LINE_SEPARATOR = '\n';
+
+    @Override
+    public ImageAnnotationExportResult save(ImageAnnotationData annotations, Path destination,
+                                            DoubleProperty progress) {
+        final List<IOErrorInfoEntry> errorEntries = new ArrayList<>();
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>(annotations.imageAnnotations());
+
+        progress.set(0);
+
+        try {
+            final List<SerializedBatch> batches = serializeInBatches(imageAnnotations, progress);
+
+            if(AnnotationExportSink.isArchive(destination) || !Files.isRegularFile(destination)
+                    || !appendChanges(destination, imageAnnotations, batches)) {
+                writeCompletely(destination, batches);
+            }
+        } catch(IOException e) {
+            errorEntries.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
+            return new ImageAnnotationExportResult(0, errorEntries);
+        }
+
+        progress.set(1.0);
+
+        return new ImageAnnotationExportResult(imageAnnotations.size(), errorEntries);
+    }
+
+    private static List<SerializedBatch> serializeInBatches(List<ImageAnnotation> imageAnnotations,
+                                                            DoubleProperty progress) {
+        final Gson gson = JSONSaveStrategy.createGsonBuilder().create();
+        final int totalNrAnnotations = imageAnnotations.size();
+        final int nrBatches = Math.clamp(Math.ceilDiv(totalNrAnnotations, MIN_NR_IMAGES_PER_BATCH), 1,
+                MAX_NR_BATCHES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+        final AtomicInteger nrProcessedAnnotations = new AtomicInteger(0);
+
+        return IntStream.range(0, nrBatches)
+                .parallel()
+                .mapToObj(batchIndex -> {
+                    final List<ImageAnnotation> batch = imageAnnotations.subList(
+                            (int) ((long) totalNrAnnotations * batchIndex / nrBatches),
+                            (int) ((long) totalNrAnnotations * (batchIndex + 1) / nrBatches));
+                    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    final int[] lineEnds = new int[batch.size()];
+
+                    for(int i = 0; i < batch.size(); ++i) {
+                        buffer.writeBytes(gson.toJson(batch.get(i), ImageAnnotation.class)
+                                .getBytes(StandardCharsets.UTF_8));
+                        lineEnds[i] = buffer.size();
+                        buffer.write(LINE_SEPARATOR);
+
+                        progress.set(1.0 * nrProcessedAnnotations.incrementAndGet() / totalNrAnnotations);
+                    }
+
+                    return new SerializedBatch(buffer.toByteArray(), lineEnds);
+                })
+                .toList();
+    }
+
+    private static void writeCompletely(Path destination, List<SerializedBatch> batches) throws IOException {
+        AnnotationExportSink.writeSingleFile(destination, FILE_EXTENSION, outputStream -> {
+            for(SerializedBatch batch : batches) {
+                outputStream.write(batch.data());
+            }
+        });
+    }
+
+    private static boolean appendChanges(Path destination, List<ImageAnnotation> imageAnnotations,
+                                         List<SerializedBatch> batches) throws IOException {
+        final Optional<ExistingFile> existingFile = readExistingFile(destination);
+
+        if(existingFile.isEmpty()) {
+            return false;
+        }
+
+        final Map<String, LineChecksum> fileNameToExistingLineMap = existingFile.get().fileNameToLineMap();
+        final List<ByteBuffer> appendedLines = new ArrayList<>();
+        long appendedBytes = existingFile.get().endsWithLineSeparator() ? 0 : 1;
+        long liveBytes = 0;
+        int imageIndex = 0;
+
+        for(SerializedBatch batch : batches) {
+            for(int i = 0; i < batch.lineEnds().length; ++i) {
+                final String imageFileName = imageAnnotations.get(imageIndex++).getImageFileName();
+                final int lineStart = batch.lineStart(i);
+                final int lineLength = batch.lineEnds()[i] - lineStart;
+                final LineChecksum existingLine = fileNameToExistingLineMap.remove(imageFileName);
+
+                if(existingLine == null
+                        || !existingLine.equals(LineChecksum.of(batch.data(), lineStart, lineLength))) {
+                    appendedLines.add(ByteBuffer.wrap(batch.data(), lineStart, lineLength + 1));
+                    appendedBytes += lineLength + 1;
+                }
+
+                liveBytes += lineLength + 1;
+            }
+        }
+
+        // The remaining existing images are not annotated anymore.
+        for(String removedImageFileName : fileNameToExistingLineMap.keySet()) {
+            final ByteBuffer removalLine = createRemovalLine(removedImageFileName);
+            appendedLines.add(removalLine);
+            appendedBytes += removalLine.remaining();
+        }
+
+        if(existingFile.get().size() + appendedBytes - liveBytes > liveBytes * MAX_UNREFERENCED_SPACE_RATIO) {
+            return false;
+        }
+
+        if(appendedLines.isEmpty()) {
+            return true;
+        }
+
+        try(FileChannel channel = FileChannel.open(destination, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            if(!existingFile.get().endsWithLineSeparator()) {
+                writeFully(channel, ByteBuffer.wrap(new byte[]{LINE_SEPARATOR}));
+            }
+
+            for(ByteBuffer appendedLine : appendedLines) {
+                writeFully(channel, appendedLine);
+            }
+
+            // An interrupted append leaves at most one incomplete line: it is reported and skipped on loading
+            // and the next save rewrites the file completely.
+            channel.force(false);
+        }
+
+        return true;
+    }
+
+    private static Optional<ExistingFile> readExistingFile(Path destination) throws IOException {
+        final long size;
+        final boolean endsWithLineSeparator;
+
+        try(FileChannel channel = FileChannel.open(destination, StandardOpenOption.READ)) {
+            size = channel.size();
+
+            if(size == 0) {
+                return Optional.of(new ExistingFile(new HashMap<>(), 0, true));
+            }
+
+            final ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.read(lastByte, size - 1);
+            endsWithLineSeparator = lastByte.get(0) == LINE_SEPARATOR;
+        }
+
+        final List<Optional<List<ExistingLine>>> chunkLines = JSONLinesLoadStrategy.parseChunks(destination,
+                JSONLinesLoadStrategy.DEFAULT_MIN_CHUNK_SIZE_IN_BYTES, JSONLinesSaveStrategy::readExistingLines,
+                new SimpleDoubleProperty());
+
+        final Map<String, LineChecksum> fileNameToLineMap = new HashMap<>();
+
+        for(Optional<List<ExistingLine>> lines : chunkLines) {
+            if(lines.isEmpty()) {
+                // Not a (valid) JSON Lines file, it will be overwritten completely.
+                return Optional.empty();
+            }
+
+            for(ExistingLine line : lines.get()) {
+                if(line.checksum() == null) {
+                    fileNameToLineMap.remove(line.imageFileName());
+                } else {
+                    fileNameToLineMap.put(line.imageFileName(), line.checksum());
+                }
+            }
+        }
+
+        return Optional.of(new ExistingFile(fileNameToLineMap, size, endsWithLineSeparator));
+    }
+
+    private static Optional<List<ExistingLine>> readExistingLines(BufferedReader reader) throws IOException {
+        final List<ExistingLine> lines = new ArrayList<>();
+        String line;
+
+        while((line = reader.readLine()) != null) {
+            if(line.isBlank()) {
+                continue;
+            }
+
+            final String imageFileName;
+            final boolean isRemovalLine;
+
+            try {
+                final JsonObject jsonObject = JsonParser.parseString(line).getAsJsonObject();
+                imageFileName = JSONLinesLoadStrategy.parseImageFileName(jsonObject);
+                isRemovalLine = JSONLinesLoadStrategy.isRemovalLine(jsonObject);
+            } catch(JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+                return Optional.empty();
+            }
+
+            if(imageFileName == null) {
+                return Optional.empty();
+            }
+
+            final byte[] lineBytes = line.getBytes(StandardCharsets.UTF_8);
+            lines.add(new ExistingLine(imageFileName,
+                    isRemovalLine ? null : LineChecksum.of(lineBytes, 0, lineBytes.length)));
+        }
+
+        return Optional.of(lines);
+    }
+
+    private static ByteBuffer createRemovalLine(String imageFileName) {
+        final JsonObject imageMetaDataObject = new JsonObject();
+        imageMetaDataObject.addProperty(IMAGE_FILE_NAME_SERIALIZED_NAME, imageFileName);
+
+        final JsonObject removalObject = new JsonObject();
+        removalObject.add(IMAGE_META_DATA_SERIALIZED_NAME, imageMetaDataObject);
+        removalObject.add(BOUNDING_SHAPE_DATA_SERIALIZED_NAME, new JsonArray());
+
+        return ByteBuffer.wrap((removalObject + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private record SerializedBatch(byte[] data, int[] lineEnds) {
+        int lineStart(int lineIndex) {
+            return lineIndex == 0 ? 0 : lineEnds[lineIndex - 1] + 1;
+        }
+    }
+
+    private record LineChecksum(int length, long crc) {
+        static LineChecksum of(byte[] data, int offset, int length) {
+            final CRC32 crc32 = new CRC32();
+            crc32.update(data, offset, length);
+
+            return new LineChecksum(length, crc32.getValue());
+        }
+    }
+
+    private record ExistingLine(String imageFileName, LineChecksum checksum) {
+    }
+
+    private record ExistingFile(Map<String, LineChecksum> fileNameToLineMap, long size,
+                                boolean endsWithLineSeparator) {
+    }
+}
@@ -32,6 +32,7 @@ import javafx.scene.paint.Color;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -86,16 +87,80 @@ public class JSONLoadStrategy implements ImageAnnotationLoadStrategy {
     public ImageAnnotationImportResult load(Path path, Set<String> filesToLoad,
                                             Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
                                             DoubleProperty progress) throws IOException {
+        if(AnnotationArchiveReader.isArchive(path)) {
+            try(final AnnotationArchiveReader.ArchiveEntryInputStream entryInputStream =
+                        AnnotationArchiveReader.openFirstEntry(path, fileName -> fileName.endsWith(".json"));
+                final BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(entryInputStream, StandardCharsets.UTF_8))) {
+                return load(reader, entryInputStream.getFileName(), filesToLoad,
+                            existingCategoryNameToCategoryMap, progress);
+            }
+        }
+
+        try(final BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return load(reader, path.getFileName().toString(), filesToLoad,
+                        existingCategoryNameToCategoryMap, progress);
+        }
+    }
+
+    private ImageAnnotationImportResult load(BufferedReader reader, String annotationFileName,
+                                             Set<String> filesToLoad,
+                                             Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                             DoubleProperty progress) {
         final Map<String, Integer> categoryNameToBoundingShapesCountMap = new HashMap<>();
         final List<IOErrorInfoEntry> errorInfoEntries = new ArrayList<>();
         final AtomicReference<String> currentImageFileName = new AtomicReference<>();
-        final String annotationFileName = path.getFileName().toString();
 
         final java.lang.reflect.Type imageAnnotationListType =
                 new TypeToken<List<ImageAnnotation>>() {}.getType();
 
-        final Gson gson = new GsonBuilder()
+        final Gson gson = createGsonBuilder(errorInfoEntries, annotationFileName, currentImageFileName, filesToLoad,
+                                            existingCategoryNameToCategoryMap,
+                                            categoryNameToBoundingShapesCountMap)
                 .registerTypeAdapter(imageAnnotationListType, new ImageAnnotationListDeserializer(progress))
+                .create();
+
+        final List<ImageAnnotation> imageAnnotations;
+
+        try {
+            imageAnnotations = gson.fromJson(reader, imageAnnotationListType);
+        } catch(JsonIOException | JsonSyntaxException e) {
+            final String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+
+            errorInfoEntries.add(new IOErrorInfoEntry(annotationFileName, message));
+
+            return new ImageAnnotationImportResult(
+                    0,
+                    errorInfoEntries,
+                    ImageAnnotationData.empty()
+            );
+        }
+
+
+        return new ImageAnnotationImportResult(
+                imageAnnotations != null ? imageAnnotations.size() : 0,
+                errorInfoEntries,
+                new ImageAnnotationData(imageAnnotations, categoryNameToBoundingShapesCountMap,
+                                        existingCategoryNameToCategoryMap)
+        );
+    }
+
+    /**
+     * Creates a gson-builder with the deserializers for the elements of a single image-annotation.
+     *
+     * @param errorInfoEntries                     the list that errors are reported to
+     * @param annotationFileName                   the name of the annotation file used in error reports
+     * @param currentImageFileName                 holds the file name of the image that is currently parsed
+     * @param filesToLoad                          the file names of the currently loaded images
+     * @param categoryNameToCategoryMap            the map that parsed categories are registered in
+     * @param categoryNameToBoundingShapesCountMap the map that parsed shapes are counted in
+     * @return the builder
+     */
+    static GsonBuilder createGsonBuilder(List<IOErrorInfoEntry> errorInfoEntries, String annotationFileName,
+                                         AtomicReference<String> currentImageFileName, Set<String> filesToLoad,
+                                         Map<String, ObjectCategory> categoryNameToCategoryMap,
+                                         Map<String, Integer> categoryNameToBoundingShapesCountMap) {
+        return new GsonBuilder()
                 .registerTypeAdapter(ImageAnnotation.class,
                                      new ImageAnnotationDeserializer(errorInfoEntries, annotationFileName))
                 .registerTypeAdapter(ImageMetaData.class,
@@ -108,46 +173,19 @@ public class JSONLoadStrategy implements ImageAnnotationLoadStrategy {
                 .registerTypeAdapter(BoundingBoxData.class, new BoundingBoxDataDeserializer(errorInfoEntries,
                                                                                             currentImageFileName,
                                                                                             annotationFileName,
-                                                                                            existingCategoryNameToCategoryMap,
+                                                                                            categoryNameToCategoryMap,
                                                                                             categoryNameToBoundingShapesCountMap))
                 .registerTypeAdapter(BoundingPolygonData.class, new BoundingPolygonDataDeserializer(errorInfoEntries,
                                                                                                     currentImageFileName,
                                                                                                     annotationFileName,
-                                                                                                    existingCategoryNameToCategoryMap,
+                                                                                                    categoryNameToCategoryMap,
                                                                                                     categoryNameToBoundingShapesCountMap))
                 .registerTypeAdapter(ObjectCategory.class,
                                      new ObjectCategoryDeserializer(errorInfoEntries, currentImageFileName,
                                                                     annotationFileName))
                 .registerTypeHierarchyAdapter(Bounds.class,
                                               new BoundsDeserializer(errorInfoEntries, currentImageFileName,
-                                                                     annotationFileName))
-                .create();
-
-        try(final BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-            final List<ImageAnnotation> imageAnnotations;
-
-            try {
-                imageAnnotations = gson.fromJson(reader, imageAnnotationListType);
-            } catch(JsonIOException | JsonSyntaxException e) {
-                final String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
-
-                errorInfoEntries.add(new IOErrorInfoEntry(annotationFileName, message));
-
-                return new ImageAnnotationImportResult(
-                        0,
-                        errorInfoEntries,
-                        ImageAnnotationData.empty()
-                );
-            }
-
-
-            return new ImageAnnotationImportResult(
-                    imageAnnotations != null ? imageAnnotations.size() : 0,
-                    errorInfoEntries,
-                    new ImageAnnotationData(imageAnnotations, categoryNameToBoundingShapesCountMap,
-                                            existingCategoryNameToCategoryMap)
-            );
-        }
+                                                                     annotationFileName));
     }
 
     private static Optional<List<String>> parseBoundingShapeTags(JsonDeserializationContext context,
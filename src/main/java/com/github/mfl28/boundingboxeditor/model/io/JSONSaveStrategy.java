@@ -31,8 +31,8 @@ import javafx.geometry.Bounds;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -42,8 +42,9 @@ import java.util.Locale;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JSONSaveStrategy implements ImageAnnotationSaveStrategy {
-    private static final DecimalFormat DECIMAL_FORMAT =
-            new DecimalFormat("#.######", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+    // DecimalFormat is not thread-safe, and the shared serializers are also used by parallel savers.
+    private static final ThreadLocal<DecimalFormat> DECIMAL_FORMAT = ThreadLocal.withInitial(() ->
+            new DecimalFormat("#.######", DecimalFormatSymbols.getInstance(Locale.ENGLISH)));
     private static final String OBJECT_CATEGORY_SERIALIZED_NAME = "name";
     private static final String OBJECT_COLOR_SERIALIZED_NAME = "color";
     private static final String BOUNDS_MIN_X_SERIALIZED_NAME = "minX";
@@ -63,7 +64,7 @@ public class JSONSaveStrategy implements ImageAnnotationSaveStrategy {
         final int totalNrAnnotations = annotations.imageAnnotations().size();
         final AtomicInteger nrProcessedAnnotations = new AtomicInteger(0);
 
-        final Gson gson = new GsonBuilder()
+        final Gson gson = createGsonBuilder()
                 .setPrettyPrinting()
                 .registerTypeAdapter(ImageAnnotationData.class,
                         (JsonSerializer<ImageAnnotationData>) (src, typeOfSrc, context) -> {
@@ -77,6 +78,34 @@ public class JSONSaveStrategy implements ImageAnnotationSaveStrategy {
 
                             return serializedAnnotations;
                         })
+                .create();
+
+        final List<IOErrorInfoEntry> errorEntries = new ArrayList<>();
+
+        try {
+            AnnotationExportSink.writeSingleFile(destination, ".json", outputStream -> {
+                final BufferedWriter writer =
+                        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                gson.toJson(annotations, writer);
+                writer.flush();
+            });
+        } catch(IOException e) {
+            errorEntries.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
+        }
+
+        return new ImageAnnotationExportResult(
+                errorEntries.isEmpty() ? totalNrAnnotations : 0,
+                errorEntries
+        );
+    }
+
+    /**
+     * Creates a gson-builder with the serializers for the elements of a single image-annotation.
+     *
+     * @return the builder
+     */
+    static GsonBuilder createGsonBuilder() {
+        return new GsonBuilder()
                 .registerTypeAdapter(ObjectCategory.class,
                         (JsonSerializer<ObjectCategory>) (src, typeOfSrc, context) -> {
                             JsonObject categoryObject = new JsonObject();
@@ -113,20 +142,6 @@ public class JSONSaveStrategy implements ImageAnnotationSaveStrategy {
                     return boundsObject;
                 })
                 .registerTypeAdapter(Double.class, (JsonSerializer<Double>) (src, typeOfSrc, context)
-                        -> new JsonPrimitive(Double.parseDouble(DECIMAL_FORMAT.format(src))))
-                .create();
-
-        final List<IOErrorInfoEntry> errorEntries = new ArrayList<>();
-
-        try(BufferedWriter writer = Files.newBufferedWriter(destination, StandardCharsets.UTF_8)) {
-            gson.toJson(annotations, writer);
-        } catch(IOException e) {
-            errorEntries.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
-        }
-
-        return new ImageAnnotationExportResult(
-                errorEntries.isEmpty() ? totalNrAnnotations : 0,
-                errorEntries
-        );
+                        -> new JsonPrimitive(Double.parseDouble(DECIMAL_FORMAT.get().format(src))));
     }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits files into byte-ranges which are aligned on line boundaries, so that
+ * line-based formats can be parsed in parallel.
+ */
+class LineAlignedChunking {
+    private static final int LINE_SEARCH_BUFFER_SIZE = 8 * 1024;
+
+    private LineAlignedChunking() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the position of the first byte after the next line break at or after
+     * the provided position.
+     *
+     * @param channel  the channel of the file
+     * @param position the position from which the search starts
+     * @param size     the size of the file
+     * @return the start of the next line or the size of the file, if there is no further line break
+     * @throws IOException if the file could not be read
+     */
+    static long findNextLineStart(FileChannel channel, long position, long size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(LINE_SEARCH_BUFFER_SIZE);
+        long currentPosition = position;
+
+        while(currentPosition < size) {
+            buffer.clear();
+            final int nrReadBytes = channel.read(buffer, currentPosition);
+
+            if(nrReadBytes <= 0) {
+                break;
+            }
+
+            for(int i = 0; i < nrReadBytes; ++i) {
+                if(buffer.get(i) == '\n') {
+                    return currentPosition + i + 1;
+                }
+            }
+
+            currentPosition += nrReadBytes;
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the number of line breaks in the provided byte-range of a file.
+     *
+     * @param channel the channel of the file
+     * @param start   the position of the first byte of the range
+     * @param end     the position after the last byte of the range
+     * @return the number of line breaks
+     * @throws IOException if the file could not be read
+     */
+    static long countLineBreaks(FileChannel channel, long start, long end) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(LINE_SEARCH_BUFFER_SIZE);
+        long currentPosition = start;
+        long nrLineBreaks = 0;
+
+        while(currentPosition < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - currentPosition));
+            final int nrReadBytes = channel.read(buffer, currentPosition);
+
+            if(nrReadBytes <= 0) {
+                break;
+            }
+
+            for(int i = 0; i < nrReadBytes; ++i) {
+                if(buffer.get(i) == '\n') {
+                    ++nrLineBreaks;
+                }
+            }
+
+            currentPosition += nrReadBytes;
+        }
+
+        return nrLineBreaks;
+    }
+
+    /**
+     * Splits the bytes from dataStart up to the size of the file into at most nrChunks
+     * byte-ranges of roughly equal size, which all start at the beginning of a line.
+     *
+     * @param channel   the channel of the file
+     * @param dataStart the position of the first byte that should be part of a chunk
+     * @param size      the size of the file
+     * @param nrChunks  the maximal number of chunks
+     * @return the non-empty chunks in file order
+     * @throws IOException if the file could not be read
+     */
+    static List<Chunk> createChunks(FileChannel channel, long dataStart, long size, int nrChunks)
+            throws IOException {
+        final List<Chunk> chunks = new ArrayList<>(nrChunks);
+        long chunkStart = dataStart;
+
+        for(int i = 1; i < nrChunks && chunkStart < size; ++i) {
+            final long chunkEnd = findNextLineStart(channel,
+                    Math.max(chunkStart, dataStart + (size - dataStart) * i / nrChunks), size);
+
+            if(chunkEnd > chunkStart) {
+                chunks.add(new Chunk(chunkStart, chunkEnd));
+                chunkStart = chunkEnd;
+            }
+        }
+
+        if(chunkStart < size) {
+            chunks.add(new Chunk(chunkStart, size));
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Opens a stream which only reads the bytes of the provided chunk.
+     *
+     * @param path  the file
+     * @param chunk the chunk
+     * @return the stream
+     * @throws IOException if the file could not be opened
+     */
+    static InputStream openChunkInputStream(Path path, Chunk chunk) throws IOException {
+        final InputStream fileInputStream = Files.newInputStream(path);
+        fileInputStream.skipNBytes(chunk.start());
+
+        return BoundedInputStream.builder()
+                .setInputStream(fileInputStream)
+                .setMaxCount(chunk.length())
+                .get();
+    }
+
+    /**
+     * A byte-range of a file.
+     *
+     * @param start the position of the first byte
+     * @param end   the position after the last byte
+     */
+    record Chunk(long start, long end) {
+        long length() {
+            return end - start;
+        }
+    }
+}
@@ -30,8 +30,10 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -66,52 +68,110 @@ public class PVOCLoadStrategy implements ImageAnnotationLoadStrategy {
                                             Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
                                             DoubleProperty progress)
             throws IOException {
-        this.fileNamesToLoad = filesToLoad;
-        this.boundingShapeCountPerCategory = new ConcurrentHashMap<>();
-        this.categoryNameToCategoryMap = new ConcurrentHashMap<>(existingCategoryNameToCategoryMap);
+        initialize(filesToLoad, existingCategoryNameToCategoryMap);
+
+        if(AnnotationArchiveReader.isArchive(path)) {
+            return loadFromArchive(path, progress);
+        }
 
         try(Stream<Path> fileStream = Files.walk(path, INCLUDE_SUBDIRECTORIES ? Integer.MAX_VALUE : 1)) {
-            List<File> annotationFiles = fileStream
+            return loadAnnotationFiles(fileStream
                     .filter(pathItem -> pathItem.getFileName().toString().endsWith(".xml"))
-                    .map(Path::toFile).toList();
-
-            unParsedFileErrorMessages = Collections.synchronizedList(new ArrayList<>());
-
-            int totalNrOfFiles = annotationFiles.size();
-            AtomicInteger nrProcessedFiles = new AtomicInteger(0);
-
-            List<ImageAnnotation> imageAnnotations = annotationFiles.parallelStream()
-                    .map(file -> {
-                        progress.set(1.0 * nrProcessedFiles
-                                .incrementAndGet() / totalNrOfFiles);
-
-                        try {
-                            return parseAnnotationFile(file);
-                        } catch(SAXException | IOException | InvalidAnnotationFormatException
-                                | ParserConfigurationException | AnnotationToNonExistentImageException e) {
-                            unParsedFileErrorMessages
-                                    .add(new IOErrorInfoEntry(
-                                            file.getName(),
-                                            e.getMessage()));
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
-
-            return new ImageAnnotationImportResult(
-                    imageAnnotations.size(),
-                    unParsedFileErrorMessages,
-                    new ImageAnnotationData(imageAnnotations, boundingShapeCountPerCategory, categoryNameToCategoryMap)
-            );
+                    .map(Path::toFile).toList(), progress);
+        }
+    }
+
+    @Override
+    public ImageAnnotationImportResult load(Path path, Collection<Path> annotationFiles, Set<String> filesToLoad,
+                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                            DoubleProperty progress) throws IOException {
+        if(AnnotationArchiveReader.isArchive(path)) {
+            return load(path, filesToLoad, existingCategoryNameToCategoryMap, progress);
         }
+
+        initialize(filesToLoad, existingCategoryNameToCategoryMap);
+
+        return loadAnnotationFiles(annotationFiles.stream()
+                .filter(pathItem -> pathItem.getFileName().toString().endsWith(".xml"))
+                .map(Path::toFile)
+                .filter(File::isFile).toList(), progress);
+    }
+
+    private void initialize(Set<String> filesToLoad, Map<String, ObjectCategory> existingCategoryNameToCategoryMap) {
+        this.fileNamesToLoad = filesToLoad;
+        this.boundingShapeCountPerCategory = new ConcurrentHashMap<>();
+        this.categoryNameToCategoryMap = new ConcurrentHashMap<>(existingCategoryNameToCategoryMap);
+    }
+
+    private ImageAnnotationImportResult loadAnnotationFiles(List<File> annotationFiles, DoubleProperty progress) {
+        unParsedFileErrorMessages = Collections.synchronizedList(new ArrayList<>());
+
+        int totalNrOfFiles = annotationFiles.size();
+        AtomicInteger nrProcessedFiles = new AtomicInteger(0);
+
+        List<ImageAnnotation> imageAnnotations = annotationFiles.parallelStream()
+                .map(file -> {
+                    progress.set(1.0 * nrProcessedFiles
+                            .incrementAndGet() / totalNrOfFiles);
+
+                    try {
+                        return parseAnnotationFile(file);
+                    } catch(SAXException | IOException | InvalidAnnotationFormatException
+                            | ParserConfigurationException | AnnotationToNonExistentImageException e) {
+                        unParsedFileErrorMessages
+                                .add(new IOErrorInfoEntry(
+                                        file.getName(),
+                                        e.getMessage()));
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new ImageAnnotationImportResult(
+                imageAnnotations.size(),
+                unParsedFileErrorMessages,
+                new ImageAnnotationData(imageAnnotations, boundingShapeCountPerCategory, categoryNameToCategoryMap)
+        );
+    }
+
+    private ImageAnnotationImportResult loadFromArchive(Path path, DoubleProperty progress) throws IOException {
+        unParsedFileErrorMessages = Collections.synchronizedList(new ArrayList<>());
+        final List<ImageAnnotation> imageAnnotations = Collections.synchronizedList(new ArrayList<>());
+
+        AnnotationArchiveReader.readEntries(path, fileName -> fileName.endsWith(".xml"), (fileName, content) -> {
+            try {
+                final ImageAnnotation imageAnnotation = parseAnnotationDocument(
+                        createDocumentBuilder().parse(new ByteArrayInputStream(content)), fileName);
+
+                if(imageAnnotation != null) {
+                    imageAnnotations.add(imageAnnotation);
+                }
+            } catch(SAXException | IOException | InvalidAnnotationFormatException
+                    | ParserConfigurationException | AnnotationToNonExistentImageException e) {
+                unParsedFileErrorMessages.add(new IOErrorInfoEntry(fileName, e.getMessage()));
+            }
+        }, progress);
+
+        return new ImageAnnotationImportResult(
+                imageAnnotations.size(),
+                unParsedFileErrorMessages,
+                new ImageAnnotationData(imageAnnotations, boundingShapeCountPerCategory, categoryNameToCategoryMap)
+        );
     }
 
     private ImageAnnotation parseAnnotationFile(File file) throws SAXException, IOException,
             ParserConfigurationException {
+        return parseAnnotationDocument(createDocumentBuilder().parse(file), file.getName());
+    }
+
+    private DocumentBuilder createDocumentBuilder() throws ParserConfigurationException {
         documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
         documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-        final Document document = documentBuilderFactory.newDocumentBuilder().parse(file);
+        return documentBuilderFactory.newDocumentBuilder();
+    }
+
+    private ImageAnnotation parseAnnotationDocument(Document document, String annotationFileName) {
         document.normalize();
 
         final ImageMetaData parsedImageMetaData = parseImageMetaData(document);
@@ -122,7 +182,7 @@ public class PVOCLoadStrategy implements ImageAnnotationLoadStrategy {
         }
 
         List<BoundingShapeData> boundingShapeData =
-                parseBoundingShapeData(document, file.getName(), parsedImageMetaData);
+                parseBoundingShapeData(document, annotationFileName, parsedImageMetaData);
 
         if(boundingShapeData.isEmpty()) {
             // No image annotation will be constructed if it does not contain any bounding boxes.
@@ -37,7 +37,7 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -78,29 +78,32 @@ public class PVOCSaveStrategy implements ImageAnnotationSaveStrategy {
     private static final String BOUNDING_POLYGON_SIZE_GROUP_NAME = "polygon";
     private final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
     private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
-    private Path saveFolderPath;
 
     @Override
     public ImageAnnotationExportResult save(ImageAnnotationData annotations, Path destination,
                                             DoubleProperty progress) {
-        this.saveFolderPath = destination;
-
         List<IOErrorInfoEntry> unParsedFileErrorMessages = Collections.synchronizedList(new ArrayList<>());
 
         int totalNrOfAnnotations = annotations.imageAnnotations().size();
         AtomicInteger nrProcessedAnnotations = new AtomicInteger(0);
 
 
-        annotations.imageAnnotations().parallelStream().forEach(annotation -> {
-            try {
-                createXmlFileFromImageAnnotationDataElement(annotation);
-            } catch(TransformerException | ParserConfigurationException e) {
-                unParsedFileErrorMessages
-                        .add(new IOErrorInfoEntry(annotation.getImageFileName(), e.getMessage()));
-            }
+        try(AnnotationExportSink exportSink = AnnotationExportSink.open(destination)) {
+            annotations.imageAnnotations().parallelStream().forEach(annotation -> {
+                try {
+                    createXmlFileFromImageAnnotationDataElement(annotation, exportSink);
+                } catch(TransformerException | ParserConfigurationException | IOException e) {
+                    unParsedFileErrorMessages
+                            .add(new IOErrorInfoEntry(annotation.getImageFileName(), e.getMessage()));
+                }
 
-            progress.set(1.0 * nrProcessedAnnotations.incrementAndGet() / totalNrOfAnnotations);
-        });
+                progress.set(1.0 * nrProcessedAnnotations.incrementAndGet() / totalNrOfAnnotations);
+            });
+
+            exportSink.commit();
+        } catch(IOException e) {
+            unParsedFileErrorMessages.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
+        }
 
         return new ImageAnnotationExportResult(
                 annotations.imageAnnotations().size() - unParsedFileErrorMessages.size(),
@@ -108,8 +111,9 @@ public class PVOCSaveStrategy implements ImageAnnotationSaveStrategy {
         );
     }
 
-    private void createXmlFileFromImageAnnotationDataElement(final ImageAnnotation dataElement)
-            throws TransformerException, ParserConfigurationException {
+    private void createXmlFileFromImageAnnotationDataElement(final ImageAnnotation dataElement,
+                                                             final AnnotationExportSink exportSink)
+            throws TransformerException, ParserConfigurationException, IOException {
         documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
         documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
         final Document document = documentBuilderFactory.newDocumentBuilder().newDocument();
@@ -136,13 +140,14 @@ public class PVOCSaveStrategy implements ImageAnnotationSaveStrategy {
         String fileName = dataElement.getImageFileName();
         String annotationFileNameBase = fileName.replace('.', '_');
 
-        File outputFile =
-                saveFolderPath.resolve(annotationFileNameBase + ANNOTATION_FILENAME_EXTENSION + FILE_EXTENSION)
-                        .toFile();
-
-        StreamResult streamResult = new StreamResult(outputFile);
-
-        transformer.transform(domSource, streamResult);
+        exportSink.write(annotationFileNameBase + ANNOTATION_FILENAME_EXTENSION + FILE_EXTENSION,
+                outputStream -> {
+                    try {
+                        transformer.transform(domSource, new StreamResult(outputStream));
+                    } catch(TransformerException e) {
+                        throw new IOException(e.getMessage(), e);
+                    }
+                });
     }
 
     private void appendHeaderFromImageAnnotationDataElement(final Document document, final Node root,
@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictionEntry;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A persistent cache of the raw (unfiltered) bounding box predictions of images. Each entry is stored
+ * as a JSON file in the cache directory. If the total size of the entries exceeds the size cap, the least
+ * recently used entries are evicted. The cache is best-effort: Failures to read or write entries are
+ * treated as cache misses. The cache is thread-safe. Only updates of the in-memory index are synchronized,
+ * entry files are read and written outside the lock. New entries are written to a temporary file which
+ * atomically replaces the entry file, so that readers never see partially written entries.
+ */
+public class PredictionCache {
+    public static final long DEFAULT_MAX_SIZE_IN_BYTES = 64L * 1024 * 1024;
+    public static final Path DEFAULT_DIRECTORY =
+            Path.of(System.getProperty("user.home"), ".boundingboxeditor", "prediction-cache");
+    private static final String ENTRY_FILE_EXTENSION = ".json";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final Gson gson = new Gson();
+
+    private final Path directory;
+    private final long maxSizeInBytes;
+    // Access-ordered, i.e. iteration starts at the least recently used entry.
+    private final LinkedHashMap<String, Long> entryNameToSize = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes = 0;
+    private boolean indexLoaded = false;
+
+    /**
+     * Creates a new prediction cache. The cache directory is only accessed when the cache is first used.
+     *
+     * @param directory      the directory in which the entries are stored
+     * @param maxSizeInBytes the maximum total size of the stored entries
+     */
+    public PredictionCache(Path directory, long maxSizeInBytes) {
+        if(maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("Maximum cache size must not be negative.");
+        }
+
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * Creates the key of the prediction of an image.
+     *
+     * @param imageContent          the content of the image-file
+     * @param modelName             the name of the model used for the prediction
+     * @param preprocessingSettings a description of all settings which influence the image sent to the
+     *                              prediction server
+     * @return the key
+     */
+    public static Key createKey(byte[] imageContent, String modelName, String preprocessingSettings) {
+        return new Key(HexFormat.of().formatHex(createMessageDigest().digest(imageContent)), modelName,
+                preprocessingSettings);
+    }
+
+    /**
+     * Returns the cached prediction for a key, if it exists.
+     *
+     * @param key the key
+     * @return the cached prediction or an empty optional
+     */
+    public Optional<Entry> get(Key key) {
+        loadIndexIfNecessary();
+
+        final String entryName = key.getEntryName();
+
+        synchronized(this) {
+            if(entryNameToSize.get(entryName) == null) {
+                return Optional.empty();
+            }
+        }
+
+        final Path entryFile = getEntryFile(entryName);
+
+        try {
+            final Entry entry = gson.fromJson(Files.readString(entryFile, StandardCharsets.UTF_8), Entry.class);
+
+            if(entry == null || entry.predictions() == null) {
+                throw new JsonParseException("Invalid cache entry.");
+            }
+
+            // Keeps the recency of the entry for the next session.
+            Files.setLastModifiedTime(entryFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(entry);
+        } catch(IOException | JsonParseException e) {
+            remove(entryName);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a prediction and evicts the least recently used entries if the size cap is exceeded.
+     *
+     * @param key   the key
+     * @param entry the prediction
+     */
+    public void put(Key key, Entry entry) {
+        loadIndexIfNecessary();
+
+        final String entryName = key.getEntryName();
+        final byte[] content = gson.toJson(entry).getBytes(StandardCharsets.UTF_8);
+
+        if(content.length > maxSizeInBytes) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+
+            // Cache entries can be recomputed, so they are not flushed to the storage device.
+            try(ExportTransaction transaction = ExportTransaction.begin(directory, false)) {
+                transaction.write(getEntryFile(entryName).getFileName().toString(),
+                        outputStream -> outputStream.write(content));
+                transaction.commit();
+            }
+        } catch(IOException e) {
+            remove(entryName);
+            return;
+        }
+
+        final List<String> evictedEntryNames;
+
+        synchronized(this) {
+            final Long previousSize = entryNameToSize.put(entryName, (long) content.length);
+            sizeInBytes += content.length - (previousSize != null ? previousSize : 0);
+            evictedEntryNames = evictIfNecessary();
+        }
+
+        deleteEntryFiles(evictedEntryNames);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        loadIndexIfNecessary();
+
+        final List<String> entryNames;
+
+        synchronized(this) {
+            entryNames = List.copyOf(entryNameToSize.keySet());
+            entryNameToSize.clear();
+            sizeInBytes = 0;
+        }
+
+        deleteEntryFiles(entryNames);
+    }
+
+    /**
+     * Returns the number of cached predictions.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        loadIndexIfNecessary();
+
+        synchronized(this) {
+            return entryNameToSize.size();
+        }
+    }
+
+    /**
+     * Returns the total size of the cached predictions.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        loadIndexIfNecessary();
+
+        synchronized(this) {
+            return sizeInBytes;
+        }
+    }
+
+    private void loadIndexIfNecessary() {
+        synchronized(this) {
+            if(indexLoaded) {
+                return;
+            }
+        }
+
+        // The cache directory is read outside the lock. If several threads load the index concurrently,
+        // only the first one installs its result.
+        final Map<String, Long> loadedEntryNameToSize = readIndex();
+        final List<String> evictedEntryNames;
+
+        synchronized(this) {
+            if(indexLoaded) {
+                return;
+            }
+
+            indexLoaded = true;
+
+            loadedEntryNameToSize.forEach((entryName, size) -> {
+                entryNameToSize.put(entryName, size);
+                sizeInBytes += size;
+            });
+
+            evictedEntryNames = evictIfNecessary();
+        }
+
+        deleteEntryFiles(evictedEntryNames);
+    }
+
+    private Map<String, Long> readIndex() {
+        // Ordered from the least to the most recently used entry.
+        final Map<String, Long> loadedEntryNameToSize = new LinkedHashMap<>();
+
+        if(!Files.isDirectory(directory)) {
+            return loadedEntryNameToSize;
+        }
+
+        final List<Path> entryFiles;
+
+        try(Stream<Path> files = Files.list(directory)) {
+            entryFiles = files.filter(file -> file.getFileName().toString().endsWith(ENTRY_FILE_EXTENSION))
+                              .sorted(Comparator.comparing(PredictionCache::getLastModifiedTime))
+                              .toList();
+        } catch(IOException | UncheckedIOException e) {
+            return loadedEntryNameToSize;
+        }
+
+        for(Path entryFile : entryFiles) {
+            try {
+                final long size = Files.size(entryFile);
+                final String fileName = entryFile.getFileName().toString();
+
+                loadedEntryNameToSize.put(fileName.substring(0, fileName.length() - ENTRY_FILE_EXTENSION.length()),
+                        size);
+            } catch(IOException e) {
+                // Entry was removed concurrently.
+            }
+        }
+
+        return loadedEntryNameToSize;
+    }
+
+    /**
+     * Removes the least recently used entries from the index until the size cap is met. Must be called
+     * while holding the lock.
+     *
+     * @return the names of the removed entries, whose files still need to be deleted
+     */
+    private List<String> evictIfNecessary() {
+        final List<String> evictedEntryNames = new ArrayList<>();
+        final Iterator<Map.Entry<String, Long>> iterator = entryNameToSize.entrySet().iterator();
+
+        while(sizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+            final Map.Entry<String, Long> leastRecentlyUsed = iterator.next();
+            iterator.remove();
+            sizeInBytes -= leastRecentlyUsed.getValue();
+            evictedEntryNames.add(leastRecentlyUsed.getKey());
+        }
+
+        return evictedEntryNames;
+    }
+
+    private void remove(String entryName) {
+        synchronized(this) {
+            final Long size = entryNameToSize.remove(entryName);
+
+            if(size != null) {
+                sizeInBytes -= size;
+            }
+        }
+
+        deleteEntryFile(entryName);
+    }
+
+    private void deleteEntryFiles(List<String> entryNames) {
+        for(String entryName : entryNames) {
+            deleteEntryFile(entryName);
+        }
+    }
+
+    private void deleteEntryFile(String entryName) {
+        try {
+            Files.deleteIfExists(getEntryFile(entryName));
+        } catch(IOException e) {
+            // The file is overwritten the next time the same prediction is stored.
+        }
+    }
+
+    private Path getEntryFile(String entryName) {
+        return directory.resolve(entryName + ENTRY_FILE_EXTENSION);
+    }
+
+    private static FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The key of a cached prediction.
+     *
+     * @param imageContentHash      the hash of the content of the image-file
+     * @param modelName             the name of the model used for the prediction
+     * @param preprocessingSettings a description of all settings which influence the image sent to the
+     *                              prediction server
+     */
+    public record Key(String imageContentHash, String modelName, String preprocessingSettings) {
+        String getEntryName() {
+            final String keyString = String.join("\n", imageContentHash, modelName, preprocessingSettings);
+            return HexFormat.of().formatHex(createMessageDigest().digest(keyString.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * A cached prediction.
+     *
+     * @param predictions the raw predictions, i.e. before filtering by score
+     * @param imageWidth  the width of the image sent to the prediction server
+     * @param imageHeight the height of the image sent to the prediction server
+     */
+    public record Entry(List<BoundingBoxPredictionEntry> predictions, double imageWidth, double imageHeight) {
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory tree up to a maximal depth and reports coalesced batches of changed paths. Subdirectories
+ * are registered as they appear. Bursts of file-system events are debounced: A batch is reported once no new
+ * event was received for {@link #QUIET_PERIOD_MILLIS}, but at the latest {@link #MAX_DELAY_MILLIS} after its
+ * first event, so that at most a few batches per second are reported. If events of a directory were lost
+ * (overflow) or a directory was created or removed, only the subtree of this directory is rescanned.
+ */
+public class RecursiveFileWatcher {
+    static final long QUIET_PERIOD_MILLIS = 300;
+    static final long MAX_DELAY_MILLIS = 2000;
+    private final Path root;
+    private final int maxDepth;
+    private final Consumer<Changes> onChangesHandler;
+    private final Map<WatchKey, Path> keyToDirectory = new HashMap<>();
+
+    /**
+     * Creates a new recursive file watcher.
+     *
+     * @param root             the root directory of the watched tree
+     * @param maxDepth         the maximal depth of the reported files relative to the root, as used by
+     *                         {@link Files#walk(Path, int, FileVisitOption...)}, must be at least 1
+     * @param onChangesHandler the handler of the changes, called on the watching thread
+     */
+    public RecursiveFileWatcher(Path root, int maxDepth, Consumer<Changes> onChangesHandler) {
+        if(maxDepth < 1) {
+            throw new IllegalArgumentException("The maximal depth must be at least 1.");
+        }
+
+        this.root = root;
+        this.maxDepth = maxDepth;
+        this.onChangesHandler = onChangesHandler;
+    }
+
+    /**
+     * Watches the directory tree until the current thread is interrupted or the root directory is removed
+     * or becomes inaccessible. In the latter case, a final batch containing the root as rescanned directory
+     * is reported.
+     *
+     * @throws IOException          if the root directory cannot be watched
+     * @throws InterruptedException if the current thread was interrupted while waiting for events
+     */
+    public void watch() throws IOException, InterruptedException {
+        try(final WatchService watchService = root.getFileSystem().newWatchService()) {
+            registerTree(watchService, root);
+
+            boolean rootAccessible = true;
+
+            while(rootAccessible) {
+                final Set<Path> changedPaths = new HashSet<>();
+                final Set<Path> rescannedDirectories = new HashSet<>();
+                rootAccessible = collectChanges(watchService, watchService.take(), changedPaths,
+                                                rescannedDirectories);
+
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MILLIS);
+                WatchKey key;
+
+                while(rootAccessible && System.nanoTime() < deadline
+                        && (key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    rootAccessible = collectChanges(watchService, key, changedPaths, rescannedDirectories);
+                }
+
+                rescannedDirectories.forEach(directory -> changedPaths.addAll(listFiles(directory)));
+                onChangesHandler.accept(new Changes(changedPaths, rescannedDirectories));
+            }
+        }
+    }
+
+    private boolean collectChanges(WatchService watchService, WatchKey key, Set<Path> changedPaths,
+                                   Set<Path> rescannedDirectories) {
+        final Path directory = keyToDirectory.get(key);
+
+        if(directory == null) {
+            key.cancel();
+            return true;
+        }
+
+        for(WatchEvent<?> watchEvent : key.pollEvents()) {
+            if(watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, the subtree of the directory has to be rescanned. Subdirectories might
+                // have been created in the meantime.
+                rescannedDirectories.add(directory);
+                registerTree(watchService, directory);
+                continue;
+            }
+
+            final Path path = directory.resolve((Path) watchEvent.context());
+            changedPaths.add(path);
+
+            if(watchEvent.kind() == StandardWatchEventKinds.ENTRY_CREATE && getDepth(path) < maxDepth
+                    && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                registerTree(watchService, path);
+                // Files created before the registration of the new directory did not produce any events.
+                rescannedDirectories.add(path);
+            }
+        }
+
+        if(!key.reset()) {
+            // The directory was removed or became inaccessible.
+            keyToDirectory.remove(key);
+            rescannedDirectories.add(directory);
+            return !directory.equals(root);
+        }
+
+        return true;
+    }
+
+    private void registerTree(WatchService watchService, Path directory) {
+        try(Stream<Path> paths = Files.walk(directory, maxDepth - 1 - getDepth(directory))) {
+            for(Path path : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                keyToDirectory.put(path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                                 StandardWatchEventKinds.ENTRY_DELETE,
+                                                 StandardWatchEventKinds.ENTRY_MODIFY), path);
+            }
+        } catch(IOException | UncheckedIOException e) {
+            // The directory (or one of its subdirectories) was removed in the meantime, which is reported
+            // by the events of its parent.
+        }
+    }
+
+    private List<Path> listFiles(Path directory) {
+        try(Stream<Path> paths = Files.walk(directory, maxDepth - getDepth(directory))) {
+            return paths.filter(Files::isRegularFile).toList();
+        } catch(IOException | UncheckedIOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private int getDepth(Path path) {
+        return path.equals(root) ? 0 : root.relativize(path).getNameCount();
+    }
+
+    /**
+     * A batch of changes of a watched directory tree.
+     *
+     * @param changedPaths         the paths of the changed files and directories, including the files which
+     *                             currently exist in the rescanned directories
+     * @param rescannedDirectories the directories whose subtrees were rescanned, files within these subtrees
+     *                             that are not contained in the changed paths do not exist anymore
+     */
+    public record Changes(Set<Path> changedPaths, Set<Path> rescannedDirectories) {
+        /**
+         * Returns true if the file with the provided path might have changed.
+         *
+         * @param path the path of the file
+         * @return true if the file might have changed, false otherwise
+         */
+        public boolean affects(Path path) {
+            return changedPaths.contains(path) || rescannedDirectories.stream().anyMatch(path::startsWith);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The configuration of a sharded dataset export (see {@link ShardedImageAnnotationSaver}).
+ *
+ * @param shardSize          the maximal number of images per shard
+ * @param trainFraction      the fraction of images that is assigned to the train split
+ * @param validationFraction the fraction of images that is assigned to the validation split, the remaining
+ *                           images are assigned to the test split
+ */
+public record ShardedExportConfig(int shardSize, double trainFraction, double validationFraction) {
+    public static final int DEFAULT_SHARD_SIZE = 10_000;
+    public static final double DEFAULT_TRAIN_FRACTION = 0.8;
+    public static final double DEFAULT_VALIDATION_FRACTION = 0.1;
+
+    public ShardedExportConfig {
+        if(shardSize <= 0) {
+            throw new IllegalArgumentException("Shard size must be positive.");
+        }
+
+        if(trainFraction < 0 || validationFraction < 0 || trainFraction + validationFraction > 1) {
+            throw new IllegalArgumentException("Invalid split fractions.");
+        }
+    }
+
+    /**
+     * Creates a configuration with the default shard size and an 80/10/10 split.
+     *
+     * @return the configuration
+     */
+    public static ShardedExportConfig createDefault() {
+        return new ShardedExportConfig(DEFAULT_SHARD_SIZE, DEFAULT_TRAIN_FRACTION, DEFAULT_VALIDATION_FRACTION);
+    }
+
+    /**
+     * Returns the fraction of images that is assigned to the test split.
+     *
+     * @return the fraction
+     */
+    public double testFraction() {
+        return Math.max(0, 1 - trainFraction - validationFraction);
+    }
+
+    /**
+     * Assigns an image to a split. The assignment only depends on a hash of the image's file name,
+     * so it is the same for every export and independent of the order of the images.
+     *
+     * @param imageFileName the file name of the image
+     * @return the split
+     */
+    public Split getSplit(String imageFileName) {
+        final double position = hashToUnitInterval(imageFileName);
+
+        if(position < trainFraction) {
+            return Split.TRAIN;
+        } else if(position < trainFraction + validationFraction) {
+            return Split.VALIDATION;
+        }
+
+        return Split.TEST;
+    }
+
+    private static double hashToUnitInterval(String value) {
+        final MessageDigest messageDigest;
+
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        final long hash = ByteBuffer.wrap(messageDigest.digest(value.getBytes(StandardCharsets.UTF_8))).getLong();
+
+        // Uses the upper 53 bits, which can be represented exactly by a double.
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    public enum Split {
+        TRAIN("train"),
+        VALIDATION("val"),
+        TEST("test");
+
+        private final String directoryName;
+
+        Split(String directoryName) {
+            this.directoryName = directoryName;
+        }
+
+        /**
+         * Returns the name of the directory the shards of the split are saved in.
+         *
+         * @return the directory name
+         */
+        public String getDirectoryName() {
+            return directoryName;
+        }
+    }
+}
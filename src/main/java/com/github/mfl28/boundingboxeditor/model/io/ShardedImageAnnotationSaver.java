@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import org.apache.commons.io.file.PathUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.stream.Stream;
+
+/**
+ * Saves image-annotations as a sharded dataset. Images are assigned to the train, validation and test
+ * split by a hash of their file name (see {@link ShardedExportConfig#getSplit(String)}). Within a split, images
+ * are sorted by file name and grouped into shards of at most {@link ShardedExportConfig#shardSize()} images,
+ * which are saved to {@code <destination>/<split>/shard-<index>} concurrently, each by its own instance of the
+ * chosen save strategy. Every shard is saved with the complete category data (e.g. its own YOLO object.data
+ * file), so that category ids agree across shards. Finally, a manifest file records the number of images,
+ * the size and the SHA-256 checksum of every shard.
+ */
+public class ShardedImageAnnotationSaver {
+    static final String MANIFEST_FILE_NAME = "manifest.json";
+    private static final String SHARD_NAME_FORMAT = "shard-%05d";
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+    private static final String STAGING_PREFIX = ".";
+    private static final String STAGING_SUFFIX = ".tmp";
+    private static final String PREVIOUS_SUFFIX = ".old";
+    private final ImageAnnotationSaveStrategy.Type saveFormat;
+    private final ShardedExportConfig config;
+    private final DoubleProperty progress = new SimpleDoubleProperty(0);
+
+    /**
+     * Creates a new sharded image-annotation saver.
+     *
+     * @param saveFormat the format the shards are saved in
+     * @param config     the sharding configuration
+     */
+    public ShardedImageAnnotationSaver(ImageAnnotationSaveStrategy.Type saveFormat, ShardedExportConfig config) {
+        this.saveFormat = saveFormat;
+        this.config = config;
+    }
+
+    /**
+     * Saves the provided annotations as a sharded dataset.
+     *
+     * @param annotations the annotations to save
+     * @param destination the path of the destination folder
+     * @return an {@link ImageAnnotationExportResult} containing information about the finished saving
+     */
+    public ImageAnnotationExportResult save(final ImageAnnotationData annotations, final Path destination)
+            throws Exception {
+        return IOOperationTimer.time(() -> saveShards(annotations, destination));
+    }
+
+    /**
+     * Returns a property representing the progress of the saving-operation which can be bound
+     * to update the progress of a {@link javafx.concurrent.Service} performing the saving.
+     *
+     * @return the progress property
+     */
+    public DoubleProperty progressProperty() {
+        return progress;
+    }
+
+    /**
+     * Partitions image-annotations into shards.
+     *
+     * @param imageAnnotations the image-annotations
+     * @param config           the sharding configuration
+     * @return the shards ordered by split and index
+     */
+    static List<Shard> createShards(Collection<ImageAnnotation> imageAnnotations, ShardedExportConfig config) {
+        final Map<ShardedExportConfig.Split, List<ImageAnnotation>> splitToAnnotationsMap =
+                new EnumMap<>(ShardedExportConfig.Split.class);
+
+        for(ImageAnnotation imageAnnotation : imageAnnotations) {
+            splitToAnnotationsMap.computeIfAbsent(config.getSplit(imageAnnotation.getImageFileName()),
+                    key -> new ArrayList<>()).add(imageAnnotation);
+        }
+
+        final List<Shard> shards = new ArrayList<>();
+
+        splitToAnnotationsMap.forEach((split, splitAnnotations) -> {
+            splitAnnotations.sort(Comparator.comparing(ImageAnnotation::getImageFileName));
+
+            for(int start = 0; start < splitAnnotations.size(); start += config.shardSize()) {
+                shards.add(new Shard(split, start / config.shardSize(), splitAnnotations.subList(start,
+                        Math.min(start + config.shardSize(), splitAnnotations.size()))));
+            }
+        });
+
+        return shards;
+    }
+
+    private ImageAnnotationExportResult saveShards(ImageAnnotationData annotations, Path destination) {
+        progress.set(0);
+
+        final List<Shard> shards = createShards(annotations.imageAnnotations(), config);
+        final int totalNrImages = annotations.imageAnnotations().size();
+        final DoubleAdder nrProcessedImages = new DoubleAdder();
+        final AtomicInteger nrSavedImages = new AtomicInteger(0);
+        final List<IOErrorInfoEntry> errorEntries = Collections.synchronizedList(new ArrayList<>());
+
+        final List<ManifestEntry> manifestEntries = shards.parallelStream()
+                .map(shard -> {
+                    final DoubleProperty shardProgress = new SimpleDoubleProperty(0);
+                    shardProgress.addListener((observable, oldValue, newValue) -> {
+                        nrProcessedImages.add((newValue.doubleValue() - oldValue.doubleValue())
+                                * shard.imageAnnotations().size());
+                        progress.set(nrProcessedImages.sum() / totalNrImages);
+                    });
+
+                    return saveShard(shard, annotations, destination, shardProgress, nrSavedImages, errorEntries);
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        try {
+            writeManifest(destination.resolve(MANIFEST_FILE_NAME), manifestEntries);
+        } catch(IOException e) {
+            errorEntries.add(new IOErrorInfoEntry(MANIFEST_FILE_NAME, e.getMessage()));
+        }
+
+        progress.set(1.0);
+
+        return new ImageAnnotationExportResult(nrSavedImages.get(), errorEntries);
+    }
+
+    private ManifestEntry saveShard(Shard shard, ImageAnnotationData annotations, Path destination,
+                                    DoubleProperty shardProgress, AtomicInteger nrSavedImages,
+                                    List<IOErrorInfoEntry> errorEntries) {
+        final String shardFileExtension = getSingleFileExtension(saveFormat);
+        final String relativeShardPath = shard.split().getDirectoryName() + "/"
+                + String.format(Locale.ENGLISH, SHARD_NAME_FORMAT, shard.index())
+                + Objects.requireNonNullElse(shardFileExtension, "");
+        final Path shardPath = destination.resolve(relativeShardPath);
+        // Shard directories are saved to a fresh staging directory, so that files of a previous export
+        // which are not overwritten by this export are neither kept nor counted in the manifest.
+        final Path savePath = shardFileExtension != null ? shardPath : createStagingPath(shardPath, STAGING_SUFFIX);
+
+        try {
+            Files.createDirectories(shardFileExtension != null ? shardPath.getParent() : savePath);
+        } catch(IOException e) {
+            errorEntries.add(new IOErrorInfoEntry(relativeShardPath, e.getMessage()));
+            return null;
+        }
+
+        try {
+            // The complete category data is passed to every shard, so that category lists are the same in all
+            // shards.
+            final ImageAnnotationExportResult shardResult = ImageAnnotationSaveStrategy.createStrategy(saveFormat)
+                    .save(new ImageAnnotationData(shard.imageAnnotations(),
+                                    annotations.categoryNameToBoundingShapeCountMap(),
+                                    annotations.categoryNameToCategoryMap()),
+                            savePath, shardProgress);
+
+            nrSavedImages.addAndGet(shardResult.getNrSuccessfullyProcessedItems());
+            errorEntries.addAll(shardResult.getErrorTableEntries());
+
+            final MessageDigest messageDigest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+            final long sizeInBytes = updateDigest(messageDigest, savePath);
+
+            if(!savePath.equals(shardPath)) {
+                replaceDirectory(savePath, shardPath);
+            }
+
+            return new ManifestEntry(shard, relativeShardPath, sizeInBytes,
+                    HexFormat.of().formatHex(messageDigest.digest()));
+        } catch(IOException | NoSuchAlgorithmException e) {
+            errorEntries.add(new IOErrorInfoEntry(relativeShardPath, e.getMessage()));
+            return null;
+        } finally {
+            if(!savePath.equals(shardPath)) {
+                deleteDirectoryIfExists(savePath, relativeShardPath, errorEntries);
+            }
+        }
+    }
+
+    private static Path createStagingPath(Path shardPath, String suffix) {
+        return shardPath.resolveSibling(STAGING_PREFIX + shardPath.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + suffix);
+    }
+
+    /**
+     * Replaces a (possibly existing) shard directory by a completely saved staging directory. An existing
+     * shard directory is first renamed, so that the shard path never holds a mix of old and new files.
+     *
+     * @param stagingPath the path of the staging directory
+     * @param shardPath   the path of the shard directory
+     * @throws IOException if the directories could not be renamed
+     */
+    private static void replaceDirectory(Path stagingPath, Path shardPath) throws IOException {
+        if(!Files.exists(shardPath)) {
+            Files.move(stagingPath, shardPath, StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+
+        final Path previousShardPath = createStagingPath(shardPath, PREVIOUS_SUFFIX);
+        Files.move(shardPath, previousShardPath, StandardCopyOption.ATOMIC_MOVE);
+
+        try {
+            Files.move(stagingPath, shardPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException e) {
+            Files.move(previousShardPath, shardPath, StandardCopyOption.ATOMIC_MOVE);
+            throw e;
+        }
+
+        PathUtils.deleteDirectory(previousShardPath);
+    }
+
+    private static void deleteDirectoryIfExists(Path directory, String relativeShardPath,
+                                                List<IOErrorInfoEntry> errorEntries) {
+        if(!Files.exists(directory)) {
+            return;
+        }
+
+        try {
+            PathUtils.deleteDirectory(directory);
+        } catch(IOException e) {
+            errorEntries.add(new IOErrorInfoEntry(relativeShardPath, e.getMessage()));
+        }
+    }
+
+    /**
+     * Feeds a shard into a message-digest. For a shard directory, the relative path and the content of every
+     * file are digested in the order of the relative paths.
+     *
+     * @param messageDigest the message-digest
+     * @param shardPath     the path of the shard file or directory
+     * @return the total size of the shard's files in bytes
+     * @throws IOException if the shard could not be read
+     */
+    private static long updateDigest(MessageDigest messageDigest, Path shardPath) throws IOException {
+        if(!Files.isDirectory(shardPath)) {
+            return digestFile(messageDigest, shardPath);
+        }
+
+        final List<Path> files;
+
+        try(Stream<Path> paths = Files.walk(shardPath)) {
+            files = paths.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(path -> toRelativeName(shardPath, path)))
+                    .toList();
+        }
+
+        long sizeInBytes = 0;
+
+        for(Path file : files) {
+            messageDigest.update(toRelativeName(shardPath, file).getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+            sizeInBytes += digestFile(messageDigest, file);
+        }
+
+        return sizeInBytes;
+    }
+
+    private static long digestFile(MessageDigest messageDigest, Path file) throws IOException {
+        try(InputStream inputStream = Files.newInputStream(file);
+            OutputStream digestOutputStream = new DigestOutputStream(OutputStream.nullOutputStream(),
+                    messageDigest)) {
+            return inputStream.transferTo(digestOutputStream);
+        }
+    }
+
+    private static String toRelativeName(Path directory, Path file) {
+        return directory.relativize(file).toString().replace('\\', '/');
+    }
+
+    private void writeManifest(Path manifestPath, List<ManifestEntry> manifestEntries) throws IOException {
+        final JsonObject manifest = new JsonObject();
+        manifest.addProperty("format", saveFormat.toString());
+        manifest.addProperty("shardSize", config.shardSize());
+
+        final JsonObject splitFractions = new JsonObject();
+        splitFractions.addProperty(ShardedExportConfig.Split.TRAIN.getDirectoryName(), config.trainFraction());
+        splitFractions.addProperty(ShardedExportConfig.Split.VALIDATION.getDirectoryName(),
+                config.validationFraction());
+        splitFractions.addProperty(ShardedExportConfig.Split.TEST.getDirectoryName(), config.testFraction());
+        manifest.add("splits", splitFractions);
+
+        final JsonArray shardEntries = new JsonArray();
+
+        for(ManifestEntry manifestEntry : manifestEntries) {
+            final JsonObject shardEntry = new JsonObject();
+            shardEntry.addProperty("split", manifestEntry.shard().split().getDirectoryName());
+            shardEntry.addProperty("index", manifestEntry.shard().index());
+            shardEntry.addProperty("path", manifestEntry.relativePath());
+            shardEntry.addProperty("nrImages", manifestEntry.shard().imageAnnotations().size());
+            shardEntry.addProperty("sizeInBytes", manifestEntry.sizeInBytes());
+            shardEntry.addProperty("sha256", manifestEntry.checksum());
+            shardEntries.add(shardEntry);
+        }
+
+        manifest.add("shards", shardEntries);
+
+        ExportTransaction.writeAtomically(manifestPath, outputStream -> {
+            final BufferedWriter writer =
+                    new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            new GsonBuilder().setPrettyPrinting().create().toJson(manifest, writer);
+            writer.flush();
+        });
+    }
+
+    private static String getSingleFileExtension(ImageAnnotationSaveStrategy.Type saveFormat) {
+        return switch(saveFormat) {
+            case PASCAL_VOC, YOLO -> null;
+            case JSON, COCO -> ".json";
+            case CSV -> ".csv";
+            case BINARY_PROJECT -> ".bbep";
+            case JSON_LINES -> ".jsonl";
+        };
+    }
+
+    record Shard(ShardedExportConfig.Split split, int index, List<ImageAnnotation> imageAnnotations) {
+    }
+
+    private record ManifestEntry(Shard shard, String relativePath, long sizeInBytes, String checksum) {
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Speculatively requests the predictions of the images the user is expected to navigate to next, using
+ * a single low-priority background thread. Prefetched predictions are raw predictions (see
+ * {@link BoundingBoxPredictor#prefetch}), so the current categories are not modified until a prefetched
+ * prediction is actually used. All methods except {@link #shutdown()} must be called from the same thread
+ * (normally the JavaFX application thread).
+ */
+public class SpeculativePredictionPrefetcher {
+    private static final String THREAD_NAME = "speculative-prediction";
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Map<String, Future<BoundingBoxPredictor.PreparedImage>> imageFileNameToPrefetch =
+            new LinkedHashMap<>();
+    private int nrLookups = 0;
+    private int nrHits = 0;
+
+    /**
+     * Sets the images which should be prefetched. Running or finished prefetches of images which are not
+     * contained in the provided list are cancelled and discarded. Images are prefetched in list order.
+     *
+     * @param upcomingImageFiles      the images the user is expected to navigate to next, in expected order
+     * @param imageFileNameToMetaData the metadata of the images
+     * @param predictor               the predictor used to prefetch new images
+     */
+    public void prefetch(List<File> upcomingImageFiles, Map<String, ImageMetaData> imageFileNameToMetaData,
+                         BoundingBoxPredictor predictor) {
+        final Set<String> upcomingImageFileNames = new HashSet<>();
+        upcomingImageFiles.forEach(imageFile -> upcomingImageFileNames.add(imageFile.getName()));
+
+        final Iterator<Map.Entry<String, Future<BoundingBoxPredictor.PreparedImage>>> iterator =
+                imageFileNameToPrefetch.entrySet().iterator();
+
+        while(iterator.hasNext()) {
+            final Map.Entry<String, Future<BoundingBoxPredictor.PreparedImage>> entry = iterator.next();
+
+            if(!upcomingImageFileNames.contains(entry.getKey())) {
+                entry.getValue().cancel(true);
+                iterator.remove();
+            }
+        }
+
+        for(File imageFile : upcomingImageFiles) {
+            final ImageMetaData imageMetaData = imageFileNameToMetaData.get(imageFile.getName());
+
+            if(imageMetaData == null || imageFileNameToPrefetch.containsKey(imageFile.getName())) {
+                continue;
+            }
+
+            imageFileNameToPrefetch.put(imageFile.getName(),
+                    executor.submit(() -> predictor.prefetch(imageFile, imageMetaData)));
+        }
+    }
+
+    /**
+     * Removes and returns the prefetch of an image, if it exists. The returned prefetch may still be running
+     * and may have failed. Every call counts as a lookup for the hit rate.
+     *
+     * @param imageFileName the name of the image-file
+     * @return the prefetch or null if the image was not prefetched
+     */
+    public Future<BoundingBoxPredictor.PreparedImage> take(String imageFileName) {
+        ++nrLookups;
+
+        final Future<BoundingBoxPredictor.PreparedImage> prefetch = imageFileNameToPrefetch.remove(imageFileName);
+
+        if(prefetch != null) {
+            ++nrHits;
+        }
+
+        return prefetch;
+    }
+
+    /**
+     * Cancels and discards all prefetches, e.g. because the prediction settings changed.
+     */
+    public void cancelAll() {
+        imageFileNameToPrefetch.values().forEach(prefetch -> prefetch.cancel(true));
+        imageFileNameToPrefetch.clear();
+    }
+
+    /**
+     * Cancels all prefetches and stops the background thread.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the hit statistics of all lookups so far.
+     *
+     * @return the statistics
+     */
+    public HitStatistics getHitStatistics() {
+        return new HitStatistics(nrHits, nrLookups);
+    }
+
+    /**
+     * Hit statistics of the prefetched predictions.
+     *
+     * @param nrHits    the number of lookups for which a prefetch existed
+     * @param nrLookups the total number of lookups
+     */
+    public record HitStatistics(int nrHits, int nrLookups) {
+        public double getHitRate() {
+            return nrLookups != 0 ? (double) nrHits / nrLookups : 0;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads YOLO annotation files line by line and parses category indices and bounds values directly
+ * from the file's bytes, without creating intermediate strings. The tokenization mirrors a {@link java.util.Scanner}
+ * using {@link java.util.Locale#ENGLISH} on a stripped line read by {@link java.io.BufferedReader#readLine()}, so that
+ * line numbers and parsed values are the same as before. Files are read into a reused buffer, larger files are
+ * memory-mapped. Instances are not thread-safe and are meant to be reused by a single thread. Once a file
+ * was parsed, {@link #release()} should be called, so that the reader does not keep the file's content alive.
+ */
+final class YOLOAnnotationReader {
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    private static final long MEMORY_MAP_THRESHOLD = 1024 * 1024;
+    private static final int INITIAL_VALUES_CAPACITY = 16;
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private ByteBuffer data = buffer;
+    private int limit;
+    private int nextLineStart;
+    private int lineNumber;
+    private int cursor;
+    private int lineEnd;
+    private int tokenStart;
+    private int tokenEnd;
+    private int intToken;
+    private double doubleToken;
+    private double[] values = new double[INITIAL_VALUES_CAPACITY];
+    private int nrValues;
+
+    /**
+     * Reads the content of a file, replacing any previously read content.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file could not be read
+     */
+    void open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large.");
+            }
+
+            if (size > MEMORY_MAP_THRESHOLD) {
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                if (buffer.capacity() < size) {
+                    buffer = ByteBuffer.allocate((int) size);
+                }
+
+                buffer.clear().limit((int) size);
+
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Reads until the buffer is full or the end of the file is reached.
+                }
+
+                buffer.flip();
+                data = buffer;
+            }
+        }
+
+        reset();
+    }
+
+    /**
+     * Reads the content of an in-memory file (e.g. an archive entry), replacing any previously read content.
+     * The provided array is not copied.
+     *
+     * @param content the content of the file
+     */
+    void open(byte[] content) {
+        data = ByteBuffer.wrap(content);
+        reset();
+    }
+
+    /**
+     * Releases the content of the previously read file, in particular the mapping of a memory-mapped file,
+     * which otherwise would stay alive for as long as the reader is reused. The reused buffer is kept.
+     */
+    void release() {
+        data = buffer.clear().limit(0);
+        reset();
+    }
+
+    /**
+     * Advances to the next line. The line is stripped of leading and trailing whitespace.
+     *
+     * @return true if there is another line, false if the end of the file was reached
+     */
+    boolean nextLine() {
+        if (nextLineStart >= limit) {
+            return false;
+        }
+
+        int end = nextLineStart;
+
+        while (end < limit && data.get(end) != '\n' && data.get(end) != '\r') {
+            ++end;
+        }
+
+        int start = nextLineStart;
+
+        if (end < limit && data.get(end) == '\r' && end + 1 < limit && data.get(end + 1) == '\n') {
+            nextLineStart = end + 2;
+        } else {
+            nextLineStart = end + 1;
+        }
+
+        while (start < end && isWhitespace(data.get(start))) {
+            ++start;
+        }
+
+        while (end > start && isWhitespace(data.get(end - 1))) {
+            --end;
+        }
+
+        cursor = start;
+        lineEnd = end;
+        tokenStart = tokenEnd = -1;
+        ++lineNumber;
+
+        return true;
+    }
+
+    /**
+     * Returns the (1-based) number of the current line.
+     *
+     * @return the line number
+     */
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns true if the current (stripped) line is empty.
+     *
+     * @return true if the line is blank
+     */
+    boolean isLineBlank() {
+        return cursor == lineEnd;
+    }
+
+    /**
+     * Returns true if the next token on the current line is an integer.
+     *
+     * @return true if an integer can be read
+     */
+    boolean hasNextInt() {
+        if (!findToken()) {
+            return false;
+        }
+
+        int position = tokenStart;
+        boolean negative = false;
+        final byte first = data.get(position);
+
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            ++position;
+        }
+
+        if (position == tokenEnd) {
+            return false;
+        }
+
+        long value = 0;
+
+        for (; position < tokenEnd; ++position) {
+            final int digit = data.get(position) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+
+            value = value * 10 + digit;
+
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return false;
+            }
+        }
+
+        value = negative ? -value : value;
+
+        if (value > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        intToken = (int) value;
+        return true;
+    }
+
+    /**
+     * Returns the integer previously checked by {@link #hasNextInt()} and advances past it.
+     *
+     * @return the integer
+     */
+    int nextInt() {
+        cursor = tokenEnd;
+        tokenStart = tokenEnd = -1;
+        return intToken;
+    }
+
+    /**
+     * Returns true if the next token on the current line is a decimal number.
+     *
+     * @return true if a double can be read
+     */
+    boolean hasNextDouble() {
+        if (!findToken()) {
+            return false;
+        }
+
+        int position = tokenStart;
+        boolean negative = false;
+        final byte first = data.get(position);
+
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            ++position;
+        }
+
+        long mantissa = 0;
+        int nrSignificantDigits = 0;
+        int nrDigits = 0;
+        int exponent = 0;
+        boolean seenDecimalPoint = false;
+
+        for (; position < tokenEnd; ++position) {
+            final byte current = data.get(position);
+
+            if (current == '.' && !seenDecimalPoint) {
+                seenDecimalPoint = true;
+                continue;
+            }
+
+            final int digit = current - '0';
+
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+
+            ++nrDigits;
+
+            if (mantissa != 0 || digit != 0) {
+                ++nrSignificantDigits;
+
+                if (nrSignificantDigits <= MAX_FAST_PATH_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+
+                    if (seenDecimalPoint) {
+                        --exponent;
+                    }
+                } else if (!seenDecimalPoint) {
+                    ++exponent;
+                }
+            } else if (seenDecimalPoint) {
+                --exponent;
+            }
+        }
+
+        if (nrDigits == 0) {
+            return parseSpecialValue();
+        }
+
+        if (position < tokenEnd) {
+            final byte current = data.get(position);
+
+            if (current != 'e' && current != 'E') {
+                return false;
+            }
+
+            ++position;
+
+            boolean negativeExponent = false;
+
+            if (position < tokenEnd && (data.get(position) == '-' || data.get(position) == '+')) {
+                negativeExponent = data.get(position) == '-';
+                ++position;
+            }
+
+            if (position == tokenEnd) {
+                return false;
+            }
+
+            int exponentValue = 0;
+
+            for (; position < tokenEnd; ++position) {
+                final int digit = data.get(position) - '0';
+
+                if (digit < 0 || digit > 9) {
+                    return false;
+                }
+
+                exponentValue = Math.min(exponentValue * 10 + digit, 100_000);
+            }
+
+            exponent += negativeExponent ? -exponentValue : exponentValue;
+        }
+
+        if (nrSignificantDigits > MAX_FAST_PATH_DIGITS || Math.abs(exponent) >= POWERS_OF_TEN.length) {
+            // Values that cannot be computed exactly with a single multiplication or division
+            // are delegated to the JDK to keep the results identical to Double.parseDouble.
+            doubleToken = Double.parseDouble(tokenToString());
+            return true;
+        }
+
+        double value = (double) mantissa;
+
+        if (exponent < 0) {
+            value /= POWERS_OF_TEN[-exponent];
+        } else {
+            value *= POWERS_OF_TEN[exponent];
+        }
+
+        doubleToken = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * Returns the number previously checked by {@link #hasNextDouble()} and advances past it.
+     *
+     * @return the number
+     */
+    double nextDouble() {
+        cursor = tokenEnd;
+        tokenStart = tokenEnd = -1;
+        return doubleToken;
+    }
+
+    /**
+     * Removes all collected bounds values.
+     */
+    void clearValues() {
+        nrValues = 0;
+    }
+
+    /**
+     * Collects a bounds value of the current line.
+     *
+     * @param value the value
+     */
+    void addValue(double value) {
+        if (nrValues == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+
+        values[nrValues++] = value;
+    }
+
+    /**
+     * Returns the number of collected bounds values.
+     *
+     * @return the number of values
+     */
+    int getNrValues() {
+        return nrValues;
+    }
+
+    /**
+     * Returns a collected bounds value.
+     *
+     * @param index the index of the value
+     * @return the value
+     */
+    double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the collected bounds values as a newly created list.
+     *
+     * @return the list of values
+     */
+    List<Double> getValuesAsList() {
+        final List<Double> result = new ArrayList<>(nrValues);
+
+        for (int i = 0; i < nrValues; ++i) {
+            result.add(values[i]);
+        }
+
+        return result;
+    }
+
+    private void reset() {
+        limit = data.limit();
+        nextLineStart = 0;
+        lineNumber = 0;
+        cursor = 0;
+        lineEnd = 0;
+    }
+
+    private boolean findToken() {
+        if (tokenStart != -1) {
+            return true;
+        }
+
+        int position = cursor;
+
+        while (position < lineEnd && isWhitespace(data.get(position))) {
+            ++position;
+        }
+
+        if (position == lineEnd) {
+            return false;
+        }
+
+        tokenStart = position;
+
+        while (position < lineEnd && !isWhitespace(data.get(position))) {
+            ++position;
+        }
+
+        tokenEnd = position;
+        return true;
+    }
+
+    private boolean parseSpecialValue() {
+        final String token = tokenToString();
+
+        if (token.equals("NaN") || token.equals("Infinity") || token.equals("+Infinity") || token.equals("-Infinity")) {
+            doubleToken = Double.parseDouble(token);
+            return true;
+        }
+
+        return false;
+    }
+
+    private String tokenToString() {
+        final byte[] tokenBytes = new byte[tokenEnd - tokenStart];
+        data.get(tokenStart, tokenBytes);
+        return new String(tokenBytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value >= 0 && Character.isWhitespace(value);
+    }
+}
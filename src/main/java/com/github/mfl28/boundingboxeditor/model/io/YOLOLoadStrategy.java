@@ -28,10 +28,12 @@ import org.apache.commons.io.FilenameUtils;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -45,74 +47,118 @@ import java.util.stream.Stream;
 public class YOLOLoadStrategy implements ImageAnnotationLoadStrategy {
     public static final String INVALID_BOUNDING_BOX_COORDINATES_MESSAGE = "Invalid bounding-box coordinates on line ";
     private static final boolean INCLUDE_SUBDIRECTORIES = false;
+    private static final String INVALID_BOUNDS_VALUE_MESSAGE = "Bounds value not within interval [0, 1] on line ";
     private static final String OBJECT_DATA_FILE_NAME = "object.data";
+    private static final String NO_CATEGORY_NAMES_MESSAGE = "Does not contain any category names.";
     private final List<String> categories = new ArrayList<>();
     private final List<IOErrorInfoEntry> unParsedFileErrorMessages =
             Collections.synchronizedList(new ArrayList<>());
     private Map<String, List<String>> baseFileNameToImageFileMap;
     private Map<String, ObjectCategory> categoryNameToCategoryMap;
     private Map<String, Integer> boundingShapeCountPerCategory;
+    private final ThreadLocal<YOLOAnnotationReader> annotationReaders =
+            ThreadLocal.withInitial(YOLOAnnotationReader::new);
 
     @Override
     public ImageAnnotationImportResult load(Path path, Set<String> filesToLoad,
                                             Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
                                             DoubleProperty progress)
             throws IOException {
+        initialize(filesToLoad, existingCategoryNameToCategoryMap);
+
+        if (AnnotationArchiveReader.isArchive(path)) {
+            return loadFromArchive(path, progress);
+        }
+
+        if (!loadObjectCategoriesFromDirectory(path)) {
+            return new ImageAnnotationImportResult(0, unParsedFileErrorMessages, ImageAnnotationData.empty());
+        }
+
+        try (Stream<Path> fileStream = Files.walk(path, INCLUDE_SUBDIRECTORIES ? Integer.MAX_VALUE : 1)) {
+            return loadAnnotationFiles(fileStream
+                    .filter(pathItem -> pathItem.getFileName().toString().endsWith(".txt"))
+                    .map(Path::toFile).toList(), progress);
+        }
+    }
+
+    @Override
+    public ImageAnnotationImportResult load(Path path, Collection<Path> annotationFiles, Set<String> filesToLoad,
+                                            Map<String, ObjectCategory> existingCategoryNameToCategoryMap,
+                                            DoubleProperty progress) throws IOException {
+        if (AnnotationArchiveReader.isArchive(path) || annotationFiles.stream()
+                .anyMatch(pathItem -> pathItem.getFileName().toString().equals(OBJECT_DATA_FILE_NAME))) {
+            // Changed category names affect all annotation files.
+            return load(path, filesToLoad, existingCategoryNameToCategoryMap, progress);
+        }
+
+        initialize(filesToLoad, existingCategoryNameToCategoryMap);
+
+        if (!loadObjectCategoriesFromDirectory(path)) {
+            return new ImageAnnotationImportResult(0, unParsedFileErrorMessages, ImageAnnotationData.empty());
+        }
+
+        return loadAnnotationFiles(annotationFiles.stream()
+                .filter(pathItem -> pathItem.getFileName().toString().endsWith(".txt"))
+                .map(Path::toFile)
+                .filter(File::isFile).toList(), progress);
+    }
+
+    private void initialize(Set<String> filesToLoad, Map<String, ObjectCategory> existingCategoryNameToCategoryMap) {
         this.baseFileNameToImageFileMap = filesToLoad.stream().collect(
                 Collectors.groupingBy(FilenameUtils::getBaseName, HashMap::new,
                         Collectors.mapping(Function.identity(), Collectors.toList()))
         );
         this.boundingShapeCountPerCategory = new ConcurrentHashMap<>();
         this.categoryNameToCategoryMap = new ConcurrentHashMap<>(existingCategoryNameToCategoryMap);
+    }
 
+    private boolean loadObjectCategoriesFromDirectory(Path path) {
         try {
             loadObjectCategories(path);
         } catch (Exception e) {
             unParsedFileErrorMessages.add(new IOErrorInfoEntry(OBJECT_DATA_FILE_NAME, e.getMessage()));
-            return new ImageAnnotationImportResult(0, unParsedFileErrorMessages, ImageAnnotationData.empty());
+            return false;
         }
 
         if (categories.isEmpty()) {
             unParsedFileErrorMessages
-                    .add(new IOErrorInfoEntry(OBJECT_DATA_FILE_NAME, "Does not contain any category names."));
-            return new ImageAnnotationImportResult(0, unParsedFileErrorMessages, ImageAnnotationData.empty());
+                    .add(new IOErrorInfoEntry(OBJECT_DATA_FILE_NAME, NO_CATEGORY_NAMES_MESSAGE));
+            return false;
         }
 
-        try (Stream<Path> fileStream = Files.walk(path, INCLUDE_SUBDIRECTORIES ? Integer.MAX_VALUE : 1)) {
-            List<File> annotationFiles = fileStream
-                    .filter(pathItem -> pathItem.getFileName().toString().endsWith(".txt"))
-                    .map(Path::toFile).toList();
-
-            int totalNrOfFiles = annotationFiles.size();
-            AtomicInteger nrProcessedFiles = new AtomicInteger(0);
-
-            List<ImageAnnotation> imageAnnotations = annotationFiles.parallelStream()
-                    .map(file -> {
-                        progress.set(1.0 * nrProcessedFiles
-                                .incrementAndGet() / totalNrOfFiles);
-
-                        try {
-                            return loadAnnotationFromFile(file);
-                        } catch (InvalidAnnotationFormatException |
-                                 AnnotationToNonExistentImageException |
-                                 AnnotationAssociationException |
-                                 IOException e) {
-                            unParsedFileErrorMessages
-                                    .add(new IOErrorInfoEntry(
-                                            file.getName(),
-                                            e.getMessage()));
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
-
-            return new ImageAnnotationImportResult(
-                    imageAnnotations.size(),
-                    unParsedFileErrorMessages,
-                    new ImageAnnotationData(imageAnnotations, boundingShapeCountPerCategory, categoryNameToCategoryMap)
-            );
-        }
+        return true;
+    }
+
+    private ImageAnnotationImportResult loadAnnotationFiles(List<File> annotationFiles, DoubleProperty progress) {
+        int totalNrOfFiles = annotationFiles.size();
+        AtomicInteger nrProcessedFiles = new AtomicInteger(0);
+
+        List<ImageAnnotation> imageAnnotations = annotationFiles.parallelStream()
+                .map(file -> {
+                    progress.set(1.0 * nrProcessedFiles
+                            .incrementAndGet() / totalNrOfFiles);
+
+                    try {
+                        return loadAnnotationFromFile(file);
+                    } catch (InvalidAnnotationFormatException |
+                             AnnotationToNonExistentImageException |
+                             AnnotationAssociationException |
+                             IOException e) {
+                        unParsedFileErrorMessages
+                                .add(new IOErrorInfoEntry(
+                                        file.getName(),
+                                        e.getMessage()));
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new ImageAnnotationImportResult(
+                imageAnnotations.size(),
+                unParsedFileErrorMessages,
+                new ImageAnnotationData(imageAnnotations, boundingShapeCountPerCategory, categoryNameToCategoryMap)
+        );
     }
 
     private void loadObjectCategories(Path root) throws IOException {
@@ -134,9 +180,105 @@ public class YOLOLoadStrategy implements ImageAnnotationLoadStrategy {
         }
     }
 
+    private ImageAnnotationImportResult loadFromArchive(Path path, DoubleProperty progress) throws IOException {
+        final List<ImageAnnotation> imageAnnotations = Collections.synchronizedList(new ArrayList<>());
+        // Annotation entries that are read before the object.data entry are kept until the categories are known.
+        final List<Map.Entry<String, byte[]>> deferredEntries = new ArrayList<>();
+        final AtomicBoolean objectDataRead = new AtomicBoolean(false);
+
+        AnnotationArchiveReader.readEntries(path,
+                fileName -> fileName.endsWith(".txt") || fileName.equals(OBJECT_DATA_FILE_NAME),
+                (fileName, content) -> {
+                    synchronized (categories) {
+                        if (fileName.equals(OBJECT_DATA_FILE_NAME)) {
+                            if (!objectDataRead.getAndSet(true)) {
+                                loadObjectCategories(content);
+                            }
+
+                            return;
+                        }
+
+                        if (!objectDataRead.get()) {
+                            deferredEntries.add(Map.entry(fileName, content));
+                            return;
+                        }
+
+                        if (categories.isEmpty()) {
+                            return;
+                        }
+                    }
+
+                    loadAnnotationFromArchiveEntry(fileName, content, imageAnnotations);
+                }, progress);
+
+        if (!objectDataRead.get()) {
+            unParsedFileErrorMessages.add(new IOErrorInfoEntry(OBJECT_DATA_FILE_NAME,
+                    "Does not exist in annotation archive \"" + path.getFileName().toString() + "\"."));
+            return new ImageAnnotationImportResult(0, unParsedFileErrorMessages, ImageAnnotationData.empty());
+        }
+
+        if (categories.isEmpty()) {
+            unParsedFileErrorMessages.add(new IOErrorInfoEntry(OBJECT_DATA_FILE_NAME, NO_CATEGORY_NAMES_MESSAGE));
+            return new ImageAnnotationImportResult(0, unParsedFileErrorMessages, ImageAnnotationData.empty());
+        }
+
+        deferredEntries.parallelStream().forEach(entry ->
+                loadAnnotationFromArchiveEntry(entry.getKey(), entry.getValue(), imageAnnotations));
+
+        return new ImageAnnotationImportResult(
+                imageAnnotations.size(),
+                unParsedFileErrorMessages,
+                new ImageAnnotationData(imageAnnotations, boundingShapeCountPerCategory, categoryNameToCategoryMap)
+        );
+    }
+
+    private void loadObjectCategories(byte[] content) {
+        new String(content, StandardCharsets.UTF_8).lines()
+                .map(String::strip)
+                .filter(line -> !line.isBlank())
+                .forEach(categories::add);
+    }
+
+    private void loadAnnotationFromArchiveEntry(String fileName, byte[] content,
+                                                List<ImageAnnotation> imageAnnotations) {
+        try {
+            final String annotatedImageFileName = getAnnotatedImageFileName(fileName);
+            final YOLOAnnotationReader annotationReader = annotationReaders.get();
+            final ImageAnnotation imageAnnotation;
+
+            try {
+                annotationReader.open(content);
+                imageAnnotation = parseAnnotation(fileName, annotatedImageFileName, annotationReader);
+            } finally {
+                annotationReader.release();
+            }
+
+            if (imageAnnotation != null) {
+                imageAnnotations.add(imageAnnotation);
+            }
+        } catch (InvalidAnnotationFormatException |
+                 AnnotationToNonExistentImageException |
+                 AnnotationAssociationException e) {
+            unParsedFileErrorMessages.add(new IOErrorInfoEntry(fileName, e.getMessage()));
+        }
+    }
+
     private ImageAnnotation loadAnnotationFromFile(File file) throws IOException {
+        final String annotatedImageFileName = getAnnotatedImageFileName(file.getName());
+
+        final YOLOAnnotationReader annotationReader = annotationReaders.get();
+
+        try {
+            annotationReader.open(file.toPath());
+            return parseAnnotation(file.getName(), annotatedImageFileName, annotationReader);
+        } finally {
+            annotationReader.release();
+        }
+    }
+
+    private String getAnnotatedImageFileName(String annotationFileName) {
         final List<String> annotatedImageFiles = baseFileNameToImageFileMap.get(
-                FilenameUtils.getBaseName(file.getName()));
+                FilenameUtils.getBaseName(annotationFileName));
 
         if (annotatedImageFiles == null) {
             throw new AnnotationToNonExistentImageException(
@@ -146,61 +288,55 @@ public class YOLOLoadStrategy implements ImageAnnotationLoadStrategy {
                     "More than one associated image file.");
         }
 
-        final String annotatedImageFileName = annotatedImageFiles.getFirst();
-
-        try (BufferedReader fileReader = Files.newBufferedReader(file.toPath())) {
-            String line;
-
-            List<BoundingShapeData> boundingShapeDataList = new ArrayList<>();
-
-            int counter = 1;
-
-            while ((line = fileReader.readLine()) != null) {
-                line = line.strip();
+        return annotatedImageFiles.getFirst();
+    }
 
-                if (!line.isBlank()) {
-                    try {
-                        final BoundingShapeData boundingShapeData = parseBoundingShapeData(line, counter);
-                        boundingShapeDataList.add(boundingShapeData);
-                        boundingShapeCountPerCategory.merge(boundingShapeData.getCategoryName(), 1, Integer::sum);
-                    } catch (InvalidAnnotationFormatException e) {
-                        unParsedFileErrorMessages.add(new IOErrorInfoEntry(file.getName(), e.getMessage()));
-                    }
+    private ImageAnnotation parseAnnotation(String annotationFileName, String annotatedImageFileName,
+                                            YOLOAnnotationReader annotationReader) {
+        List<BoundingShapeData> boundingShapeDataList = new ArrayList<>();
+
+        while (annotationReader.nextLine()) {
+            if (!annotationReader.isLineBlank()) {
+                try {
+                    final BoundingShapeData boundingShapeData = parseBoundingShapeData(annotationReader,
+                            annotationReader.getLineNumber());
+                    boundingShapeDataList.add(boundingShapeData);
+                    boundingShapeCountPerCategory.merge(boundingShapeData.getCategoryName(), 1, Integer::sum);
+                } catch (InvalidAnnotationFormatException e) {
+                    unParsedFileErrorMessages.add(new IOErrorInfoEntry(annotationFileName, e.getMessage()));
                 }
-
-                ++counter;
-            }
-
-            if (boundingShapeDataList.isEmpty()) {
-                return null;
             }
+        }
 
-            // ImageMetaData will be loaded when the corresponding image is displayed for the first time.
-            return new ImageAnnotation(new ImageMetaData(annotatedImageFileName), boundingShapeDataList);
+        if (boundingShapeDataList.isEmpty()) {
+            return null;
         }
-    }
 
-    private BoundingShapeData parseBoundingShapeData(String line, int lineNumber) {
-        Scanner scanner = new Scanner(line);
-        scanner.useLocale(Locale.ENGLISH);
+        // ImageMetaData will be loaded when the corresponding image is displayed for the first time.
+        return new ImageAnnotation(new ImageMetaData(annotatedImageFileName), boundingShapeDataList);
+    }
 
-        int categoryId = parseCategoryIndex(scanner, lineNumber);
+    private BoundingShapeData parseBoundingShapeData(YOLOAnnotationReader annotationReader, int lineNumber) {
+        int categoryId = parseCategoryIndex(annotationReader, lineNumber);
 
-        List<Double> entries = new ArrayList<>();
+        annotationReader.clearValues();
 
-        while (scanner.hasNextDouble()) {
-            double entry = scanner.nextDouble();
+        while (annotationReader.hasNextDouble()) {
+            double entry = annotationReader.nextDouble();
 
-            assertRatio(entry, "Bounds value not within interval [0, 1] on line " + lineNumber + ".");
+            assertRatio(entry, INVALID_BOUNDS_VALUE_MESSAGE, lineNumber);
 
-            entries.add(entry);
+            annotationReader.addValue(entry);
         }
 
-        if (entries.size() == 4) {
+        final int nrEntries = annotationReader.getNrValues();
+
+        if (nrEntries == 4) {
             return createBoundingBoxData(
-                    categoryId, entries.get(0), entries.get(1), entries.get(2), entries.get(3), lineNumber);
-        } else if(entries.size() >= 6 && entries.size() % 2 == 0) {
-            return createBoundingPolygonData(categoryId, entries);
+                    categoryId, annotationReader.getValue(0), annotationReader.getValue(1),
+                    annotationReader.getValue(2), annotationReader.getValue(3), lineNumber);
+        } else if(nrEntries >= 6 && nrEntries % 2 == 0) {
+            return createBoundingPolygonData(categoryId, annotationReader.getValuesAsList());
         }
 
         throw new InvalidAnnotationFormatException("Invalid number of bounds values on line " + lineNumber + ".");
@@ -213,25 +349,25 @@ public class YOLOLoadStrategy implements ImageAnnotationLoadStrategy {
         if (xMinRelative < 0 && -xMinRelative < 1e-6) {
             xMinRelative = 0;
         }
-        assertRatio(xMinRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE + lineNumber + ".");
+        assertRatio(xMinRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE, lineNumber);
 
         double yMinRelative = yMidRelative - heightRelative / 2;
         if (yMinRelative < 0 && -yMinRelative < 1e-6) {
             yMinRelative = 0;
         }
-        assertRatio(yMinRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE + lineNumber + ".");
+        assertRatio(yMinRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE, lineNumber);
 
         double xMaxRelative = xMidRelative + widthRelative / 2;
         if (xMaxRelative > 1 && xMaxRelative - 1 < 1e-6) {
             xMaxRelative = 1;
         }
-        assertRatio(xMaxRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE + lineNumber + ".");
+        assertRatio(xMaxRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE, lineNumber);
 
         double yMaxRelative = yMidRelative + heightRelative / 2;
         if (yMaxRelative > 1 && yMaxRelative - 1 < 1e-6) {
             yMaxRelative = 1;
         }
-        assertRatio(yMaxRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE + lineNumber + ".");
+        assertRatio(yMaxRelative, INVALID_BOUNDING_BOX_COORDINATES_MESSAGE, lineNumber);
 
         String categoryName = categories.get(categoryId);
 
@@ -259,12 +395,12 @@ public class YOLOLoadStrategy implements ImageAnnotationLoadStrategy {
         return new BoundingPolygonData(objectCategory, entries, Collections.emptyList());
     }
 
-    private int parseCategoryIndex(Scanner scanner, int lineNumber) {
-        if (!scanner.hasNextInt()) {
+    private int parseCategoryIndex(YOLOAnnotationReader annotationReader, int lineNumber) {
+        if (!annotationReader.hasNextInt()) {
             throw new InvalidAnnotationFormatException("Missing or invalid category index on line " + lineNumber + ".");
         }
 
-        int categoryId = scanner.nextInt();
+        int categoryId = annotationReader.nextInt();
 
         if (categoryId < 0 || categoryId >= categories.size()) {
             throw new InvalidAnnotationFormatException("Invalid category index " + categoryId
@@ -275,9 +411,9 @@ public class YOLOLoadStrategy implements ImageAnnotationLoadStrategy {
         return categoryId;
     }
 
-    private void assertRatio(double ratio, String message) {
+    private void assertRatio(double ratio, String messagePrefix, int lineNumber) {
         if (ratio < 0 || ratio > 1) {
-            throw new InvalidAnnotationFormatException(message);
+            throw new InvalidAnnotationFormatException(messagePrefix + lineNumber + ".");
         }
     }
 }
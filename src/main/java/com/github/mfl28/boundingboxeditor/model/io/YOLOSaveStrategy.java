@@ -27,7 +27,9 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -47,13 +49,11 @@ public class YOLOSaveStrategy implements ImageAnnotationSaveStrategy {
             new DecimalFormat("#.######", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
     private static final String YOLO_ANNOTATION_FILE_EXTENSION = ".txt";
     private static final String OBJECT_DATA_FILE_NAME = "object.data";
-    private Path saveFolderPath;
     private List<String> categories;
 
     @Override
     public ImageAnnotationExportResult save(ImageAnnotationData annotations, Path destination,
                                             DoubleProperty progress) {
-        this.saveFolderPath = destination;
         this.categories = annotations.categoryNameToBoundingShapeCountMap().entrySet().stream()
                 .filter(stringIntegerEntry -> stringIntegerEntry.getValue() > 0)
                 .map(Map.Entry::getKey)
@@ -62,25 +62,31 @@ public class YOLOSaveStrategy implements ImageAnnotationSaveStrategy {
 
         List<IOErrorInfoEntry> unParsedFileErrorMessages = Collections.synchronizedList(new ArrayList<>());
 
-        try {
-            createObjectDataFile();
-        } catch (IOException e) {
-            unParsedFileErrorMessages.add(new IOErrorInfoEntry(OBJECT_DATA_FILE_NAME, e.getMessage()));
-        }
-
         int totalNrOfAnnotations = annotations.imageAnnotations().size();
         AtomicInteger nrProcessedAnnotations = new AtomicInteger(0);
 
-        annotations.imageAnnotations().parallelStream().forEach(annotation -> {
+        try (AnnotationExportSink exportSink = AnnotationExportSink.open(destination)) {
             try {
-                createAnnotationFile(annotation);
+                createObjectDataFile(exportSink);
             } catch (IOException e) {
-                unParsedFileErrorMessages
-                        .add(new IOErrorInfoEntry(annotation.getImageFileName(), e.getMessage()));
+                unParsedFileErrorMessages.add(new IOErrorInfoEntry(OBJECT_DATA_FILE_NAME, e.getMessage()));
             }
 
-            progress.set(1.0 * nrProcessedAnnotations.incrementAndGet() / totalNrOfAnnotations);
-        });
+            annotations.imageAnnotations().parallelStream().forEach(annotation -> {
+                try {
+                    createAnnotationFile(annotation, exportSink);
+                } catch (IOException e) {
+                    unParsedFileErrorMessages
+                            .add(new IOErrorInfoEntry(annotation.getImageFileName(), e.getMessage()));
+                }
+
+                progress.set(1.0 * nrProcessedAnnotations.incrementAndGet() / totalNrOfAnnotations);
+            });
+
+            exportSink.commit();
+        } catch (IOException e) {
+            unParsedFileErrorMessages.add(new IOErrorInfoEntry(destination.getFileName().toString(), e.getMessage()));
+        }
 
         return new ImageAnnotationExportResult(
                 totalNrOfAnnotations - unParsedFileErrorMessages.size(),
@@ -88,25 +94,28 @@ public class YOLOSaveStrategy implements ImageAnnotationSaveStrategy {
         );
     }
 
-    private void createObjectDataFile() throws IOException {
-        try (BufferedWriter fileWriter = Files.newBufferedWriter(
-                saveFolderPath.resolve(OBJECT_DATA_FILE_NAME))) {
+    private void createObjectDataFile(AnnotationExportSink exportSink) throws IOException {
+        exportSink.write(OBJECT_DATA_FILE_NAME, outputStream -> {
+            final BufferedWriter fileWriter = createWriter(outputStream);
+
             for (int i = 0; i < categories.size(); ++i) {
                 fileWriter.write(categories.get(i));
                 if (i != categories.size() - 1) {
                     fileWriter.newLine();
                 }
             }
-        }
+
+            fileWriter.flush();
+        });
     }
 
-    private void createAnnotationFile(ImageAnnotation annotation) throws IOException {
+    private void createAnnotationFile(ImageAnnotation annotation, AnnotationExportSink exportSink)
+            throws IOException {
         String imageFileName = annotation.getImageFileName();
         String imageFileNameWithoutExtension = imageFileName.substring(0, imageFileName.lastIndexOf('.'));
 
-        try (BufferedWriter fileWriter = Files.newBufferedWriter(
-                saveFolderPath.resolve(imageFileNameWithoutExtension +
-                        YOLO_ANNOTATION_FILE_EXTENSION))) {
+        exportSink.write(imageFileNameWithoutExtension + YOLO_ANNOTATION_FILE_EXTENSION, outputStream -> {
+            final BufferedWriter fileWriter = createWriter(outputStream);
             List<BoundingShapeData> boundingShapeDataList = annotation.getBoundingShapeData().stream()
                     .flatMap(this::extractBoundingShapeDataElements)
                     .toList();
@@ -129,7 +138,13 @@ public class YOLOSaveStrategy implements ImageAnnotationSaveStrategy {
                     }
                 }
             }
-        }
+
+            fileWriter.flush();
+        });
+    }
+
+    private static BufferedWriter createWriter(OutputStream outputStream) {
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
     }
 
     private String createBoundingBoxDataEntry(BoundingBoxData boundingBoxData) {
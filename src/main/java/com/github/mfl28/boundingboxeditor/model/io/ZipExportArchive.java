@@ -0,0 +1,495 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.apache.commons.io.function.IOConsumer;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes exported files as entries of a ZIP-archive. The content of each entry is generated and
+ * deflated by the thread calling {@link #write}, so that entries are compressed in parallel when written from
+ * several threads. Compressed entries are appended sequentially to a single archive file, which means that an
+ * export is one large sequential write instead of many small file creations. Small entries are compressed
+ * into memory before they are written, so that their sizes and checksums are known in advance and the archive
+ * is written directly in the ZIP-format (including ZIP64-extensions for archives with more than 65535 entries or
+ * more than 4 GiB) instead of through a {@link java.util.zip.ZipOutputStream}, which can only compress entries
+ * one at a time. Entries whose compressed content exceeds {@link #MAX_BUFFERED_ENTRY_SIZE} and entries written
+ * by {@link #writeStreamed} are streamed to the archive instead, followed by a data descriptor holding their
+ * sizes and checksum. While an entry is streamed, other entries wait until it is completed.
+ * The archive is written to a temporary sibling file which atomically replaces the destination when committed.
+ */
+final class ZipExportArchive implements AnnotationExportSink {
+    // Entries whose compressed content exceeds this size are streamed to the archive.
+    static final int MAX_BUFFERED_ENTRY_SIZE = 1024 * 1024;
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE = 20;
+    private static final int DATA_DESCRIPTOR_SIZE = 16;
+    private static final int ZIP64_DATA_DESCRIPTOR_SIZE = 24;
+    private static final int ZIP64_EXTRA_FIELD_HEADER_SIZE = 4;
+    private static final short ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final short VERSION_DEFLATE = 20;
+    private static final short VERSION_ZIP64 = 45;
+    private static final short UTF8_NAMES_FLAG = 0x0800;
+    private static final short DATA_DESCRIPTOR_FLAG = 0x0008;
+    private static final short DEFLATED_METHOD = 8;
+    private static final long MAX_UINT16 = 0xFFFFL;
+    private static final long MAX_UINT32 = 0xFFFFFFFFL;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int ENTRY_BUFFER_SIZE = 8 * 1024;
+    private static final String TEMP_FILE_PREFIX = ".";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final Path destination;
+    private final Path tempFile;
+    private final FileChannel channel;
+    private final OutputStream outputStream;
+    private final int compressionLevel;
+    private final short dosTime;
+    private final short dosDate;
+    private final List<CentralDirectoryEntry> entries = new ArrayList<>();
+    private final ReentrantLock archiveLock = new ReentrantLock();
+    private long position;
+    private boolean completed;
+    private boolean broken;
+    private boolean committed;
+
+    private ZipExportArchive(Path destination, int compressionLevel) throws IOException {
+        this.destination = destination.toAbsolutePath();
+        this.tempFile = this.destination.resolveSibling(TEMP_FILE_PREFIX + this.destination.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_FILE_SUFFIX);
+        this.channel = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        this.compressionLevel = compressionLevel;
+
+        final LocalDateTime now = LocalDateTime.now();
+        this.dosTime = (short) ((now.getHour() << 11) | (now.getMinute() << 5) | (now.getSecond() / 2));
+        this.dosDate = (short) (((Math.max(now.getYear(), 1980) - 1980) << 9) | (now.getMonthValue() << 5)
+                | now.getDayOfMonth());
+    }
+
+    /**
+     * Creates a new archive using the default compression level.
+     *
+     * @param destination the path of the archive
+     * @return the archive
+     * @throws IOException if the temporary archive file could not be created
+     */
+    static ZipExportArchive create(Path destination) throws IOException {
+        return new ZipExportArchive(destination, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new archive.
+     *
+     * @param destination      the path of the archive
+     * @param compressionLevel the compression level (0-9)
+     * @return the archive
+     * @throws IOException if the temporary archive file could not be created
+     */
+    static ZipExportArchive create(Path destination, int compressionLevel) throws IOException {
+        return new ZipExportArchive(destination, compressionLevel);
+    }
+
+    @Override
+    public void write(String fileName, IOConsumer<OutputStream> contentWriter) throws IOException {
+        writeEntry(fileName, contentWriter, MAX_BUFFERED_ENTRY_SIZE);
+    }
+
+    /**
+     * Writes a file whose content is streamed to the archive while it is generated, without buffering it in
+     * memory. Other entries can only be written once the file is completed.
+     *
+     * @param fileName      the name of the file (relative to the destination)
+     * @param contentWriter the writer writing the content of the file to the provided stream
+     * @throws IOException if the file could not be written
+     */
+    void writeStreamed(String fileName, IOConsumer<OutputStream> contentWriter) throws IOException {
+        writeEntry(fileName, contentWriter, 0);
+    }
+
+    private void writeEntry(String fileName, IOConsumer<OutputStream> contentWriter, int maxBufferedSize)
+            throws IOException {
+        final CRC32 crc = new CRC32();
+        final Deflater deflater = new Deflater(compressionLevel, true);
+        final EntryOutputStream compressedContent = new EntryOutputStream(fileName, maxBufferedSize);
+
+        try {
+            try(DeflaterOutputStream deflaterOutputStream =
+                        new DeflaterOutputStream(compressedContent, deflater, ENTRY_BUFFER_SIZE)) {
+                final OutputStream entryOutputStream = new BufferedOutputStream(
+                        new CheckedOutputStream(deflaterOutputStream, crc), ENTRY_BUFFER_SIZE);
+                contentWriter.accept(CloseShieldOutputStream.wrap(entryOutputStream));
+                entryOutputStream.flush();
+                deflaterOutputStream.finish();
+            }
+
+            compressedContent.finishEntry(crc.getValue(), deflater.getBytesRead());
+        } finally {
+            deflater.end();
+            compressedContent.release();
+        }
+    }
+
+    @Override
+    public void commit() throws IOException {
+        archiveLock.lock();
+
+        try {
+            checkWritable();
+            completed = true;
+        } finally {
+            archiveLock.unlock();
+        }
+
+        final long centralDirectoryOffset = position;
+
+        for(CentralDirectoryEntry entry : entries) {
+            writeCentralDirectoryHeader(entry);
+        }
+
+        final long centralDirectorySize = position - centralDirectoryOffset;
+
+        if(entries.size() >= MAX_UINT16 || centralDirectoryOffset >= MAX_UINT32
+                || centralDirectorySize >= MAX_UINT32) {
+            writeZip64EndOfCentralDirectory(centralDirectoryOffset, centralDirectorySize);
+        }
+
+        writeEndOfCentralDirectory(centralDirectoryOffset, centralDirectorySize);
+
+        try(channel) {
+            outputStream.flush();
+            channel.force(true);
+        }
+
+        Files.move(tempFile, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+
+        ExportTransaction.syncDirectory(destination.getParent());
+    }
+
+    /**
+     * Discards the archive, unless it was already committed.
+     *
+     * @throws IOException if the temporary archive file could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        archiveLock.lock();
+
+        try {
+            completed = true;
+        } finally {
+            archiveLock.unlock();
+        }
+
+        if(!committed) {
+            channel.close();
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if(completed) {
+            throw new IOException("Archive was already completed.");
+        }
+
+        if(broken) {
+            throw new IOException("Archive contains an incompletely written entry.");
+        }
+    }
+
+    private void writeLocalFileHeader(byte[] name, short flags, long crc, long compressedSize,
+                                      long uncompressedSize) throws IOException {
+        final boolean needsZip64Sizes = compressedSize >= MAX_UINT32 || uncompressedSize >= MAX_UINT32;
+        final int extraFieldSize = needsZip64Sizes ? ZIP64_EXTRA_FIELD_HEADER_SIZE + 2 * Long.BYTES : 0;
+        final boolean hasDataDescriptor = (flags & DATA_DESCRIPTOR_FLAG) != 0;
+
+        final ByteBuffer header = ByteBuffer.allocate(LOCAL_FILE_HEADER_SIZE + name.length + extraFieldSize)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LOCAL_FILE_HEADER_SIGNATURE)
+                .putShort(needsZip64Sizes || hasDataDescriptor ? VERSION_ZIP64 : VERSION_DEFLATE)
+                .putShort(flags)
+                .putShort(DEFLATED_METHOD)
+                .putShort(dosTime)
+                .putShort(dosDate)
+                .putInt((int) crc)
+                .putInt((int) (needsZip64Sizes ? MAX_UINT32 : compressedSize))
+                .putInt((int) (needsZip64Sizes ? MAX_UINT32 : uncompressedSize))
+                .putShort((short) name.length)
+                .putShort((short) extraFieldSize)
+                .put(name);
+
+        if(needsZip64Sizes) {
+            header.putShort(ZIP64_EXTRA_FIELD_ID)
+                    .putShort((short) (2 * Long.BYTES))
+                    .putLong(uncompressedSize)
+                    .putLong(compressedSize);
+        }
+
+        writeRecord(header);
+    }
+
+    private void writeDataDescriptor(long crc, long compressedSize, long uncompressedSize) throws IOException {
+        // As written by ZipOutputStream: Sizes are stored with 8 bytes only if they do not fit into 4 bytes.
+        final boolean needsZip64Sizes = compressedSize >= MAX_UINT32 || uncompressedSize >= MAX_UINT32;
+
+        final ByteBuffer descriptor = ByteBuffer.allocate(needsZip64Sizes ? ZIP64_DATA_DESCRIPTOR_SIZE
+                : DATA_DESCRIPTOR_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        descriptor.putInt(DATA_DESCRIPTOR_SIGNATURE)
+                .putInt((int) crc);
+
+        if(needsZip64Sizes) {
+            descriptor.putLong(compressedSize).putLong(uncompressedSize);
+        } else {
+            descriptor.putInt((int) compressedSize).putInt((int) uncompressedSize);
+        }
+
+        writeRecord(descriptor);
+    }
+
+    private void writeCentralDirectoryHeader(CentralDirectoryEntry entry) throws IOException {
+        final byte[] name = entry.fileName().getBytes(StandardCharsets.UTF_8);
+        final boolean needsZip64UncompressedSize = entry.uncompressedSize() >= MAX_UINT32;
+        final boolean needsZip64CompressedSize = entry.compressedSize() >= MAX_UINT32;
+        final boolean needsZip64Offset = entry.localHeaderOffset() >= MAX_UINT32;
+        final int nrZip64Fields = (needsZip64UncompressedSize ? 1 : 0) + (needsZip64CompressedSize ? 1 : 0)
+                + (needsZip64Offset ? 1 : 0);
+        final int extraFieldSize = nrZip64Fields > 0 ? ZIP64_EXTRA_FIELD_HEADER_SIZE + nrZip64Fields * Long.BYTES
+                : 0;
+        final short version = nrZip64Fields > 0 || (entry.flags() & DATA_DESCRIPTOR_FLAG) != 0
+                ? VERSION_ZIP64 : VERSION_DEFLATE;
+
+        final ByteBuffer header = ByteBuffer.allocate(CENTRAL_DIRECTORY_HEADER_SIZE + name.length
+                + extraFieldSize).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(CENTRAL_DIRECTORY_HEADER_SIGNATURE)
+                .putShort(version)
+                .putShort(version)
+                .putShort(entry.flags())
+                .putShort(DEFLATED_METHOD)
+                .putShort(dosTime)
+                .putShort(dosDate)
+                .putInt((int) entry.crc())
+                .putInt((int) (needsZip64CompressedSize ? MAX_UINT32 : entry.compressedSize()))
+                .putInt((int) (needsZip64UncompressedSize ? MAX_UINT32 : entry.uncompressedSize()))
+                .putShort((short) name.length)
+                .putShort((short) extraFieldSize)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(0)
+                .putInt((int) (needsZip64Offset ? MAX_UINT32 : entry.localHeaderOffset()))
+                .put(name);
+
+        if(nrZip64Fields > 0) {
+            // The fields of the ZIP64 extra field have to appear in this order.
+            header.putShort(ZIP64_EXTRA_FIELD_ID)
+                    .putShort((short) (nrZip64Fields * Long.BYTES));
+
+            if(needsZip64UncompressedSize) {
+                header.putLong(entry.uncompressedSize());
+            }
+
+            if(needsZip64CompressedSize) {
+                header.putLong(entry.compressedSize());
+            }
+
+            if(needsZip64Offset) {
+                header.putLong(entry.localHeaderOffset());
+            }
+        }
+
+        writeRecord(header);
+    }
+
+    private void writeZip64EndOfCentralDirectory(long centralDirectoryOffset, long centralDirectorySize)
+            throws IOException {
+        final long zip64EndOfCentralDirectoryOffset = position;
+
+        final ByteBuffer record = ByteBuffer.allocate(ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE
+                + ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                // Size of the remaining record.
+                .putLong(ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE - 12L)
+                .putShort(VERSION_ZIP64)
+                .putShort(VERSION_ZIP64)
+                .putInt(0)
+                .putInt(0)
+                .putLong(entries.size())
+                .putLong(entries.size())
+                .putLong(centralDirectorySize)
+                .putLong(centralDirectoryOffset)
+                .putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE)
+                .putInt(0)
+                .putLong(zip64EndOfCentralDirectoryOffset)
+                .putInt(1);
+
+        writeRecord(record);
+    }
+
+    private void writeEndOfCentralDirectory(long centralDirectoryOffset, long centralDirectorySize)
+            throws IOException {
+        final short nrEntries = (short) Math.min(entries.size(), MAX_UINT16);
+
+        final ByteBuffer record = ByteBuffer.allocate(END_OF_CENTRAL_DIRECTORY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort(nrEntries)
+                .putShort(nrEntries)
+                .putInt((int) Math.min(centralDirectorySize, MAX_UINT32))
+                .putInt((int) Math.min(centralDirectoryOffset, MAX_UINT32))
+                .putShort((short) 0);
+
+        writeRecord(record);
+    }
+
+    private void writeRecord(ByteBuffer record) throws IOException {
+        outputStream.write(record.array());
+        position += record.capacity();
+    }
+
+    private record CentralDirectoryEntry(String fileName, short flags, long crc, long compressedSize,
+                                         long uncompressedSize, long localHeaderOffset) {
+    }
+
+    /**
+     * Receives the compressed content of an entry. The content is buffered in memory until it exceeds the
+     * maximum buffered size. At that point the archive is locked, the entry's local file header and the
+     * buffered content are written, and the remaining content is written directly to the archive.
+     */
+    private class EntryOutputStream extends OutputStream {
+        private final String fileName;
+        private final byte[] name;
+        private final int maxBufferedSize;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(ENTRY_BUFFER_SIZE);
+        private boolean streaming;
+        private boolean finished;
+        private long compressedSize;
+        private long localHeaderOffset;
+
+        EntryOutputStream(String fileName, int maxBufferedSize) {
+            this.fileName = fileName;
+            this.name = fileName.getBytes(StandardCharsets.UTF_8);
+            this.maxBufferedSize = maxBufferedSize;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if(!streaming && buffer.size() + len > maxBufferedSize) {
+                startStreaming();
+            }
+
+            if(streaming) {
+                outputStream.write(b, off, len);
+                position += len;
+                compressedSize += len;
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        void finishEntry(long crc, long uncompressedSize) throws IOException {
+            if(streaming) {
+                writeDataDescriptor(crc, compressedSize, uncompressedSize);
+                entries.add(new CentralDirectoryEntry(fileName, (short) (UTF8_NAMES_FLAG | DATA_DESCRIPTOR_FLAG),
+                        crc, compressedSize, uncompressedSize, localHeaderOffset));
+                finished = true;
+                return;
+            }
+
+            archiveLock.lock();
+
+            try {
+                checkWritable();
+                localHeaderOffset = position;
+
+                writeLocalFileHeader(name, UTF8_NAMES_FLAG, crc, buffer.size(), uncompressedSize);
+                buffer.writeTo(outputStream);
+                position += buffer.size();
+
+                entries.add(new CentralDirectoryEntry(fileName, UTF8_NAMES_FLAG, crc, buffer.size(),
+                        uncompressedSize, localHeaderOffset));
+                finished = true;
+            } finally {
+                archiveLock.unlock();
+            }
+        }
+
+        /**
+         * Unlocks the archive if the entry was streamed. A streamed entry which was not finished leaves
+         * the archive in an unusable state.
+         */
+        void release() {
+            if(streaming) {
+                broken |= !finished;
+                archiveLock.unlock();
+            }
+        }
+
+        private void startStreaming() throws IOException {
+            archiveLock.lock();
+            streaming = true;
+            checkWritable();
+
+            localHeaderOffset = position;
+            writeLocalFileHeader(name, (short) (UTF8_NAMES_FLAG | DATA_DESCRIPTOR_FLAG), 0, 0, 0);
+            buffer.writeTo(outputStream);
+            position += buffer.size();
+            compressedSize = buffer.size();
+            buffer = null;
+        }
+    }
+}
@@ -20,15 +20,36 @@ package com.github.mfl28.boundingboxeditor.model.io.restclients;
 
 import jakarta.ws.rs.client.Client;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.security.InvalidParameterException;
 import java.util.List;
 
 public interface BoundingBoxPredictorClient {
     static BoundingBoxPredictorClient create(Client client, BoundingBoxPredictorClientConfig clientConfig) {
+        if(clientConfig.getServiceType().equals(ServiceType.ONNX_LOCAL)) {
+            return new OnnxPredictorClient(Path.of(clientConfig.getLocalModelPath()));
+        }
+
+        final List<String> inferenceAddresses = clientConfig.getInferenceAddresses();
+
+        if(inferenceAddresses.size() > 1) {
+            return new LoadBalancingPredictorClient(inferenceAddresses, inferenceAddress ->
+                    createSingleServerClient(client, clientConfig.withInferenceAddress(inferenceAddress)));
+        }
+
+        return createSingleServerClient(client, clientConfig);
+    }
+
+    private static BoundingBoxPredictorClient createSingleServerClient(Client client,
+                                                                       BoundingBoxPredictorClientConfig clientConfig) {
         if(clientConfig.getServiceType().equals(ServiceType.TORCH_SERVE)) {
             return new TorchServeRestClient(client, clientConfig);
         }
 
+        if(clientConfig.getServiceType().equals(ServiceType.TORCH_SERVE_HTTP)) {
+            return new TorchServeHttpClient(TorchServeHttpClient.getSharedHttpClient(), clientConfig);
+        }
+
         throw new InvalidParameterException();
     }
 
@@ -38,5 +59,30 @@ public interface BoundingBoxPredictorClient {
 
     String getName();
 
-    enum ServiceType {TORCH_SERVE}
+    /**
+     * Returns the name of the model used for predictions. Predictions of clients which do not provide
+     * a model name are not cached.
+     *
+     * @return the model name or null
+     */
+    default String getModelName() {
+        return null;
+    }
+
+    enum ServiceType {
+        TORCH_SERVE("Torch serve (Jersey)"),
+        TORCH_SERVE_HTTP("Torch serve (java.net.http)"),
+        ONNX_LOCAL("Local ONNX model (CPU)");
+
+        private final String name;
+
+        ServiceType(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
 }
@@ -19,6 +19,11 @@
 package com.github.mfl28.boundingboxeditor.model.io.restclients;
 
 import javafx.beans.property.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class BoundingBoxPredictorClientConfig {
     private final ObjectProperty<BoundingBoxPredictorClient.ServiceType> serviceName = new SimpleObjectProperty<>(
@@ -28,11 +33,54 @@ public class BoundingBoxPredictorClientConfig {
     private final StringProperty managementUrl = new SimpleStringProperty("http://localhost");
     private final IntegerProperty managementPort = new SimpleIntegerProperty(8081);
     private final StringProperty inferenceModelName = new SimpleStringProperty();
+    private final StringProperty localModelPath = new SimpleStringProperty("");
+    private final ObservableList<String> additionalInferenceAddresses = FXCollections.observableArrayList();
 
     public String getInferenceAddress() {
         return inferenceUrl.get() + ":" + inferencePort.get();
     }
 
+    /**
+     * Returns the addresses of all inference servers, starting with the address built from the
+     * inference url and port followed by the additional inference addresses.
+     *
+     * @return the inference addresses
+     */
+    public List<String> getInferenceAddresses() {
+        final List<String> inferenceAddresses = new ArrayList<>();
+        inferenceAddresses.add(getInferenceAddress());
+        inferenceAddresses.addAll(additionalInferenceAddresses);
+        return inferenceAddresses;
+    }
+
+    public List<String> getAdditionalInferenceAddresses() {
+        return List.copyOf(additionalInferenceAddresses);
+    }
+
+    public void setAdditionalInferenceAddresses(List<String> additionalInferenceAddresses) {
+        this.additionalInferenceAddresses.setAll(additionalInferenceAddresses);
+    }
+
+    /**
+     * Creates a copy of this config with a single inference server.
+     *
+     * @param inferenceAddress the address of the inference server in the form "url:port"
+     * @return the copied config
+     */
+    public BoundingBoxPredictorClientConfig withInferenceAddress(String inferenceAddress) {
+        final int portSeparatorIndex = inferenceAddress.lastIndexOf(':');
+
+        final BoundingBoxPredictorClientConfig config = new BoundingBoxPredictorClientConfig();
+        config.setServiceType(getServiceType());
+        config.setInferenceUrl(inferenceAddress.substring(0, portSeparatorIndex));
+        config.setInferencePort(Integer.parseInt(inferenceAddress.substring(portSeparatorIndex + 1)));
+        config.setManagementUrl(getManagementUrl());
+        config.setManagementPort(getManagementPort());
+        config.setInferenceModelName(getInferenceModelName());
+        config.setLocalModelPath(getLocalModelPath());
+        return config;
+    }
+
     public String getManagementAddress() {
         return managementUrl.get() + ":" + managementPort.get();
     }
@@ -77,7 +125,25 @@ public class BoundingBoxPredictorClientConfig {
         this.inferenceModelName.set(inferenceModelName);
     }
 
+    /**
+     * Returns the path of the model file used by the local inference client
+     * ({@link BoundingBoxPredictorClient.ServiceType#ONNX_LOCAL}).
+     *
+     * @return the model file path
+     */
+    public String getLocalModelPath() {
+        return localModelPath.get();
+    }
+
+    public void setLocalModelPath(String localModelPath) {
+        this.localModelPath.set(localModelPath);
+    }
+
     public BoundingBoxPredictorClient.ServiceType getServiceType() {
         return serviceName.get();
     }
+
+    public void setServiceType(BoundingBoxPredictorClient.ServiceType serviceType) {
+        this.serviceName.set(serviceType);
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import javafx.scene.image.Image;
+
+import java.util.List;
+
+/**
+ * A client which predicts bounding boxes directly from decoded images, e.g. a client running the model
+ * in-process. Images passed to such a client are not encoded before the prediction. The coordinates of the
+ * predicted bounding boxes refer to the passed image.
+ */
+public interface DecodedImagePredictorClient extends BoundingBoxPredictorClient {
+    List<BoundingBoxPredictionEntry> predict(Image image) throws PredictionClientException;
+
+    /**
+     * Returns the width of the images the model expects. Larger images are downscaled by the client,
+     * callers can therefore save work by decoding images at most at this width.
+     *
+     * @return the input width of the model
+     * @throws PredictionClientException if the model could not be loaded
+     */
+    int getInputWidth() throws PredictionClientException;
+
+    /**
+     * Returns the height of the images the model expects, see {@link #getInputWidth()}.
+     *
+     * @return the input height of the model
+     * @throws PredictionClientException if the model could not be loaded
+     */
+    int getInputHeight() throws PredictionClientException;
+}
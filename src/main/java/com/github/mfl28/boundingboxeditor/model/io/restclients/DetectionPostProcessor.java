@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pre- and post-processing of single-stage object detection models, i.e. conversion of image pixels to
+ * model input tensors as well as decoding of raw model outputs and non-maximum suppression.
+ */
+final class DetectionPostProcessor {
+    private static final int NR_BOX_VALUES = 4;
+    private static final int NR_COLOR_CHANNELS = 3;
+    private static final float PADDING_VALUE = 114 / 255f;
+
+    private DetectionPostProcessor() {
+        throw new IllegalStateException("DetectionPostProcessor class");
+    }
+
+    /**
+     * Writes ARGB pixels into a planar RGB input tensor of size 3 x inputHeight x inputWidth with values
+     * in [0, 1]. Images larger than the input are downscaled (nearest neighbour) keeping their ratio. The
+     * image is placed at the top-left corner, the remaining area is filled with gray. The buffer position
+     * is not changed.
+     *
+     * @param argbPixels  the image pixels in row-major order
+     * @param width       the width of the image
+     * @param height      the height of the image
+     * @param input       the buffer of the input tensor
+     * @param inputWidth  the input width of the model
+     * @param inputHeight the input height of the model
+     * @return the factor by which the image was downscaled (1 if the image fits the input)
+     */
+    static double fillInput(int[] argbPixels, int width, int height, FloatBuffer input, int inputWidth,
+                            int inputHeight) {
+        final double scale = Math.max(1.0, Math.max((double) width / inputWidth, (double) height / inputHeight));
+        final int scaledWidth = Math.min(inputWidth, (int) Math.round(width / scale));
+        final int scaledHeight = Math.min(inputHeight, (int) Math.round(height / scale));
+        final int planeSize = inputWidth * inputHeight;
+
+        for(int y = 0; y < inputHeight; ++y) {
+            final int sourceRowOffset = Math.min(height - 1, (int) (y * scale)) * width;
+
+            for(int x = 0; x < inputWidth; ++x) {
+                final int index = y * inputWidth + x;
+
+                if(x < scaledWidth && y < scaledHeight) {
+                    final int pixel = argbPixels[sourceRowOffset + Math.min(width - 1, (int) (x * scale))];
+                    input.put(index, ((pixel >> 16) & 0xFF) / 255f);
+                    input.put(planeSize + index, ((pixel >> 8) & 0xFF) / 255f);
+                    input.put(2 * planeSize + index, (pixel & 0xFF) / 255f);
+                } else {
+                    input.put(index, PADDING_VALUE);
+                    input.put(planeSize + index, PADDING_VALUE);
+                    input.put(2 * planeSize + index, PADDING_VALUE);
+                }
+            }
+        }
+
+        return scale;
+    }
+
+    static int getInputSize(int inputWidth, int inputHeight) {
+        return NR_COLOR_CHANNELS * inputWidth * inputHeight;
+    }
+
+    /**
+     * Decodes the raw output of a single-stage detector. Each candidate consists of the box center,
+     * width and height followed by one score per class. Only the best class of each candidate is
+     * considered.
+     *
+     * @param output          the output values
+     * @param nrCandidates    the number of candidates
+     * @param nrClasses       the number of classes
+     * @param candidatesFirst true if the output has the shape [candidates, 4 + classes], false if it has
+     *                        the shape [4 + classes, candidates]
+     * @param scoreThreshold  the minimal score of returned detections
+     * @return the detections with a score of at least the score threshold
+     */
+    static List<Detection> decode(FloatBuffer output, int nrCandidates, int nrClasses, boolean candidatesFirst,
+                                  float scoreThreshold) {
+        final int nrValues = NR_BOX_VALUES + nrClasses;
+        final int candidateStride = candidatesFirst ? nrValues : 1;
+        final int valueStride = candidatesFirst ? 1 : nrCandidates;
+        final List<Detection> detections = new ArrayList<>();
+
+        for(int candidate = 0; candidate < nrCandidates; ++candidate) {
+            final int offset = candidate * candidateStride;
+            int bestClass = -1;
+            float bestScore = scoreThreshold;
+
+            for(int classIndex = 0; classIndex < nrClasses; ++classIndex) {
+                final float score = output.get(offset + (NR_BOX_VALUES + classIndex) * valueStride);
+
+                if(score >= bestScore) {
+                    bestScore = score;
+                    bestClass = classIndex;
+                }
+            }
+
+            if(bestClass == -1) {
+                continue;
+            }
+
+            final float centerX = output.get(offset);
+            final float centerY = output.get(offset + valueStride);
+            final float halfWidth = output.get(offset + 2 * valueStride) / 2;
+            final float halfHeight = output.get(offset + 3 * valueStride) / 2;
+
+            detections.add(new Detection(bestClass, bestScore, centerX - halfWidth, centerY - halfHeight,
+                    centerX + halfWidth, centerY + halfHeight));
+        }
+
+        return detections;
+    }
+
+    /**
+     * Performs greedy per-class non-maximum suppression: Detections are visited in order of decreasing
+     * score and dropped if they overlap an already kept detection of the same class by more than the
+     * IoU threshold.
+     *
+     * @param detections    the detections
+     * @param iouThreshold  the maximal intersection over union of kept detections of the same class
+     * @param maxDetections the maximal number of kept detections
+     * @return the kept detections ordered by decreasing score
+     */
+    static List<Detection> nonMaximumSuppression(List<Detection> detections, float iouThreshold,
+                                                 int maxDetections) {
+        final List<Detection> sortedDetections = new ArrayList<>(detections);
+        sortedDetections.sort(Comparator.comparingDouble(Detection::score).reversed());
+
+        final List<Detection> keptDetections = new ArrayList<>();
+
+        for(Detection candidate : sortedDetections) {
+            if(keptDetections.size() == maxDetections) {
+                break;
+            }
+
+            final boolean suppressed = keptDetections.stream()
+                    .anyMatch(detection -> detection.classIndex() == candidate.classIndex() &&
+                            detection.intersectionOverUnion(candidate) > iouThreshold);
+
+            if(!suppressed) {
+                keptDetections.add(candidate);
+            }
+        }
+
+        return keptDetections;
+    }
+
+    record Detection(int classIndex, float score, float xMin, float yMin, float xMax, float yMax) {
+        float area() {
+            return Math.max(0, xMax - xMin) * Math.max(0, yMax - yMin);
+        }
+
+        float intersectionOverUnion(Detection other) {
+            final float intersectionWidth = Math.min(xMax, other.xMax) - Math.max(xMin, other.xMin);
+            final float intersectionHeight = Math.min(yMax, other.yMax) - Math.max(yMin, other.yMin);
+
+            if(intersectionWidth <= 0 || intersectionHeight <= 0) {
+                return 0;
+            }
+
+            final float intersection = intersectionWidth * intersectionHeight;
+            return intersection / (area() + other.area() - intersection);
+        }
+    }
+}
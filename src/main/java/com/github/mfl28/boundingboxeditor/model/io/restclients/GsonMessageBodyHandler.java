@@ -34,9 +34,18 @@ import java.util.List;
 import java.util.Map;
 
 public class GsonMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
-    private final Gson gson = new GsonBuilder().registerTypeAdapter(BoundingBoxPredictionEntry.class,
-                                                                    new BoundingBoxPredictionEntryDeserializer())
-                                               .create();
+    private final Gson gson = createGson();
+
+    /**
+     * Creates a {@link Gson} object which can read the prediction responses of the inference server.
+     *
+     * @return the gson object
+     */
+    static Gson createGson() {
+        return new GsonBuilder().registerTypeAdapter(BoundingBoxPredictionEntry.class,
+                                                     new BoundingBoxPredictionEntryDeserializer())
+                                .create();
+    }
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
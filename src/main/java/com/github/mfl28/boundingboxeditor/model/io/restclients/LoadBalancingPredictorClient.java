@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * A client which distributes predictions over several inference servers. Each prediction is sent to the
+ * server with the fewest outstanding requests. Servers which failed {@link #DEFAULT_MAX_CONSECUTIVE_FAILURES}
+ * times in a row are ejected from the routing for a period of time, after which they are tried again. If all
+ * servers are ejected, the server whose ejection ends first is used.
+ */
+public class LoadBalancingPredictorClient implements BoundingBoxPredictorClient {
+    public static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 3;
+    public static final Duration DEFAULT_EJECTION_DURATION = Duration.ofSeconds(30);
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int maxConsecutiveFailures;
+    private final long ejectionDurationNanos;
+    private int nextEndpointIndex = 0;
+
+    public LoadBalancingPredictorClient(List<String> inferenceAddresses,
+                                        Function<String, BoundingBoxPredictorClient> endpointClientFactory) {
+        this(inferenceAddresses, endpointClientFactory, DEFAULT_MAX_CONSECUTIVE_FAILURES, DEFAULT_EJECTION_DURATION);
+    }
+
+    public LoadBalancingPredictorClient(List<String> inferenceAddresses,
+                                        Function<String, BoundingBoxPredictorClient> endpointClientFactory,
+                                        int maxConsecutiveFailures, Duration ejectionDuration) {
+        if(inferenceAddresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one inference address must be provided.");
+        }
+
+        if(maxConsecutiveFailures <= 0) {
+            throw new IllegalArgumentException("Maximum number of consecutive failures must be positive.");
+        }
+
+        for(String inferenceAddress : inferenceAddresses) {
+            endpoints.add(new Endpoint(inferenceAddress, endpointClientFactory.apply(inferenceAddress)));
+        }
+
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+        this.ejectionDurationNanos = ejectionDuration.toNanos();
+    }
+
+    @Override
+    public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+        final Endpoint endpoint = acquireEndpoint();
+        final long startTime = System.nanoTime();
+
+        try {
+            final List<BoundingBoxPredictionEntry> predictions = endpoint.client.predict(input);
+            releaseEndpoint(endpoint, startTime, true);
+            return predictions;
+        } catch(PredictionClientException | RuntimeException e) {
+            releaseEndpoint(endpoint, startTime, false);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<ModelEntry> models() throws PredictionClientException {
+        // All inference servers share the management server.
+        return endpoints.getFirst().client.models();
+    }
+
+    @Override
+    public String getName() {
+        return endpoints.getFirst().client.getName();
+    }
+
+    @Override
+    public String getModelName() {
+        return endpoints.getFirst().client.getModelName();
+    }
+
+    /**
+     * Returns the current request statistics of all inference servers.
+     *
+     * @return the statistics in the order of the inference addresses
+     */
+    public synchronized List<EndpointStatistics> getEndpointStatistics() {
+        final long now = System.nanoTime();
+
+        return endpoints.stream()
+                        .map(endpoint -> new EndpointStatistics(endpoint.address, endpoint.nrRequests,
+                                                                endpoint.nrErrors,
+                                                                endpoint.nrRequests == 0 ? 0 :
+                                                                        endpoint.totalLatencyNanos / 1e6
+                                                                                / endpoint.nrRequests,
+                                                                endpoint.nrOutstandingRequests,
+                                                                endpoint.isEjected(now)))
+                        .toList();
+    }
+
+    private synchronized Endpoint acquireEndpoint() {
+        final long now = System.nanoTime();
+        Endpoint selectedEndpoint = null;
+
+        // Starting the search at a rotating index spreads requests evenly over equally loaded endpoints.
+        for(int i = 0; i < endpoints.size(); ++i) {
+            final Endpoint endpoint = endpoints.get((nextEndpointIndex + i) % endpoints.size());
+
+            if(!endpoint.isEjected(now) && (selectedEndpoint == null
+                    || endpoint.nrOutstandingRequests < selectedEndpoint.nrOutstandingRequests)) {
+                selectedEndpoint = endpoint;
+            }
+        }
+
+        if(selectedEndpoint == null) {
+            for(Endpoint endpoint : endpoints) {
+                if(selectedEndpoint == null || endpoint.ejectedUntilNanos - selectedEndpoint.ejectedUntilNanos < 0) {
+                    selectedEndpoint = endpoint;
+                }
+            }
+        }
+
+        nextEndpointIndex = (nextEndpointIndex + 1) % endpoints.size();
+        ++selectedEndpoint.nrOutstandingRequests;
+        return selectedEndpoint;
+    }
+
+    private synchronized void releaseEndpoint(Endpoint endpoint, long startTime, boolean successful) {
+        final long now = System.nanoTime();
+
+        --endpoint.nrOutstandingRequests;
+        ++endpoint.nrRequests;
+        endpoint.totalLatencyNanos += now - startTime;
+
+        if(successful) {
+            endpoint.nrConsecutiveFailures = 0;
+            endpoint.ejected = false;
+            return;
+        }
+
+        ++endpoint.nrErrors;
+
+        if(++endpoint.nrConsecutiveFailures >= maxConsecutiveFailures) {
+            endpoint.ejected = true;
+            endpoint.ejectedUntilNanos = now + ejectionDurationNanos;
+        }
+    }
+
+    public record EndpointStatistics(String address, long nrRequests, long nrErrors, double meanLatencyMillis,
+                                     int nrOutstandingRequests, boolean ejected) {
+        public String getSummary() {
+            return String.format(Locale.ENGLISH, "%s: %d requests, %d errors, %.0f ms mean latency%s", address,
+                                 nrRequests, nrErrors, meanLatencyMillis, ejected ? ", ejected" : "");
+        }
+    }
+
+    private static class Endpoint {
+        private final String address;
+        private final BoundingBoxPredictorClient client;
+        private int nrOutstandingRequests;
+        private int nrConsecutiveFailures;
+        private boolean ejected;
+        private long ejectedUntilNanos;
+        private long nrRequests;
+        private long nrErrors;
+        private long totalLatencyNanos;
+
+        Endpoint(String address, BoundingBoxPredictorClient client) {
+            this.address = address;
+            this.client = client;
+        }
+
+        boolean isEjected(long now) {
+            return ejected && now - ejectedUntilNanos < 0;
+        }
+    }
+}
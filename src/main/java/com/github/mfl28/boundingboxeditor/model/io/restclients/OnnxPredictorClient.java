@@ -0,0 +1,468 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import ai.onnxruntime.*;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A client which runs an ONNX object detection model in-process on the CPU using ONNX Runtime, no server
+ * or network connection is needed. Supported are single-stage detectors with a single image input of shape
+ * [1, 3, height, width] (RGB values in [0, 1]) and a single output of shape [1, 4 + classes, candidates] or
+ * [1, candidates, 4 + classes], where each candidate consists of the box center, width and height in input
+ * pixels followed by the class scores (e.g. YOLOv8 and later exports). Non-maximum suppression is performed
+ * by the client. Class names are read from the "names" metadata entry of the model, from a text-file with
+ * one name per line next to the model (either with the model's base name or named "labels.txt") or are
+ * otherwise numbered.
+ * <p>
+ * Input tensors are allocated once and reused by subsequent predictions, concurrent predictions each use
+ * their own tensor.
+ * <p>
+ * The loaded model is shared by all clients using the same model file. When another model is loaded or the
+ * model file changes, the previous model's session is closed as soon as its last running prediction has
+ * finished.
+ */
+public class OnnxPredictorClient implements DecodedImagePredictorClient {
+    private static final String ONNX_RUNTIME_NAME = "ONNX Runtime";
+    private static final String MODEL_FILE_NOT_FOUND_ERROR_MESSAGE = "Model file does not exist.";
+    private static final String MODEL_LOADING_ERROR_MESSAGE = "Could not load model file.";
+    private static final String UNSUPPORTED_MODEL_ERROR_MESSAGE = "Unsupported model input or output format.";
+    private static final String INFERENCE_ERROR_MESSAGE = "Could not run model.";
+    private static final String IMAGE_DECODING_ERROR_MESSAGE = "Could not decode image.";
+    private static final String ERROR_REASON = " Reason: ";
+    private static final String CLASS_NAMES_METADATA_KEY = "names";
+    private static final String LABELS_FILE_NAME = "labels.txt";
+    private static final String LABELS_FILE_EXTENSION = ".txt";
+    private static final String DEFAULT_CLASS_NAME_PREFIX = "class";
+    private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("(\\d+)\\s*:\\s*['\"]([^'\"]*)['\"]");
+    private static final int DEFAULT_INPUT_SIZE = 640;
+    private static final int NR_BOX_VALUES = 4;
+    private static final float CANDIDATE_SCORE_THRESHOLD = 0.05f;
+    private static final float IOU_THRESHOLD = 0.45f;
+    private static final int MAX_NR_DETECTIONS = 300;
+    private static LoadedModel sharedModel;
+    private final Path modelPath;
+    private final Queue<FloatBuffer> inputBuffers = new ConcurrentLinkedQueue<>();
+    private volatile LoadedModel model;
+
+    public OnnxPredictorClient(Path modelPath) {
+        this.modelPath = modelPath;
+    }
+
+    @Override
+    public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+        final LoadedModel loadedModel = acquireModel();
+
+        try {
+            final Image image = new Image(input, loadedModel.inputWidth(), loadedModel.inputHeight(), true, true);
+
+            if(image.isError()) {
+                throw new PredictionClientException(IMAGE_DECODING_ERROR_MESSAGE);
+            }
+
+            return predict(image, loadedModel);
+        } finally {
+            loadedModel.release();
+        }
+    }
+
+    @Override
+    public List<BoundingBoxPredictionEntry> predict(Image image) throws PredictionClientException {
+        if(image.isError()) {
+            throw new PredictionClientException(IMAGE_DECODING_ERROR_MESSAGE);
+        }
+
+        final LoadedModel loadedModel = acquireModel();
+
+        try {
+            return predict(image, loadedModel);
+        } finally {
+            loadedModel.release();
+        }
+    }
+
+    @Override
+    public List<ModelEntry> models() throws PredictionClientException {
+        if(!Files.isRegularFile(modelPath)) {
+            throw new PredictionClientException(MODEL_FILE_NOT_FOUND_ERROR_MESSAGE);
+        }
+
+        return List.of(new ModelEntry(modelPath.getFileName().toString(), modelPath.toUri().toString()));
+    }
+
+    @Override
+    public String getName() {
+        return ONNX_RUNTIME_NAME;
+    }
+
+    /**
+     * Returns the path and modification time of the model file, so that cached predictions are not reused
+     * after the model file was replaced.
+     *
+     * @return the model name or null if the model file cannot be accessed
+     */
+    @Override
+    public String getModelName() {
+        try {
+            return modelPath.toAbsolutePath() + "@" + Files.getLastModifiedTime(modelPath).toMillis();
+        } catch(IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public int getInputWidth() throws PredictionClientException {
+        final LoadedModel loadedModel = acquireModel();
+        loadedModel.release();
+        return loadedModel.inputWidth();
+    }
+
+    @Override
+    public int getInputHeight() throws PredictionClientException {
+        final LoadedModel loadedModel = acquireModel();
+        loadedModel.release();
+        return loadedModel.inputHeight();
+    }
+
+    private List<BoundingBoxPredictionEntry> predict(Image image, LoadedModel loadedModel)
+            throws PredictionClientException {
+        final int width = (int) image.getWidth();
+        final int height = (int) image.getHeight();
+        final int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+        final FloatBuffer input = acquireInputBuffer(loadedModel);
+
+        try {
+            final double scale = DetectionPostProcessor.fillInput(pixels, width, height, input,
+                    loadedModel.inputWidth(), loadedModel.inputHeight());
+
+            final List<DetectionPostProcessor.Detection> detections = runModel(loadedModel, input);
+
+            return detections.stream()
+                             .map(detection -> createPredictionEntry(detection, loadedModel.classNames(), scale,
+                                     width, height))
+                             .toList();
+        } finally {
+            inputBuffers.offer(input);
+        }
+    }
+
+    /**
+     * Returns the shared model for a model file, loading it if the shared model belongs to another file or
+     * the file was modified since it was loaded. The returned model is acquired and has to be released by the
+     * caller.
+     *
+     * @param modelPath the path of the model file
+     * @return the acquired model
+     * @throws PredictionClientException if the model could not be loaded
+     */
+    private static synchronized LoadedModel loadModel(Path modelPath) throws PredictionClientException {
+        if(!Files.isRegularFile(modelPath)) {
+            throw new PredictionClientException(MODEL_FILE_NOT_FOUND_ERROR_MESSAGE);
+        }
+
+        final long lastModifiedTime;
+
+        try {
+            lastModifiedTime = Files.getLastModifiedTime(modelPath).toMillis();
+        } catch(IOException e) {
+            throw new PredictionClientException(MODEL_LOADING_ERROR_MESSAGE + ERROR_REASON + e.getMessage());
+        }
+
+        if(sharedModel != null && sharedModel.modelPath().equals(modelPath.toAbsolutePath())
+                && sharedModel.lastModifiedTime() == lastModifiedTime && sharedModel.acquire()) {
+            return sharedModel;
+        }
+
+        final OrtEnvironment environment = OrtEnvironment.getEnvironment();
+
+        try(OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions()) {
+            sessionOptions.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+
+            final OrtSession session = environment.createSession(modelPath.toString(), sessionOptions);
+
+            try {
+                if(session.getNumInputs() != 1 || session.getNumOutputs() < 1) {
+                    throw new PredictionClientException(UNSUPPORTED_MODEL_ERROR_MESSAGE);
+                }
+
+                final Map.Entry<String, NodeInfo> inputEntry = session.getInputInfo().entrySet().iterator().next();
+
+                if(!(inputEntry.getValue().getInfo() instanceof TensorInfo inputInfo)
+                        || inputInfo.getShape().length != 4 || inputInfo.getShape()[1] != 3) {
+                    throw new PredictionClientException(UNSUPPORTED_MODEL_ERROR_MESSAGE);
+                }
+
+                final long[] inputShape = inputInfo.getShape();
+
+                final LoadedModel loadedModel = new LoadedModel(modelPath.toAbsolutePath(), lastModifiedTime,
+                        environment, session, inputEntry.getKey(),
+                        inputShape[3] > 0 ? (int) inputShape[3] : DEFAULT_INPUT_SIZE,
+                        inputShape[2] > 0 ? (int) inputShape[2] : DEFAULT_INPUT_SIZE,
+                        readClassNames(modelPath, session));
+
+                if(sharedModel != null) {
+                    sharedModel.retire();
+                }
+
+                sharedModel = loadedModel;
+            } catch(PredictionClientException | OrtException | RuntimeException e) {
+                session.close();
+                throw e;
+            }
+
+            sharedModel.acquire();
+            return sharedModel;
+        } catch(OrtException e) {
+            throw new PredictionClientException(MODEL_LOADING_ERROR_MESSAGE + ERROR_REASON + e.getMessage());
+        }
+    }
+
+    private static Map<Integer, String> readClassNames(Path modelPath, OrtSession session) throws OrtException {
+        final Map<Integer, String> classNames = new HashMap<>();
+        final String classNamesMetadata = session.getMetadata().getCustomMetadata().get(CLASS_NAMES_METADATA_KEY);
+
+        if(classNamesMetadata != null) {
+            final Matcher matcher = CLASS_NAME_PATTERN.matcher(classNamesMetadata);
+
+            while(matcher.find()) {
+                classNames.put(Integer.parseInt(matcher.group(1)), matcher.group(2));
+            }
+
+            if(!classNames.isEmpty()) {
+                return classNames;
+            }
+        }
+
+        final String modelFileName = modelPath.getFileName().toString();
+        final int extensionIndex = modelFileName.lastIndexOf('.');
+        final String modelBaseName = extensionIndex == -1 ? modelFileName : modelFileName.substring(0, extensionIndex);
+
+        for(Path labelsFile : List.of(modelPath.resolveSibling(modelBaseName + LABELS_FILE_EXTENSION),
+                modelPath.resolveSibling(LABELS_FILE_NAME))) {
+            if(Files.isRegularFile(labelsFile)) {
+                try {
+                    final List<String> lines = Files.readAllLines(labelsFile).stream()
+                                                    .map(String::strip)
+                                                    .filter(line -> !line.isEmpty())
+                                                    .toList();
+
+                    for(int i = 0; i < lines.size(); ++i) {
+                        classNames.put(i, lines.get(i));
+                    }
+
+                    return classNames;
+                } catch(IOException e) {
+                    // Falls back to numbered class names.
+                }
+            }
+        }
+
+        return classNames;
+    }
+
+    private static BoundingBoxPredictionEntry createPredictionEntry(DetectionPostProcessor.Detection detection,
+                                                                    Map<Integer, String> classNames, double scale,
+                                                                    int imageWidth, int imageHeight) {
+        final String className = classNames.getOrDefault(detection.classIndex(),
+                DEFAULT_CLASS_NAME_PREFIX + detection.classIndex());
+
+        return new BoundingBoxPredictionEntry(Map.of(className, List.of(
+                Math.clamp(detection.xMin() * scale, 0.0, imageWidth),
+                Math.clamp(detection.yMin() * scale, 0.0, imageHeight),
+                Math.clamp(detection.xMax() * scale, 0.0, imageWidth),
+                Math.clamp(detection.yMax() * scale, 0.0, imageHeight))),
+                (double) detection.score());
+    }
+
+    private List<DetectionPostProcessor.Detection> runModel(LoadedModel loadedModel, FloatBuffer input)
+            throws PredictionClientException {
+        final long[] inputShape = {1, 3, loadedModel.inputHeight(), loadedModel.inputWidth()};
+
+        try(OnnxTensor inputTensor = OnnxTensor.createTensor(loadedModel.environment(), input, inputShape);
+            OrtSession.Result result = loadedModel.session().run(Map.of(loadedModel.inputName(), inputTensor))) {
+            if(!(result.get(0) instanceof OnnxTensor outputTensor)
+                    || outputTensor.getInfo().getShape().length != 3) {
+                throw new PredictionClientException(UNSUPPORTED_MODEL_ERROR_MESSAGE);
+            }
+
+            final long[] outputShape = outputTensor.getInfo().getShape();
+            // There are usually far more candidates than classes.
+            final boolean candidatesFirst = outputShape[1] > outputShape[2];
+            final int nrCandidates = (int) Math.max(outputShape[1], outputShape[2]);
+            final int nrClasses = (int) Math.min(outputShape[1], outputShape[2]) - NR_BOX_VALUES;
+
+            if(nrClasses < 1) {
+                throw new PredictionClientException(UNSUPPORTED_MODEL_ERROR_MESSAGE);
+            }
+
+            return DetectionPostProcessor.nonMaximumSuppression(
+                    DetectionPostProcessor.decode(outputTensor.getFloatBuffer(), nrCandidates, nrClasses,
+                            candidatesFirst, CANDIDATE_SCORE_THRESHOLD),
+                    IOU_THRESHOLD, MAX_NR_DETECTIONS);
+        } catch(OrtException e) {
+            throw new PredictionClientException(INFERENCE_ERROR_MESSAGE + ERROR_REASON + e.getMessage());
+        }
+    }
+
+    /**
+     * Acquires the model used by this client for a prediction. If the model was replaced since it was last
+     * used, the current model is loaded.
+     *
+     * @return the acquired model, which has to be released after use
+     * @throws PredictionClientException if the model could not be loaded
+     */
+    private LoadedModel acquireModel() throws PredictionClientException {
+        final LoadedModel loadedModel = model;
+
+        if(loadedModel != null && loadedModel.acquire()) {
+            return loadedModel;
+        }
+
+        final LoadedModel currentModel = loadModel(modelPath);
+        model = currentModel;
+        return currentModel;
+    }
+
+    private FloatBuffer acquireInputBuffer(LoadedModel loadedModel) {
+        final int inputSize = DetectionPostProcessor.getInputSize(loadedModel.inputWidth(),
+                loadedModel.inputHeight());
+        final FloatBuffer inputBuffer = inputBuffers.poll();
+
+        if(inputBuffer != null && inputBuffer.capacity() == inputSize) {
+            return inputBuffer;
+        }
+
+        // Direct buffers are passed to the native runtime without copying.
+        return ByteBuffer.allocateDirect(inputSize * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /**
+     * A loaded model and its session. The number of running predictions using the model is counted, so that
+     * the session of a replaced (retired) model can be closed once it is no longer used.
+     */
+    private static final class LoadedModel {
+        private final Path modelPath;
+        private final long lastModifiedTime;
+        private final OrtEnvironment environment;
+        private final OrtSession session;
+        private final String inputName;
+        private final int inputWidth;
+        private final int inputHeight;
+        private final Map<Integer, String> classNames;
+        private int nrUsers = 0;
+        private boolean retired = false;
+
+        LoadedModel(Path modelPath, long lastModifiedTime, OrtEnvironment environment, OrtSession session,
+                    String inputName, int inputWidth, int inputHeight, Map<Integer, String> classNames) {
+            this.modelPath = modelPath;
+            this.lastModifiedTime = lastModifiedTime;
+            this.environment = environment;
+            this.session = session;
+            this.inputName = inputName;
+            this.inputWidth = inputWidth;
+            this.inputHeight = inputHeight;
+            this.classNames = classNames;
+        }
+
+        Path modelPath() {
+            return modelPath;
+        }
+
+        long lastModifiedTime() {
+            return lastModifiedTime;
+        }
+
+        OrtEnvironment environment() {
+            return environment;
+        }
+
+        OrtSession session() {
+            return session;
+        }
+
+        String inputName() {
+            return inputName;
+        }
+
+        int inputWidth() {
+            return inputWidth;
+        }
+
+        int inputHeight() {
+            return inputHeight;
+        }
+
+        Map<Integer, String> classNames() {
+            return classNames;
+        }
+
+        /**
+         * Registers a user of the model.
+         *
+         * @return true if the model can be used, false if it was retired
+         */
+        synchronized boolean acquire() {
+            if(retired) {
+                return false;
+            }
+
+            ++nrUsers;
+            return true;
+        }
+
+        synchronized void release() {
+            --nrUsers;
+            closeIfUnused();
+        }
+
+        /**
+         * Marks the model as replaced. No new users are accepted and the session is closed once the
+         * last current user released the model.
+         */
+        synchronized void retire() {
+            retired = true;
+            closeIfUnused();
+        }
+
+        private void closeIfUnused() {
+            if(retired && nrUsers == 0) {
+                try {
+                    session.close();
+                } catch(OrtException e) {
+                    // The session is no longer used, nothing else can be done.
+                }
+            }
+        }
+    }
+}
@@ -20,8 +20,42 @@ package com.github.mfl28.boundingboxeditor.model.io.restclients;
 
 public class PredictionClientException extends Exception {
     private static final long serialVersionUID = 4076236914663192340L;
+    private static final int HTTP_STATUS_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_STATUS_SERVICE_UNAVAILABLE = 503;
+    private final boolean overloadSignal;
 
     public PredictionClientException(String description) {
+        this(description, false);
+    }
+
+    /**
+     * Creates a new prediction client exception.
+     *
+     * @param description    the description of the error
+     * @param overloadSignal true if the error indicates that the server is overloaded
+     */
+    public PredictionClientException(String description, boolean overloadSignal) {
         super(description);
+        this.overloadSignal = overloadSignal;
+    }
+
+    /**
+     * Returns true if the error indicates that the server is overloaded, i.e. the request timed out or the
+     * server responded with HTTP status 429 (too many requests) or 503 (service unavailable).
+     *
+     * @return true if the error is an overload signal, otherwise false
+     */
+    public boolean isOverloadSignal() {
+        return overloadSignal;
+    }
+
+    /**
+     * Returns true if an HTTP status code signals that the server is overloaded.
+     *
+     * @param statusCode the HTTP status code
+     * @return true if the status code is 429 or 503, otherwise false
+     */
+    public static boolean isOverloadStatusCode(int statusCode) {
+        return statusCode == HTTP_STATUS_TOO_MANY_REQUESTS || statusCode == HTTP_STATUS_SERVICE_UNAVAILABLE;
     }
 }
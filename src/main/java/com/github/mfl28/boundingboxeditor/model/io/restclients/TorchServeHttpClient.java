@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A client for the Torch serve inference and management APIs based on {@link HttpClient}. Connections are
+ * kept alive and reused between requests, HTTP/2 is used if the server supports it. In addition to the
+ * blocking methods of {@link BoundingBoxPredictorClient}, predictions can be requested asynchronously
+ * using {@link #predictAsync(InputStream)}.
+ */
+public class TorchServeHttpClient implements BoundingBoxPredictorClient {
+    private static final String MODELS_RESOURCE_NAME = "models";
+    private static final String SERVER_MODELS_READ_ERROR_MESSAGE =
+            "Could not fetch models from management server.";
+    private static final String DATA_BODY_PART_NAME = "data";
+    private static final String PREDICTIONS_RESOURCE_NAME = "predictions";
+    private static final String SERVER_PREDICTION_POST_ERROR_MESSAGE =
+            "Could not get prediction from inference server.";
+    private static final String MANAGEMENT_ADDRESS_ERROR_MESSAGE = "Invalid management address or port.";
+    private static final String MANAGEMENT_SERVER_CONNECTION_ERROR_MESSAGE = "Could not connect to management server.";
+    private static final String MANAGEMENT_SERVER_MODELS_RESPONSE_FORMAT_ERROR_MESSAGE = "Invalid management server " +
+            "response format for resource \"" + MODELS_RESOURCE_NAME + "\".";
+    private static final String INFERENCE_SERVER_PREDICTION_RESPONSE_FORMAT_ERROR_MESSAGE = "Invalid inference server "
+            + "response format for resource \"" + PREDICTIONS_RESOURCE_NAME + "\".";
+    private static final String TORCH_SERVE_NAME = "Torch serve";
+    private static final String INFERENCE_ADDRESS_ERROR_MESSAGE = "Invalid inference address or port.";
+    private static final String INFERENCE_SERVER_CONNECTION_ERROR_MESSAGE = "Could not connect to inference server.";
+    private static final String INFERENCE_SERVER_TIMEOUT_ERROR_MESSAGE =
+            "Inference server did not respond in time.";
+    private static final String SERVER_ERROR_REASON = " Reason: HTTP status ";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Type PREDICTIONS_TYPE = new TypeToken<List<BoundingBoxPredictionEntry>>() {}.getType();
+    private static final Gson gson = GsonMessageBodyHandler.createGson();
+    private final HttpClient httpClient;
+    private final BoundingBoxPredictorClientConfig clientConfig;
+    private final Duration requestTimeout;
+
+    public TorchServeHttpClient(HttpClient httpClient, BoundingBoxPredictorClientConfig clientConfig) {
+        this(httpClient, clientConfig, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Creates a new client.
+     *
+     * @param httpClient     the http-client used to send the requests
+     * @param clientConfig   the client configuration
+     * @param requestTimeout the time after which a request without a response fails
+     */
+    TorchServeHttpClient(HttpClient httpClient, BoundingBoxPredictorClientConfig clientConfig,
+                         Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.clientConfig = clientConfig;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Creates a new http-client which prefers HTTP/2.
+     *
+     * @return the http-client
+     */
+    public static HttpClient createHttpClient() {
+        return HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_2)
+                         .connectTimeout(CONNECT_TIMEOUT)
+                         .build();
+    }
+
+    /**
+     * Returns the http-client shared by all clients created using
+     * {@link BoundingBoxPredictorClient#create}, so that connections are reused across predictions.
+     *
+     * @return the shared http-client
+     */
+    public static HttpClient getSharedHttpClient() {
+        return SharedHttpClientHolder.INSTANCE;
+    }
+
+    @Override
+    public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+        final HttpRequest request = createPredictionRequest(input);
+        final HttpResponse<InputStream> response;
+
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PredictionClientException(SERVER_PREDICTION_POST_ERROR_MESSAGE);
+        } catch(IOException e) {
+            throw createPredictionRequestException(e);
+        }
+
+        return readPredictions(response);
+    }
+
+    /**
+     * Requests the predictions for an image without blocking the calling thread. The returned future
+     * completes exceptionally with a {@link PredictionClientException} if the prediction could not be made.
+     *
+     * @param input the encoded image
+     * @return the future predictions
+     */
+    public CompletableFuture<List<BoundingBoxPredictionEntry>> predictAsync(InputStream input) {
+        final HttpRequest request;
+
+        try {
+            request = createPredictionRequest(input);
+        } catch(PredictionClientException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                         .handle((response, throwable) -> {
+                             try {
+                                 if(throwable != null) {
+                                     throw createPredictionRequestException(unwrap(throwable));
+                                 }
+
+                                 return readPredictions(response);
+                             } catch(PredictionClientException e) {
+                                 throw new CompletionException(e);
+                             }
+                         });
+    }
+
+    @Override
+    public List<ModelEntry> models() throws PredictionClientException {
+        final HttpRequest request;
+
+        try {
+            request = HttpRequest.newBuilder(URI.create(clientConfig.getManagementAddress() + "/"
+                                                                + MODELS_RESOURCE_NAME))
+                                 .header("Accept", "application/json")
+                                 .timeout(requestTimeout)
+                                 .GET()
+                                 .build();
+        } catch(IllegalArgumentException | NullPointerException e) {
+            throw new PredictionClientException(MANAGEMENT_ADDRESS_ERROR_MESSAGE);
+        }
+
+        final HttpResponse<InputStream> response;
+
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PredictionClientException(SERVER_MODELS_READ_ERROR_MESSAGE);
+        } catch(ConnectException e) {
+            throw new PredictionClientException(MANAGEMENT_SERVER_CONNECTION_ERROR_MESSAGE);
+        } catch(IOException e) {
+            throw new PredictionClientException(SERVER_MODELS_READ_ERROR_MESSAGE);
+        }
+
+        try(final Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+            if(response.statusCode() != 200) {
+                throw new PredictionClientException(SERVER_MODELS_READ_ERROR_MESSAGE + SERVER_ERROR_REASON
+                                                            + response.statusCode());
+            }
+
+            final TorchServeRestClient.ModelsWrapper modelsWrapper =
+                    gson.fromJson(reader, TorchServeRestClient.ModelsWrapper.class);
+
+            if(modelsWrapper == null || modelsWrapper.getModels() == null) {
+                throw new PredictionClientException(MANAGEMENT_SERVER_MODELS_RESPONSE_FORMAT_ERROR_MESSAGE);
+            }
+
+            return modelsWrapper.getModels();
+        } catch(JsonIOException | IOException e) {
+            throw new PredictionClientException(SERVER_MODELS_READ_ERROR_MESSAGE);
+        } catch(JsonParseException e) {
+            throw new PredictionClientException(MANAGEMENT_SERVER_MODELS_RESPONSE_FORMAT_ERROR_MESSAGE);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return TORCH_SERVE_NAME;
+    }
+
+    @Override
+    public String getModelName() {
+        return clientConfig.getInferenceModelName();
+    }
+
+    private HttpRequest createPredictionRequest(InputStream input) throws PredictionClientException {
+        if(clientConfig.getInferenceModelName() == null) {
+            throw new PredictionClientException(SERVER_PREDICTION_POST_ERROR_MESSAGE);
+        }
+
+        final URI uri;
+
+        try {
+            uri = URI.create(clientConfig.getInferenceAddress() + "/" + PREDICTIONS_RESOURCE_NAME + "/"
+                                     + URLEncoder.encode(clientConfig.getInferenceModelName(), StandardCharsets.UTF_8)
+                                                 .replace("+", "%20"));
+        } catch(IllegalArgumentException | NullPointerException e) {
+            throw new PredictionClientException(INFERENCE_ADDRESS_ERROR_MESSAGE);
+        }
+
+        // The image is streamed into a multipart/form-data body with a single part.
+        final String boundary = "BoundingBoxEditor" + UUID.randomUUID().toString().replace("-", "");
+        final String partHeader = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + DATA_BODY_PART_NAME + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+        final String partFooter = "\r\n--" + boundary + "--\r\n";
+
+        try {
+            return HttpRequest.newBuilder(uri)
+                              .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                              .header("Accept", "application/json")
+                              .timeout(requestTimeout)
+                              .POST(HttpRequest.BodyPublishers.concat(
+                                      HttpRequest.BodyPublishers.ofString(partHeader, StandardCharsets.UTF_8),
+                                      HttpRequest.BodyPublishers.ofInputStream(() -> input),
+                                      HttpRequest.BodyPublishers.ofString(partFooter, StandardCharsets.UTF_8)))
+                              .build();
+        } catch(IllegalArgumentException e) {
+            throw new PredictionClientException(INFERENCE_ADDRESS_ERROR_MESSAGE);
+        }
+    }
+
+    private static List<BoundingBoxPredictionEntry> readPredictions(HttpResponse<InputStream> response)
+            throws PredictionClientException {
+        try(final Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+            if(response.statusCode() != 200) {
+                throw new PredictionClientException(SERVER_PREDICTION_POST_ERROR_MESSAGE + SERVER_ERROR_REASON
+                                                            + response.statusCode(),
+                        PredictionClientException.isOverloadStatusCode(response.statusCode()));
+            }
+
+            final List<BoundingBoxPredictionEntry> predictions = gson.fromJson(reader, PREDICTIONS_TYPE);
+
+            if(predictions == null) {
+                throw new PredictionClientException(INFERENCE_SERVER_PREDICTION_RESPONSE_FORMAT_ERROR_MESSAGE);
+            }
+
+            return predictions;
+        } catch(JsonIOException | IOException e) {
+            throw new PredictionClientException(SERVER_PREDICTION_POST_ERROR_MESSAGE);
+        } catch(JsonParseException | IllegalStateException | NullPointerException e) {
+            // Thrown by the prediction entry deserializer for unexpected json structures.
+            throw new PredictionClientException(INFERENCE_SERVER_PREDICTION_RESPONSE_FORMAT_ERROR_MESSAGE);
+        }
+    }
+
+    private static PredictionClientException createPredictionRequestException(Throwable throwable) {
+        if(throwable instanceof ConnectException || throwable instanceof HttpConnectTimeoutException) {
+            return new PredictionClientException(INFERENCE_SERVER_CONNECTION_ERROR_MESSAGE);
+        }
+
+        if(throwable instanceof HttpTimeoutException) {
+            return new PredictionClientException(INFERENCE_SERVER_TIMEOUT_ERROR_MESSAGE, true);
+        }
+
+        return new PredictionClientException(SERVER_PREDICTION_POST_ERROR_MESSAGE);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+    }
+
+    private static class SharedHttpClientHolder {
+        private static final HttpClient INSTANCE = createHttpClient();
+    }
+}
@@ -102,8 +102,10 @@ public class TorchServeRestClient implements BoundingBoxPredictorClient {
 
         if(!response.getStatusInfo().equals(Response.Status.OK)) {
             final String reason = response.getStatusInfo().getReasonPhrase();
+            final int statusCode = response.getStatus();
             response.close();
-            throw new PredictionClientException(SERVER_PREDICTION_POST_ERROR_MESSAGE + SERVER_ERROR_REASON + reason);
+            throw new PredictionClientException(SERVER_PREDICTION_POST_ERROR_MESSAGE + SERVER_ERROR_REASON + reason,
+                    PredictionClientException.isOverloadStatusCode(statusCode));
         }
 
         try {
@@ -164,6 +166,11 @@ public class TorchServeRestClient implements BoundingBoxPredictorClient {
         return TORCH_SERVE_NAME;
     }
 
+    @Override
+    public String getModelName() {
+        return clientConfig.getInferenceModelName();
+    }
+
     public static class ModelsWrapper {
         private List<ModelEntry> models = new ArrayList<>();
 
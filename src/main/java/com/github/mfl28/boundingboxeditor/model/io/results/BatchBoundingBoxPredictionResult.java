@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.results;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
+import com.github.mfl28.boundingboxeditor.model.io.BatchBoundingBoxPredictor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a bounding box prediction over multiple images. As predicted annotations are handed out
+ * batch-wise while the prediction is running, the contained {@link ImageAnnotationData} only holds
+ * the total numbers of predicted bounding boxes per category.
+ */
+public class BatchBoundingBoxPredictionResult extends BoundingBoxPredictionResult {
+    private final BatchBoundingBoxPredictor.PredictionStatistics statistics;
+
+    /**
+     * Creates a new batch bounding box prediction result.
+     *
+     * @param nrSuccessfullyProcessedItems the number of images for which predictions were successfully made
+     * @param errorTableEntries            a list of objects of type {@link IOErrorInfoEntry} that contain information
+     *                                     about where and which errors occurred.
+     * @param imageAnnotationData          the prediction totals
+     * @param statistics                   the throughput and latency statistics of the prediction
+     */
+    public BatchBoundingBoxPredictionResult(int nrSuccessfullyProcessedItems,
+                                            List<IOErrorInfoEntry> errorTableEntries,
+                                            ImageAnnotationData imageAnnotationData,
+                                            BatchBoundingBoxPredictor.PredictionStatistics statistics) {
+        this(nrSuccessfullyProcessedItems, errorTableEntries, imageAnnotationData, statistics, 0, 0);
+    }
+
+    /**
+     * Creates a new batch bounding box prediction result whose predictions were merged with existing
+     * annotations.
+     *
+     * @param nrSuccessfullyProcessedItems the number of images for which predictions were successfully made
+     * @param errorTableEntries            a list of objects of type {@link IOErrorInfoEntry} that contain information
+     *                                     about where and which errors occurred.
+     * @param imageAnnotationData          the prediction totals
+     * @param statistics                   the throughput and latency statistics of the prediction
+     * @param nrMergedShapes               the number of existing shapes replaced by predictions
+     * @param nrDroppedShapes              the number of predictions dropped as duplicates
+     */
+    public BatchBoundingBoxPredictionResult(int nrSuccessfullyProcessedItems,
+                                            List<IOErrorInfoEntry> errorTableEntries,
+                                            ImageAnnotationData imageAnnotationData,
+                                            BatchBoundingBoxPredictor.PredictionStatistics statistics,
+                                            int nrMergedShapes, int nrDroppedShapes) {
+        super(nrSuccessfullyProcessedItems, errorTableEntries, imageAnnotationData, Collections.emptyMap(),
+                nrMergedShapes, nrDroppedShapes);
+        this.statistics = statistics;
+    }
+
+    public BatchBoundingBoxPredictor.PredictionStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -18,12 +18,19 @@
  */
 package com.github.mfl28.boundingboxeditor.model.io.results;
 
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
 import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class BoundingBoxPredictionResult extends IOResult {
     private final ImageAnnotationData imageAnnotationData;
+    private final Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes;
+    private final int nrMergedShapes;
+    private final int nrDroppedShapes;
+    private final boolean serverOverloaded;
 
     /**
      * Creates a new bounding box prediction result.
@@ -37,11 +44,83 @@ public class BoundingBoxPredictionResult extends IOResult {
     public BoundingBoxPredictionResult(int nrSuccessfullyProcessedItems,
                                        List<IOErrorInfoEntry> errorTableEntries,
                                        ImageAnnotationData imageAnnotationData) {
+        this(nrSuccessfullyProcessedItems, errorTableEntries, imageAnnotationData, Collections.emptyMap(), 0, 0,
+                false);
+    }
+
+    /**
+     * Creates a new bounding box prediction result of a failed prediction.
+     *
+     * @param errorTableEntries a list of objects of type {@link IOErrorInfoEntry} that contain information
+     *                          about where and which errors occurred.
+     * @param serverOverloaded  true if the prediction failed because the server is overloaded
+     */
+    public BoundingBoxPredictionResult(List<IOErrorInfoEntry> errorTableEntries, boolean serverOverloaded) {
+        this(0, errorTableEntries, ImageAnnotationData.empty(), Collections.emptyMap(), 0, 0, serverOverloaded);
+    }
+
+    /**
+     * Creates a new bounding box prediction result whose predictions were merged with existing annotations.
+     *
+     * @param nrSuccessfullyProcessedItems  the number of items (files/annotations) that
+     *                                      were successfully processed
+     * @param errorTableEntries             a list of objects of type {@link IOErrorInfoEntry} that contain
+     *                                      information about where and which errors occurred.
+     * @param imageAnnotationData           the predicted annotation data to add
+     * @param imageFileNameToReplacedShapes the existing shapes replaced by predictions per image file name
+     * @param nrMergedShapes                the number of existing shapes replaced by predictions
+     * @param nrDroppedShapes               the number of predictions dropped as duplicates
+     */
+    public BoundingBoxPredictionResult(int nrSuccessfullyProcessedItems,
+                                       List<IOErrorInfoEntry> errorTableEntries,
+                                       ImageAnnotationData imageAnnotationData,
+                                       Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes,
+                                       int nrMergedShapes, int nrDroppedShapes) {
+        this(nrSuccessfullyProcessedItems, errorTableEntries, imageAnnotationData, imageFileNameToReplacedShapes,
+                nrMergedShapes, nrDroppedShapes, false);
+    }
+
+    private BoundingBoxPredictionResult(int nrSuccessfullyProcessedItems,
+                                        List<IOErrorInfoEntry> errorTableEntries,
+                                        ImageAnnotationData imageAnnotationData,
+                                        Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes,
+                                        int nrMergedShapes, int nrDroppedShapes, boolean serverOverloaded) {
         super(OperationType.BOUNDING_BOX_PREDICTION, nrSuccessfullyProcessedItems, errorTableEntries);
         this.imageAnnotationData = imageAnnotationData;
+        this.imageFileNameToReplacedShapes = imageFileNameToReplacedShapes;
+        this.nrMergedShapes = nrMergedShapes;
+        this.nrDroppedShapes = nrDroppedShapes;
+        this.serverOverloaded = serverOverloaded;
     }
 
     public ImageAnnotationData getImageAnnotationData() {
         return imageAnnotationData;
     }
+
+    /**
+     * Returns the existing shapes which are replaced by the predictions.
+     *
+     * @return the replaced shapes per image file name
+     */
+    public Map<String, List<BoundingShapeData>> getImageFileNameToReplacedShapes() {
+        return imageFileNameToReplacedShapes;
+    }
+
+    public int getNrMergedShapes() {
+        return nrMergedShapes;
+    }
+
+    public int getNrDroppedShapes() {
+        return nrDroppedShapes;
+    }
+
+    /**
+     * Returns true if the prediction failed because the server is overloaded (see
+     * {@link com.github.mfl28.boundingboxeditor.model.io.restclients.PredictionClientException#isOverloadSignal()}).
+     *
+     * @return true if the server is overloaded, otherwise false
+     */
+    public boolean isServerOverloaded() {
+        return serverOverloaded;
+    }
 }
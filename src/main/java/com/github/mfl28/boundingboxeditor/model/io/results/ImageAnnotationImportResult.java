@@ -18,12 +18,19 @@
  */
 package com.github.mfl28.boundingboxeditor.model.io.results;
 
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
 import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class ImageAnnotationImportResult extends IOResult {
     private final ImageAnnotationData imageAnnotationData;
+    private final long nrProcessedRows;
+    private final Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes;
+    private final int nrMergedShapes;
+    private final int nrDroppedShapes;
 
     /**
      * Creates a new io-operation result.
@@ -35,11 +42,80 @@ public class ImageAnnotationImportResult extends IOResult {
     public ImageAnnotationImportResult(int nrSuccessfullyProcessedItems,
                                        List<IOErrorInfoEntry> errorTableEntries,
                                        ImageAnnotationData imageAnnotationData) {
+        this(nrSuccessfullyProcessedItems, errorTableEntries, imageAnnotationData, 0);
+    }
+
+    /**
+     * Creates a new io-operation result for a row-based import.
+     *
+     * @param nrSuccessfullyProcessedItems the number of items (files/annotations) that
+     *                                     were successfully processed
+     * @param errorTableEntries            a list of objects of type {@link IOErrorInfoEntry} that contain information
+     * @param imageAnnotationData          the loaded image-annotation data
+     * @param nrProcessedRows              the number of parsed rows
+     */
+    public ImageAnnotationImportResult(int nrSuccessfullyProcessedItems,
+                                       List<IOErrorInfoEntry> errorTableEntries,
+                                       ImageAnnotationData imageAnnotationData,
+                                       long nrProcessedRows) {
+        this(nrSuccessfullyProcessedItems, errorTableEntries, imageAnnotationData, nrProcessedRows,
+                Collections.emptyMap(), 0, 0);
+    }
+
+    /**
+     * Creates a new io-operation result whose loaded annotations were merged with existing annotations.
+     *
+     * @param nrSuccessfullyProcessedItems  the number of items (files/annotations) that
+     *                                      were successfully processed
+     * @param errorTableEntries             a list of objects of type {@link IOErrorInfoEntry} that contain
+     *                                      information
+     * @param imageAnnotationData           the loaded image-annotation data to add
+     * @param nrProcessedRows               the number of parsed rows
+     * @param imageFileNameToReplacedShapes the existing shapes replaced by loaded shapes per image file name
+     * @param nrMergedShapes                the number of existing shapes replaced by loaded shapes
+     * @param nrDroppedShapes               the number of loaded shapes dropped as duplicates
+     */
+    public ImageAnnotationImportResult(int nrSuccessfullyProcessedItems,
+                                       List<IOErrorInfoEntry> errorTableEntries,
+                                       ImageAnnotationData imageAnnotationData,
+                                       long nrProcessedRows,
+                                       Map<String, List<BoundingShapeData>> imageFileNameToReplacedShapes,
+                                       int nrMergedShapes, int nrDroppedShapes) {
         super(OperationType.ANNOTATION_IMPORT, nrSuccessfullyProcessedItems, errorTableEntries);
         this.imageAnnotationData = imageAnnotationData;
+        this.nrProcessedRows = nrProcessedRows;
+        this.imageFileNameToReplacedShapes = imageFileNameToReplacedShapes;
+        this.nrMergedShapes = nrMergedShapes;
+        this.nrDroppedShapes = nrDroppedShapes;
     }
 
     public ImageAnnotationData getImageAnnotationData() {
         return imageAnnotationData;
     }
+
+    /**
+     * Returns the number of parsed rows, this is zero for formats that are not row-based.
+     *
+     * @return the number of rows
+     */
+    public long getNrProcessedRows() {
+        return nrProcessedRows;
+    }
+
+    /**
+     * Returns the existing shapes which are replaced by the loaded annotations.
+     *
+     * @return the replaced shapes per image file name
+     */
+    public Map<String, List<BoundingShapeData>> getImageFileNameToReplacedShapes() {
+        return imageFileNameToReplacedShapes;
+    }
+
+    public int getNrMergedShapes() {
+        return nrMergedShapes;
+    }
+
+    public int getNrDroppedShapes() {
+        return nrDroppedShapes;
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.services;
+
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.AdaptiveConcurrencyLimiter;
+import com.github.mfl28.boundingboxeditor.model.io.AnnotationMerger;
+import com.github.mfl28.boundingboxeditor.model.io.BatchBoundingBoxPredictor;
+import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictor;
+import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictorConfig;
+import com.github.mfl28.boundingboxeditor.model.io.PredictionCache;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.results.BatchBoundingBoxPredictionResult;
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class BatchBoundingBoxPredictorService extends IoService<BatchBoundingBoxPredictionResult> {
+    private final ObjectProperty<List<File>> imageFiles = new SimpleObjectProperty<>(this, "imageFiles");
+    private final ObjectProperty<Map<String, ImageMetaData>> imageFileNameToMetaData =
+            new SimpleObjectProperty<>(this, "imageFileNameToMetaData");
+    private final ObjectProperty<Map<String, ObjectCategory>> categoryNameToCategoryMap =
+            new SimpleObjectProperty<>(this, "categoryNameToCategoryMap");
+    private final ObjectProperty<BoundingBoxPredictorClient> predictorClient =
+            new SimpleObjectProperty<>(this, "predictorClient");
+    private final ObjectProperty<BoundingBoxPredictorConfig> boundingBoxPredictorConfig =
+            new SimpleObjectProperty<>(this, "boundingBoxPredictorConfig");
+    private final ObjectProperty<PredictionCache> predictionCache =
+            new SimpleObjectProperty<>(this, "predictionCache");
+    private final ObjectProperty<Consumer<BatchBoundingBoxPredictor.Batch>> batchConsumer =
+            new SimpleObjectProperty<>(this, "batchConsumer");
+    private final ObjectProperty<Map<String, List<BoundingShapeData>>> imageFileNameToExistingShapes =
+            new SimpleObjectProperty<>(this, "imageFileNameToExistingShapes");
+
+    public List<File> getImageFiles() {
+        return imageFiles.get();
+    }
+
+    public void setImageFiles(List<File> imageFiles) {
+        this.imageFiles.set(imageFiles);
+    }
+
+    public void setImageFileNameToMetaData(Map<String, ImageMetaData> imageFileNameToMetaData) {
+        this.imageFileNameToMetaData.set(imageFileNameToMetaData);
+    }
+
+    public void setCategoryNameToCategoryMap(Map<String, ObjectCategory> categoryNameToCategoryMap) {
+        this.categoryNameToCategoryMap.set(categoryNameToCategoryMap);
+    }
+
+    public void setPredictorClient(BoundingBoxPredictorClient predictorClient) {
+        this.predictorClient.set(predictorClient);
+    }
+
+    public void setBoundingBoxPredictorConfig(BoundingBoxPredictorConfig boundingBoxPredictorConfig) {
+        this.boundingBoxPredictorConfig.set(boundingBoxPredictorConfig);
+    }
+
+    public void setPredictionCache(PredictionCache predictionCache) {
+        this.predictionCache.set(predictionCache);
+    }
+
+    /**
+     * Sets the consumer of the predicted annotation batches. The consumer is called on the
+     * JavaFX application thread while the prediction is running.
+     *
+     * @param batchConsumer the consumer
+     */
+    public void setBatchConsumer(Consumer<BatchBoundingBoxPredictor.Batch> batchConsumer) {
+        this.batchConsumer.set(batchConsumer);
+    }
+
+    /**
+     * Sets a snapshot of the existing shapes per image file name, with which the predictions are merged
+     * according to the merge policy of the predictor config.
+     *
+     * @param imageFileNameToExistingShapes the existing shapes, must not be modified while the prediction is
+     *                                      running
+     */
+    public void setImageFileNameToExistingShapes(Map<String, List<BoundingShapeData>> imageFileNameToExistingShapes) {
+        this.imageFileNameToExistingShapes.set(imageFileNameToExistingShapes);
+    }
+
+    @Override
+    protected Task<BatchBoundingBoxPredictionResult> createTask() {
+        return new Task<>() {
+            @Override
+            protected BatchBoundingBoxPredictionResult call() throws Exception {
+                final Consumer<BatchBoundingBoxPredictor.Batch> consumer = batchConsumer.get();
+                final int nrImages = imageFiles.get().size();
+                final BoundingBoxPredictorConfig predictorConfig = boundingBoxPredictorConfig.get();
+                final BoundingBoxPredictor predictor =
+                        new BoundingBoxPredictor(predictorClient.get(), predictorConfig, predictionCache.get());
+
+                final BatchBoundingBoxPredictor batchPredictor = predictorConfig.isAdaptiveConcurrency() ?
+                        new BatchBoundingBoxPredictor(predictor,
+                                new AdaptiveConcurrencyLimiter(predictorConfig.getMaxConcurrentRequests()),
+                                BatchBoundingBoxPredictor.DEFAULT_BATCH_SIZE,
+                                BatchBoundingBoxPredictor.DEFAULT_NR_PREPROCESSING_WORKERS) :
+                        new BatchBoundingBoxPredictor(predictor, predictorConfig.getMaxConcurrentRequests(),
+                                BatchBoundingBoxPredictor.DEFAULT_BATCH_SIZE,
+                                BatchBoundingBoxPredictor.DEFAULT_NR_PREPROCESSING_WORKERS);
+
+                // Predictions are merged on the thread collecting the batches, before handing them out.
+                final BatchMerger batchMerger = new BatchMerger(predictorConfig.createAnnotationMerger(),
+                        imageFileNameToExistingShapes.get() != null ? imageFileNameToExistingShapes.get() : Map.of());
+
+                final BatchBoundingBoxPredictionResult result = batchPredictor
+                        .predict(imageFiles.get(), imageFileNameToMetaData.get(), categoryNameToCategoryMap.get(),
+                                batch -> {
+                                    final BatchBoundingBoxPredictor.Batch mergedBatch = batchMerger.merge(batch);
+                                    Platform.runLater(() -> consumer.accept(mergedBatch));
+                                },
+                                statistics -> {
+                                    updateProgress(statistics.nrProcessedImages(), nrImages);
+                                    updateMessage(statistics.getSummary());
+                                });
+
+                return batchMerger.updateResult(result);
+            }
+        };
+    }
+
+    private static class BatchMerger {
+        private final AnnotationMerger annotationMerger;
+        private final Map<String, List<BoundingShapeData>> imageFileNameToExistingShapes;
+        private final Map<String, Integer> droppedCategoryToCount = new HashMap<>();
+        private int nrMergedShapes = 0;
+        private int nrDroppedShapes = 0;
+
+        BatchMerger(AnnotationMerger annotationMerger,
+                    Map<String, List<BoundingShapeData>> imageFileNameToExistingShapes) {
+            this.annotationMerger = annotationMerger;
+            this.imageFileNameToExistingShapes = imageFileNameToExistingShapes;
+        }
+
+        BatchBoundingBoxPredictor.Batch merge(BatchBoundingBoxPredictor.Batch batch) {
+            if(annotationMerger.getPolicy() == AnnotationMerger.Policy.ADD_ALL) {
+                return batch;
+            }
+
+            final AnnotationMerger.MergeResult mergeResult =
+                    annotationMerger.merge(batch.imageAnnotationData(), imageFileNameToExistingShapes);
+
+            batch.imageAnnotationData().categoryNameToBoundingShapeCountMap().forEach((category, count) ->
+                    droppedCategoryToCount.merge(category, count - mergeResult.imageAnnotationData()
+                            .categoryNameToBoundingShapeCountMap().getOrDefault(category, 0), Integer::sum));
+            nrMergedShapes += mergeResult.nrMergedShapes();
+            nrDroppedShapes += mergeResult.nrDroppedShapes();
+
+            return new BatchBoundingBoxPredictor.Batch(batch.predictedImageFiles(),
+                    mergeResult.imageAnnotationData(), mergeResult.imageFileNameToReplacedShapes());
+        }
+
+        BatchBoundingBoxPredictionResult updateResult(BatchBoundingBoxPredictionResult result) {
+            if(nrMergedShapes == 0 && nrDroppedShapes == 0) {
+                return result;
+            }
+
+            final Map<String, Integer> categoryToCount =
+                    new HashMap<>(result.getImageAnnotationData().categoryNameToBoundingShapeCountMap());
+            droppedCategoryToCount.forEach((category, count) ->
+                    categoryToCount.computeIfPresent(category, (key, value) -> value - count));
+
+            final BatchBoundingBoxPredictionResult updatedResult = new BatchBoundingBoxPredictionResult(
+                    result.getNrSuccessfullyProcessedItems(), result.getErrorTableEntries(),
+                    new ImageAnnotationData(result.getImageAnnotationData().imageAnnotations(), categoryToCount,
+                            result.getImageAnnotationData().categoryNameToCategoryMap()),
+                    result.getStatistics(), nrMergedShapes, nrDroppedShapes);
+            updatedResult.setTimeTakenInMilliseconds(result.getTimeTakenInMilliseconds());
+            return updatedResult;
+        }
+    }
+}
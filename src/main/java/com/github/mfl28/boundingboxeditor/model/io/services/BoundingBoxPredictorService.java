@@ -18,10 +18,13 @@
  */
 package com.github.mfl28.boundingboxeditor.model.io.services;
 
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
 import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
 import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.AnnotationMerger;
 import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictor;
 import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictorConfig;
+import com.github.mfl28.boundingboxeditor.model.io.PredictionCache;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
 import com.github.mfl28.boundingboxeditor.model.io.results.BoundingBoxPredictionResult;
 import javafx.beans.property.ObjectProperty;
@@ -29,7 +32,9 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.concurrent.Task;
 
 import java.io.File;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 public class BoundingBoxPredictorService extends IoService<BoundingBoxPredictionResult> {
     private final ObjectProperty<File> imageFile = new SimpleObjectProperty<>(this, "imageFile");
@@ -42,6 +47,12 @@ public class BoundingBoxPredictorService extends IoService<BoundingBoxPrediction
                                                                                                           "predictorClient");
     private final ObjectProperty<BoundingBoxPredictorConfig> boundingBoxPredictorConfig =
             new SimpleObjectProperty<>(this, "boundingBoxPredictorConfig");
+    private final ObjectProperty<PredictionCache> predictionCache =
+            new SimpleObjectProperty<>(this, "predictionCache");
+    private final ObjectProperty<Future<BoundingBoxPredictor.PreparedImage>> prefetchedImage =
+            new SimpleObjectProperty<>(this, "prefetchedImage");
+    private final ObjectProperty<List<BoundingShapeData>> existingShapes =
+            new SimpleObjectProperty<>(this, "existingShapes");
 
 
     public void setImageFile(File imageFile) {
@@ -66,14 +77,55 @@ public class BoundingBoxPredictorService extends IoService<BoundingBoxPrediction
         this.boundingBoxPredictorConfig.set(boundingBoxPredictorConfig);
     }
 
+    public void setPredictionCache(PredictionCache predictionCache) {
+        this.predictionCache.set(predictionCache);
+    }
+
+    public void setPrefetchedImage(Future<BoundingBoxPredictor.PreparedImage> prefetchedImage) {
+        this.prefetchedImage.set(prefetchedImage);
+    }
+
+    /**
+     * Sets a snapshot of the existing shapes of the image, with which the predictions are merged according to
+     * the merge policy of the predictor config.
+     *
+     * @param existingShapes the existing shapes, must not be modified while the prediction is running
+     */
+    public void setExistingShapes(List<BoundingShapeData> existingShapes) {
+        this.existingShapes.set(existingShapes);
+    }
+
     @Override
     protected Task<BoundingBoxPredictionResult> createTask() {
         return new Task<>() {
             @Override
             protected BoundingBoxPredictionResult call() throws Exception {
-                return new BoundingBoxPredictor(predictorClient.get(), boundingBoxPredictorConfig.get())
-                        .predict(imageFile.get(), imageMetaData.get(), categoryNameToCategoryMap.get());
+                final BoundingBoxPredictionResult result = new BoundingBoxPredictor(predictorClient.get(),
+                        boundingBoxPredictorConfig.get(), predictionCache.get())
+                        .predict(imageFile.get(), imageMetaData.get(), categoryNameToCategoryMap.get(),
+                                prefetchedImage.get());
+
+                return mergeWithExistingShapes(result);
             }
         };
     }
+
+    private BoundingBoxPredictionResult mergeWithExistingShapes(BoundingBoxPredictionResult result) {
+        final AnnotationMerger annotationMerger = boundingBoxPredictorConfig.get().createAnnotationMerger();
+
+        if(annotationMerger.getPolicy() == AnnotationMerger.Policy.ADD_ALL || existingShapes.get() == null
+                || result.getNrSuccessfullyProcessedItems() == 0) {
+            return result;
+        }
+
+        final AnnotationMerger.MergeResult mergeResult = annotationMerger.merge(result.getImageAnnotationData(),
+                Map.of(imageFile.get().getName(), existingShapes.get()));
+
+        final BoundingBoxPredictionResult mergedResult = new BoundingBoxPredictionResult(
+                result.getNrSuccessfullyProcessedItems(), result.getErrorTableEntries(),
+                mergeResult.imageAnnotationData(), mergeResult.imageFileNameToReplacedShapes(),
+                mergeResult.nrMergedShapes(), mergeResult.nrDroppedShapes());
+        mergedResult.setTimeTakenInMilliseconds(result.getTimeTakenInMilliseconds());
+        return mergedResult;
+    }
 }
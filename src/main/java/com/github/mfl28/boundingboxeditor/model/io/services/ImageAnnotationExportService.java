@@ -21,6 +21,8 @@ package com.github.mfl28.boundingboxeditor.model.io.services;
 import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotationData;
 import com.github.mfl28.boundingboxeditor.model.io.ImageAnnotationSaveStrategy;
 import com.github.mfl28.boundingboxeditor.model.io.ImageAnnotationSaver;
+import com.github.mfl28.boundingboxeditor.model.io.ShardedExportConfig;
+import com.github.mfl28.boundingboxeditor.model.io.ShardedImageAnnotationSaver;
 import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -35,6 +37,8 @@ public class ImageAnnotationExportService extends IoService<ImageAnnotationExpor
             exportFormat = new SimpleObjectProperty<>(this, "exportFormat");
     final ObjectProperty<ImageAnnotationData> annotationData = new SimpleObjectProperty<>(this, "imageAnnotationData");
     final ObjectProperty<Runnable> chainedOperation = new SimpleObjectProperty<>(this, "chainedOperation");
+    final ObjectProperty<ShardedExportConfig> shardedExportConfig =
+            new SimpleObjectProperty<>(this, "shardedExportConfig");
 
     public File getDestination() {
         return destination.get();
@@ -60,11 +64,36 @@ public class ImageAnnotationExportService extends IoService<ImageAnnotationExpor
         this.chainedOperation.setValue(chainedOperation);
     }
 
+    public ShardedExportConfig getShardedExportConfig() {
+        return shardedExportConfig.get();
+    }
+
+    /**
+     * Sets the configuration of a sharded export, in which case the destination is the root folder of
+     * the dataset. If null, the annotations are saved to the destination as a whole.
+     *
+     * @param shardedExportConfig the configuration or null
+     */
+    public void setShardedExportConfig(ShardedExportConfig shardedExportConfig) {
+        this.shardedExportConfig.setValue(shardedExportConfig);
+    }
+
     @Override
     protected Task<ImageAnnotationExportResult> createTask() {
         return new Task<>() {
             @Override
             protected ImageAnnotationExportResult call() throws Exception {
+                if(shardedExportConfig.get() != null) {
+                    final ShardedImageAnnotationSaver shardedSaver =
+                            new ShardedImageAnnotationSaver(exportFormat.get(), shardedExportConfig.get());
+
+                    shardedSaver.progressProperty()
+                                .addListener((observable, oldValue, newValue) ->
+                                                     updateProgress(newValue.doubleValue(), 1.0));
+
+                    return shardedSaver.save(annotationData.get(), Paths.get(destination.get().getPath()));
+                }
+
                 final ImageAnnotationSaver saver =
                         new ImageAnnotationSaver(exportFormat.get());
 
@@ -18,7 +18,9 @@
  */
 package com.github.mfl28.boundingboxeditor.model.io.services;
 
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
 import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.AnnotationMerger;
 import com.github.mfl28.boundingboxeditor.model.io.ImageAnnotationLoadStrategy;
 import com.github.mfl28.boundingboxeditor.model.io.ImageAnnotationLoader;
 import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
@@ -27,7 +29,9 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.concurrent.Task;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -39,6 +43,11 @@ public class ImageAnnotationImportService extends IoService<ImageAnnotationImpor
                                                                                                "importableFileNames");
     private final ObjectProperty<Map<String, ObjectCategory>> categoryNameToCategoryMap =
             new SimpleObjectProperty<>(this, "categoryNameToCategoryMap");
+    private final ObjectProperty<AnnotationMerger> annotationMerger = new SimpleObjectProperty<>(this,
+                                                                                                 "annotationMerger");
+    private final ObjectProperty<Map<String, List<BoundingShapeData>>> imageFileNameToExistingShapes =
+            new SimpleObjectProperty<>(this, "imageFileNameToExistingShapes");
+    private final ObjectProperty<Set<Path>> annotationFiles = new SimpleObjectProperty<>(this, "annotationFiles");
 
     public void setImportableFileNames(Set<String> importableFileNames) {
         this.importableFileNames.set(importableFileNames);
@@ -56,10 +65,38 @@ public class ImageAnnotationImportService extends IoService<ImageAnnotationImpor
         this.source.set(source);
     }
 
+    public ImageAnnotationLoadStrategy.Type getImportFormat() {
+        return importFormat.get();
+    }
+
     public void setImportFormat(ImageAnnotationLoadStrategy.Type importFormat) {
         this.importFormat.set(importFormat);
     }
 
+    /**
+     * Restricts the import to the provided image-annotation files of the source folder, all image-annotation
+     * files of the source are imported if this is null.
+     *
+     * @param annotationFiles the paths of the image-annotation files or null
+     */
+    public void setAnnotationFiles(Set<Path> annotationFiles) {
+        this.annotationFiles.set(annotationFiles);
+    }
+
+    /**
+     * Sets the merger of the loaded annotations with the existing shapes, the loaded annotations are added
+     * unmerged if this is null.
+     *
+     * @param annotationMerger              the merger or null
+     * @param imageFileNameToExistingShapes a snapshot of the existing shapes per image file name, must not be
+     *                                      modified while the import is running
+     */
+    public void setAnnotationMerger(AnnotationMerger annotationMerger,
+                                    Map<String, List<BoundingShapeData>> imageFileNameToExistingShapes) {
+        this.annotationMerger.set(annotationMerger);
+        this.imageFileNameToExistingShapes.set(imageFileNameToExistingShapes);
+    }
+
     @Override
     protected Task<ImageAnnotationImportResult> createTask() {
         return new Task<>() {
@@ -68,9 +105,32 @@ public class ImageAnnotationImportService extends IoService<ImageAnnotationImpor
                 ImageAnnotationLoader loader = new ImageAnnotationLoader(importFormat.get());
                 loader.progressProperty()
                       .addListener((observable, oldValue, newValue) -> updateProgress(newValue.doubleValue(), 1.0));
-                return loader.load(Paths.get(source.get().getPath()), importableFileNames.get(),
-                                   categoryNameToCategoryMap.get());
+                final ImageAnnotationImportResult result = annotationFiles.get() == null ?
+                        loader.load(Paths.get(source.get().getPath()), importableFileNames.get(),
+                                    categoryNameToCategoryMap.get()) :
+                        loader.load(Paths.get(source.get().getPath()), annotationFiles.get(),
+                                    importableFileNames.get(), categoryNameToCategoryMap.get());
+
+                return mergeWithExistingShapes(result);
             }
         };
     }
+
+    private ImageAnnotationImportResult mergeWithExistingShapes(ImageAnnotationImportResult result) {
+        if(annotationMerger.get() == null || annotationMerger.get().getPolicy() == AnnotationMerger.Policy.ADD_ALL
+                || result.getNrSuccessfullyProcessedItems() == 0) {
+            return result;
+        }
+
+        final AnnotationMerger.MergeResult mergeResult =
+                annotationMerger.get().merge(result.getImageAnnotationData(), imageFileNameToExistingShapes.get());
+
+        final ImageAnnotationImportResult mergedResult = new ImageAnnotationImportResult(
+                result.getNrSuccessfullyProcessedItems(), result.getErrorTableEntries(),
+                mergeResult.imageAnnotationData(), result.getNrProcessedRows(),
+                mergeResult.imageFileNameToReplacedShapes(), mergeResult.nrMergedShapes(),
+                mergeResult.nrDroppedShapes());
+        mergedResult.setTimeTakenInMilliseconds(result.getTimeTakenInMilliseconds());
+        return mergedResult;
+    }
 }
@@ -33,6 +33,7 @@ import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Cursor;
+import javafx.scene.Node;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.input.MouseButton;
@@ -40,6 +41,7 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -61,6 +63,8 @@ public class BoundingBoxView extends Rectangle implements
     private final BoundingShapeViewData boundingShapeViewData;
     private final DragAnchor dragAnchor = new DragAnchor();
     private final DragAnchor constructionAnchorLocal = new DragAnchor();
+    // Created when the box is selected for the first time.
+    private List<ResizeHandle> resizeHandles;
     private Bounds boundsInImage;
 
     /**
@@ -78,7 +82,6 @@ public class BoundingBoxView extends Rectangle implements
         setId(BOUNDING_BOX_VIEW_ID);
 
         boundingShapeViewData.getNodeGroup().setManaged(false);
-        boundingShapeViewData.getNodeGroup().getChildren().addAll(createResizeHandles());
 
         addMoveFunctionality();
         setUpInternalListeners();
@@ -96,6 +99,7 @@ public class BoundingBoxView extends Rectangle implements
         BoundingBoxView boundingBox = new BoundingBoxView(boundingBoxData.getCategory());
         boundingBox.setBoundsInImage(boundingBoxData.getAbsoluteBoundsInImage(imageWidth, imageHeight));
         boundingBox.getTags().setAll(boundingBoxData.getTags());
+        boundingBox.boundingShapeViewData.setScore(boundingBoxData.getScore());
         return boundingBox;
     }
 
@@ -172,8 +176,11 @@ public class BoundingBoxView extends Rectangle implements
      */
     @Override
     public BoundingShapeData toBoundingShapeData() {
-        return new BoundingBoxData(boundingShapeViewData.getObjectCategory(),
-                                   getRelativeBoundsInImageView(), boundingShapeViewData.getTags());
+        final BoundingBoxData boundingBoxData = new BoundingBoxData(boundingShapeViewData.getObjectCategory(),
+                                                                    getRelativeBoundsInImageView(),
+                                                                    new ArrayList<>(boundingShapeViewData.getTags()));
+        boundingBoxData.setScore(boundingShapeViewData.getScore());
+        return boundingBoxData;
     }
 
     @Override
@@ -309,10 +316,28 @@ public class BoundingBoxView extends Rectangle implements
         boundingShapeViewData.getSelected().addListener((observable, oldValue, newValue) -> {
             if(Boolean.TRUE.equals(newValue)) {
                 boundingShapeViewData.getHighlighted().set(false);
+                attachResizeHandles();
+            } else {
+                detachResizeHandles();
             }
         });
     }
 
+    private void attachResizeHandles() {
+        if(resizeHandles == null) {
+            resizeHandles = createResizeHandles();
+        }
+
+        if(boundingShapeViewData.getNodeGroup().getChildren().size() == 1) {
+            boundingShapeViewData.getNodeGroup().getChildren().addAll(resizeHandles);
+        }
+    }
+
+    private void detachResizeHandles() {
+        final ObservableList<Node> nodes = boundingShapeViewData.getNodeGroup().getChildren();
+        nodes.remove(1, nodes.size());
+    }
+
     private Bounds constructCurrentMoveBounds() {
         final Bounds confinementBoundsValue = boundingShapeViewData.autoScaleBounds().getValue();
         return new BoundingBox(confinementBoundsValue.getMinX(), confinementBoundsValue.getMinY(),
@@ -32,6 +32,7 @@ import javafx.css.PseudoClass;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.input.MouseButton;
@@ -115,6 +116,7 @@ public class BoundingPolygonView extends Polygon implements
         BoundingPolygonView boundingPolygon = new BoundingPolygonView(boundingPolygonData.getCategory());
         boundingPolygon.pointsInImage = boundingPolygonData.getAbsolutePointsInImage(imageWidth, imageHeight);
         boundingPolygon.getTags().setAll(boundingPolygonData.getTags());
+        boundingPolygon.boundingShapeViewData.setScore(boundingPolygonData.getScore());
         return boundingPolygon;
     }
 
@@ -249,8 +251,11 @@ public class BoundingPolygonView extends Polygon implements
      */
     @Override
     public BoundingShapeData toBoundingShapeData() {
-        return new BoundingPolygonData(boundingShapeViewData.getObjectCategory(),
-                getRelativePointsInImageView(), boundingShapeViewData.getTags());
+        final BoundingPolygonData boundingPolygonData = new BoundingPolygonData(
+                boundingShapeViewData.getObjectCategory(), getRelativePointsInImageView(),
+                new ArrayList<>(boundingShapeViewData.getTags()));
+        boundingPolygonData.setScore(boundingShapeViewData.getScore());
+        return boundingPolygonData;
     }
 
     @Override
@@ -388,6 +393,8 @@ public class BoundingPolygonView extends Polygon implements
                 setConstructing(false);
                 setEditing(false);
             }
+
+            updateVertexHandlesAttachment();
         });
 
         editing.addListener((observable, oldValue, newValue) -> {
@@ -395,6 +402,8 @@ public class BoundingPolygonView extends Polygon implements
                 vertexHandles.forEach(vertexHandle -> vertexHandle.setEditing(false));
                 editingIndices.clear();
             }
+
+            updateVertexHandlesAttachment();
         });
 
         constructing.addListener((observable, oldValue, newValue) -> {
@@ -588,11 +597,28 @@ public class BoundingPolygonView extends Polygon implements
                 }
             }
 
-            boundingShapeViewData.getNodeGroup().getChildren().addAll(c.getAddedSubList());
+            if(needsVertexHandles()) {
+                boundingShapeViewData.getNodeGroup().getChildren().addAll(c.getAddedSubList());
+            }
+
             updateOutlineBox();
         }
     }
 
+    private boolean needsVertexHandles() {
+        return isSelected() || isEditing();
+    }
+
+    private void updateVertexHandlesAttachment() {
+        final ObservableList<Node> nodes = boundingShapeViewData.getNodeGroup().getChildren();
+
+        if(!needsVertexHandles()) {
+            nodes.remove(1, nodes.size());
+        } else if(nodes.size() == 1) {
+            nodes.addAll(vertexHandles);
+        }
+    }
+
     private void handleMousePressed(MouseEvent event) {
         if(!event.isShortcutDown()) {
             boundingShapeViewData.getToggleGroup().selectToggle(this);
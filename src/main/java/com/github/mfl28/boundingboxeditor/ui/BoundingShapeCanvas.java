@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.ui;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.StrokeLineJoin;
+
+import java.util.*;
+
+/**
+ * A layer which draws bounding-shapes onto a single {@link Canvas} in one pass instead of representing
+ * each of them by nodes in the scene-graph. The canvas only covers the currently visible region of the
+ * image. Changes of the drawn shapes invalidate the canvas, which is then redrawn at most once per pulse.
+ *
+ * @see EditorImagePaneView
+ */
+class BoundingShapeCanvas extends Canvas {
+    // Matches the stroke-width of bounding-shapes defined in the stylesheet.
+    private static final double STROKE_WIDTH = 3;
+    private static final double HIGHLIGHTED_FILL_OPACITY = 0.3;
+    // Vertices closer than this to the previously drawn vertex do not visibly change the outline.
+    private static final double POLYGON_MIN_VERTEX_DISTANCE = 1.0;
+    private static final Bounds EMPTY_REGION = new BoundingBox(0, 0, 0, 0);
+
+    private final Set<BoundingShapeViewable> drawnShapes = new LinkedHashSet<>();
+    private final InvalidationListener shapeInvalidationListener = observable -> invalidate();
+    private Bounds region = EMPTY_REGION;
+    private boolean valid = true;
+
+    BoundingShapeCanvas() {
+        setManaged(false);
+        setMouseTransparent(true);
+    }
+
+    /**
+     * Returns true if the provided shape can be drawn by the canvas.
+     *
+     * @param boundingShape the shape
+     * @return true if the shape can be drawn, false if it has to be represented by nodes
+     */
+    static boolean canDraw(BoundingShapeViewable boundingShape) {
+        return boundingShape instanceof BoundingBoxView
+                || (boundingShape instanceof BoundingPolygonView boundingPolygon && !boundingPolygon.isConstructing());
+    }
+
+    void addShape(BoundingShapeViewable boundingShape) {
+        if(drawnShapes.add(boundingShape)) {
+            final Shape baseShape = boundingShape.getViewData().getBaseShape();
+            baseShape.boundsInLocalProperty().addListener(shapeInvalidationListener);
+            baseShape.strokeProperty().addListener(shapeInvalidationListener);
+            baseShape.visibleProperty().addListener(shapeInvalidationListener);
+            boundingShape.getViewData().highlightedProperty().addListener(shapeInvalidationListener);
+            invalidate();
+        }
+    }
+
+    void removeShape(BoundingShapeViewable boundingShape) {
+        if(drawnShapes.remove(boundingShape)) {
+            final Shape baseShape = boundingShape.getViewData().getBaseShape();
+            baseShape.boundsInLocalProperty().removeListener(shapeInvalidationListener);
+            baseShape.strokeProperty().removeListener(shapeInvalidationListener);
+            baseShape.visibleProperty().removeListener(shapeInvalidationListener);
+            boundingShape.getViewData().highlightedProperty().removeListener(shapeInvalidationListener);
+            invalidate();
+        }
+    }
+
+    /**
+     * Removes all shapes from the canvas and clears it.
+     *
+     * @return the previously drawn shapes
+     */
+    List<BoundingShapeViewable> removeAllShapes() {
+        final List<BoundingShapeViewable> removedShapes = List.copyOf(drawnShapes);
+        removedShapes.forEach(this::removeShape);
+        redrawIfInvalid(EMPTY_REGION);
+        return removedShapes;
+    }
+
+    boolean isDrawn(BoundingShapeViewable boundingShape) {
+        return drawnShapes.contains(boundingShape);
+    }
+
+    int getNrDrawnShapes() {
+        return drawnShapes.size();
+    }
+
+    /**
+     * Returns the top-most drawn shape containing the provided point. As in the scene-graph, smaller shapes
+     * lie on top of larger ones.
+     *
+     * @param x the x-coordinate of the point in the coordinate system of the shapes
+     * @param y the y-coordinate of the point in the coordinate system of the shapes
+     * @return the shape or null if no drawn shape contains the point
+     */
+    BoundingShapeViewable pickShape(double x, double y) {
+        BoundingShapeViewable pickedShape = null;
+
+        for(BoundingShapeViewable boundingShape : drawnShapes) {
+            final Shape baseShape = boundingShape.getViewData().getBaseShape();
+
+            if(baseShape.isVisible() && !baseShape.isMouseTransparent()
+                    && baseShape.getBoundsInLocal().contains(x, y) && baseShape.contains(x, y)
+                    && (pickedShape == null || boundingShape.getViewData().getNodeGroup().getViewOrder()
+                    < pickedShape.getViewData().getNodeGroup().getViewOrder())) {
+                pickedShape = boundingShape;
+            }
+        }
+
+        return pickedShape;
+    }
+
+    /**
+     * Marks the canvas as invalid and requests a pulse in which it is redrawn.
+     */
+    void invalidate() {
+        if(valid) {
+            valid = false;
+            Platform.requestNextPulse();
+        }
+    }
+
+    /**
+     * Redraws the canvas if it is invalid or the visible region changed.
+     *
+     * @param visibleRegion the currently visible region in the coordinate system of the shapes
+     */
+    void redrawIfInvalid(Bounds visibleRegion) {
+        if(valid && region.equals(visibleRegion)) {
+            return;
+        }
+
+        region = visibleRegion;
+        valid = true;
+
+        setLayoutX(region.getMinX());
+        setLayoutY(region.getMinY());
+        setWidth(Math.ceil(region.getWidth()));
+        setHeight(Math.ceil(region.getHeight()));
+
+        final GraphicsContext graphicsContext = getGraphicsContext2D();
+        graphicsContext.clearRect(0, 0, getWidth(), getHeight());
+
+        if(region.isEmpty()) {
+            return;
+        }
+
+        // Shapes whose stroke reaches into the region are drawn as well.
+        final Bounds cullingRegion = new BoundingBox(region.getMinX() - STROKE_WIDTH, region.getMinY() - STROKE_WIDTH,
+                                                     region.getWidth() + 2 * STROKE_WIDTH,
+                                                     region.getHeight() + 2 * STROKE_WIDTH);
+        graphicsContext.setLineWidth(STROKE_WIDTH);
+
+        for(BoundingShapeViewable boundingShape : drawnShapes) {
+            final Shape baseShape = boundingShape.getViewData().getBaseShape();
+
+            if(baseShape.isVisible() && baseShape.getBoundsInLocal().intersects(cullingRegion)) {
+                drawShape(graphicsContext, boundingShape);
+            }
+        }
+    }
+
+    private void drawShape(GraphicsContext graphicsContext, BoundingShapeViewable boundingShape) {
+        final Paint stroke = boundingShape.getViewData().getBaseShape().getStroke();
+        final Paint fill = boundingShape.getViewData().highlightedProperty().get() && stroke instanceof Color color ?
+                Color.color(color.getRed(), color.getGreen(), color.getBlue(), HIGHLIGHTED_FILL_OPACITY) : null;
+
+        graphicsContext.setStroke(stroke);
+        graphicsContext.setFill(fill);
+
+        if(boundingShape instanceof BoundingBoxView boundingBox) {
+            final double x = boundingBox.getX() - region.getMinX();
+            final double y = boundingBox.getY() - region.getMinY();
+
+            if(fill != null) {
+                graphicsContext.fillRect(x, y, boundingBox.getWidth(), boundingBox.getHeight());
+            }
+
+            graphicsContext.setLineJoin(StrokeLineJoin.MITER);
+            graphicsContext.strokeRect(x, y, boundingBox.getWidth(), boundingBox.getHeight());
+        } else if(boundingShape instanceof BoundingPolygonView boundingPolygon) {
+            final List<Double> points = boundingPolygon.getPoints();
+            final double[] xPoints = new double[points.size() / 2];
+            final double[] yPoints = new double[points.size() / 2];
+            int nrPoints = 0;
+
+            // Outlines of polygons which are small on screen are simplified by skipping sub-pixel vertices.
+            for(int i = 0; i < points.size() - 1; i += 2) {
+                final double x = points.get(i) - region.getMinX();
+                final double y = points.get(i + 1) - region.getMinY();
+
+                if(nrPoints == 0 || Math.abs(x - xPoints[nrPoints - 1]) >= POLYGON_MIN_VERTEX_DISTANCE
+                        || Math.abs(y - yPoints[nrPoints - 1]) >= POLYGON_MIN_VERTEX_DISTANCE) {
+                    xPoints[nrPoints] = x;
+                    yPoints[nrPoints] = y;
+                    ++nrPoints;
+                }
+            }
+
+            if(fill != null) {
+                graphicsContext.fillPolygon(xPoints, yPoints, nrPoints);
+            }
+
+            graphicsContext.setLineJoin(StrokeLineJoin.ROUND);
+            graphicsContext.strokePolygon(xPoints, yPoints, nrPoints);
+        }
+    }
+}
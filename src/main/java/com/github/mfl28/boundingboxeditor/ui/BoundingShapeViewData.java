@@ -43,6 +43,7 @@ public class BoundingShapeViewData {
     private final Shape baseShape;
     private final ObjectProperty<ObjectCategory> objectCategory = new SimpleObjectProperty<>();
     private String previousObjectCategoryName;
+    private Double score;
     private BoundingShapeTreeItem treeItem;
 
     public BoundingShapeViewData(Shape shape, ObjectCategory objectCategory) {
@@ -156,6 +157,19 @@ public class BoundingShapeViewData {
         return tags;
     }
 
+    /**
+     * Returns the confidence score of the predicted bounding-shape.
+     *
+     * @return the score or null if the bounding-shape was not predicted
+     */
+    Double getScore() {
+        return score;
+    }
+
+    void setScore(Double score) {
+        this.score = score;
+    }
+
     /**
      * Returns the associated {@link TreeItem} object.
      *
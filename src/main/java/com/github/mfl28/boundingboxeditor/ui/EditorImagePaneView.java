@@ -21,15 +21,18 @@ package com.github.mfl28.boundingboxeditor.ui;
 import com.github.mfl28.boundingboxeditor.controller.Controller;
 import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
 import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import javafx.application.Platform;
 import javafx.beans.Observable;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.geometry.Dimension2D;
 import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.ToggleGroup;
@@ -40,7 +43,11 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * A UI-element responsible for displaying the currently selected image on which the
@@ -59,25 +66,37 @@ public class EditorImagePaneView extends ScrollPane implements View {
     private static final int MAXIMUM_IMAGE_HEIGHT = 3072;
     private static final double ZOOM_SCALE_DELTA = 0.05;
     private static final String BOUNDING_SHAPE_SCENE_GROUP_ID = "bounding-shape-scene-group";
+    // Below this number of shapes representing each shape by nodes is fast enough.
+    private static final int BATCH_RENDERING_MIN_SHAPE_COUNT = 500;
+    // Keeps the handles of shapes just outside the visible region attached.
+    private static final double CULLING_MARGIN = 10;
 
     private final ImageView imageView = new ImageView();
     private final SimpleBooleanProperty maximizeImageView = new SimpleBooleanProperty(true);
     private final ColorAdjust colorAdjust = new ColorAdjust();
 
     private final Group boundingShapeSceneGroup = new Group();
+    private final BoundingShapeCanvas boundingShapeCanvas = new BoundingShapeCanvas();
     private final ToggleGroup boundingShapeSelectionGroup = new ToggleGroup();
     private final ObservableList<BoundingShapeViewable> currentBoundingShapes = FXCollections.observableArrayList(
             item -> new Observable[]{item.getViewData().objectCategoryProperty()});
     private final ObjectProperty<ObjectCategory> selectedCategory = new SimpleObjectProperty<>(null);
     private final DoubleProperty simplifyRelativeDistanceTolerance = new SimpleDoubleProperty(0.0);
     private final BooleanProperty autoSimplifyPolygons = new SimpleBooleanProperty(true);
+    private final BooleanProperty batchRendering = new SimpleBooleanProperty(true);
     private final ProgressIndicator imageLoadingProgressIndicator = new ProgressIndicator();
-    private final StackPane contentPane = new StackPane(imageView, boundingShapeSceneGroup,
+    private final StackPane contentPane = new StackPane(imageView, boundingShapeCanvas, boundingShapeSceneGroup,
             imageLoadingProgressIndicator);
+    private final Set<BoundingShapeViewable> culledBoundingShapes = new HashSet<>();
+    private final Runnable visibleRegionPulseListener = this::updateVisibleRegion;
     private final ObjectProperty<DrawingMode> drawingMode = new SimpleObjectProperty<>(DrawingMode.BOX);
     private String currentImageUrl = null;
 
     private BoundingShapeDrawer boundingShapeDrawer = null;
+    private boolean batchRenderingActive = false;
+    private int batchRenderingMinShapeCount = BATCH_RENDERING_MIN_SHAPE_COUNT;
+    private BoundingShapeViewable hoveredBoundingShape = null;
+    private Bounds cullingRegion = null;
 
     /**
      * Creates a new image-pane UI-element responsible for displaying the currently selected image on which the
@@ -118,6 +137,10 @@ public class EditorImagePaneView extends ScrollPane implements View {
         return autoSimplifyPolygons;
     }
 
+    public BooleanProperty batchRenderingProperty() {
+        return batchRendering;
+    }
+
     public void initializeBoundingShapeDrawing(MouseEvent event) {
         if (isCategorySelected()) {
             boundingShapeDrawer = switch (drawingMode.get()) {
@@ -251,9 +274,26 @@ public class EditorImagePaneView extends ScrollPane implements View {
      * @param boundingShapes the objects to add
      */
     void addBoundingShapesToSceneGroup(Collection<? extends BoundingShapeViewable> boundingShapes) {
-        boundingShapeSceneGroup.getChildren().addAll(boundingShapes.stream()
-                .map(viewable -> viewable.getViewData()
-                        .getNodeGroup()).toList());
+        updateBatchRenderingMode();
+
+        if(batchRenderingActive) {
+            final List<Node> nodeGroups = boundingShapes.stream()
+                    .filter(viewable -> !shouldBeDrawnOnCanvas(viewable))
+                    .map(viewable -> (Node) viewable.getViewData().getNodeGroup())
+                    .toList();
+
+            boundingShapes.stream()
+                    .filter(this::shouldBeDrawnOnCanvas)
+                    .forEach(boundingShapeCanvas::addShape);
+
+            boundingShapeSceneGroup.getChildren().addAll(nodeGroups);
+        } else {
+            boundingShapeSceneGroup.getChildren().addAll(boundingShapes.stream()
+                    .map(viewable -> viewable.getViewData()
+                            .getNodeGroup()).toList());
+        }
+
+        invalidateViewportCulling();
     }
 
     /**
@@ -263,9 +303,63 @@ public class EditorImagePaneView extends ScrollPane implements View {
      * @param boundingShapes the objects to remove
      */
     void removeBoundingShapesFromSceneGroup(Collection<? extends BoundingShapeViewable> boundingShapes) {
-        boundingShapeSceneGroup.getChildren().removeAll(boundingShapes.stream()
-                .map(viewable -> viewable.getViewData()
-                        .getNodeGroup()).toList());
+        final Set<Node> nodeGroups = new HashSet<>();
+
+        for(BoundingShapeViewable boundingShape : boundingShapes) {
+            if(boundingShapeCanvas.isDrawn(boundingShape)) {
+                boundingShapeCanvas.removeShape(boundingShape);
+            } else if(!culledBoundingShapes.remove(boundingShape)) {
+                nodeGroups.add(boundingShape.getViewData().getNodeGroup());
+            }
+
+            if(boundingShape == hoveredBoundingShape) {
+                hoveredBoundingShape = null;
+            }
+        }
+
+        boundingShapeSceneGroup.getChildren().removeAll(nodeGroups);
+        updateBatchRenderingMode();
+    }
+
+    /**
+     * Returns true if non-selected bounding-shapes are currently drawn onto a single canvas
+     * instead of being represented by nodes in the scene-graph.
+     *
+     * @return true if batch-rendering is active, false otherwise
+     */
+    boolean isBatchRenderingActive() {
+        return batchRenderingActive;
+    }
+
+    /**
+     * Sets the number of current bounding-shapes from which on batch-rendering is activated
+     * (if it is enabled).
+     *
+     * @param batchRenderingMinShapeCount the minimum number of shapes
+     */
+    void setBatchRenderingMinShapeCount(int batchRenderingMinShapeCount) {
+        this.batchRenderingMinShapeCount = batchRenderingMinShapeCount;
+        updateBatchRenderingMode();
+    }
+
+    /**
+     * Returns true if the provided shape is represented by nodes but currently detached from the
+     * scene-graph because it lies outside the visible region.
+     *
+     * @param boundingShape the shape
+     * @return true if the shape is culled, false otherwise
+     */
+    boolean isCulled(BoundingShapeViewable boundingShape) {
+        return culledBoundingShapes.contains(boundingShape);
+    }
+
+    /**
+     * Returns the canvas onto which non-selected bounding-shapes are drawn while batch-rendering is active.
+     *
+     * @return the canvas
+     */
+    BoundingShapeCanvas getBoundingShapeCanvas() {
+        return boundingShapeCanvas;
     }
 
     /**
@@ -388,6 +482,232 @@ public class EditorImagePaneView extends ScrollPane implements View {
 
         setUpImageViewListeners();
         setUpContentPaneListeners();
+        setUpBatchRenderingListeners();
+    }
+
+    private void setUpBatchRenderingListeners() {
+        batchRendering.addListener((observable, oldValue, newValue) -> updateBatchRenderingMode());
+
+        boundingShapeSelectionGroup.selectedToggleProperty().addListener((observable, oldValue, newValue) -> {
+            if(newValue instanceof BoundingShapeViewable newBoundingShape) {
+                attachToSceneGroup(newBoundingShape);
+            }
+
+            if(oldValue instanceof BoundingShapeViewable oldBoundingShape) {
+                if(batchRenderingActive && oldBoundingShape != hoveredBoundingShape) {
+                    demoteToCanvas(oldBoundingShape);
+                }
+
+                // The previously selected shape might have been moved out of the visible region.
+                invalidateViewportCulling();
+            }
+        });
+
+        // Shapes drawn onto the canvas do not receive mouse events, therefore the hovered shape is
+        // temporarily represented by nodes, so that it can be interacted with as usual.
+        contentPane.addEventFilter(MouseEvent.MOUSE_MOVED, event -> {
+            if(batchRenderingActive && !boundingShapeSceneGroup.isMouseTransparent()) {
+                updateHoveredBoundingShape(event.getX(), event.getY());
+            }
+        });
+
+        contentPane.addEventFilter(MouseEvent.MOUSE_EXITED_TARGET, event -> {
+            if(event.getTarget() == contentPane) {
+                clearHoveredBoundingShape();
+            }
+        });
+
+        imageView.boundsInParentProperty().addListener((observable, oldValue, newValue) ->
+                invalidateViewportCulling());
+
+        sceneProperty().addListener((observable, oldValue, newValue) -> {
+            if(oldValue != null) {
+                oldValue.removePostLayoutPulseListener(visibleRegionPulseListener);
+            }
+
+            if(newValue != null) {
+                newValue.addPostLayoutPulseListener(visibleRegionPulseListener);
+            }
+        });
+    }
+
+    private void updateBatchRenderingMode() {
+        final boolean shouldBeActive = batchRendering.get()
+                && currentBoundingShapes.size() >= batchRenderingMinShapeCount;
+
+        if(shouldBeActive && !batchRenderingActive) {
+            final Set<Node> nodeGroups = new HashSet<>();
+
+            for(BoundingShapeViewable boundingShape : currentBoundingShapes) {
+                if(!shouldBeDrawnOnCanvas(boundingShape)) {
+                    continue;
+                }
+
+                if(culledBoundingShapes.remove(boundingShape)) {
+                    boundingShapeCanvas.addShape(boundingShape);
+                } else if(boundingShape.getViewData().getNodeGroup().getParent() == boundingShapeSceneGroup) {
+                    nodeGroups.add(boundingShape.getViewData().getNodeGroup());
+                    boundingShapeCanvas.addShape(boundingShape);
+                }
+            }
+
+            boundingShapeSceneGroup.getChildren().removeAll(nodeGroups);
+            batchRenderingActive = true;
+        } else if(!shouldBeActive && batchRenderingActive) {
+            batchRenderingActive = false;
+            hoveredBoundingShape = null;
+
+            boundingShapeSceneGroup.getChildren().addAll(boundingShapeCanvas.removeAllShapes().stream()
+                    .map(viewable -> viewable.getViewData()
+                            .getNodeGroup()).toList());
+            invalidateViewportCulling();
+        }
+    }
+
+    private boolean shouldBeDrawnOnCanvas(BoundingShapeViewable boundingShape) {
+        return BoundingShapeCanvas.canDraw(boundingShape) && !boundingShape.getViewData().isSelected()
+                && boundingShape != hoveredBoundingShape;
+    }
+
+    private void attachToSceneGroup(BoundingShapeViewable boundingShape) {
+        if(boundingShapeCanvas.isDrawn(boundingShape)) {
+            boundingShapeCanvas.removeShape(boundingShape);
+            boundingShapeSceneGroup.getChildren().add(boundingShape.getViewData().getNodeGroup());
+        } else if(culledBoundingShapes.remove(boundingShape)) {
+            boundingShapeSceneGroup.getChildren().add(boundingShape.getViewData().getNodeGroup());
+        }
+    }
+
+    private void demoteToCanvas(BoundingShapeViewable boundingShape) {
+        if(!shouldBeDrawnOnCanvas(boundingShape)) {
+            return;
+        }
+
+        final Group nodeGroup = boundingShape.getViewData().getNodeGroup();
+
+        if(culledBoundingShapes.remove(boundingShape)) {
+            boundingShapeCanvas.addShape(boundingShape);
+        } else if(nodeGroup.getParent() == boundingShapeSceneGroup) {
+            boundingShape.getViewData().setHighlighted(false);
+            boundingShapeSceneGroup.getChildren().remove(nodeGroup);
+            boundingShapeCanvas.addShape(boundingShape);
+        }
+    }
+
+    private void updateHoveredBoundingShape(double x, double y) {
+        if(hoveredBoundingShape != null
+                && hoveredBoundingShape.getViewData().getNodeGroup().getBoundsInParent().contains(x, y)) {
+            return;
+        }
+
+        clearHoveredBoundingShape();
+
+        final BoundingShapeViewable pickedBoundingShape = boundingShapeCanvas.pickShape(x, y);
+
+        if(pickedBoundingShape != null) {
+            hoveredBoundingShape = pickedBoundingShape;
+            attachToSceneGroup(pickedBoundingShape);
+            pickedBoundingShape.getViewData().setHighlighted(true);
+        }
+    }
+
+    private void clearHoveredBoundingShape() {
+        if(hoveredBoundingShape != null) {
+            final BoundingShapeViewable previouslyHoveredBoundingShape = hoveredBoundingShape;
+            hoveredBoundingShape = null;
+            demoteToCanvas(previouslyHoveredBoundingShape);
+        }
+    }
+
+    private void invalidateViewportCulling() {
+        if(cullingRegion != null) {
+            cullingRegion = null;
+            Platform.requestNextPulse();
+        }
+    }
+
+    /**
+     * Called once per pulse after layout. Culls the shape nodes and redraws the canvas if the visible
+     * region or the shapes changed since the last pulse.
+     */
+    private void updateVisibleRegion() {
+        final Bounds visibleRegion = getVisibleImageRegion();
+
+        if(!visibleRegion.equals(cullingRegion)) {
+            cullingRegion = visibleRegion;
+            cullBoundingShapeNodes(visibleRegion);
+        }
+
+        if(batchRenderingActive) {
+            boundingShapeCanvas.redrawIfInvalid(visibleRegion);
+        }
+    }
+
+    /**
+     * Detaches the node groups of shapes which lie entirely outside the visible region from the
+     * scene-graph and reattaches the ones which came into view.
+     *
+     * @param visibleRegion the visible region
+     */
+    private void cullBoundingShapeNodes(Bounds visibleRegion) {
+        // Before the image is laid out every shape would be culled.
+        if(visibleRegion.isEmpty() && culledBoundingShapes.isEmpty()) {
+            return;
+        }
+
+        final Bounds attachRegion = new BoundingBox(visibleRegion.getMinX() - CULLING_MARGIN,
+                visibleRegion.getMinY() - CULLING_MARGIN,
+                visibleRegion.getWidth() + 2 * CULLING_MARGIN,
+                visibleRegion.getHeight() + 2 * CULLING_MARGIN);
+        final Set<Node> detachedNodeGroups = new HashSet<>();
+        final List<Node> attachedNodeGroups = new ArrayList<>();
+
+        for(BoundingShapeViewable boundingShape : currentBoundingShapes) {
+            if(boundingShapeCanvas.isDrawn(boundingShape)) {
+                continue;
+            }
+
+            final boolean inView = visibleRegion.isEmpty() || isAlwaysAttached(boundingShape)
+                    || boundingShape.getViewData().getBaseShape().getBoundsInLocal().intersects(attachRegion);
+            final Group nodeGroup = boundingShape.getViewData().getNodeGroup();
+
+            if(inView && culledBoundingShapes.remove(boundingShape)) {
+                attachedNodeGroups.add(nodeGroup);
+            } else if(!inView && nodeGroup.getParent() == boundingShapeSceneGroup) {
+                culledBoundingShapes.add(boundingShape);
+                detachedNodeGroups.add(nodeGroup);
+            }
+        }
+
+        boundingShapeSceneGroup.getChildren().removeAll(detachedNodeGroups);
+        boundingShapeSceneGroup.getChildren().addAll(attachedNodeGroups);
+    }
+
+    private boolean isAlwaysAttached(BoundingShapeViewable boundingShape) {
+        return boundingShape.getViewData().isSelected() || boundingShape == hoveredBoundingShape
+                || (boundingShape instanceof BoundingPolygonView boundingPolygon && boundingPolygon.isConstructing());
+    }
+
+    /**
+     * Returns the part of the image-view which is currently visible in the viewport, in the
+     * coordinate system of the bounding-shapes.
+     *
+     * @return the visible region
+     */
+    Bounds getVisibleImageRegion() {
+        final Bounds contentPaneBounds = contentPane.getLayoutBounds();
+        final Bounds viewportBounds = getViewportBounds();
+        final Bounds imageViewBounds = imageView.getBoundsInParent();
+
+        final double offsetX = getHvalue() * Math.max(0, contentPaneBounds.getWidth() - viewportBounds.getWidth());
+        final double offsetY = getVvalue() * Math.max(0, contentPaneBounds.getHeight() - viewportBounds.getHeight());
+
+        final double minX = Math.max(offsetX, imageViewBounds.getMinX());
+        final double minY = Math.max(offsetY, imageViewBounds.getMinY());
+        final double maxX = Math.min(offsetX + viewportBounds.getWidth(), imageViewBounds.getMaxX());
+        final double maxY = Math.min(offsetY + viewportBounds.getHeight(), imageViewBounds.getMaxY());
+
+        return new BoundingBox(minX, minY, Math.max(0, maxX - minX), Math.max(0, maxY - minY));
     }
 
     private void setUpImageViewListeners() {
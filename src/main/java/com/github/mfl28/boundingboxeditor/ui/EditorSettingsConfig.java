@@ -28,6 +28,8 @@ public class EditorSettingsConfig {
 
     private final DoubleProperty simplifyRelativeDistanceTolerance = new SimpleDoubleProperty(0.1);
 
+    private final BooleanProperty batchRendering = new SimpleBooleanProperty(true);
+
 
     public double getSimplifyRelativeDistanceTolerance() {
         return simplifyRelativeDistanceTolerance.get();
@@ -52,4 +54,16 @@ public class EditorSettingsConfig {
     public BooleanProperty autoSimplifyPolygonsProperty() {
         return autoSimplifyPolygons;
     }
+
+    public boolean isBatchRendering() {
+        return batchRendering.get();
+    }
+
+    public void setBatchRendering(boolean batchRendering) {
+        this.batchRendering.set(batchRendering);
+    }
+
+    public BooleanProperty batchRenderingProperty() {
+        return batchRendering;
+    }
 }
\ No newline at end of file
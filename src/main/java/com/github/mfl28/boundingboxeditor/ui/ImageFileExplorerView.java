@@ -31,7 +31,11 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * UI-element that contains the controls to view, select and search image-files.
@@ -49,6 +53,7 @@ public class ImageFileExplorerView extends VBox implements View {
 
     private final TextField imageFileSearchField = new TextField();
     private final ImageFileListView imageFileListView = new ImageFileListView();
+    private ObservableList<ImageFileListView.FileInfo> imageInfoItems = FXCollections.observableArrayList();
 
     /**
      * Creates a new image-file-explorer UI-element.
@@ -70,15 +75,36 @@ public class ImageFileExplorerView extends VBox implements View {
      * @param imageMetaData the list of image-meta data elements
      */
     public void setImageMetaData(List<ImageMetaData> imageMetaData) {
-        ObservableList<ImageFileListView.FileInfo> imageInfoItems = FXCollections.unmodifiableObservableList(
-                FXCollections.observableList(imageMetaData.stream()
-                                                       .map(imageMetaDataElement -> new ImageFileListView.FileInfo(imageMetaDataElement.getFileUrl(),
-                                                               imageMetaDataElement.getFileName(),
-                                                               imageMetaDataElement.getOrientation()))
-                                                       .toList())
-        );
-
-        imageFileListView.setItems(imageInfoItems);
+        imageInfoItems = FXCollections.observableArrayList(imageMetaData.stream()
+                                                                       .map(ImageFileExplorerView::createFileInfo)
+                                                                       .toList());
+
+        imageFileListView.setItems(FXCollections.unmodifiableObservableList(imageInfoItems));
+    }
+
+    /**
+     * Updates the displayed images in place after some image-files were added, removed or modified.
+     * The items and cached images of unchanged image-files are kept.
+     *
+     * @param imageMetaData    the list of image-meta data elements of all images to display
+     * @param changedFileNames the names of the removed and modified image-files
+     */
+    public void updateImageMetaData(List<ImageMetaData> imageMetaData, Set<String> changedFileNames) {
+        final Map<String, ImageFileListView.FileInfo> fileNameToFileInfo = new HashMap<>();
+
+        for(ImageFileListView.FileInfo fileInfo : imageInfoItems) {
+            if(changedFileNames.contains(fileInfo.getFileName())) {
+                imageFileListView.invalidateImage(fileInfo.getFileUrl());
+            } else {
+                fileNameToFileInfo.put(fileInfo.getFileName(), fileInfo);
+            }
+        }
+
+        imageInfoItems.setAll(imageMetaData.stream()
+                                           .map(imageMetaDataElement -> Objects.requireNonNullElseGet(
+                                                   fileNameToFileInfo.get(imageMetaDataElement.getFileName()),
+                                                   () -> createFileInfo(imageMetaDataElement)))
+                                           .toList());
     }
 
     /**
@@ -99,6 +125,11 @@ public class ImageFileExplorerView extends VBox implements View {
         return imageFileSearchField;
     }
 
+    private static ImageFileListView.FileInfo createFileInfo(ImageMetaData imageMetaData) {
+        return new ImageFileListView.FileInfo(imageMetaData.getFileUrl(), imageMetaData.getFileName(),
+                                              imageMetaData.getOrientation());
+    }
+
     private HBox createImageFileSearchBox() {
         HBox.setHgrow(imageFileSearchField, Priority.ALWAYS);
 
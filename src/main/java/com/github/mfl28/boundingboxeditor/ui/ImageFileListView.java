@@ -77,6 +77,15 @@ public class ImageFileListView extends ListView<ImageFileListView.FileInfo> impl
         setFixedCellSize(0);
     }
 
+    /**
+     * Removes the cached image of an image-file, so that it is reloaded the next time it is displayed.
+     *
+     * @param fileUrl the url of the image-file
+     */
+    void invalidateImage(String fileUrl) {
+        imageCache.invalidate(fileUrl);
+    }
+
     private void setUpInternalListeners() {
         itemsProperty().addListener((observable, oldValue, newValue) -> {
             if(!Objects.equals(newValue, oldValue)) {
@@ -155,6 +164,7 @@ public class ImageFileListView extends ListView<ImageFileListView.FileInfo> impl
                 PseudoClass.getPseudoClass(HAS_ASSIGNED_BOUNDING_BOXES_CLASS_NAME);
         private final ImageView imageView = new ImageView();
         private String currentImageUrl = null;
+        private FileInfo currentItem = null;
 
         private final BooleanProperty hasAssignedBoundingBoxes = new BooleanPropertyBase(true) {
             @Override
@@ -208,12 +218,14 @@ public class ImageFileListView extends ListView<ImageFileListView.FileInfo> impl
                 }
                 // If this cell's ImageView does not contain an image or contains an image different to the
                 // image corresponding to this update's file, then update the image (i.e. set the image and start background-loading).
-                if(currentImage == null || !currentImageUrl.equals(fileURI)) {
+                // Modified image-files are represented by new items with the same file-url.
+                if(currentImage == null || !currentImageUrl.equals(fileURI) || item != currentItem) {
                     setGraphic(imageView);
                     updateCellImage(item, imageCache.get(fileURI));
                 }
                 setText(item.getFileName());
                 currentImageUrl = item.getFileUrl();
+                currentItem = item;
                 hasAssignedBoundingBoxes.bind(item.hasAssignedBoundingBoxesProperty());
             }
         }
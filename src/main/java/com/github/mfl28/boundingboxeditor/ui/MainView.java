@@ -635,6 +635,8 @@ public class MainView extends BorderPane implements View {
                 .bind(editorSettingsConfig.autoSimplifyPolygonsProperty());
         workspaceSplitPane.getEditor().getEditorImagePane().simplifyRelativeDistanceToleranceProperty()
                 .bind(editorSettingsConfig.simplifyRelativeDistanceToleranceProperty());
+        workspaceSplitPane.getEditor().getEditorImagePane().batchRenderingProperty()
+                .bind(editorSettingsConfig.batchRenderingProperty());
 
         setOnDragOver(event -> {
             if(event.getDragboard().hasFiles()
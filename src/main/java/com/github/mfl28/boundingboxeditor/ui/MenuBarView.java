@@ -24,6 +24,10 @@ import com.github.mfl28.boundingboxeditor.model.io.ImageAnnotationSaveStrategy;
 import javafx.scene.control.*;
 import javafx.scene.layout.Region;
 
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Represents the main menu-bar UI-element of the application.
  *
@@ -33,6 +37,10 @@ import javafx.scene.layout.Region;
 class MenuBarView extends MenuBar implements View {
     private static final String FILE_MENU_TEXT = "_File";
     private static final String VIEW_MENU_TEXT = "_View";
+    private static final String PREDICTION_MENU_TEXT = "_Prediction";
+    private static final String PREDICT_ALL_IMAGES_TEXT = "Predict _All Images";
+    private static final String PREDICT_UNANNOTATED_IMAGES_TEXT = "Predict _Unannotated Images";
+    private static final String RESUME_PREDICTION_TEXT = "_Resume Prediction";
     private static final String OPEN_FOLDER_TEXT = "_Open Folder...";
     private static final String SAVE_TEXT = "_Export Annotations";
     private static final String MAXIMIZE_IMAGES_TEXT = "_Maximize Images";
@@ -52,6 +60,16 @@ class MenuBarView extends MenuBar implements View {
     private static final String CSV_FORMAT_EXPORT_TEXT = "CSV format...";
     private static final String JSON_FORMAT_IMPORT_TEXT = "JSON format...";
     private static final String CSV_FORMAT_IMPORT_TEXT = "CSV format...";
+    private static final String COCO_FORMAT_EXPORT_TEXT = "COCO format...";
+    private static final String COCO_FORMAT_IMPORT_TEXT = "COCO format...";
+    private static final String BINARY_PROJECT_FORMAT_EXPORT_TEXT = "Binary project format...";
+    private static final String BINARY_PROJECT_FORMAT_IMPORT_TEXT = "Binary project format...";
+    private static final String JSON_LINES_FORMAT_EXPORT_TEXT = "JSON Lines format...";
+    private static final String JSON_LINES_FORMAT_IMPORT_TEXT = "JSON Lines format...";
+    private static final String ARCHIVE_IMPORT_TEXT = "From archive";
+    private static final String ARCHIVE_EXPORT_TEXT = "To ZIP archive";
+    private static final String SHARDED_EXPORT_TEXT = "As sharded dataset";
+    private static final String BACKGROUND_SAVE_TEXT = "Save in _Background";
     private static final String FILE_MENU_ID = "file-menu";
     private static final String FILE_OPEN_FOLDER_MENU_ITEM_ID = "file-open-folder-menu-item";
     private static final String FILE_EXPORT_ANNOTATIONS_MENU_ID = "file-export-annotations-menu";
@@ -60,13 +78,30 @@ class MenuBarView extends MenuBar implements View {
     private static final String VIEW_MENU_ID = "view-menu";
     private static final String VIEW_MAXIMIZE_IMAGES_MENU_ITEM_ID = "view-maximize-images-menu-item";
     private static final String VIEW_SHOW_IMAGES_PANEL_MENU_ITEM_ID = "view-show-images-panel-menu-item";
+    private static final String PREDICTION_MENU_ID = "prediction-menu";
+    private static final String PREDICT_ALL_IMAGES_MENU_ITEM_ID = "predict-all-images-menu-item";
+    private static final String PREDICT_UNANNOTATED_IMAGES_MENU_ITEM_ID = "predict-unannotated-images-menu-item";
+    private static final String RESUME_PREDICTION_MENU_ITEM_ID = "resume-prediction-menu-item";
     private static final String PVOC_EXPORT_MENU_ITEM_ID = "pvoc-export-menu-item";
     private static final String YOLO_EXPORT_MENU_ITEM_ID = "yolo-export-menu-item";
     private static final String JSON_EXPORT_MENU_ITEM_ID = "json-export-menu-item";
     private static final String CSV_EXPORT_MENU_ITEM_ID = "csv-export-menu-item";
+    private static final String COCO_EXPORT_MENU_ITEM_ID = "coco-export-menu-item";
+    private static final String BINARY_PROJECT_EXPORT_MENU_ITEM_ID = "binary-project-export-menu-item";
+    private static final String JSON_LINES_EXPORT_MENU_ITEM_ID = "json-lines-export-menu-item";
     private static final String PVOC_IMPORT_MENU_ITEM_ID = "pvoc-import-menu-item";
     private static final String YOLO_IMPORT_MENU_ITEM_ID = "yolo-import-menu-item";
     private static final String JSON_IMPORT_MENU_ITEM_ID = "json-import-menu-item";
+    private static final String ARCHIVE_IMPORT_MENU_ID = "archive-import-menu";
+    private static final String ARCHIVE_EXPORT_MENU_ID = "archive-export-menu";
+    private static final String ARCHIVE_EXPORT_MENU_ITEM_ID_SUFFIX = "-archive-export-menu-item";
+    private static final String SHARDED_EXPORT_MENU_ID = "sharded-export-menu";
+    private static final String SHARDED_EXPORT_MENU_ITEM_ID_SUFFIX = "-sharded-export-menu-item";
+    private static final String BACKGROUND_SAVE_MENU_ITEM_ID = "background-save-menu-item";
+    private static final String PVOC_ARCHIVE_IMPORT_MENU_ITEM_ID = "pvoc-archive-import-menu-item";
+    private static final String YOLO_ARCHIVE_IMPORT_MENU_ITEM_ID = "yolo-archive-import-menu-item";
+    private static final String JSON_ARCHIVE_IMPORT_MENU_ITEM_ID = "json-archive-import-menu-item";
+    private static final String JSON_LINES_ARCHIVE_IMPORT_MENU_ITEM_ID = "json-lines-archive-import-menu-item";
     private static final String SETTINGS_TEXT = "Se_ttings";
     private static final String SETTINGS_ICON_ID = "settings-icon";
     private static final String FILE_SETTINGS_MENU_ITEM_ID = "file-settings-menu-item";
@@ -77,6 +112,9 @@ class MenuBarView extends MenuBar implements View {
     private static final String DOCUMENTATION_MENU_ITEM_ID = "documentation-menu-item";
     private static final String ABOUT_MENU_ITEM_ID = "about-menu-item";
     public static final String CSV_IMPORT_MENU_ITEM_ID = "csv-import-menu-item";
+    public static final String COCO_IMPORT_MENU_ITEM_ID = "coco-import-menu-item";
+    public static final String BINARY_PROJECT_IMPORT_MENU_ITEM_ID = "binary-project-import-menu-item";
+    public static final String JSON_LINES_IMPORT_MENU_ITEM_ID = "json-lines-import-menu-item";
 
     private final MenuItem fileOpenFolderItem = new MenuItem(OPEN_FOLDER_TEXT, createIconRegion(OPEN_FOLDER_ICON_ID));
     private final Menu fileExportAnnotationsMenu = new Menu(SAVE_TEXT, createIconRegion(SAVE_ICON_ID));
@@ -84,6 +122,16 @@ class MenuBarView extends MenuBar implements View {
     private final MenuItem yoloExportMenuItem = new MenuItem(YOLO_FORMAT_EXPORT_TEXT);
     private final MenuItem jsonExportMenuItem = new MenuItem(JSON_FORMAT_EXPORT_TEXT);
     private final MenuItem csvExportMenuItem = new MenuItem(CSV_FORMAT_EXPORT_TEXT);
+    private final MenuItem cocoExportMenuItem = new MenuItem(COCO_FORMAT_EXPORT_TEXT);
+    private final MenuItem binaryProjectExportMenuItem = new MenuItem(BINARY_PROJECT_FORMAT_EXPORT_TEXT);
+    private final MenuItem jsonLinesExportMenuItem = new MenuItem(JSON_LINES_FORMAT_EXPORT_TEXT);
+    private final Menu archiveExportMenu = new Menu(ARCHIVE_EXPORT_TEXT);
+    private final Map<ImageAnnotationSaveStrategy.Type, MenuItem> archiveExportMenuItems =
+            createExportFormatMenuItems(ARCHIVE_EXPORT_MENU_ITEM_ID_SUFFIX);
+    private final Menu shardedExportMenu = new Menu(SHARDED_EXPORT_TEXT);
+    private final Map<ImageAnnotationSaveStrategy.Type, MenuItem> shardedExportMenuItems =
+            createExportFormatMenuItems(SHARDED_EXPORT_MENU_ITEM_ID_SUFFIX);
+    private final CheckMenuItem backgroundSaveMenuItem = new CheckMenuItem(BACKGROUND_SAVE_TEXT);
     private final MenuItem settingsMenuItem = new MenuItem(SETTINGS_TEXT, createIconRegion(SETTINGS_ICON_ID));
 
     private final Menu fileImportAnnotationsMenu =
@@ -92,9 +140,20 @@ class MenuBarView extends MenuBar implements View {
     private final MenuItem yoloRImportMenuItem = new MenuItem(YOLO_FORMAT_IMPORT_TEXT);
     private final MenuItem jsonImportMenuItem = new MenuItem(JSON_FORMAT_IMPORT_TEXT);
     private final MenuItem csvImportMenuItem = new MenuItem(CSV_FORMAT_IMPORT_TEXT);
+    private final MenuItem cocoImportMenuItem = new MenuItem(COCO_FORMAT_IMPORT_TEXT);
+    private final MenuItem binaryProjectImportMenuItem = new MenuItem(BINARY_PROJECT_FORMAT_IMPORT_TEXT);
+    private final MenuItem jsonLinesImportMenuItem = new MenuItem(JSON_LINES_FORMAT_IMPORT_TEXT);
+    private final Menu archiveImportMenu = new Menu(ARCHIVE_IMPORT_TEXT);
+    private final MenuItem pvocArchiveImportMenuItem = new MenuItem(PASCAL_VOC_FORMAT_IMPORT_TEXT);
+    private final MenuItem yoloArchiveImportMenuItem = new MenuItem(YOLO_FORMAT_IMPORT_TEXT);
+    private final MenuItem jsonArchiveImportMenuItem = new MenuItem(JSON_FORMAT_IMPORT_TEXT);
+    private final MenuItem jsonLinesArchiveImportMenuItem = new MenuItem(JSON_LINES_FORMAT_IMPORT_TEXT);
     private final MenuItem fileExitItem = new MenuItem(EXIT_TEXT, createIconRegion(EXIT_ICON_ID));
     private final CheckMenuItem viewMaximizeImagesItem = new CheckMenuItem(MAXIMIZE_IMAGES_TEXT);
     private final CheckMenuItem viewShowImagesPanelItem = new CheckMenuItem(SHOW_IMAGE_FILE_EXPLORER_TEXT);
+    private final MenuItem predictAllImagesMenuItem = new MenuItem(PREDICT_ALL_IMAGES_TEXT);
+    private final MenuItem predictUnannotatedImagesMenuItem = new MenuItem(PREDICT_UNANNOTATED_IMAGES_TEXT);
+    private final MenuItem resumePredictionMenuItem = new MenuItem(RESUME_PREDICTION_TEXT);
     private final MenuItem documentationMenuItem = new MenuItem(DOCUMENTATION_TEXT);
     private final MenuItem aboutMenuItem = new MenuItem(ABOUT_TEXT);
 
@@ -102,7 +161,7 @@ class MenuBarView extends MenuBar implements View {
      * Creates a new menu-bar UI-element.
      */
     MenuBarView() {
-        getMenus().addAll(createFileMenu(), createViewMenu(), createHelpMenu());
+        getMenus().addAll(createFileMenu(), createViewMenu(), createPredictionMenu(), createHelpMenu());
         setId(MAIN_MENU_BAR_ID);
         viewShowImagesPanelItem.setSelected(true);
         viewMaximizeImagesItem.setSelected(true);
@@ -111,23 +170,59 @@ class MenuBarView extends MenuBar implements View {
                 pvocExportMenuItem,
                 yoloExportMenuItem,
                 jsonExportMenuItem,
-                csvExportMenuItem);
+                csvExportMenuItem,
+                cocoExportMenuItem,
+                binaryProjectExportMenuItem,
+                jsonLinesExportMenuItem,
+                new SeparatorMenuItem(),
+                archiveExportMenu,
+                shardedExportMenu,
+                new SeparatorMenuItem(),
+                backgroundSaveMenuItem);
+
+        archiveExportMenu.getItems().addAll(archiveExportMenuItems.values());
+        archiveExportMenu.setId(ARCHIVE_EXPORT_MENU_ID);
+        shardedExportMenu.getItems().addAll(shardedExportMenuItems.values());
+        shardedExportMenu.setId(SHARDED_EXPORT_MENU_ID);
+        backgroundSaveMenuItem.setId(BACKGROUND_SAVE_MENU_ITEM_ID);
 
         pvocExportMenuItem.setId(PVOC_EXPORT_MENU_ITEM_ID);
         yoloExportMenuItem.setId(YOLO_EXPORT_MENU_ITEM_ID);
         jsonExportMenuItem.setId(JSON_EXPORT_MENU_ITEM_ID);
         csvExportMenuItem.setId(CSV_EXPORT_MENU_ITEM_ID);
+        cocoExportMenuItem.setId(COCO_EXPORT_MENU_ITEM_ID);
+        binaryProjectExportMenuItem.setId(BINARY_PROJECT_EXPORT_MENU_ITEM_ID);
+        jsonLinesExportMenuItem.setId(JSON_LINES_EXPORT_MENU_ITEM_ID);
 
         fileImportAnnotationsMenu.getItems().addAll(
                 pvocImportMenuItem,
                 yoloRImportMenuItem,
                 jsonImportMenuItem,
-                csvImportMenuItem);
+                csvImportMenuItem,
+                cocoImportMenuItem,
+                binaryProjectImportMenuItem,
+                jsonLinesImportMenuItem,
+                new SeparatorMenuItem(),
+                archiveImportMenu);
+
+        archiveImportMenu.getItems().addAll(
+                pvocArchiveImportMenuItem,
+                yoloArchiveImportMenuItem,
+                jsonArchiveImportMenuItem,
+                jsonLinesArchiveImportMenuItem);
 
         pvocImportMenuItem.setId(PVOC_IMPORT_MENU_ITEM_ID);
         yoloRImportMenuItem.setId(YOLO_IMPORT_MENU_ITEM_ID);
         jsonImportMenuItem.setId(JSON_IMPORT_MENU_ITEM_ID);
         csvImportMenuItem.setId(CSV_IMPORT_MENU_ITEM_ID);
+        cocoImportMenuItem.setId(COCO_IMPORT_MENU_ITEM_ID);
+        binaryProjectImportMenuItem.setId(BINARY_PROJECT_IMPORT_MENU_ITEM_ID);
+        jsonLinesImportMenuItem.setId(JSON_LINES_IMPORT_MENU_ITEM_ID);
+        archiveImportMenu.setId(ARCHIVE_IMPORT_MENU_ID);
+        pvocArchiveImportMenuItem.setId(PVOC_ARCHIVE_IMPORT_MENU_ITEM_ID);
+        yoloArchiveImportMenuItem.setId(YOLO_ARCHIVE_IMPORT_MENU_ITEM_ID);
+        jsonArchiveImportMenuItem.setId(JSON_ARCHIVE_IMPORT_MENU_ITEM_ID);
+        jsonLinesArchiveImportMenuItem.setId(JSON_LINES_ARCHIVE_IMPORT_MENU_ITEM_ID);
     }
 
     @Override
@@ -146,6 +241,15 @@ class MenuBarView extends MenuBar implements View {
         csvExportMenuItem.setOnAction(action ->
                 controller.onRegisterSaveAnnotationsAction(
                         ImageAnnotationSaveStrategy.Type.CSV));
+        cocoExportMenuItem.setOnAction(action ->
+                controller.onRegisterSaveAnnotationsAction(
+                        ImageAnnotationSaveStrategy.Type.COCO));
+        binaryProjectExportMenuItem.setOnAction(action ->
+                controller.onRegisterSaveAnnotationsAction(
+                        ImageAnnotationSaveStrategy.Type.BINARY_PROJECT));
+        jsonLinesExportMenuItem.setOnAction(action ->
+                controller.onRegisterSaveAnnotationsAction(
+                        ImageAnnotationSaveStrategy.Type.JSON_LINES));
         pvocImportMenuItem.setOnAction(action ->
                 controller.onRegisterImportAnnotationsAction(
                         ImageAnnotationLoadStrategy.Type.PASCAL_VOC));
@@ -157,7 +261,37 @@ class MenuBarView extends MenuBar implements View {
                         ImageAnnotationLoadStrategy.Type.JSON));
         csvImportMenuItem.setOnAction(action ->
                 controller.onRegisterImportAnnotationsAction(ImageAnnotationLoadStrategy.Type.CSV));
+        cocoImportMenuItem.setOnAction(action ->
+                controller.onRegisterImportAnnotationsAction(ImageAnnotationLoadStrategy.Type.COCO));
+        binaryProjectImportMenuItem.setOnAction(action ->
+                controller.onRegisterImportAnnotationsAction(ImageAnnotationLoadStrategy.Type.BINARY_PROJECT));
+        jsonLinesImportMenuItem.setOnAction(action ->
+                controller.onRegisterImportAnnotationsAction(ImageAnnotationLoadStrategy.Type.JSON_LINES));
+        pvocArchiveImportMenuItem.setOnAction(action ->
+                controller.onRegisterImportAnnotationsFromArchiveAction(
+                        ImageAnnotationLoadStrategy.Type.PASCAL_VOC));
+        yoloArchiveImportMenuItem.setOnAction(action ->
+                controller.onRegisterImportAnnotationsFromArchiveAction(
+                        ImageAnnotationLoadStrategy.Type.YOLO));
+        jsonArchiveImportMenuItem.setOnAction(action ->
+                controller.onRegisterImportAnnotationsFromArchiveAction(
+                        ImageAnnotationLoadStrategy.Type.JSON));
+        jsonLinesArchiveImportMenuItem.setOnAction(action ->
+                controller.onRegisterImportAnnotationsFromArchiveAction(
+                        ImageAnnotationLoadStrategy.Type.JSON_LINES));
+        archiveExportMenuItems.forEach((format, menuItem) -> menuItem.setOnAction(action ->
+                controller.onRegisterSaveAnnotationsToArchiveAction(format)));
+        shardedExportMenuItems.forEach((format, menuItem) -> menuItem.setOnAction(action ->
+                controller.onRegisterSaveAnnotationsAsShardedDatasetAction(format)));
+        backgroundSaveMenuItem.setOnAction(action ->
+                controller.onRegisterBackgroundSaveToggledAction(backgroundSaveMenuItem.isSelected()));
         fileExitItem.setOnAction(action -> controller.onRegisterExitAction());
+        predictAllImagesMenuItem.setOnAction(action ->
+                controller.onRegisterPerformBatchBoundingBoxPredictionAction(false));
+        predictUnannotatedImagesMenuItem.setOnAction(action ->
+                controller.onRegisterPerformBatchBoundingBoxPredictionAction(true));
+        resumePredictionMenuItem.setOnAction(action ->
+                controller.onRegisterResumeBatchBoundingBoxPredictionAction());
         settingsMenuItem.setOnAction(action -> controller.onRegisterSettingsAction());
         documentationMenuItem.setOnAction(action -> controller.onRegisterDocumentationAction());
         aboutMenuItem.setOnAction(action -> controller.onRegisterAboutAction());
@@ -191,6 +325,19 @@ class MenuBarView extends MenuBar implements View {
         return viewMaximizeImagesItem;
     }
 
+    private static Map<ImageAnnotationSaveStrategy.Type, MenuItem> createExportFormatMenuItems(String idSuffix) {
+        final Map<ImageAnnotationSaveStrategy.Type, MenuItem> menuItems =
+                new EnumMap<>(ImageAnnotationSaveStrategy.Type.class);
+
+        for(ImageAnnotationSaveStrategy.Type format : ImageAnnotationSaveStrategy.Type.values()) {
+            final MenuItem menuItem = new MenuItem(format + " format...");
+            menuItem.setId(format.name().toLowerCase(Locale.ENGLISH).replace('_', '-') + idSuffix);
+            menuItems.put(format, menuItem);
+        }
+
+        return menuItems;
+    }
+
     private Menu createFileMenu() {
         Menu fileMenu = new Menu(FILE_MENU_TEXT);
         fileMenu.setId(FILE_MENU_ID);
@@ -228,6 +375,24 @@ class MenuBarView extends MenuBar implements View {
         return viewMenu;
     }
 
+    private Menu createPredictionMenu() {
+        Menu predictionMenu = new Menu(PREDICTION_MENU_TEXT);
+        predictionMenu.setId(PREDICTION_MENU_ID);
+
+        predictionMenu.getItems().addAll(
+                predictAllImagesMenuItem,
+                predictUnannotatedImagesMenuItem,
+                new SeparatorMenuItem(),
+                resumePredictionMenuItem
+        );
+
+        predictAllImagesMenuItem.setId(PREDICT_ALL_IMAGES_MENU_ITEM_ID);
+        predictUnannotatedImagesMenuItem.setId(PREDICT_UNANNOTATED_IMAGES_MENU_ITEM_ID);
+        resumePredictionMenuItem.setId(RESUME_PREDICTION_MENU_ITEM_ID);
+
+        return predictionMenu;
+    }
+
     private Menu createHelpMenu() {
         Menu helpMenu = new Menu(HELP_MENU_TEXT);
         helpMenu.setId(HELP_MENU_ID);
@@ -21,10 +21,14 @@ package com.github.mfl28.boundingboxeditor.ui;
 import com.github.mfl28.boundingboxeditor.ui.statusevents.StatusEvent;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
+import javafx.beans.property.DoubleProperty;
 import javafx.css.PseudoClass;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.shape.Circle;
 
 import java.time.ZoneId;
@@ -41,13 +45,18 @@ public class StatusBarView extends HBox implements View {
     private final Label timeStampLabel = new Label();
     private final Label eventMessageLabel = new Label();
     private final SavedStatusIndicator savedStatusIndicator = new SavedStatusIndicator();
+    private final BackgroundSaveIndicator backgroundSaveIndicator = new BackgroundSaveIndicator();
 
     /**
      * Creates a new status-bar UI-element used to display information from
      * {@link StatusEvent}s, as well as the time when the event happened.
      */
     StatusBarView() {
-        getChildren().addAll(savedStatusIndicator, new HBox(timeStampLabel, eventMessageLabel));
+        final Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        getChildren().addAll(savedStatusIndicator, new HBox(timeStampLabel, eventMessageLabel), spacer,
+                backgroundSaveIndicator);
         setId(STATUS_PANEL_ID);
         timeStampLabel.setId(EVENT_TIME_STAMP_LABEL_ID);
         setSpacing(10);
@@ -63,6 +72,25 @@ public class StatusBarView extends HBox implements View {
         return savedStatusIndicator.savedProperty();
     }
 
+    /**
+     * Returns the property which determines if the progress of a save-operation
+     * running in the background is displayed.
+     *
+     * @return the property
+     */
+    public BooleanProperty backgroundSaveRunningProperty() {
+        return backgroundSaveIndicator.visibleProperty();
+    }
+
+    /**
+     * Returns the property holding the progress of a save-operation running in the background.
+     *
+     * @return the property
+     */
+    public DoubleProperty backgroundSaveProgressProperty() {
+        return backgroundSaveIndicator.progressIndicator.progressProperty();
+    }
+
     /**
      * Sets the {@link StatusEvent} object whose information to display.
      *
@@ -88,6 +116,24 @@ public class StatusBarView extends HBox implements View {
         eventMessageLabel.setText(null);
     }
 
+    private static class BackgroundSaveIndicator extends HBox {
+        private static final String BACKGROUND_SAVE_INDICATOR_ID = "background-save-indicator";
+        private static final String BACKGROUND_SAVE_TEXT = "Saving annotations...";
+        private static final double PROGRESS_INDICATOR_SIZE = 16;
+
+        private final ProgressIndicator progressIndicator = new ProgressIndicator();
+
+        BackgroundSaveIndicator() {
+            progressIndicator.setPrefSize(PROGRESS_INDICATOR_SIZE, PROGRESS_INDICATOR_SIZE);
+            getChildren().addAll(progressIndicator, new Label(BACKGROUND_SAVE_TEXT));
+            setId(BACKGROUND_SAVE_INDICATOR_ID);
+            setSpacing(5);
+            setAlignment(Pos.CENTER_RIGHT);
+            managedProperty().bind(visibleProperty());
+            setVisible(false);
+        }
+    }
+
     private static class SavedStatusIndicator extends Circle {
         private static final String SAVED_STATUS_PSEUDO_CLASS_NAME = "saved";
         private static final PseudoClass SAVED_STATUS_PSEUDO_CLASS =
@@ -37,10 +37,15 @@ public class EditorSettingsView extends GridPane implements ApplyButtonChangePro
     private static final String POLYGONS_ROW_BOX_ID = "settings-subgroup-box";
     private static final String AUTO_SIMPLIFY_LABEL_TEXT = "Auto-simplify freehand-drawn";
     private static final String AUTO_SIMPLIFY_POPOVER_TEXT = "Automatically simplify polygons created using freehand-drawing";
+    private static final String RENDERING_ROW_TITLE = "Rendering";
+    private static final String BATCH_RENDERING_LABEL_TEXT = "Batch-render dense images";
+    private static final String BATCH_RENDERING_TOOLTIP =
+            "Draw non-selected boxes and polygons onto a single layer when an image contains many of them";
 
     private static final String SETTINGS_ENTRY_BOX_STYLE_CLASS = "settings-entry-box";
     private final CheckBox autoSimplifyPolygonsControl = new CheckBox();
     private final Slider simplifyToleranceControl = new Slider(0.0, 1.0, 0.1);
+    private final CheckBox batchRenderingControl = new CheckBox();
 
     public EditorSettingsView() {
         getStyleClass().add(GRID_PANE_STYLE_CLASS);
@@ -53,11 +58,13 @@ public class EditorSettingsView extends GridPane implements ApplyButtonChangePro
     public void setDisplayedSettingsFromEditorSettingsConfig(EditorSettingsConfig config) {
         autoSimplifyPolygonsControl.setSelected(config.isAutoSimplifyPolygons());
         simplifyToleranceControl.setValue(config.getSimplifyRelativeDistanceTolerance());
+        batchRenderingControl.setSelected(config.isBatchRendering());
     }
 
     public void applyDisplayedSettingsToEditorSettingsConfig(EditorSettingsConfig config) {
         config.setAutoSimplifyPolygons(autoSimplifyPolygonsControl.isSelected());
         config.setSimplifyRelativeDistanceTolerance(simplifyToleranceControl.getValue());
+        config.setBatchRendering(batchRenderingControl.isSelected());
     }
 
     public CheckBox getAutoSimplifyPolygonsControl() {
@@ -68,12 +75,18 @@ public class EditorSettingsView extends GridPane implements ApplyButtonChangePro
         return simplifyToleranceControl;
     }
 
+    public CheckBox getBatchRenderingControl() {
+        return batchRenderingControl;
+    }
+
     @Override
     public void registerPropertyListeners(Button applyButton) {
         autoSimplifyPolygonsControl.selectedProperty().addListener(
                 (observable, oldValue, newValue) -> applyButton.setDisable(false));
         simplifyToleranceControl.valueProperty()
                 .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        batchRenderingControl.selectedProperty().addListener(
+                (observable, oldValue, newValue) -> applyButton.setDisable(false));
     }
 
     private void setUpContent() {
@@ -122,5 +135,13 @@ public class EditorSettingsView extends GridPane implements ApplyButtonChangePro
         final HBox box = new HBox(simplifyToleranceControl);
         box.getStyleClass().add(SETTINGS_ENTRY_BOX_STYLE_CLASS);
         addRow(2, simplifyToleranceLabel, box);
+
+        add(UiUtils.createSettingsTitleRow(RENDERING_ROW_TITLE, POLYGONS_ROW_TITLE_ID, POLYGONS_ROW_BOX_ID),
+                0, 3, 2, 1);
+
+        final Label batchRenderingLabel = new Label(BATCH_RENDERING_LABEL_TEXT);
+        Tooltip.install(batchRenderingLabel, UiUtils.createTooltip(BATCH_RENDERING_TOOLTIP));
+
+        addRow(4, batchRenderingLabel, batchRenderingControl);
     }
 }
@@ -19,11 +19,15 @@
 package com.github.mfl28.boundingboxeditor.ui.settings;
 
 import com.github.mfl28.boundingboxeditor.controller.Controller;
+import com.github.mfl28.boundingboxeditor.model.io.AnnotationMerger;
 import com.github.mfl28.boundingboxeditor.model.io.BoundingBoxPredictorConfig;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
 import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClientConfig;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.LoadBalancingPredictorClient.EndpointStatistics;
 import com.github.mfl28.boundingboxeditor.ui.View;
 import com.github.mfl28.boundingboxeditor.utils.UiUtils;
 import javafx.beans.binding.Bindings;
+import javafx.collections.FXCollections;
 import javafx.css.PseudoClass;
 import javafx.scene.control.*;
 import javafx.scene.layout.ColumnConstraints;
@@ -33,12 +37,27 @@ import javafx.scene.layout.Priority;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.controlsfx.control.ToggleSwitch;
 
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class InferenceSettingsView extends GridPane implements View, ApplyButtonChangeProvider {
     private static final String NO_MODEL_SELECTED_TEXT = "None";
     private static final String ENABLE_INFERENCE_LABEL_TEXT = "Enable inference";
     private static final String PORT_LABEL_TEXT = "Port";
+    private static final String SERVICE_TYPE_LABEL_TEXT = "Client";
+    private static final String LOCAL_MODEL_PATH_LABEL_TEXT = "Model file";
+    private static final String LOCAL_MODEL_PATH_PROMPT_TEXT = "/path/to/model.onnx";
     private static final String INFERENCE_ADDRESS_LABEL_TEXT = "Inference address";
     private static final String MANAGEMENT_ADDRESS_LABEL_TEXT = "Management address";
+    private static final String ADDITIONAL_INFERENCE_ADDRESSES_LABEL_TEXT = "Additional inference servers";
+    private static final String ADDITIONAL_INFERENCE_ADDRESSES_PROMPT_TEXT = "http://host:port, ...";
+    private static final String ENDPOINT_STATISTICS_LABEL_TEXT = "Server statistics";
+    private static final String ADDRESS_LIST_SEPARATOR = ",";
     private static final String MODEL_LABEL_TEXT = "Model";
     private static final String MINIMUM_SCORE_LABEL_TEXT = "Minimum score";
     private static final String GRID_PANE_STYLE_CLASS = "grid-pane";
@@ -49,6 +68,14 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
     private static final String RESIZE_IMAGES_HEIGHT_LABEL_TEXT = "Height";
     private static final String RESIZE_IMAGES_KEEP_RATIO_LABEL_TEXT = "Keep ratio";
     private static final String MERGE_CATEGORIES_LABEL_TEXT = "Merge categories";
+    private static final String MERGE_POLICY_LABEL_TEXT = "Duplicates";
+    private static final String MAX_CONCURRENT_REQUESTS_LABEL_TEXT = "Concurrent requests";
+    private static final String ADAPTIVE_CONCURRENCY_LABEL_TEXT = "Adaptive";
+    private static final String CACHE_PREDICTIONS_LABEL_TEXT = "Cache predictions";
+    private static final String SPECULATIVE_PREDICTION_LABEL_TEXT = "Predict ahead";
+    private static final String SPECULATIVE_PREDICTION_LOOKAHEAD_LABEL_TEXT = "Images";
+    private static final String UPLOAD_ENCODING_LABEL_TEXT = "Upload encoding";
+    private static final String JPEG_QUALITY_LABEL_TEXT = "Quality";
     private static final String SUBGROUP_TITLE_LABEL_ID = "subgroup-title-label";
     private static final String SETTINGS_SUBGROUP_BOX_ID = "settings-subgroup-box";
     private static final String SERVERS_SUBGROUP_TITLE = "Torch serve";
@@ -61,17 +88,40 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
     private static final String MINIMUM_SCORE_TOOLTIP = "Score threshold for bounding box predictions";
     private static final String MERGE_CATEGORIES_TOOLTIP =
             "Merge categories of predictions with existing categories case-insensitively";
+    private static final String MERGE_POLICY_TOOLTIP =
+            "Handling of predicted or imported boxes overlapping existing boxes of the same category";
+    private static final String MAX_CONCURRENT_REQUESTS_TOOLTIP =
+            "Maximum number of prediction requests in flight when predicting multiple images";
+    private static final String ADAPTIVE_CONCURRENCY_TOOLTIP =
+            "Adapt the number of concurrent requests to the server's load, up to the maximum number set";
+    private static final String CACHE_PREDICTIONS_TOOLTIP =
+            "Reuse the predictions of images which were already predicted with the same model and preprocessing";
+    private static final String SPECULATIVE_PREDICTION_TOOLTIP =
+            "Predict the next images in navigation direction in the background, so that predictions are instant";
     private static final String RESIZE_IMAGES_TOOLTIP = "Resize images before performing prediction";
+    private static final String UPLOAD_ENCODING_TOOLTIP =
+            "Image format sent to the server, files already in this format are sent unchanged if not resized";
+    private static final String SERVICE_TYPE_TOOLTIP = "Http-client implementation used to communicate with the server";
+    private static final String LOCAL_MODEL_PATH_TOOLTIP =
+            "ONNX detection model file run on this computer, class names are read from the model or a labels.txt file";
     private static final String INFERENCE_PORT_TOOLTIP = "Inference server port";
     private static final String INFERENCE_ADDRESS_TOOLTIP = "Inference server address";
+    private static final String ADDITIONAL_INFERENCE_ADDRESSES_TOOLTIP =
+            "Comma-separated addresses of inference server replicas, predictions are sent to the least busy server";
+    private static final String ENDPOINT_STATISTICS_TOOLTIP = "Requests handled by each inference server";
     private static final String MANAGEMENT_PORT_TOOLTIP = "Management server port";
     private static final String MANAGEMENT_ADDRESS_TOOLTIP = "Management server address";
     private static final PseudoClass invalidValuePseudoClass = PseudoClass.getPseudoClass("invalid-value");
     private final Button selectModelButton = new Button("Select");
     private final Label selectedModelLabel = new Label(NO_MODEL_SELECTED_TEXT);
     private final ToggleSwitch inferenceEnabledControl = new ToggleSwitch();
+    private final ChoiceBox<BoundingBoxPredictorClient.ServiceType> serviceTypeControl =
+            new ChoiceBox<>(FXCollections.observableArrayList(BoundingBoxPredictorClient.ServiceType.values()));
+    private final TextField localModelPathField = new TextField();
     private final TextField inferenceAddressField = new TextField();
     private final TextField inferencePortField = new TextField();
+    private final TextField additionalInferenceAddressesField = new TextField();
+    private final Label endpointStatisticsLabel = new Label();
     private final TextField managementAddressField = new TextField();
     private final TextField managementPortField = new TextField();
     private final Spinner<Double> minimumScoreControl = new Spinner<>(0.0, 1.0, 0.0, 0.05);
@@ -80,6 +130,16 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
     private final TextField imageResizeHeightField = new TextField();
     private final CheckBox keepImageRatioControl = new CheckBox();
     private final CheckBox mergeCategoriesControl = new CheckBox();
+    private final ChoiceBox<AnnotationMerger.Policy> mergePolicyControl =
+            new ChoiceBox<>(FXCollections.observableArrayList(AnnotationMerger.Policy.values()));
+    private final Spinner<Integer> maxConcurrentRequestsControl = new Spinner<>(1, 64, 4);
+    private final CheckBox adaptiveConcurrencyControl = new CheckBox();
+    private final CheckBox cachePredictionsControl = new CheckBox();
+    private final CheckBox speculativePredictionControl = new CheckBox();
+    private final Spinner<Integer> speculativePredictionLookaheadControl = new Spinner<>(1, 16, 3);
+    private final ChoiceBox<BoundingBoxPredictorConfig.UploadEncoding> uploadEncodingControl =
+            new ChoiceBox<>(FXCollections.observableArrayList(BoundingBoxPredictorConfig.UploadEncoding.values()));
+    private final Spinner<Double> jpegQualityControl = new Spinner<>(0.1, 1.0, 0.9, 0.05);
 
     public InferenceSettingsView() {
         getStyleClass().add(GRID_PANE_STYLE_CLASS);
@@ -90,8 +150,12 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
     }
 
     public void setDisplayedSettingsFromPredictorClientConfig(BoundingBoxPredictorClientConfig config) {
+        serviceTypeControl.setValue(config.getServiceType());
+        localModelPathField.setText(config.getLocalModelPath());
         inferenceAddressField.setText(config.getInferenceUrl());
         inferencePortField.setText(Integer.toString(config.getInferencePort()));
+        additionalInferenceAddressesField.setText(String.join(ADDRESS_LIST_SEPARATOR + " ",
+                                                              config.getAdditionalInferenceAddresses()));
         managementAddressField.setText(config.getManagementUrl());
         managementPortField.setText(Integer.toString(config.getManagementPort()));
 
@@ -107,18 +171,22 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
             return true;
         }
 
+        boolean localModelPathValid = validateLocalModelPath();
         boolean inferenceDataValid = validateInferenceServerData();
+        boolean additionalInferenceAddressesValid = validateAdditionalInferenceAddresses();
         boolean managementServerDataValid = validateManagementServerData();
         boolean minimumScoreControlDataValid = validateMinimumScoreControlData();
         boolean resizeImagesControlDataValid = validateResizeImagesControlData();
 
-        return inferenceDataValid && managementServerDataValid &&
-                minimumScoreControlDataValid && resizeImagesControlDataValid;
+        return localModelPathValid && inferenceDataValid && additionalInferenceAddressesValid &&
+                managementServerDataValid && minimumScoreControlDataValid && resizeImagesControlDataValid;
     }
 
     public void setAllFieldsValid() {
+        localModelPathField.pseudoClassStateChanged(invalidValuePseudoClass, false);
         inferenceAddressField.pseudoClassStateChanged(invalidValuePseudoClass, false);
         inferencePortField.pseudoClassStateChanged(invalidValuePseudoClass, false);
+        additionalInferenceAddressesField.pseudoClassStateChanged(invalidValuePseudoClass, false);
         managementAddressField.pseudoClassStateChanged(invalidValuePseudoClass, false);
         managementPortField.pseudoClassStateChanged(invalidValuePseudoClass, false);
         minimumScoreControl.getEditor().pseudoClassStateChanged(invalidValuePseudoClass, false);
@@ -131,8 +199,11 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
             return;
         }
 
+        config.setServiceType(serviceTypeControl.getValue());
+        config.setLocalModelPath(localModelPathField.getText());
         config.setInferenceUrl(inferenceAddressField.getText());
         config.setInferencePort(Integer.parseUnsignedInt(inferencePortField.getText()));
+        config.setAdditionalInferenceAddresses(parseAdditionalInferenceAddresses());
         config.setManagementUrl(managementAddressField.getText());
         config.setManagementPort(Integer.parseUnsignedInt(managementPortField.getText()));
 
@@ -152,7 +223,15 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
 
         config.setMinimumScore(minimumScoreControl.getValue());
         config.setMergeCategories(mergeCategoriesControl.isSelected());
+        config.setMergePolicy(mergePolicyControl.getValue());
+        config.setMaxConcurrentRequests(maxConcurrentRequestsControl.getValue());
+        config.setAdaptiveConcurrency(adaptiveConcurrencyControl.isSelected());
+        config.setCachePredictions(cachePredictionsControl.isSelected());
+        config.setSpeculativePrediction(speculativePredictionControl.isSelected());
+        config.setSpeculativePredictionLookahead(speculativePredictionLookaheadControl.getValue());
         config.setResizeImages(resizeImagesControl.isSelected());
+        config.setUploadEncoding(uploadEncodingControl.getValue());
+        config.setJpegQuality(jpegQualityControl.getValue());
 
         if(resizeImagesControl.isSelected()) {
             config.setImageResizeWidth(Integer.parseInt(imageResizeWidthField.getText()));
@@ -169,6 +248,25 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
         imageResizeHeightField.setText(Integer.toString(config.getImageResizeHeight()));
         keepImageRatioControl.setSelected(config.getImageResizeKeepRatio());
         mergeCategoriesControl.setSelected(config.isMergeCategories());
+        mergePolicyControl.setValue(config.getMergePolicy());
+        maxConcurrentRequestsControl.getValueFactory().setValue(config.getMaxConcurrentRequests());
+        adaptiveConcurrencyControl.setSelected(config.isAdaptiveConcurrency());
+        cachePredictionsControl.setSelected(config.isCachePredictions());
+        speculativePredictionControl.setSelected(config.isSpeculativePrediction());
+        speculativePredictionLookaheadControl.getValueFactory().setValue(config.getSpeculativePredictionLookahead());
+        uploadEncodingControl.setValue(config.getUploadEncoding());
+        jpegQualityControl.getValueFactory().setValue(config.getJpegQuality());
+    }
+
+    /**
+     * Displays the request statistics of the inference servers used for load-balanced predictions.
+     *
+     * @param endpointStatistics the statistics, empty if predictions are not load-balanced
+     */
+    public void setDisplayedEndpointStatistics(List<EndpointStatistics> endpointStatistics) {
+        endpointStatisticsLabel.setText(endpointStatistics.stream()
+                                                          .map(EndpointStatistics::getSummary)
+                                                          .collect(Collectors.joining("\n")));
     }
 
     @Override
@@ -177,10 +275,17 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
                           .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
         inferenceEnabledControl.selectedProperty()
                                .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        serviceTypeControl.valueProperty()
+                          .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        localModelPathField.textProperty()
+                           .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
         inferenceAddressField.textProperty()
                              .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
         inferencePortField.textProperty()
                           .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        additionalInferenceAddressesField.textProperty()
+                                         .addListener((observable, oldValue, newValue) ->
+                                                 applyButton.setDisable(false));
         managementAddressField.textProperty()
                               .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
         managementPortField.textProperty()
@@ -197,6 +302,23 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
                              .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
         mergeCategoriesControl.selectedProperty()
                               .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        mergePolicyControl.valueProperty()
+                          .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        maxConcurrentRequestsControl.valueProperty()
+                                    .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        adaptiveConcurrencyControl.selectedProperty()
+                                  .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        cachePredictionsControl.selectedProperty()
+                               .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        speculativePredictionControl.selectedProperty()
+                                    .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        speculativePredictionLookaheadControl.valueProperty()
+                                             .addListener((observable, oldValue, newValue) ->
+                                                     applyButton.setDisable(false));
+        uploadEncodingControl.valueProperty()
+                             .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
+        jpegQualityControl.valueProperty()
+                          .addListener((observable, oldValue, newValue) -> applyButton.setDisable(false));
     }
 
     public Button getSelectModelButton() {
@@ -251,6 +373,34 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
         return mergeCategoriesControl;
     }
 
+    public ChoiceBox<AnnotationMerger.Policy> getMergePolicyControl() {
+        return mergePolicyControl;
+    }
+
+    public Spinner<Integer> getMaxConcurrentRequestsControl() {
+        return maxConcurrentRequestsControl;
+    }
+
+    public CheckBox getCachePredictionsControl() {
+        return cachePredictionsControl;
+    }
+
+    public CheckBox getSpeculativePredictionControl() {
+        return speculativePredictionControl;
+    }
+
+    public Spinner<Integer> getSpeculativePredictionLookaheadControl() {
+        return speculativePredictionLookaheadControl;
+    }
+
+    public ChoiceBox<BoundingBoxPredictorConfig.UploadEncoding> getUploadEncodingControl() {
+        return uploadEncodingControl;
+    }
+
+    public Spinner<Double> getJpegQualityControl() {
+        return jpegQualityControl;
+    }
+
     @Override
     public void connectToController(Controller controller) {
         selectModelButton
@@ -273,6 +423,32 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
         return validateAddressPortTextFields(inferenceAddressField, inferencePortField);
     }
 
+    private boolean validateAdditionalInferenceAddresses() {
+        for(String inferenceAddress : parseAdditionalInferenceAddresses()) {
+            final int portSeparatorIndex = inferenceAddress.lastIndexOf(':');
+
+            if(portSeparatorIndex <= 0
+                    || !NumberUtils.isDigits(inferenceAddress.substring(portSeparatorIndex + 1))) {
+                additionalInferenceAddressesField.pseudoClassStateChanged(invalidValuePseudoClass, true);
+                return false;
+            }
+        }
+
+        additionalInferenceAddressesField.pseudoClassStateChanged(invalidValuePseudoClass, false);
+        return true;
+    }
+
+    private List<String> parseAdditionalInferenceAddresses() {
+        if(additionalInferenceAddressesField.getText() == null) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(additionalInferenceAddressesField.getText().split(ADDRESS_LIST_SEPARATOR))
+                     .map(String::strip)
+                     .filter(inferenceAddress -> !inferenceAddress.isEmpty())
+                     .toList();
+    }
+
     private boolean validateAddressPortTextFields(TextField addressField, TextField portField) {
         boolean valid = true;
 
@@ -292,6 +468,24 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
         return valid;
     }
 
+    private boolean validateLocalModelPath() {
+        if(serviceTypeControl.getValue() != BoundingBoxPredictorClient.ServiceType.ONNX_LOCAL) {
+            return true;
+        }
+
+        final String localModelPath = localModelPathField.getText();
+        boolean valid;
+
+        try {
+            valid = localModelPath != null && Files.isRegularFile(Path.of(localModelPath));
+        } catch(InvalidPathException e) {
+            valid = false;
+        }
+
+        localModelPathField.pseudoClassStateChanged(invalidValuePseudoClass, !valid);
+        return valid;
+    }
+
     private boolean validateManagementServerData() {
         return validateAddressPortTextFields(managementAddressField, managementPortField);
     }
@@ -322,14 +516,23 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
 
         addInferenceControlRow(++rowIndex);
         addSubgroupTitleRow(SERVERS_SUBGROUP_TITLE, ++rowIndex);
+        addServiceTypeRow(++rowIndex);
+        addLocalModelPathRow(++rowIndex);
         addInferenceAddressRow(++rowIndex);
+        addAdditionalInferenceAddressesRow(++rowIndex);
+        addEndpointStatisticsRow(++rowIndex);
         addManagementAddressRow(++rowIndex);
         addModelSelectionRow(++rowIndex);
         addSubgroupTitleRow(PREDICTION_SUBGROUP_TITLE, ++rowIndex);
         addMinimumPredictionScoreRow(++rowIndex);
         addPredictionMergeCategoryChoiceRow(++rowIndex);
+        addMergePolicyRow(++rowIndex);
+        addMaxConcurrentRequestsRow(++rowIndex);
+        addCachePredictionsRow(++rowIndex);
+        addSpeculativePredictionRow(++rowIndex);
         addSubgroupTitleRow(PREPROCESSING_SUBGROUP_TITLE, ++rowIndex);
         addImageResizePreprocessingSetupRow(++rowIndex);
+        addUploadEncodingRow(++rowIndex);
     }
 
     private void addInferenceControlRow(int row) {
@@ -346,6 +549,32 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
         add(inferenceEnabledControlBox, 0, row, 2, 1);
     }
 
+    private void addServiceTypeRow(int row) {
+        serviceTypeControl.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        final Label serviceTypeLabel = new Label(SERVICE_TYPE_LABEL_TEXT);
+        Tooltip.install(serviceTypeLabel, UiUtils.createTooltip(SERVICE_TYPE_TOOLTIP));
+        serviceTypeLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        addRow(row, serviceTypeLabel, serviceTypeControl);
+    }
+
+    private void addLocalModelPathRow(int row) {
+        localModelPathField.setPromptText(LOCAL_MODEL_PATH_PROMPT_TEXT);
+
+        final Label localModelPathLabel = new Label(LOCAL_MODEL_PATH_LABEL_TEXT);
+        Tooltip.install(localModelPathLabel, UiUtils.createTooltip(LOCAL_MODEL_PATH_TOOLTIP));
+
+        // The row is only shown if the local inference client is selected.
+        localModelPathLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty().and(
+                serviceTypeControl.valueProperty().isEqualTo(BoundingBoxPredictorClient.ServiceType.ONNX_LOCAL)));
+        localModelPathLabel.managedProperty().bind(localModelPathLabel.visibleProperty());
+        localModelPathField.visibleProperty().bind(localModelPathLabel.visibleProperty());
+        localModelPathField.managedProperty().bind(localModelPathLabel.visibleProperty());
+
+        addRow(row, localModelPathLabel, localModelPathField);
+    }
+
     private void addInferenceAddressRow(int row) {
         inferencePortField.setTextFormatter(UiUtils.createDecimalFormatter());
         inferencePortField.setPrefColumnCount(4);
@@ -364,6 +593,32 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
         addRow(row, inferenceAddressLabel, inferenceBox);
     }
 
+    private void addAdditionalInferenceAddressesRow(int row) {
+        additionalInferenceAddressesField.setPromptText(ADDITIONAL_INFERENCE_ADDRESSES_PROMPT_TEXT);
+        additionalInferenceAddressesField.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        final Label additionalInferenceAddressesLabel = new Label(ADDITIONAL_INFERENCE_ADDRESSES_LABEL_TEXT);
+        Tooltip.install(additionalInferenceAddressesLabel,
+                        UiUtils.createTooltip(ADDITIONAL_INFERENCE_ADDRESSES_TOOLTIP));
+        additionalInferenceAddressesLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        addRow(row, additionalInferenceAddressesLabel, additionalInferenceAddressesField);
+    }
+
+    private void addEndpointStatisticsRow(int row) {
+        final Label endpointStatisticsTitleLabel = new Label(ENDPOINT_STATISTICS_LABEL_TEXT);
+        Tooltip.install(endpointStatisticsTitleLabel, UiUtils.createTooltip(ENDPOINT_STATISTICS_TOOLTIP));
+
+        // The row is only shown while predictions are distributed over several inference servers.
+        endpointStatisticsTitleLabel.visibleProperty().bind(
+                inferenceEnabledControl.selectedProperty().and(endpointStatisticsLabel.textProperty().isNotEmpty()));
+        endpointStatisticsTitleLabel.managedProperty().bind(endpointStatisticsTitleLabel.visibleProperty());
+        endpointStatisticsLabel.visibleProperty().bind(endpointStatisticsTitleLabel.visibleProperty());
+        endpointStatisticsLabel.managedProperty().bind(endpointStatisticsTitleLabel.visibleProperty());
+
+        addRow(row, endpointStatisticsTitleLabel, endpointStatisticsLabel);
+    }
+
     private void addManagementAddressRow(int row) {
         managementPortField.setTextFormatter(UiUtils.createDecimalFormatter());
         managementPortField.setPrefColumnCount(4);
@@ -454,6 +709,76 @@ public class InferenceSettingsView extends GridPane implements View, ApplyButton
         addRow(row, mergeCategoriesLabel, mergeCategoriesControl);
     }
 
+    private void addMergePolicyRow(int row) {
+        mergePolicyControl.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        final Label mergePolicyLabel = new Label(MERGE_POLICY_LABEL_TEXT);
+        Tooltip.install(mergePolicyLabel, UiUtils.createTooltip(MERGE_POLICY_TOOLTIP));
+        mergePolicyLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        addRow(row, mergePolicyLabel, mergePolicyControl);
+    }
+
+    private void addMaxConcurrentRequestsRow(int row) {
+        final Label adaptiveConcurrencyLabel = new Label(ADAPTIVE_CONCURRENCY_LABEL_TEXT);
+        Tooltip.install(adaptiveConcurrencyLabel, UiUtils.createTooltip(ADAPTIVE_CONCURRENCY_TOOLTIP));
+
+        final HBox controlBox = new HBox(maxConcurrentRequestsControl, adaptiveConcurrencyLabel,
+                                         adaptiveConcurrencyControl);
+        controlBox.getStyleClass().add(SETTINGS_ENTRY_BOX_STYLE_CLASS);
+        controlBox.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        final Label maxConcurrentRequestsLabel = new Label(MAX_CONCURRENT_REQUESTS_LABEL_TEXT);
+        Tooltip.install(maxConcurrentRequestsLabel, UiUtils.createTooltip(MAX_CONCURRENT_REQUESTS_TOOLTIP));
+        maxConcurrentRequestsLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        addRow(row, maxConcurrentRequestsLabel, controlBox);
+    }
+
+    private void addCachePredictionsRow(int row) {
+        cachePredictionsControl.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        final Label cachePredictionsLabel = new Label(CACHE_PREDICTIONS_LABEL_TEXT);
+        Tooltip.install(cachePredictionsLabel, UiUtils.createTooltip(CACHE_PREDICTIONS_TOOLTIP));
+        cachePredictionsLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        addRow(row, cachePredictionsLabel, cachePredictionsControl);
+    }
+
+    private void addSpeculativePredictionRow(int row) {
+        final HBox lookaheadBox = new HBox(new Label(SPECULATIVE_PREDICTION_LOOKAHEAD_LABEL_TEXT),
+                                           speculativePredictionLookaheadControl);
+        lookaheadBox.getStyleClass().add(SETTINGS_ENTRY_BOX_STYLE_CLASS);
+        lookaheadBox.visibleProperty().bind(speculativePredictionControl.selectedProperty());
+
+        final HBox controlBox = new HBox(speculativePredictionControl, lookaheadBox);
+        controlBox.getStyleClass().add(SETTINGS_ENTRY_BOX_STYLE_CLASS);
+        controlBox.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        final Label speculativePredictionLabel = new Label(SPECULATIVE_PREDICTION_LABEL_TEXT);
+        Tooltip.install(speculativePredictionLabel, UiUtils.createTooltip(SPECULATIVE_PREDICTION_TOOLTIP));
+        speculativePredictionLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        addRow(row, speculativePredictionLabel, controlBox);
+    }
+
+    private void addUploadEncodingRow(int row) {
+        final HBox jpegQualityBox = new HBox(new Label(JPEG_QUALITY_LABEL_TEXT), jpegQualityControl);
+        jpegQualityBox.getStyleClass().add(SETTINGS_ENTRY_BOX_STYLE_CLASS);
+        jpegQualityBox.visibleProperty().bind(
+                uploadEncodingControl.valueProperty().isEqualTo(BoundingBoxPredictorConfig.UploadEncoding.JPEG));
+
+        final HBox controlBox = new HBox(uploadEncodingControl, jpegQualityBox);
+        controlBox.getStyleClass().add(SETTINGS_ENTRY_BOX_STYLE_CLASS);
+        controlBox.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        final Label uploadEncodingLabel = new Label(UPLOAD_ENCODING_LABEL_TEXT);
+        Tooltip.install(uploadEncodingLabel, UiUtils.createTooltip(UPLOAD_ENCODING_TOOLTIP));
+        uploadEncodingLabel.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
+
+        addRow(row, uploadEncodingLabel, controlBox);
+    }
+
     private void addSubgroupTitleRow(String title, int row) {
         final HBox box = UiUtils.createSettingsTitleRow(title, SUBGROUP_TITLE_LABEL_ID, SETTINGS_SUBGROUP_BOX_ID);
         box.visibleProperty().bind(inferenceEnabledControl.selectedProperty());
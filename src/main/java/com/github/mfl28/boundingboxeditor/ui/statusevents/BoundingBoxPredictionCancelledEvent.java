@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.ui.statusevents;
+
+public class BoundingBoxPredictionCancelledEvent extends StatusEvent {
+    /**
+     * Creates a new status-event signifying the cancellation of a bounding box prediction
+     * over multiple images.
+     */
+    public BoundingBoxPredictionCancelledEvent() {
+        super("Bounding box prediction was cancelled, remaining images can be predicted by resuming.");
+    }
+}
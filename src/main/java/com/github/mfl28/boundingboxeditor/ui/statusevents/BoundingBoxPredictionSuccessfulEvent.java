@@ -18,6 +18,7 @@
  */
 package com.github.mfl28.boundingboxeditor.ui.statusevents;
 
+import com.github.mfl28.boundingboxeditor.model.io.SpeculativePredictionPrefetcher;
 import com.github.mfl28.boundingboxeditor.model.io.results.BoundingBoxPredictionResult;
 import com.github.mfl28.boundingboxeditor.model.io.results.IOResult;
 
@@ -31,6 +32,20 @@ public class BoundingBoxPredictionSuccessfulEvent extends StatusEvent {
         super(createMessage(ioResult));
     }
 
+    /**
+     * Creates a new status-event signifying the successful completion of a bounding box prediction
+     * with speculative prediction enabled.
+     *
+     * @param ioResult      an {@link IOResult} object containing information about the import-operation
+     * @param hitStatistics the hit statistics of the speculatively predicted images
+     */
+    public BoundingBoxPredictionSuccessfulEvent(BoundingBoxPredictionResult ioResult,
+                                                SpeculativePredictionPrefetcher.HitStatistics hitStatistics) {
+        super(createMessage(ioResult) + " Speculative hit rate: "
+                + Math.round(hitStatistics.getHitRate() * 100) + "% ("
+                + hitStatistics.nrHits() + " of " + hitStatistics.nrLookups() + ").");
+    }
+
     private static String createMessage(BoundingBoxPredictionResult ioResult) {
         int predictedBoundingBoxes = ioResult.getImageAnnotationData()
                                              .categoryNameToBoundingShapeCountMap()
@@ -45,6 +60,16 @@ public class BoundingBoxPredictionSuccessfulEvent extends StatusEvent {
                 + ioResult.getNrSuccessfullyProcessedItems() + " image" +
                 (ioResult.getNrSuccessfullyProcessedItems() != 1 ? "s" : "")
                 + " in "
-                + secondsFormat.format(ioResult.getTimeTakenInMilliseconds() / 1000.0) + " sec.";
+                + secondsFormat.format(ioResult.getTimeTakenInMilliseconds() / 1000.0) + " sec."
+                + createMergeMessage(ioResult);
+    }
+
+    private static String createMergeMessage(BoundingBoxPredictionResult ioResult) {
+        if(ioResult.getNrMergedShapes() == 0 && ioResult.getNrDroppedShapes() == 0) {
+            return "";
+        }
+
+        return " Replaced " + ioResult.getNrMergedShapes() + ", dropped " + ioResult.getNrDroppedShapes()
+                + " duplicate" + (ioResult.getNrDroppedShapes() != 1 ? "s" : "") + ".";
     }
 }
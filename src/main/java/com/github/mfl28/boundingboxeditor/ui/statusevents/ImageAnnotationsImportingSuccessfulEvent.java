@@ -19,6 +19,7 @@
 package com.github.mfl28.boundingboxeditor.ui.statusevents;
 
 import com.github.mfl28.boundingboxeditor.model.io.results.IOResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
 
 /**
  * Represents the event of a successful image-annotation import.
@@ -34,6 +35,17 @@ public class ImageAnnotationsImportingSuccessfulEvent extends StatusEvent {
                       + ioResult.getNrSuccessfullyProcessedItems() + " image" +
                       (ioResult.getNrSuccessfullyProcessedItems() != 1 ? "s" : "")
                       + " in "
-                      + secondsFormat.format(ioResult.getTimeTakenInMilliseconds() / 1000.0) + " sec.");
+                      + secondsFormat.format(ioResult.getTimeTakenInMilliseconds() / 1000.0) + " sec."
+                      + createThroughputSuffix(ioResult));
+    }
+
+    private static String createThroughputSuffix(IOResult ioResult) {
+        if(ioResult instanceof ImageAnnotationImportResult importResult
+                && importResult.getNrProcessedRows() > 0 && ioResult.getTimeTakenInMilliseconds() > 0) {
+            return " (" + Math.round(importResult.getNrProcessedRows() * 1000.0 / ioResult.getTimeTakenInMilliseconds())
+                    + " rows/sec)";
+        }
+
+        return "";
     }
 }
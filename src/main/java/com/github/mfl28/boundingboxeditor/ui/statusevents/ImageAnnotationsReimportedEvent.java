@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.ui.statusevents;
+
+import com.github.mfl28.boundingboxeditor.model.io.results.IOResult;
+
+/**
+ * Represents the event of a re-import of image-annotations which were changed externally.
+ */
+public class ImageAnnotationsReimportedEvent extends StatusEvent {
+    /**
+     * Creates a new status-event signifying the re-import of externally changed image-annotations.
+     *
+     * @param ioResult an {@link IOResult} object containing information about the re-import
+     */
+    public ImageAnnotationsReimportedEvent(IOResult ioResult) {
+        super("Re-imported externally changed annotations for "
+                      + ioResult.getNrSuccessfullyProcessedItems() + " image"
+                      + (ioResult.getNrSuccessfullyProcessedItems() != 1 ? "s" : "")
+                      + (ioResult.getErrorTableEntries().isEmpty() ? "" :
+                         ", " + ioResult.getErrorTableEntries().size() + " file"
+                                 + (ioResult.getErrorTableEntries().size() != 1 ? "s" : "") + " could not be read")
+                      + ".");
+    }
+}
@@ -24,6 +24,7 @@ module com.github.mfl28.boundingboxeditor {
     requires com.github.benmanes.caffeine;
     requires org.apache.commons.lang3;
     requires java.prefs;
+    requires java.net.http;
     requires com.google.gson;
     requires jersey.client;
     requires jersey.common;
@@ -39,6 +40,7 @@ module com.github.mfl28.boundingboxeditor {
     requires static lombok;
     requires com.fasterxml.jackson.dataformat.csv;
     requires com.fasterxml.jackson.databind;
+    requires com.microsoft.onnxruntime;
     requires org.checkerframework.checker.qual;
 
     opens com.github.mfl28.boundingboxeditor.model to javafx.base, com.google.gson;
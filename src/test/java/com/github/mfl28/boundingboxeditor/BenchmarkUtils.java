@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Helper methods for benchmarks. Benchmarks are tagged with "benchmark", are excluded from the
+ * regular test-run and can be executed with the "benchmark" gradle task.
+ */
+public final class BenchmarkUtils {
+    private BenchmarkUtils() {
+        throw new IllegalStateException("Benchmark Utility class");
+    }
+
+    /**
+     * Returns the total number of bytes allocated so far by all live threads of the JVM.
+     * The difference of two calls approximates the allocations of the code executed in between,
+     * as long as the involved worker threads stay alive (e.g. threads of the common fork-join pool).
+     *
+     * @return the number of allocated bytes or -1 if the measurement is not supported
+     */
+    public static long getTotalAllocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean)
+                || !threadMXBean.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+
+        final long[] threadIds = threadMXBean.getAllThreadIds();
+        return Arrays.stream(threadMXBean.getThreadAllocatedBytes(threadIds)).filter(bytes -> bytes > 0).sum();
+    }
+
+    /**
+     * Returns the value at the given percentile of a sorted array of values.
+     *
+     * @param sortedValues the sorted values
+     * @param percentile   the percentile in the interval [0, 100]
+     * @return the value
+     */
+    public static double percentile(double[] sortedValues, double percentile) {
+        if (sortedValues.length == 0) {
+            return Double.NaN;
+        }
+
+        final int index = (int) Math.ceil(percentile / 100.0 * sortedValues.length) - 1;
+        return sortedValues[Math.clamp(index, 0, sortedValues.length - 1)];
+    }
+
+    /**
+     * Prints a benchmark result line.
+     *
+     * @param benchmarkName the name of the benchmark
+     * @param format        the format string of the result
+     * @param args          the format arguments
+     */
+    public static void report(String benchmarkName, String format, Object... args) {
+        System.out.println("[" + benchmarkName + "] " + String.format(Locale.ENGLISH, format, args));
+    }
+}
@@ -250,10 +250,11 @@ public class BoundingBoxEditorTestBase {
     void tearDown() throws TimeoutException {
         FxToolkit.cleanupStages();
         FxToolkit.hideStage();
-        // Make sure FileChangeWatcher is interrupted.
+        // Make sure ImageFileChangeWatcher and AnnotationFileChangeWatcher are interrupted.
         Thread[] list = new Thread[Thread.activeCount()];
         Thread.currentThread().getThreadGroup().enumerate(list);
-        Arrays.stream(list).filter(thread -> thread != null && thread.getName().equals("ImageFileChangeWatcher"))
+        Arrays.stream(list).filter(thread -> thread != null && (thread.getName().equals("ImageFileChangeWatcher")
+                        || thread.getName().equals("AnnotationFileChangeWatcher")))
                 .forEach(Thread::interrupt);
     }
 
@@ -50,6 +50,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -461,6 +462,56 @@ class ControllerTests extends BoundingBoxEditorTestBase {
                                 TIMEOUT_DURATION_IN_SEC + " sec."));
     }
 
+    @Test
+    void onExportAnnotation_JSON_IntoWatchedImportFile_ShouldOnlyReimportExternalChanges(TestInfo testinfo,
+                                                                                         @TempDir Path tempDirectory)
+            throws IOException {
+        final String referenceAnnotationFilePath = "/testannotations/json/reference/annotations.json";
+
+        waitUntilCurrentImageIsLoaded(testinfo);
+        WaitForAsyncUtils.waitForFxEvents();
+        timeOutAssertServiceSucceeded(controller.getImageMetaDataLoadingService(), testinfo);
+
+        final Path annotationFilePath = tempDirectory.resolve("annotations.json");
+        Files.copy(Objects.requireNonNull(getClass().getResourceAsStream(referenceAnnotationFilePath)),
+                   annotationFilePath);
+
+        Platform.runLater(() -> controller
+                .initiateAnnotationImport(annotationFilePath.toFile(), ImageAnnotationLoadStrategy.Type.JSON));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        timeOutAssertServiceSucceeded(controller.getAnnotationImportService(), testinfo);
+        timeOutAssertThreadCount("AnnotationFileChangeWatcher", 1, testinfo);
+
+        // Save the annotations into the watched file.
+        Platform.runLater(() -> controller.initiateAnnotationExport(annotationFilePath.toFile(),
+                                                                    ImageAnnotationSaveStrategy.Type.JSON));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        timeOutAssertServiceSucceeded(controller.getAnnotationExportService(), testinfo);
+
+        // Give the watcher enough time to report the editor's own changes.
+        WaitForAsyncUtils.sleep(3, TimeUnit.SECONDS);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(threadCount("AnnotationFileChangeWatcher"), Matchers.equalTo(1L), saveScreenshot(testinfo));
+        verifyThat(mainView.getStatusBar().getCurrentEventMessage(),
+                   Matchers.not(Matchers.startsWith("Re-imported")), saveScreenshot(testinfo));
+
+        // Change the file externally.
+        Files.write(annotationFilePath, Files.readAllBytes(annotationFilePath));
+        Files.setLastModifiedTime(annotationFilePath, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        Assertions.assertDoesNotThrow(() -> WaitForAsyncUtils.waitFor(TIMEOUT_DURATION_IN_SEC, TimeUnit.SECONDS,
+                        () -> WaitForAsyncUtils.asyncFx(() -> mainView.getStatusBar()
+                                        .getCurrentEventMessage()
+                                        .equals("Re-imported externally changed annotations for 1 image."))
+                                .get()),
+                () -> saveScreenshotAndReturnMessage(testinfo,
+                        "Externally changed annotations were not re-imported within " +
+                                TIMEOUT_DURATION_IN_SEC + " sec."));
+    }
+
     @Test
     void onLoadAnnotation_YOLO_WhenObjectDataFileMissing_ShouldNotLoadAnnotations(FxRobot robot, TestInfo testinfo) {
         final String inputPath = "/testannotations/yolo/missing-classes-file";
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.ImageFileChanges;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ModelTest {
+    private static final String FIRST_IMAGE_FILE_NAME = "first.jpg";
+    private static final String SECOND_IMAGE_FILE_NAME = "second.jpg";
+
+    private final ObjectCategory category = new ObjectCategory("category", Color.RED);
+    private Model model;
+
+    @BeforeEach
+    void setUp() {
+        model = new Model();
+        model.setImageFiles(List.of(new File(FIRST_IMAGE_FILE_NAME), new File(SECOND_IMAGE_FILE_NAME)));
+        model.getImageFileNameToMetaDataMap().put(FIRST_IMAGE_FILE_NAME,
+                new ImageMetaData(FIRST_IMAGE_FILE_NAME, "folder", "url", 200, 100, 3));
+        model.getImageFileNameToMetaDataMap().put(SECOND_IMAGE_FILE_NAME,
+                new ImageMetaData(SECOND_IMAGE_FILE_NAME, "folder", "url", 200, 100, 3));
+    }
+
+    @Test
+    void onEditAfterSnapshot_ShouldNotChangeSnapshot() {
+        final BoundingShapeData firstBox = createBoundingBoxData(0.1);
+        model.updateBoundingShapeDataAtFileIndex(0, List.of(firstBox));
+
+        final ImageAnnotationData snapshot = model.createImageAnnotationDataSnapshot();
+
+        model.updateBoundingShapeDataAtFileIndex(0, List.of(firstBox, createBoundingBoxData(0.2)));
+        model.updateBoundingShapeDataAtFileIndex(1, List.of(createBoundingBoxData(0.3)));
+
+        assertEquals(1, snapshot.imageAnnotations().size());
+
+        final ImageAnnotation snapshotAnnotation = snapshot.imageAnnotations().iterator().next();
+        assertEquals(FIRST_IMAGE_FILE_NAME, snapshotAnnotation.getImageFileName());
+        assertEquals(List.of(firstBox), snapshotAnnotation.getBoundingShapeData());
+    }
+
+    @Test
+    void onSaveOfUnmodifiedSnapshot_ShouldMarkModelAsSaved() {
+        model.updateBoundingShapeDataAtFileIndex(0, List.of(createBoundingBoxData(0.1)));
+        model.updateBoundingShapeDataAtFileIndex(1, List.of(createBoundingBoxData(0.2)));
+        assertFalse(model.isSaved());
+
+        final long snapshotModificationCount = model.getModificationCount();
+
+        assertTrue(model.setSavedIfUnmodifiedSince(snapshotModificationCount));
+        assertTrue(model.isSaved());
+    }
+
+    @Test
+    void onEditDuringSave_ShouldKeepModelUnsaved() {
+        model.updateBoundingShapeDataAtFileIndex(0, List.of(createBoundingBoxData(0.1)));
+        model.updateBoundingShapeDataAtFileIndex(1, List.of(createBoundingBoxData(0.2)));
+
+        final long snapshotModificationCount = model.getModificationCount();
+
+        model.updateBoundingShapeDataAtFileIndex(1, List.of(createBoundingBoxData(0.3)));
+
+        assertFalse(model.setSavedIfUnmodifiedSince(snapshotModificationCount));
+        assertFalse(model.isSaved());
+    }
+
+    @Test
+    void onAddingImageFiles_ShouldInsertThemByNameAndKeepCurrentImageFile() {
+        model.updateBoundingShapeDataAtFileIndex(1, List.of(createBoundingBoxData(0.1)));
+        model.fileIndexProperty().set(1);
+
+        final boolean currentImageFileChanged = model.updateImageFiles(new ImageFileChanges(
+                List.of(new File("a.jpg"), new File("fourth.jpg")), Collections.emptySet(), Collections.emptyList(),
+                Map.of("a.jpg", new ImageMetaData("a.jpg"), "fourth.jpg", new ImageMetaData("fourth.jpg"))));
+
+        assertFalse(currentImageFileChanged);
+        assertEquals(List.of("a.jpg", FIRST_IMAGE_FILE_NAME, "fourth.jpg", SECOND_IMAGE_FILE_NAME),
+                model.getImageFiles().stream().map(File::getName).toList());
+        assertEquals(SECOND_IMAGE_FILE_NAME, model.getCurrentImageFileName());
+        assertEquals(4, model.nrImageFilesProperty().get());
+        assertEquals(1, model.getCurrentImageAnnotation().getBoundingShapeData().size());
+        assertTrue(model.getImageFileNameToMetaDataMap().containsKey("fourth.jpg"));
+    }
+
+    @Test
+    void onRemovingCurrentImageFile_ShouldRemoveItsAnnotationAndSelectFollowingImageFile() {
+        model.updateBoundingShapeDataAtFileIndex(0, List.of(createBoundingBoxData(0.1)));
+        model.updateBoundingShapeDataAtFileIndex(1, List.of(createBoundingBoxData(0.2)));
+        assertTrue(model.setSavedIfUnmodifiedSince(model.getModificationCount()));
+
+        final boolean currentImageFileChanged = model.updateImageFiles(new ImageFileChanges(
+                Collections.emptyList(), Set.of(FIRST_IMAGE_FILE_NAME), Collections.emptyList(), Map.of()));
+
+        assertTrue(currentImageFileChanged);
+        assertEquals(SECOND_IMAGE_FILE_NAME, model.getCurrentImageFileName());
+        assertEquals(Set.of(SECOND_IMAGE_FILE_NAME), model.getImageFileNameToAnnotationMap().keySet());
+        assertFalse(model.getImageFileNameToMetaDataMap().containsKey(FIRST_IMAGE_FILE_NAME));
+        assertFalse(model.isSaved());
+    }
+
+    private BoundingShapeData createBoundingBoxData(double xMin) {
+        return new BoundingBoxData(category, xMin, 0.1, 0.5, 0.5, Collections.emptyList());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class AdaptiveConcurrencyLimiterTests {
+    private static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void onSuccessfulRequests_ShouldGrowLimitUpToMaximum() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 8, 2.0, clock::get);
+        assertEquals(1, limiter.getLimit());
+
+        for(int i = 0; i < 20; ++i) {
+            completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+        }
+
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getNrInFlightRequests());
+    }
+
+    @Test
+    void onOverloadedRequests_ShouldDecreaseLimitOncePerRound() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 8, 2.0, clock::get);
+
+        // All requests of the round are rejected, but only the first rejection decreases the limit.
+        completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.OVERLOADED);
+        assertEquals(6, limiter.getLimit());
+
+        completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.OVERLOADED);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void onFailedRequests_ShouldNotChangeLimit() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 8, 2.0, clock::get);
+
+        completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+        assertEquals(5, limiter.getLimit());
+
+        // Neither the failures nor their latency are taken as an overload signal.
+        completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.FAILED);
+        completeRound(limiter, 10 * LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.FAILED);
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getNrInFlightRequests());
+    }
+
+    @Test
+    void onStartingNewLatencyWindow_ShouldKeepMinimumOfPreviousWindowAsBaseline() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 8, 2.0, clock::get);
+
+        for(int i = 0; i < 499; ++i) {
+            completeRequest(limiter, LATENCY_NANOS);
+        }
+
+        // The last request of the first window is slower, but still within the tolerance.
+        completeRequest(limiter, 19 * LATENCY_NANOS / 10);
+        assertEquals(4, limiter.getLimit());
+
+        // The baseline is still the lowest latency of the previous window and not the last sample.
+        completeRequest(limiter, 3 * LATENCY_NANOS);
+        assertEquals(3, limiter.getLimit());
+
+        // Once the server's latency stays higher for two windows, the baseline is re-learned.
+        for(int i = 0; i < 1000; ++i) {
+            completeRequest(limiter, 15 * LATENCY_NANOS / 10);
+        }
+
+        completeRequest(limiter, 25 * LATENCY_NANOS / 10);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void onIncreasedLatency_ShouldDecreaseLimitAndThenGrowAdditively() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 16, 2.0, clock::get);
+
+        completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+        assertEquals(5, limiter.getLimit());
+
+        // Requests queued on the server take much longer than the lowest observed latency.
+        completeRound(limiter, 5 * LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+        assertEquals(3, limiter.getLimit());
+
+        // After the first decrease, the limit only grows by a fraction per exhausted round.
+        completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+        assertEquals(4, limiter.getLimit());
+        completeRound(limiter, LATENCY_NANOS, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void onReachedLimit_ShouldQueueRequestsUntilRelease() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1);
+        final long startTime = limiter.acquire();
+        final CountDownLatch acquired = new CountDownLatch(1);
+
+        final Thread waitingThread = new Thread(() -> {
+            try {
+                limiter.release(limiter.acquire(), AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+                acquired.countDown();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waitingThread.start();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while(limiter.getQueueDepth() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(1, limiter.getQueueDepth());
+        assertEquals(1, acquired.getCount());
+
+        limiter.release(startTime, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getQueueDepth());
+        waitingThread.join();
+    }
+
+    @Test
+    void onInvalidParameters_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 4, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 4, 1.0));
+    }
+
+    private void completeRound(AdaptiveConcurrencyLimiter limiter, long latencyNanos,
+                               AdaptiveConcurrencyLimiter.RequestOutcome outcome) throws InterruptedException {
+        final int limit = limiter.getLimit();
+        final long[] startTimes = new long[limit];
+
+        for(int i = 0; i < limit; ++i) {
+            startTimes[i] = limiter.acquire();
+        }
+
+        clock.addAndGet(latencyNanos);
+
+        for(long startTime : startTimes) {
+            limiter.release(startTime, outcome);
+        }
+    }
+
+    private void completeRequest(AdaptiveConcurrencyLimiter limiter, long latencyNanos) throws InterruptedException {
+        final long startTime = limiter.acquire();
+        clock.addAndGet(latencyNanos);
+        limiter.release(startTime, AdaptiveConcurrencyLimiter.RequestOutcome.SUCCEEDED);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class AnnotationArchiveReaderTests {
+    private static final Path TEST_ANNOTATIONS_PATH = new File(Objects.requireNonNull(
+            AnnotationArchiveReaderTests.class.getResource("/testannotations")).getFile()).toPath();
+    private static final Path YOLO_REFERENCE_PATH = TEST_ANNOTATIONS_PATH.resolve("yolo/reference");
+    private static final Path PVOC_REFERENCE_PATH = TEST_ANNOTATIONS_PATH.resolve("pvoc/reference");
+    private static final Path JSON_REFERENCE_FILE_PATH = TEST_ANNOTATIONS_PATH.resolve("json/reference/annotations.json");
+    private static final String YOLO_ANNOTATION_FILE_NAME = "austin-neill-685084-unsplash.txt";
+    private static final String PVOC_ANNOTATION_FILE_NAME = "austin-neill-685084-unsplash_jpg_A.xml";
+    private static final Set<String> IMAGE_FILE_NAMES = Set.of("austin-neill-685084-unsplash.jpg",
+            "caleb-george-316073-unsplash.jpg");
+
+    @Test
+    void onLoadingYOLOZipArchive_ShouldProduceSameAnnotationsAsFolder(@TempDir Path tempDir) throws IOException {
+        final Path archivePath = tempDir.resolve("annotations.zip");
+
+        try(ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archivePath))) {
+            writeZipEntry(zipOutputStream, "__MACOSX/delivery/._" + YOLO_ANNOTATION_FILE_NAME, new byte[]{0, 1, 2});
+            writeZipEntry(zipOutputStream, "delivery/" + YOLO_ANNOTATION_FILE_NAME,
+                    Files.readAllBytes(YOLO_REFERENCE_PATH.resolve(YOLO_ANNOTATION_FILE_NAME)));
+            // The categories are stored after the annotation file they are needed for.
+            writeZipEntry(zipOutputStream, "delivery/object.data",
+                    Files.readAllBytes(YOLO_REFERENCE_PATH.resolve("object.data")));
+        }
+
+        final ImageAnnotationImportResult folderResult = new YOLOLoadStrategy()
+                .load(YOLO_REFERENCE_PATH, IMAGE_FILE_NAMES, Collections.emptyMap(), new SimpleDoubleProperty(0));
+        final DoubleProperty progress = new SimpleDoubleProperty(0);
+        final ImageAnnotationImportResult archiveResult = new YOLOLoadStrategy()
+                .load(archivePath, IMAGE_FILE_NAMES, categoriesOf(folderResult), progress);
+
+        assertSameAnnotations(folderResult, archiveResult);
+        assertTrue(progress.get() > 0);
+    }
+
+    @Test
+    void onLoadingYOLOZipArchiveWithBackslashSeparators_ShouldProduceSameAnnotationsAsFolder(@TempDir Path tempDir)
+            throws IOException {
+        final Path archivePath = tempDir.resolve("annotations.zip");
+
+        try(ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archivePath))) {
+            writeZipEntry(zipOutputStream, "__MACOSX\\delivery\\._" + YOLO_ANNOTATION_FILE_NAME, new byte[]{0, 1, 2});
+            writeZipEntry(zipOutputStream, "delivery\\" + YOLO_ANNOTATION_FILE_NAME,
+                    Files.readAllBytes(YOLO_REFERENCE_PATH.resolve(YOLO_ANNOTATION_FILE_NAME)));
+            writeZipEntry(zipOutputStream, "delivery\\object.data",
+                    Files.readAllBytes(YOLO_REFERENCE_PATH.resolve("object.data")));
+        }
+
+        final ImageAnnotationImportResult folderResult = new YOLOLoadStrategy()
+                .load(YOLO_REFERENCE_PATH, IMAGE_FILE_NAMES, Collections.emptyMap(), new SimpleDoubleProperty(0));
+        final ImageAnnotationImportResult archiveResult = new YOLOLoadStrategy()
+                .load(archivePath, IMAGE_FILE_NAMES, categoriesOf(folderResult), new SimpleDoubleProperty(0));
+
+        assertSameAnnotations(folderResult, archiveResult);
+    }
+
+    @Test
+    void onLoadingYOLOArchiveWithoutObjectData_ShouldReportError(@TempDir Path tempDir) throws IOException {
+        final Path archivePath = tempDir.resolve("annotations.zip");
+
+        try(ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archivePath))) {
+            writeZipEntry(zipOutputStream, YOLO_ANNOTATION_FILE_NAME,
+                    Files.readAllBytes(YOLO_REFERENCE_PATH.resolve(YOLO_ANNOTATION_FILE_NAME)));
+        }
+
+        final ImageAnnotationImportResult archiveResult = new YOLOLoadStrategy()
+                .load(archivePath, IMAGE_FILE_NAMES, Collections.emptyMap(), new SimpleDoubleProperty(0));
+
+        assertEquals(0, archiveResult.getNrSuccessfullyProcessedItems());
+        assertEquals(1, archiveResult.getErrorTableEntries().size());
+        assertEquals("object.data", archiveResult.getErrorTableEntries().getFirst().getSourceName());
+    }
+
+    @Test
+    void onLoadingPVOCTarArchiveWithLongPaths_ShouldProduceSameAnnotationsAsFolder(@TempDir Path tempDir)
+            throws IOException {
+        final Path archivePath = tempDir.resolve("annotations.tar");
+        final String longFolderName = "a-very-long-folder-name-that-does-not-fit-into-the-tar-header/".repeat(3);
+
+        try(OutputStream outputStream = Files.newOutputStream(archivePath)) {
+            writeTarEntry(outputStream, "readme.md", "Not an annotation.".getBytes(StandardCharsets.UTF_8));
+            writePaxPathEntry(outputStream, longFolderName + PVOC_ANNOTATION_FILE_NAME);
+            writeTarEntry(outputStream, "placeholder.xml",
+                    Files.readAllBytes(PVOC_REFERENCE_PATH.resolve(PVOC_ANNOTATION_FILE_NAME)));
+            outputStream.write(new byte[2 * 512]);
+        }
+
+        final ImageAnnotationImportResult folderResult = new PVOCLoadStrategy()
+                .load(PVOC_REFERENCE_PATH, IMAGE_FILE_NAMES, Collections.emptyMap(), new SimpleDoubleProperty(0));
+        final ImageAnnotationImportResult archiveResult = new PVOCLoadStrategy()
+                .load(archivePath, IMAGE_FILE_NAMES, categoriesOf(folderResult), new SimpleDoubleProperty(0));
+
+        assertSameAnnotations(folderResult, archiveResult);
+    }
+
+    @Test
+    void onLoadingJSONGzippedTarArchive_ShouldProduceSameAnnotationsAsFile(@TempDir Path tempDir)
+            throws IOException {
+        final Path archivePath = tempDir.resolve("annotations.tar.gz");
+
+        try(OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(archivePath))) {
+            writeTarEntry(outputStream, "delivery/annotations.json", Files.readAllBytes(JSON_REFERENCE_FILE_PATH));
+            outputStream.write(new byte[2 * 512]);
+        }
+
+        final ImageAnnotationImportResult fileResult = new JSONLoadStrategy()
+                .load(JSON_REFERENCE_FILE_PATH, IMAGE_FILE_NAMES, new HashMap<>(), new SimpleDoubleProperty(0));
+        final ImageAnnotationImportResult archiveResult = new JSONLoadStrategy()
+                .load(archivePath, IMAGE_FILE_NAMES, categoriesOf(fileResult), new SimpleDoubleProperty(0));
+
+        assertSameAnnotations(fileResult, archiveResult);
+    }
+
+    @Test
+    void onFailingEntryHandler_ShouldNotRunHandlersAfterReturning(@TempDir Path tempDir) throws IOException,
+            InterruptedException {
+        final Path archivePath = tempDir.resolve("annotations.zip");
+
+        try(ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archivePath))) {
+            writeZipEntry(zipOutputStream, "invalid.txt", new byte[]{0});
+
+            for(int i = 0; i < 100; ++i) {
+                writeZipEntry(zipOutputStream, "entry" + i + ".txt", new byte[]{1});
+            }
+        }
+
+        final AtomicInteger nrHandledEntries = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> AnnotationArchiveReader.readEntries(archivePath,
+                fileName -> true, (fileName, content) -> {
+                    if(fileName.equals("invalid.txt")) {
+                        throw new IllegalStateException("Invalid entry.");
+                    }
+
+                    try {
+                        Thread.sleep(20);
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    nrHandledEntries.incrementAndGet();
+                }, new SimpleDoubleProperty(0)));
+
+        final int nrHandledEntriesOnReturn = nrHandledEntries.get();
+        Thread.sleep(200);
+
+        assertEquals(nrHandledEntriesOnReturn, nrHandledEntries.get());
+    }
+
+    @Test
+    void onFailingEntryHandler_ShouldStopReadingEntries(@TempDir Path tempDir) throws IOException {
+        final Path archivePath = tempDir.resolve("annotations.zip");
+        // More entries than can be pending at once, so that reading has to wait for handlers.
+        final int nrEntries = 20 * Runtime.getRuntime().availableProcessors();
+
+        try(ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archivePath))) {
+            writeZipEntry(zipOutputStream, "invalid.txt", new byte[]{0});
+
+            for(int i = 0; i < nrEntries; ++i) {
+                writeZipEntry(zipOutputStream, "entry" + i + ".txt", new byte[]{1});
+            }
+        }
+
+        final AtomicInteger nrReadEntries = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> AnnotationArchiveReader.readEntries(archivePath,
+                fileName -> nrReadEntries.incrementAndGet() > 0, (fileName, content) -> {
+                    if(fileName.equals("invalid.txt")) {
+                        throw new IllegalStateException("Invalid entry.");
+                    }
+
+                    try {
+                        Thread.sleep(20);
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, new SimpleDoubleProperty(0)));
+
+        assertTrue(nrReadEntries.get() < nrEntries);
+    }
+
+    private static Map<String, ObjectCategory> categoriesOf(ImageAnnotationImportResult result) {
+        return new HashMap<>(result.getImageAnnotationData().categoryNameToCategoryMap());
+    }
+
+    private static void assertSameAnnotations(ImageAnnotationImportResult expected,
+                                              ImageAnnotationImportResult actual) {
+        assertTrue(expected.getNrSuccessfullyProcessedItems() > 0);
+        assertEquals(expected.getNrSuccessfullyProcessedItems(), actual.getNrSuccessfullyProcessedItems());
+        assertEquals(expected.getErrorTableEntries().size(), actual.getErrorTableEntries().size());
+        assertEquals(expected.getImageAnnotationData().categoryNameToBoundingShapeCountMap(),
+                actual.getImageAnnotationData().categoryNameToBoundingShapeCountMap());
+
+        final Map<String, ImageAnnotation> actualAnnotations = new HashMap<>();
+        actual.getImageAnnotationData().imageAnnotations()
+                .forEach(annotation -> actualAnnotations.put(annotation.getImageFileName(), annotation));
+
+        for(ImageAnnotation expectedAnnotation : expected.getImageAnnotationData().imageAnnotations()) {
+            final ImageAnnotation actualAnnotation = actualAnnotations.get(expectedAnnotation.getImageFileName());
+            assertNotNull(actualAnnotation);
+            assertEquals(expectedAnnotation.getBoundingShapeData(), actualAnnotation.getBoundingShapeData());
+        }
+    }
+
+    private static void writeZipEntry(ZipOutputStream zipOutputStream, String name, byte[] content)
+            throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        zipOutputStream.write(content);
+        zipOutputStream.closeEntry();
+    }
+
+    private static void writeTarEntry(OutputStream outputStream, String name, byte[] content) throws IOException {
+        writeTarHeader(outputStream, name, content.length, (byte) '0');
+        writeTarData(outputStream, content);
+    }
+
+    private static void writePaxPathEntry(OutputStream outputStream, String path) throws IOException {
+        final String record = " path=" + path + "\n";
+        int length = record.getBytes(StandardCharsets.UTF_8).length;
+        length += String.valueOf(length + String.valueOf(length).length()).length();
+        final byte[] content = (length + record).getBytes(StandardCharsets.UTF_8);
+
+        writeTarHeader(outputStream, "PaxHeader", content.length, (byte) 'x');
+        writeTarData(outputStream, content);
+    }
+
+    private static void writeTarHeader(OutputStream outputStream, String name, long size, byte type)
+            throws IOException {
+        final byte[] header = new byte[512];
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        putAscii(header, 100, "0000644");
+        putAscii(header, 124, String.format("%011o", size));
+        header[156] = type;
+        putAscii(header, 257, "ustar");
+        putAscii(header, 263, "00");
+        outputStream.write(header);
+    }
+
+    private static void writeTarData(OutputStream outputStream, byte[] content) throws IOException {
+        outputStream.write(content);
+        outputStream.write(new byte[(512 - content.length % 512) % 512]);
+    }
+
+    private static void putAscii(byte[] header, int offset, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+}
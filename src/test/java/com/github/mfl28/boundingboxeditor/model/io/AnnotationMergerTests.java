@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class AnnotationMergerTests {
+    private final ObjectCategory car = new ObjectCategory("car", Color.RED);
+    private final ObjectCategory bike = new ObjectCategory("bike", Color.BLUE);
+
+    @Test
+    void onMergingWithSkipPolicy_ShouldDropOnlyOverlappingShapesOfSameCategory() {
+        final BoundingShapeData existingCar = createBox(car, 0.1, 0.1, 0.5, 0.5, null);
+        final BoundingShapeData duplicateCar = createBox(car, 0.12, 0.1, 0.5, 0.52, 0.9);
+        final BoundingShapeData overlappingBike = createBox(bike, 0.1, 0.1, 0.5, 0.5, 0.9);
+        final BoundingShapeData distantCar = createBox(car, 0.6, 0.6, 0.9, 0.9, 0.9);
+
+        final AnnotationMerger.ImageMergeResult result =
+                new AnnotationMerger(AnnotationMerger.Policy.SKIP, AnnotationMerger.DEFAULT_IOU_THRESHOLD)
+                        .mergeImage(List.of(existingCar), List.of(duplicateCar, overlappingBike, distantCar));
+
+        assertEquals(List.of(overlappingBike, distantCar), result.addedShapes());
+        assertEquals(List.of(duplicateCar), result.droppedShapes());
+        assertTrue(result.replacedShapes().isEmpty());
+    }
+
+    @Test
+    void onMergingWithReplacePolicy_ShouldReplaceEachExistingShapeOnce() {
+        final BoundingShapeData existingCar = createBox(car, 0.1, 0.1, 0.5, 0.5, null);
+        final BoundingShapeData bestCar = createBox(car, 0.1, 0.1, 0.5, 0.5, 0.8);
+        final BoundingShapeData worseCar = createBox(car, 0.11, 0.11, 0.5, 0.5, 0.6);
+
+        final AnnotationMerger.ImageMergeResult result =
+                new AnnotationMerger(AnnotationMerger.Policy.REPLACE, AnnotationMerger.DEFAULT_IOU_THRESHOLD)
+                        .mergeImage(List.of(existingCar), List.of(worseCar, bestCar));
+
+        assertEquals(List.of(bestCar), result.addedShapes());
+        assertEquals(List.of(existingCar), result.replacedShapes());
+        assertEquals(List.of(worseCar), result.droppedShapes());
+    }
+
+    @Test
+    void onMergingWithKeepHigherScorePolicy_ShouldKeepShapeWithHigherScore() {
+        final BoundingShapeData existingPrediction = createBox(car, 0.1, 0.1, 0.5, 0.5, 0.5);
+        final BoundingShapeData existingDrawnBike = createBox(bike, 0.6, 0.6, 0.9, 0.9, null);
+        final BoundingShapeData betterPrediction = createBox(car, 0.1, 0.1, 0.5, 0.5, 0.7);
+        final BoundingShapeData bikePrediction = createBox(bike, 0.6, 0.6, 0.9, 0.9, 0.99);
+
+        final AnnotationMerger.ImageMergeResult result =
+                new AnnotationMerger(AnnotationMerger.Policy.KEEP_HIGHER_SCORE,
+                        AnnotationMerger.DEFAULT_IOU_THRESHOLD)
+                        .mergeImage(List.of(existingPrediction, existingDrawnBike),
+                                List.of(betterPrediction, bikePrediction));
+
+        assertEquals(List.of(betterPrediction), result.addedShapes());
+        assertEquals(List.of(existingPrediction), result.replacedShapes());
+        assertEquals(List.of(bikePrediction), result.droppedShapes());
+    }
+
+    @Test
+    void onMergingAnnotationData_ShouldAdjustShapeCountsAndReportReplacedShapes() {
+        final BoundingShapeData existingCar = createBox(car, 0.1, 0.1, 0.5, 0.5, 0.5);
+        final BoundingShapeData existingBike = createBox(bike, 0.6, 0.6, 0.9, 0.9, null);
+        final BoundingShapeData predictedCar = createBox(car, 0.1, 0.1, 0.5, 0.5, 0.9);
+        final BoundingShapeData predictedBike = createBox(bike, 0.6, 0.6, 0.9, 0.9, 0.9);
+        final BoundingShapeData predictedNewCar = createBox(car, 0.55, 0.05, 0.7, 0.2, 0.9);
+
+        final ImageAnnotationData newData = new ImageAnnotationData(
+                List.of(new ImageAnnotation(new ImageMetaData("image.jpg"),
+                        new ArrayList<>(List.of(predictedCar, predictedBike, predictedNewCar)))),
+                Map.of("car", 2, "bike", 1), Map.of("car", car, "bike", bike));
+
+        final AnnotationMerger.MergeResult result =
+                new AnnotationMerger(AnnotationMerger.Policy.KEEP_HIGHER_SCORE,
+                        AnnotationMerger.DEFAULT_IOU_THRESHOLD)
+                        .merge(newData, Map.of("image.jpg", List.of(existingCar, existingBike)));
+
+        assertEquals(1, result.nrMergedShapes());
+        assertEquals(1, result.nrDroppedShapes());
+        assertEquals(Map.of("image.jpg", List.of(existingCar)), result.imageFileNameToReplacedShapes());
+        assertEquals(Map.of("car", 2, "bike", 0),
+                result.imageAnnotationData().categoryNameToBoundingShapeCountMap());
+        assertEquals(List.of(predictedCar, predictedNewCar),
+                result.imageAnnotationData().imageAnnotations().iterator().next().getBoundingShapeData());
+    }
+
+    @Test
+    void onMergingWithAddAllPolicy_ShouldReturnUnchangedData() {
+        final ImageAnnotationData newData = new ImageAnnotationData(
+                List.of(new ImageAnnotation(new ImageMetaData("image.jpg"),
+                        new ArrayList<>(List.of(createBox(car, 0.1, 0.1, 0.5, 0.5, 0.9))))),
+                Map.of("car", 1), Map.of("car", car));
+
+        final AnnotationMerger.MergeResult result =
+                new AnnotationMerger(AnnotationMerger.Policy.ADD_ALL, AnnotationMerger.DEFAULT_IOU_THRESHOLD)
+                        .merge(newData, Map.of("image.jpg", List.of(createBox(car, 0.1, 0.1, 0.5, 0.5, null))));
+
+        assertSame(newData, result.imageAnnotationData());
+        assertEquals(0, result.nrDroppedShapes());
+        assertThrows(IllegalArgumentException.class,
+                () -> new AnnotationMerger(AnnotationMerger.Policy.SKIP, 0.0));
+    }
+
+    private static BoundingShapeData createBox(ObjectCategory category, double xMin, double yMin,
+                                               double xMax, double yMax, Double score) {
+        final BoundingBoxData boundingBoxData = new BoundingBoxData(category, xMin, yMin, xMax, yMax,
+                Collections.emptyList());
+        boundingBoxData.setScore(score);
+        return boundingBoxData;
+    }
+}
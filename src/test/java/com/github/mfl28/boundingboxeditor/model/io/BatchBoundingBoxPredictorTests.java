@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictionEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.ModelEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.PredictionClientException;
+import com.github.mfl28.boundingboxeditor.model.io.results.BatchBoundingBoxPredictionResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class BatchBoundingBoxPredictorTests {
+    private static final String FAILING_IMAGE_CONTENT = "fail";
+
+    @Test
+    void onPredictingMultipleImages_ShouldBoundInFlightRequestsAndCollectErrorsPerImage(@TempDir Path tempDir)
+            throws Exception {
+        final List<File> imageFiles = createImageFiles(tempDir, 40, Set.of(7, 23));
+        final FakeClient client = new FakeClient(20);
+        final List<BatchBoundingBoxPredictor.Batch> batches = new ArrayList<>();
+        final List<BatchBoundingBoxPredictor.PredictionStatistics> statistics = new ArrayList<>();
+
+        final BatchBoundingBoxPredictionResult result =
+                new BatchBoundingBoxPredictor(client, createPredictorConfig(), 4, 8)
+                        .predict(imageFiles, createMetaData(imageFiles), new HashMap<>(),
+                                batches::add, statistics::add);
+
+        assertTrue(client.maxInFlightRequests.get() <= 4);
+        assertTrue(client.maxInFlightRequests.get() > 1);
+
+        assertEquals(38, result.getNrSuccessfullyProcessedItems());
+        assertEquals(Set.of("image7.jpg", "image23.jpg"),
+                result.getErrorTableEntries().stream().map(IOErrorInfoEntry::getSourceName)
+                        .collect(Collectors.toSet()));
+        assertEquals(38, result.getImageAnnotationData().categoryNameToBoundingShapeCountMap().get("car"));
+
+        final List<File> predictedImageFiles = batches.stream()
+                .flatMap(batch -> batch.predictedImageFiles().stream()).toList();
+        assertEquals(38, predictedImageFiles.size());
+        assertEquals(38, new HashSet<>(predictedImageFiles).size());
+        assertTrue(batches.stream().allMatch(batch -> batch.predictedImageFiles().size() <= 8));
+
+        // All predicted boxes must refer to the same category object, even though it was created concurrently.
+        final Set<ObjectCategory> categories = Collections.newSetFromMap(new IdentityHashMap<>());
+        batches.stream()
+                .flatMap(batch -> batch.imageAnnotationData().imageAnnotations().stream())
+                .map(ImageAnnotation::getBoundingShapeData)
+                .flatMap(List::stream)
+                .forEach(boundingShapeData -> categories.add(boundingShapeData.getCategory()));
+        assertEquals(1, categories.size());
+
+        final BatchBoundingBoxPredictor.PredictionStatistics finalStatistics = statistics.getLast();
+        assertEquals(40, finalStatistics.nrProcessedImages());
+        assertEquals(40, finalStatistics.nrImages());
+        assertTrue(finalStatistics.p50LatencyMillis() >= 20);
+        assertTrue(finalStatistics.p50LatencyMillis() <= finalStatistics.p90LatencyMillis());
+        assertTrue(finalStatistics.p90LatencyMillis() <= finalStatistics.p99LatencyMillis());
+        assertEquals(38L * "image".length() + 2L * FAILING_IMAGE_CONTENT.length(), finalStatistics.uploadedBytes());
+        assertEquals(finalStatistics, result.getStatistics());
+    }
+
+    @Test
+    void onInterruption_ShouldStopAndHandOutCompletedPredictions(@TempDir Path tempDir) throws Exception {
+        final List<File> imageFiles = createImageFiles(tempDir, 40, Collections.emptySet());
+        final List<File> predictedImageFiles = new ArrayList<>();
+
+        final BatchBoundingBoxPredictionResult result =
+                new BatchBoundingBoxPredictor(new FakeClient(10), createPredictorConfig(), 2, 1)
+                        .predict(imageFiles, createMetaData(imageFiles), new HashMap<>(),
+                                batch -> {
+                                    predictedImageFiles.addAll(batch.predictedImageFiles());
+                                    // Simulates the cancellation of the task running the prediction.
+                                    Thread.currentThread().interrupt();
+                                }, statistics -> {
+                                });
+
+        assertTrue(Thread.interrupted());
+        assertTrue(result.getNrSuccessfullyProcessedItems() < imageFiles.size());
+        assertEquals(result.getNrSuccessfullyProcessedItems(), predictedImageFiles.size());
+    }
+
+    @Test
+    void onSlowRequests_ShouldReportInferenceStageAsBottleneck(@TempDir Path tempDir) throws Exception {
+        final List<File> imageFiles = createImageFiles(tempDir, 20, Collections.emptySet());
+
+        final BatchBoundingBoxPredictionResult result =
+                new BatchBoundingBoxPredictor(new FakeClient(20), createPredictorConfig(), 1, 4, 4)
+                        .predict(imageFiles, createMetaData(imageFiles), new HashMap<>(),
+                                batch -> {
+                                }, statistics -> {
+                                });
+
+        assertEquals(20, result.getNrSuccessfullyProcessedItems());
+
+        final BatchBoundingBoxPredictor.StageTimings stageTimings = result.getStatistics().stageTimings();
+        assertTrue(stageTimings.meanInferenceMillis() >= 20);
+        // Prepared images queue up in front of the single request worker.
+        assertTrue(stageTimings.meanHandOffWaitMillis() > stageTimings.meanPreprocessingMillis());
+        assertTrue(stageTimings.meanHandOffWaitMillis() > stageTimings.meanInferenceIdleMillis());
+        assertTrue(result.getStatistics().getSummary().contains(stageTimings.getSummary()));
+    }
+
+    @Test
+    void onPreprocessingFailure_ShouldReportErrorPerImage(@TempDir Path tempDir) throws Exception {
+        final List<File> imageFiles = new ArrayList<>(createImageFiles(tempDir, 5, Collections.emptySet()));
+        final Map<String, ImageMetaData> imageFileNameToMetaData = createMetaData(imageFiles);
+        imageFileNameToMetaData.remove("image0.jpg");
+        Files.delete(imageFiles.get(1).toPath());
+
+        final BatchBoundingBoxPredictionResult result =
+                new BatchBoundingBoxPredictor(new FakeClient(0), createPredictorConfig(), 2, 4, 2)
+                        .predict(imageFiles, imageFileNameToMetaData, new HashMap<>(),
+                                batch -> {
+                                }, statistics -> {
+                                });
+
+        assertEquals(3, result.getNrSuccessfullyProcessedItems());
+        assertEquals(Map.of("image0.jpg", "Image metadata was not loaded.",
+                        "image1.jpg", "Image file does not exist."),
+                result.getErrorTableEntries().stream().collect(Collectors.toMap(IOErrorInfoEntry::getSourceName,
+                        IOErrorInfoEntry::getErrorDescription)));
+        assertEquals(5, result.getStatistics().nrProcessedImages());
+    }
+
+    @Test
+    void onAdaptiveConcurrency_ShouldSettleNearServerCapacity(@TempDir Path tempDir) throws Exception {
+        final List<File> imageFiles = createImageFiles(tempDir, 200, Collections.emptySet());
+        final OverloadableClient client = new OverloadableClient(4, 10);
+        final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(32);
+
+        final BatchBoundingBoxPredictionResult result =
+                new BatchBoundingBoxPredictor(new BoundingBoxPredictor(client, createPredictorConfig()),
+                        concurrencyLimiter, 16, 2)
+                        .predict(imageFiles, createMetaData(imageFiles), new HashMap<>(),
+                                batch -> {
+                                }, statistics -> {
+                                });
+
+        // The server starts queueing above 4 and rejects requests above 12 concurrent requests.
+        assertTrue(result.getErrorTableEntries().size() < 10);
+        assertTrue(client.maxInFlightRequests.get() <= 16);
+        assertTrue(concurrencyLimiter.getLimit() >= 2 && concurrencyLimiter.getLimit() <= 12);
+        assertEquals(concurrencyLimiter.getLimit(), result.getStatistics().concurrencyLimit());
+        assertEquals(0, concurrencyLimiter.getNrInFlightRequests());
+    }
+
+    @Test
+    void onInvalidConcurrencyBatchSizeOrWorkerCount_ShouldThrowException() {
+        final FakeClient client = new FakeClient(0);
+        final BoundingBoxPredictorConfig config = createPredictorConfig();
+
+        assertThrows(IllegalArgumentException.class, () -> new BatchBoundingBoxPredictor(client, config, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchBoundingBoxPredictor(client, config, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BatchBoundingBoxPredictor(client, config, 1, 1, 0));
+    }
+
+    private static BoundingBoxPredictorConfig createPredictorConfig() {
+        final BoundingBoxPredictorConfig config = new BoundingBoxPredictorConfig();
+        config.setResizeImages(false);
+        config.setMergeCategories(false);
+        return config;
+    }
+
+    private static List<File> createImageFiles(Path directory, int nrImages, Set<Integer> failingIndices)
+            throws IOException {
+        final List<File> imageFiles = new ArrayList<>();
+
+        for(int i = 0; i < nrImages; ++i) {
+            final Path imageFile = directory.resolve("image" + i + ".jpg");
+            Files.writeString(imageFile, failingIndices.contains(i) ? FAILING_IMAGE_CONTENT : "image");
+            imageFiles.add(imageFile.toFile());
+        }
+
+        return imageFiles;
+    }
+
+    private static Map<String, ImageMetaData> createMetaData(List<File> imageFiles) {
+        final Map<String, ImageMetaData> imageFileNameToMetaData = new HashMap<>();
+
+        for(File imageFile : imageFiles) {
+            imageFileNameToMetaData.put(imageFile.getName(),
+                    new ImageMetaData(imageFile.getName(), "folder", "url", 200, 100, 3));
+        }
+
+        return imageFileNameToMetaData;
+    }
+
+    private static class OverloadableClient implements BoundingBoxPredictorClient {
+        private final int capacity;
+        private final long latencyInMillis;
+        private final AtomicInteger inFlightRequests = new AtomicInteger();
+        private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+
+        OverloadableClient(int capacity, long latencyInMillis) {
+            this.capacity = capacity;
+            this.latencyInMillis = latencyInMillis;
+        }
+
+        @Override
+        public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+            final int nrInFlightRequests = inFlightRequests.incrementAndGet();
+            maxInFlightRequests.accumulateAndGet(nrInFlightRequests, Math::max);
+
+            try {
+                if(nrInFlightRequests > 3 * capacity) {
+                    throw new PredictionClientException("Service unavailable.");
+                }
+
+                // Requests above the capacity are queued on the server.
+                Thread.sleep(latencyInMillis * Math.max(capacity, nrInFlightRequests) / capacity);
+                return List.of(new BoundingBoxPredictionEntry(Map.of("car", List.of(10.0, 10.0, 50.0, 50.0)), 0.9));
+            } catch(InterruptedException e) {
+                throw new PredictionClientException(e.getMessage());
+            } finally {
+                inFlightRequests.decrementAndGet();
+            }
+        }
+
+        @Override
+        public List<ModelEntry> models() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getName() {
+            return "Overloadable";
+        }
+    }
+
+    private static class FakeClient implements BoundingBoxPredictorClient {
+        private final long latencyInMillis;
+        private final AtomicInteger inFlightRequests = new AtomicInteger();
+        private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+
+        FakeClient(long latencyInMillis) {
+            this.latencyInMillis = latencyInMillis;
+        }
+
+        @Override
+        public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+            maxInFlightRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+
+            try {
+                final String content = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                Thread.sleep(latencyInMillis);
+
+                if(content.equals(FAILING_IMAGE_CONTENT)) {
+                    throw new PredictionClientException("Prediction failed.");
+                }
+
+                return List.of(new BoundingBoxPredictionEntry(Map.of("car", List.of(10.0, 10.0, 50.0, 50.0)), 0.9));
+            } catch(IOException | InterruptedException e) {
+                throw new PredictionClientException(e.getMessage());
+            } finally {
+                inFlightRequests.decrementAndGet();
+            }
+        }
+
+        @Override
+        public List<ModelEntry> models() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getName() {
+            return "Fake";
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.BenchmarkUtils;
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class BinaryProjectBenchmark {
+    private static final int NR_IMAGES = 100_000;
+    private static final int NR_BOXES_PER_IMAGE = 10;
+
+    @Test
+    void benchmarkBinaryProjectAgainstJSON(@TempDir Path tempDir) throws IOException {
+        final ImageAnnotationData data = createData();
+        final Set<String> fileNames = new HashSet<>();
+        data.imageAnnotations().forEach(imageAnnotation -> fileNames.add(imageAnnotation.getImageFileName()));
+
+        final Path jsonFile = tempDir.resolve("annotations.json");
+        final Path binaryFile = tempDir.resolve("annotations.bbep");
+
+        final long jsonSaveNanos = time(() -> new JSONSaveStrategy().save(data, jsonFile, new SimpleDoubleProperty()));
+        final long binarySaveNanos = time(() -> new BinaryProjectSaveStrategy().save(data, binaryFile,
+                new SimpleDoubleProperty()));
+
+        // Changes a single image and saves again, which only appends one block and a new index.
+        final ImageAnnotation changedAnnotation = data.imageAnnotations().iterator().next();
+        changedAnnotation.getBoundingShapeData().removeLast();
+        final long binaryIncrementalSaveNanos = time(() -> new BinaryProjectSaveStrategy().save(data, binaryFile,
+                new SimpleDoubleProperty()));
+
+        final long jsonLoadNanos = time(() -> assertLoaded(new JSONLoadStrategy().load(jsonFile, fileNames,
+                new HashMap<>(), new SimpleDoubleProperty())));
+        final long binaryLoadNanos = time(() -> assertLoaded(new BinaryProjectLoadStrategy().load(binaryFile,
+                fileNames, new HashMap<>(), new SimpleDoubleProperty())));
+
+        BenchmarkUtils.report("Binary project", "%d boxes: save %.2f s (incremental %.2f s), load %.2f s, %d bytes",
+                NR_IMAGES * NR_BOXES_PER_IMAGE, binarySaveNanos / 1e9, binaryIncrementalSaveNanos / 1e9,
+                binaryLoadNanos / 1e9, Files.size(binaryFile));
+        BenchmarkUtils.report("JSON", "%d boxes: save %.2f s, load %.2f s, %d bytes",
+                NR_IMAGES * NR_BOXES_PER_IMAGE, jsonSaveNanos / 1e9, jsonLoadNanos / 1e9, Files.size(jsonFile));
+    }
+
+    private static void assertLoaded(ImageAnnotationImportResult result) {
+        assertEquals(NR_IMAGES, result.getNrSuccessfullyProcessedItems());
+    }
+
+    private static long time(IORunnable runnable) throws IOException {
+        final long startTime = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - startTime;
+    }
+
+    private static ImageAnnotationData createData() {
+        final Random random = new Random(42);
+        final List<ObjectCategory> categories = List.of(new ObjectCategory("cat", Color.RED),
+                new ObjectCategory("dog", Color.BLUE), new ObjectCategory("bird", Color.GREEN));
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>(NR_IMAGES);
+        final Map<String, Integer> counts = new HashMap<>();
+
+        for(int i = 0; i < NR_IMAGES; ++i) {
+            final List<BoundingShapeData> boxes = new ArrayList<>(NR_BOXES_PER_IMAGE);
+
+            for(int j = 0; j < NR_BOXES_PER_IMAGE; ++j) {
+                final ObjectCategory category = categories.get(random.nextInt(categories.size()));
+                final double xMin = random.nextDouble() * 0.5;
+                final double yMin = random.nextDouble() * 0.5;
+                boxes.add(new BoundingBoxData(category, xMin, yMin, xMin + 0.25, yMin + 0.25,
+                        Collections.emptyList()));
+                counts.merge(category.getName(), 1, Integer::sum);
+            }
+
+            imageAnnotations.add(new ImageAnnotation(
+                    new ImageMetaData("image" + i + ".jpg", "folder", "url", 640, 480, 3), boxes));
+        }
+
+        final Map<String, ObjectCategory> categoryMap = new HashMap<>();
+        categories.forEach(category -> categoryMap.put(category.getName(), category));
+
+        return new ImageAnnotationData(imageAnnotations, counts, categoryMap);
+    }
+
+    @FunctionalInterface
+    private interface IORunnable {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class BinaryProjectStrategyTests {
+    private final ObjectCategory car = new ObjectCategory("car", Color.RED);
+    private final ObjectCategory wheel = new ObjectCategory("wheel", Color.BLUE);
+
+    @Test
+    void onSavingAndLoading_ShouldReproduceAnnotations(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.bbep");
+        final List<ImageAnnotation> imageAnnotations = List.of(createAnnotation("a.png", 0.1),
+                createAnnotation("b.png", 0.2));
+
+        assertTrue(save(imageAnnotations, destination).getErrorTableEntries().isEmpty());
+
+        final Map<String, ObjectCategory> categories = new HashMap<>(Map.of("car", car));
+        final ImageAnnotationImportResult importResult = new BinaryProjectLoadStrategy().load(destination,
+                Set.of("a.png"), categories, new SimpleDoubleProperty(0));
+
+        assertEquals(1, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(1, importResult.getErrorTableEntries().size());
+        assertEquals(Map.of("car", 1, "wheel", 1),
+                importResult.getImageAnnotationData().categoryNameToBoundingShapeCountMap());
+        assertSame(car, importResult.getImageAnnotationData().categoryNameToCategoryMap().get("car"));
+        assertEquals(Color.BLUE, importResult.getImageAnnotationData().categoryNameToCategoryMap()
+                .get("wheel").getColor());
+
+        final ImageAnnotation loadedAnnotation = importResult.getImageAnnotationData().imageAnnotations()
+                .iterator().next();
+        assertEquals("a.png", loadedAnnotation.getImageFileName());
+        assertEquals(imageAnnotations.getFirst().getBoundingShapeData(), loadedAnnotation.getBoundingShapeData());
+    }
+
+    @Test
+    void onSavingChangedAnnotations_ShouldOnlyAppendChangedBlocks(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.bbep");
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>();
+
+        for(int i = 0; i < 100; ++i) {
+            imageAnnotations.add(createAnnotation("image" + i + ".png", 0.1));
+        }
+
+        save(imageAnnotations, destination);
+        final long initialSize = Files.size(destination);
+
+        imageAnnotations.set(5, createAnnotation("image5.png", 0.3));
+        save(imageAnnotations, destination);
+        final long incrementalSize = Files.size(destination);
+
+        assertTrue(incrementalSize > initialSize);
+        assertTrue(incrementalSize - initialSize < initialSize / 2);
+
+        final Set<String> fileNames = new HashSet<>();
+        imageAnnotations.forEach(imageAnnotation -> fileNames.add(imageAnnotation.getImageFileName()));
+
+        final ImageAnnotationImportResult importResult = new BinaryProjectLoadStrategy().load(destination,
+                fileNames, new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertTrue(importResult.getErrorTableEntries().isEmpty());
+        assertEquals(100, importResult.getNrSuccessfullyProcessedItems());
+
+        final ImageAnnotation changedAnnotation = importResult.getImageAnnotationData().imageAnnotations().stream()
+                .filter(imageAnnotation -> imageAnnotation.getImageFileName().equals("image5.png"))
+                .findFirst().orElseThrow();
+        assertEquals(imageAnnotations.get(5).getBoundingShapeData(), changedAnnotation.getBoundingShapeData());
+    }
+
+    @Test
+    void onSavingAndLoading_ShouldReproduceImageMetaData(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.bbep");
+        final ImageAnnotation annotationWithMetaData = createAnnotation("a.png", 0.1);
+        annotationWithMetaData.setImageMetaData(new ImageMetaData("a.png", "folder", "url", 640, 480, 3, 6));
+
+        assertTrue(save(List.of(annotationWithMetaData, createAnnotation("b.png", 0.2)), destination)
+                .getErrorTableEntries().isEmpty());
+
+        final ImageAnnotationImportResult importResult = new BinaryProjectLoadStrategy().load(destination,
+                Set.of("a.png", "b.png"), new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertTrue(importResult.getErrorTableEntries().isEmpty());
+
+        final Map<String, ImageMetaData> fileNameToMetaData = new HashMap<>();
+        importResult.getImageAnnotationData().imageAnnotations().forEach(imageAnnotation ->
+                fileNameToMetaData.put(imageAnnotation.getImageFileName(), imageAnnotation.getImageMetaData()));
+
+        final ImageMetaData loadedMetaData = fileNameToMetaData.get("a.png");
+        assertTrue(loadedMetaData.hasDetails());
+        assertEquals(640, loadedMetaData.getImageWidth());
+        assertEquals(480, loadedMetaData.getImageHeight());
+        assertEquals(3, loadedMetaData.getImageDepth());
+        assertEquals(6, loadedMetaData.getOrientation());
+        assertFalse(fileNameToMetaData.get("b.png").hasDetails());
+    }
+
+    @Test
+    void onLoadingInvalidFile_ShouldReportError(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("annotations.bbep");
+        Files.writeString(source, "not a project file at all");
+
+        final ImageAnnotationImportResult importResult = new BinaryProjectLoadStrategy().load(source,
+                Set.of("a.png"), new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertEquals(0, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(List.of("Invalid binary project file."), importResult.getErrorTableEntries().stream()
+                .map(errorEntry -> errorEntry.getErrorDescription()).toList());
+    }
+
+    private ImageAnnotation createAnnotation(String fileName, double offset) {
+        final BoundingBoxData box = new BoundingBoxData(car, offset, offset, 0.5, 0.6, List.of("red", "new"));
+        box.setParts(List.of(new BoundingPolygonData(wheel, List.of(offset, 0.5, 0.2, 0.5, 0.15, 0.6),
+                Collections.emptyList())));
+
+        return new ImageAnnotation(new ImageMetaData(fileName), new ArrayList<>(List.of(box)));
+    }
+
+    private ImageAnnotationExportResult save(List<ImageAnnotation> imageAnnotations, Path destination) {
+        return new BinaryProjectSaveStrategy().save(
+                new ImageAnnotationData(imageAnnotations, Map.of("car", imageAnnotations.size(),
+                        "wheel", imageAnnotations.size()), Map.of("car", car, "wheel", wheel)),
+                destination, new SimpleDoubleProperty(0));
+    }
+}
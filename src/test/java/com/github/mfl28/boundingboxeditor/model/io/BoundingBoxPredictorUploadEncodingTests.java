@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictionEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.ModelEntry;
+import javafx.application.Platform;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class BoundingBoxPredictorUploadEncodingTests {
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8};
+    private static final int IMAGE_WIDTH = 64;
+    private static final int IMAGE_HEIGHT = 48;
+
+    @BeforeAll
+    static void startPlatform() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch(IllegalStateException e) {
+            // Platform already running.
+        }
+    }
+
+    @Test
+    void onOriginalEncoding_ShouldSendUnchangedFiles(@TempDir Path tempDir) throws IOException {
+        final File pngFile = writeImage(createNoiseImage(BufferedImage.TYPE_INT_ARGB), "png", tempDir);
+        final File jpegFile = writeImage(createNoiseImage(BufferedImage.TYPE_INT_RGB), "jpg", tempDir);
+        final BoundingBoxPredictor predictor =
+                createPredictor(BoundingBoxPredictorConfig.UploadEncoding.ORIGINAL, 0.9);
+
+        assertArrayEquals(Files.readAllBytes(pngFile.toPath()), prepare(predictor, pngFile));
+        assertArrayEquals(Files.readAllBytes(jpegFile.toPath()), prepare(predictor, jpegFile));
+    }
+
+    @Test
+    void onJpegEncoding_ShouldOnlyReEncodeOtherFormats(@TempDir Path tempDir) throws IOException {
+        final File pngFile = writeImage(createNoiseImage(BufferedImage.TYPE_INT_ARGB), "png", tempDir);
+        final File jpegFile = writeImage(createNoiseImage(BufferedImage.TYPE_INT_RGB), "jpg", tempDir);
+        final BoundingBoxPredictor predictor = createPredictor(BoundingBoxPredictorConfig.UploadEncoding.JPEG, 0.9);
+
+        assertArrayEquals(Files.readAllBytes(jpegFile.toPath()), prepare(predictor, jpegFile));
+        assertTrue(startsWith(prepare(predictor, pngFile), JPEG_SIGNATURE));
+    }
+
+    @Test
+    void onPngEncoding_ShouldOnlyReEncodeOtherFormats(@TempDir Path tempDir) throws IOException {
+        final File pngFile = writeImage(createNoiseImage(BufferedImage.TYPE_INT_ARGB), "png", tempDir);
+        final File jpegFile = writeImage(createNoiseImage(BufferedImage.TYPE_INT_RGB), "jpg", tempDir);
+        final BoundingBoxPredictor predictor = createPredictor(BoundingBoxPredictorConfig.UploadEncoding.PNG, 0.9);
+
+        assertArrayEquals(Files.readAllBytes(pngFile.toPath()), prepare(predictor, pngFile));
+        assertTrue(startsWith(prepare(predictor, jpegFile), PNG_SIGNATURE));
+    }
+
+    @Test
+    void onJpegEncodingOfTransparentImage_ShouldFlattenAlphaOntoWhite(@TempDir Path tempDir) throws IOException {
+        // Fully transparent black pixels.
+        final File pngFile = writeImage(new BufferedImage(IMAGE_WIDTH, IMAGE_HEIGHT, BufferedImage.TYPE_INT_ARGB),
+                "png", tempDir);
+        final BoundingBoxPredictor predictor = createPredictor(BoundingBoxPredictorConfig.UploadEncoding.JPEG, 0.9);
+
+        final BufferedImage encodedImage = ImageIO.read(new ByteArrayInputStream(prepare(predictor, pngFile)));
+
+        assertFalse(encodedImage.getColorModel().hasAlpha());
+
+        final int rgb = encodedImage.getRGB(IMAGE_WIDTH / 2, IMAGE_HEIGHT / 2);
+
+        assertTrue(((rgb >> 16) & 0xFF) > 245 && ((rgb >> 8) & 0xFF) > 245 && (rgb & 0xFF) > 245);
+    }
+
+    @Test
+    void onChangingJpegQuality_ShouldChangePayloadSize(@TempDir Path tempDir) throws IOException {
+        final File pngFile = writeImage(createNoiseImage(BufferedImage.TYPE_INT_RGB), "png", tempDir);
+
+        final byte[] lowQualityData =
+                prepare(createPredictor(BoundingBoxPredictorConfig.UploadEncoding.JPEG, 0.2), pngFile);
+        final byte[] highQualityData =
+                prepare(createPredictor(BoundingBoxPredictorConfig.UploadEncoding.JPEG, 0.95), pngFile);
+
+        assertTrue(startsWith(lowQualityData, JPEG_SIGNATURE));
+        assertTrue(lowQualityData.length < highQualityData.length);
+    }
+
+    private static BoundingBoxPredictor createPredictor(BoundingBoxPredictorConfig.UploadEncoding uploadEncoding,
+                                                        double jpegQuality) {
+        final BoundingBoxPredictorConfig config = new BoundingBoxPredictorConfig();
+        config.setResizeImages(false);
+        config.setUploadEncoding(uploadEncoding);
+        config.setJpegQuality(jpegQuality);
+
+        return new BoundingBoxPredictor(new NoOpClient(), config);
+    }
+
+    private static byte[] prepare(BoundingBoxPredictor predictor, File imageFile) throws IOException {
+        final BoundingBoxPredictor.PreparedImage preparedImage = predictor.prepare(imageFile,
+                new ImageMetaData(imageFile.getName(), "folder", "url", IMAGE_WIDTH, IMAGE_HEIGHT, 3));
+
+        assertNotNull(preparedImage.data());
+        return preparedImage.data();
+    }
+
+    private static BufferedImage createNoiseImage(int imageType) {
+        final BufferedImage image = new BufferedImage(IMAGE_WIDTH, IMAGE_HEIGHT, imageType);
+        final Random random = new Random(42);
+
+        for(int y = 0; y < IMAGE_HEIGHT; ++y) {
+            for(int x = 0; x < IMAGE_WIDTH; ++x) {
+                image.setRGB(x, y, 0xFF000000 | random.nextInt(0x1000000));
+            }
+        }
+
+        return image;
+    }
+
+    private static File writeImage(BufferedImage image, String extension, Path directory) throws IOException {
+        final File imageFile = directory.resolve("image-" + image.getType() + "." + extension).toFile();
+        assertTrue(ImageIO.write(image, extension.equals("jpg") ? "jpeg" : extension, imageFile));
+
+        return imageFile;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        return data.length >= prefix.length && Arrays.equals(data, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static class NoOpClient implements BoundingBoxPredictorClient {
+        @Override
+        public List<BoundingBoxPredictionEntry> predict(InputStream input) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<ModelEntry> models() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getName() {
+            return "No-op";
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class COCOStrategyTests {
+    @Test
+    void onSavingAndLoading_ShouldReproduceAnnotations(@TempDir Path tempDir) throws IOException {
+        final ObjectCategory car = new ObjectCategory("car", Color.RED);
+        final ObjectCategory wheel = new ObjectCategory("wheel", Color.BLUE);
+
+        final BoundingBoxData carBox = new BoundingBoxData(car, 0.1, 0.2, 0.5, 0.6, List.of("red"));
+        carBox.setParts(List.of(new BoundingPolygonData(wheel, List.of(0.1, 0.5, 0.2, 0.5, 0.15, 0.6),
+                Collections.emptyList())));
+
+        final ImageAnnotation imageAnnotation = new ImageAnnotation(
+                new ImageMetaData("sample.png", "folder", "url", 200, 100, 3),
+                new ArrayList<>(List.of(carBox)));
+
+        final Path destination = tempDir.resolve("instances.json");
+        final ImageAnnotationExportResult exportResult = new COCOSaveStrategy().save(
+                new ImageAnnotationData(List.of(imageAnnotation), Map.of("car", 1, "wheel", 1),
+                        Map.of("car", car, "wheel", wheel)),
+                destination, new SimpleDoubleProperty(0));
+
+        assertTrue(exportResult.getErrorTableEntries().isEmpty());
+        assertEquals(1, exportResult.getNrSuccessfullyProcessedItems());
+
+        final Map<String, ObjectCategory> categories = new HashMap<>(Map.of("car", car));
+        final ImageAnnotationImportResult importResult = new COCOLoadStrategy().load(destination,
+                Set.of("sample.png"), categories, new SimpleDoubleProperty(0));
+
+        assertTrue(importResult.getErrorTableEntries().isEmpty());
+        assertEquals(1, importResult.getNrSuccessfullyProcessedItems());
+        assertSame(car, categories.get("car"));
+        assertEquals(Color.BLUE, categories.get("wheel").getColor());
+        assertEquals(Map.of("car", 1, "wheel", 1),
+                importResult.getImageAnnotationData().categoryNameToBoundingShapeCountMap());
+
+        final ImageAnnotation loadedAnnotation = importResult.getImageAnnotationData().imageAnnotations()
+                .iterator().next();
+        assertEquals("sample.png", loadedAnnotation.getImageFileName());
+        assertEquals(List.of(carBox), loadedAnnotation.getBoundingShapeData());
+    }
+
+    @Test
+    void onLoadingExportedFile_ShouldReadFileInSinglePass(@TempDir Path tempDir) throws IOException {
+        final ObjectCategory dog = new ObjectCategory("dog", Color.GREEN);
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>();
+
+        for(int i = 0; i < 3; ++i) {
+            imageAnnotations.add(new ImageAnnotation(
+                    new ImageMetaData("image" + i + ".png", "folder", "url", 200, 100, 3),
+                    new ArrayList<>(List.of(new BoundingBoxData(dog, 0.1, 0.2, 0.5, 0.6, Collections.emptyList())))));
+        }
+
+        final Path destination = tempDir.resolve("instances.json");
+        new COCOSaveStrategy().save(new ImageAnnotationData(imageAnnotations, Map.of("dog", 3), Map.of("dog", dog)),
+                destination, new SimpleDoubleProperty(0));
+
+        final COCOLoadStrategy loadStrategy = new COCOLoadStrategy();
+        final ImageAnnotationImportResult importResult = loadStrategy.load(destination,
+                Set.of("image0.png", "image1.png", "image2.png"), new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertTrue(importResult.getErrorTableEntries().isEmpty());
+        assertEquals(3, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(1, loadStrategy.getNrCompletedPasses());
+    }
+
+    @Test
+    void onLoadingFileWithTrailingTables_ShouldReadAnnotationsInSecondPass(@TempDir Path tempDir)
+            throws IOException {
+        final Path source = tempDir.resolve("instances.json");
+        Files.writeString(source, """
+                {
+                  "annotations": [
+                    {"id": 1, "image_id": 7, "category_id": 3, "bbox": [10, 20, 30, 40], "iscrowd": 0,
+                     "segmentation": {"counts": [1, 2], "size": [100, 100]}},
+                    {"id": 2, "image_id": 7, "category_id": 3, "bbox": [0, 0, 10, 10],
+                     "segmentation": [[0, 0, 50, 0, 50, 50]]},
+                    {"id": 3, "image_id": 8, "category_id": 3, "bbox": [0, 0, 10, 10]},
+                    {"id": 4, "image_id": 7, "category_id": 99, "bbox": [0, 0, 10, 10]}
+                  ],
+                  "categories": [{"id": 3, "name": "dog", "supercategory": "animal"}],
+                  "images": [
+                    {"id": 7, "file_name": "dog.jpg", "width": 100, "height": 100},
+                    {"id": 8, "file_name": "other.jpg", "width": 100, "height": 100}
+                  ]
+                }
+                """);
+
+        final SimpleDoubleProperty progress = new SimpleDoubleProperty(0);
+        final COCOLoadStrategy loadStrategy = new COCOLoadStrategy();
+        final ImageAnnotationImportResult importResult = loadStrategy.load(source,
+                Set.of("dog.jpg"), new HashMap<>(), progress);
+
+        assertEquals(2, loadStrategy.getNrCompletedPasses());
+        assertEquals(1, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(2, importResult.getErrorTableEntries().size());
+        assertEquals("Image other.jpg does not belong to currently loaded image files.",
+                importResult.getErrorTableEntries().get(0).getErrorDescription());
+        assertEquals("Missing or invalid category_id in annotation for image dog.jpg.",
+                importResult.getErrorTableEntries().get(1).getErrorDescription());
+        assertEquals(1.0, progress.get());
+
+        final List<BoundingShapeData> shapes = importResult.getImageAnnotationData().imageAnnotations()
+                .iterator().next().getBoundingShapeData();
+
+        assertEquals(2, shapes.size());
+        assertInstanceOf(BoundingBoxData.class, shapes.get(0));
+        assertInstanceOf(BoundingPolygonData.class, shapes.get(1));
+        assertEquals(List.of(0.0, 0.0, 0.5, 0.0, 0.5, 0.5),
+                ((BoundingPolygonData) shapes.get(1)).getRelativePointsInImage());
+    }
+
+    @Test
+    void onLoadingMalformedFile_ShouldReportError(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("instances.json");
+        Files.writeString(source, "{\"images\": [");
+
+        final ImageAnnotationImportResult importResult = new COCOLoadStrategy().load(source,
+                Set.of("dog.jpg"), new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertEquals(0, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(1, importResult.getErrorTableEntries().size());
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.BoundingBoxData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CSVLoadStrategyTest {
+    private static final int NR_IMAGES = 50;
+    private static final int NR_ROWS = 2000;
+
+    /**
+     * A csv-file that is split into many small chunks yields the same result as a sequential parse.
+     */
+    @Test
+    void testChunkedCSVLoadingMatchesSequentialLoading(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("annotations.csv");
+        final StringBuilder content = new StringBuilder("filename,width,height,class,xmin,ymin,xmax,ymax\n");
+
+        for(int i = 0; i < NR_ROWS; ++i) {
+            content.append("sample").append(i % NR_IMAGES).append(".png,100,200,cat")
+                   .append(i % 3).append(',').append(i % 50).append(',').append(i % 100).append(",60,150\n");
+        }
+
+        // Rows for images that are not loaded must be reported in file order.
+        content.insert(content.indexOf("\n") + 1, "unknown1.png,100,200,cat0,0,0,10,10\n");
+        content.append("unknown2.png,100,200,cat0,0,0,10,10\n");
+        Files.writeString(source, content);
+
+        final Set<String> filesToLoad = new HashSet<>();
+
+        for(int i = 0; i < NR_IMAGES; ++i) {
+            filesToLoad.add("sample" + i + ".png");
+        }
+
+        final ObjectCategory existingCategory = new ObjectCategory("cat0", Color.RED);
+
+        final ImageAnnotationImportResult sequentialResult = new CSVLoadStrategy()
+                .load(source, filesToLoad, new HashMap<>(Map.of("cat0", existingCategory)),
+                      new SimpleDoubleProperty(0));
+
+        final SimpleDoubleProperty chunkedProgress = new SimpleDoubleProperty(0);
+        final ImageAnnotationImportResult chunkedResult = new CSVLoadStrategy(512)
+                .load(source, filesToLoad, new HashMap<>(Map.of("cat0", existingCategory)), chunkedProgress);
+
+        assertEquals(NR_IMAGES, chunkedResult.getNrSuccessfullyProcessedItems());
+        assertEquals(sequentialResult.getNrSuccessfullyProcessedItems(), chunkedResult.getNrSuccessfullyProcessedItems());
+        assertEquals(sequentialResult.getNrProcessedRows(), chunkedResult.getNrProcessedRows());
+        assertEquals(sequentialResult.getErrorTableEntries().size(), chunkedResult.getErrorTableEntries().size());
+        assertEquals(sequentialResult.getErrorTableEntries().stream().map(IOErrorInfoEntry::getSourceName).toList(),
+                     chunkedResult.getErrorTableEntries().stream().map(IOErrorInfoEntry::getSourceName).toList());
+        assertEquals(sequentialResult.getImageAnnotationData().categoryNameToBoundingShapeCountMap(),
+                     chunkedResult.getImageAnnotationData().categoryNameToBoundingShapeCountMap());
+        assertSame(existingCategory, chunkedResult.getImageAnnotationData().categoryNameToCategoryMap().get("cat0"));
+        assertEquals(toShapeDataMap(sequentialResult), toShapeDataMap(chunkedResult));
+        assertEquals(1.0, chunkedProgress.get());
+    }
+
+    /**
+     * Errors in rows of later chunks are reported with line numbers relative to the whole file.
+     */
+    @Test
+    void testChunkedCSVLoadingReportsFileRelativeErrorLineNumbers(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("annotations.csv");
+        final StringBuilder content = new StringBuilder("filename,width,height,class,xmin,ymin,xmax,ymax\n");
+
+        for(int i = 0; i < NR_ROWS; ++i) {
+            content.append("sample").append(i % NR_IMAGES).append(".png,100,200,cat0,10,20,60,150");
+            // A row with too many entries aborts the parsing.
+            content.append(i == NR_ROWS - 10 ? ",1\n" : "\n");
+        }
+
+        Files.writeString(source, content);
+
+        final Set<String> filesToLoad = new HashSet<>();
+
+        for(int i = 0; i < NR_IMAGES; ++i) {
+            filesToLoad.add("sample" + i + ".png");
+        }
+
+        final ImageAnnotationImportResult sequentialResult = new CSVLoadStrategy()
+                .load(source, filesToLoad, new HashMap<>(), new SimpleDoubleProperty(0));
+        final ImageAnnotationImportResult chunkedResult = new CSVLoadStrategy(512)
+                .load(source, filesToLoad, new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertEquals(1, sequentialResult.getErrorTableEntries().size());
+        assertTrue(sequentialResult.getErrorTableEntries().getFirst().getErrorDescription().startsWith("Line "));
+        assertEquals(sequentialResult.getErrorTableEntries().stream()
+                                     .map(IOErrorInfoEntry::getErrorDescription).toList(),
+                     chunkedResult.getErrorTableEntries().stream()
+                                  .map(IOErrorInfoEntry::getErrorDescription).toList());
+        assertEquals(sequentialResult.getNrProcessedRows(), chunkedResult.getNrProcessedRows());
+    }
+
+    /**
+     * Blank lines and quoted values spanning several lines are counted when reporting errors of later chunks.
+     */
+    @Test
+    void testChunkedCSVLoadingCountsPhysicalLinesForErrorLineNumbers(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("annotations.csv");
+        final StringBuilder content = new StringBuilder("filename,width,height,class,xmin,ymin,xmax,ymax\n")
+                .append("sample0.png,100,200,cat0,10,20,60,150\n")
+                .append('\n')
+                .append("sample1.png,100,200,\"multi\nline\",10,20,60,150\n");
+
+        for(int i = 0; i < NR_ROWS; ++i) {
+            content.append("sample").append(i % NR_IMAGES).append(".png,100,200,cat0,10,20,60,150");
+            content.append(i == NR_ROWS - 10 ? ",1\n" : "\n");
+        }
+
+        Files.writeString(source, content);
+
+        final Set<String> filesToLoad = new HashSet<>();
+
+        for(int i = 0; i < NR_IMAGES; ++i) {
+            filesToLoad.add("sample" + i + ".png");
+        }
+
+        final ImageAnnotationImportResult sequentialResult = new CSVLoadStrategy()
+                .load(source, filesToLoad, new HashMap<>(), new SimpleDoubleProperty(0));
+        final ImageAnnotationImportResult chunkedResult = new CSVLoadStrategy(512)
+                .load(source, filesToLoad, new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertEquals(1, sequentialResult.getErrorTableEntries().size());
+        assertTrue(sequentialResult.getErrorTableEntries().getFirst().getErrorDescription().startsWith("Line "));
+        assertEquals(sequentialResult.getErrorTableEntries().stream()
+                                     .map(IOErrorInfoEntry::getErrorDescription).toList(),
+                     chunkedResult.getErrorTableEntries().stream()
+                                  .map(IOErrorInfoEntry::getErrorDescription).toList());
+        assertEquals(sequentialResult.getNrProcessedRows(), chunkedResult.getNrProcessedRows());
+    }
+
+    private static Map<String, List<String>> toShapeDataMap(ImageAnnotationImportResult result) {
+        return result.getImageAnnotationData().imageAnnotations().stream()
+                     .collect(Collectors.toMap(ImageAnnotation::getImageFileName,
+                                               annotation -> annotation.getBoundingShapeData().stream()
+                                                                       .map(shapeData -> shapeData.getCategoryName() + " "
+                                                                               + ((BoundingBoxData) shapeData).getRelativeBoundsInImage())
+                                                                       .toList()));
+    }
+}
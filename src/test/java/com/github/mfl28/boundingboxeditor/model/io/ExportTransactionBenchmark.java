@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.BenchmarkUtils;
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class ExportTransactionBenchmark {
+    private static final int NR_FILES = 20_000;
+    private static final int NR_BOXES_PER_IMAGE = 10;
+    private static final byte[] CONTENT = "0 0.5 0.5 0.25 0.25\n".repeat(NR_BOXES_PER_IMAGE)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void benchmarkTransactionalAgainstDirectWrites(@TempDir Path tempDir) throws IOException {
+        final Path unsafeDirectory = Files.createDirectory(tempDir.resolve("unsafe"));
+        final Path naiveDirectory = Files.createDirectory(tempDir.resolve("naive"));
+        final Path atomicDirectory = Files.createDirectory(tempDir.resolve("atomic"));
+        final Path durableDirectory = Files.createDirectory(tempDir.resolve("durable"));
+
+        // The previous way of saving: Files are written directly into the destination.
+        final long unsafeNanos = time(() -> IntStream.range(0, NR_FILES).parallel().forEach(i -> {
+            try {
+                Files.write(unsafeDirectory.resolve(fileName(i)), CONTENT);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+
+        // Naively safe: Every file is synced, renamed and its folder synced on its own.
+        final long naiveNanos = time(() -> IntStream.range(0, NR_FILES).parallel().forEach(i -> {
+            try {
+                writeNaivelySafe(naiveDirectory, fileName(i));
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+
+        final long atomicNanos = time(() -> writeTransaction(atomicDirectory, false));
+        final long durableNanos = time(() -> writeTransaction(durableDirectory, true));
+
+        report("Direct (unsafe)", unsafeNanos);
+        report("Naive fsync per file", naiveNanos);
+        report("Transaction (atomic)", atomicNanos);
+        report("Transaction (atomic, durable)", durableNanos);
+    }
+
+    @Test
+    void benchmarkYOLOSaveStrategy(@TempDir Path tempDir) {
+        final ImageAnnotationData data = createData();
+
+        final long startTime = System.nanoTime();
+        final ImageAnnotationExportResult result = new YOLOSaveStrategy().save(data, tempDir, new SimpleDoubleProperty());
+        final long nanos = System.nanoTime() - startTime;
+
+        assertTrue(result.getErrorTableEntries().isEmpty());
+        report("YOLO save", nanos);
+    }
+
+    private static void writeTransaction(Path directory, boolean durable) throws IOException {
+        try(ExportTransaction transaction = ExportTransaction.begin(directory, durable)) {
+            IntStream.range(0, NR_FILES).parallel().forEach(i -> {
+                try {
+                    transaction.write(fileName(i), outputStream -> outputStream.write(CONTENT));
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            transaction.commit();
+        }
+    }
+
+    private static void writeNaivelySafe(Path directory, String fileName) throws IOException {
+        final Path tempFile = directory.resolve("." + fileName + ".tmp");
+
+        try(FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(CONTENT));
+            channel.force(true);
+        }
+
+        Files.move(tempFile, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+
+        try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static String fileName(int index) {
+        return "image" + index + ".txt";
+    }
+
+    private static void report(String name, long nanos) {
+        BenchmarkUtils.report(name, "%d files: %.2f s (%.0f files/s)", NR_FILES, nanos / 1e9,
+                NR_FILES / (nanos / 1e9));
+    }
+
+    private static long time(IORunnable runnable) throws IOException {
+        final long startTime = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - startTime;
+    }
+
+    private static ImageAnnotationData createData() {
+        final Random random = new Random(42);
+        final ObjectCategory category = new ObjectCategory("cat", Color.RED);
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>(NR_FILES);
+
+        for(int i = 0; i < NR_FILES; ++i) {
+            final List<BoundingShapeData> boxes = new ArrayList<>(NR_BOXES_PER_IMAGE);
+
+            for(int j = 0; j < NR_BOXES_PER_IMAGE; ++j) {
+                final double xMin = random.nextDouble() * 0.5;
+                final double yMin = random.nextDouble() * 0.5;
+                boxes.add(new BoundingBoxData(category, xMin, yMin, xMin + 0.25, yMin + 0.25,
+                        Collections.emptyList()));
+            }
+
+            imageAnnotations.add(new ImageAnnotation(
+                    new ImageMetaData("image" + i + ".jpg", "folder", "url", 640, 480, 3), boxes));
+        }
+
+        return new ImageAnnotationData(imageAnnotations, Map.of("cat", NR_FILES * NR_BOXES_PER_IMAGE),
+                Map.of("cat", category));
+    }
+
+    @FunctionalInterface
+    private interface IORunnable {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ExportTransactionTests {
+    @Test
+    void onCommit_ShouldMakeAllStagedFilesVisible(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("a.txt"), "old content");
+
+        try(ExportTransaction transaction = ExportTransaction.begin(tempDir)) {
+            transaction.write("a.txt", outputStream -> outputStream.write("new a".getBytes(StandardCharsets.UTF_8)));
+            transaction.write("b.txt", outputStream -> outputStream.write("new b".getBytes(StandardCharsets.UTF_8)));
+
+            // Nothing is visible before the commit.
+            assertEquals("old content", Files.readString(tempDir.resolve("a.txt")));
+            assertFalse(Files.exists(tempDir.resolve("b.txt")));
+
+            transaction.commit();
+        }
+
+        assertEquals("new a", Files.readString(tempDir.resolve("a.txt")));
+        assertEquals("new b", Files.readString(tempDir.resolve("b.txt")));
+        assertEquals(List.of("a.txt", "b.txt"), listFileNames(tempDir));
+    }
+
+    @Test
+    void onCloseWithoutCommit_ShouldDiscardStagedFiles(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("a.txt"), "old content");
+
+        try(ExportTransaction transaction = ExportTransaction.begin(tempDir, false)) {
+            transaction.write("a.txt", outputStream -> outputStream.write("new a".getBytes(StandardCharsets.UTF_8)));
+            transaction.write("b.txt", outputStream -> outputStream.write("new b".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        assertEquals("old content", Files.readString(tempDir.resolve("a.txt")));
+        assertEquals(List.of("a.txt"), listFileNames(tempDir));
+    }
+
+    @Test
+    void onFailingWriter_ShouldOnlyCommitSuccessfullyWrittenFiles(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("a.txt"), "old content");
+
+        try(ExportTransaction transaction = ExportTransaction.begin(tempDir)) {
+            final IOException exception = assertThrows(IOException.class, () -> transaction.write("a.txt",
+                    outputStream -> {
+                        outputStream.write("partial".getBytes(StandardCharsets.UTF_8));
+                        throw new IOException("Disk full");
+                    }));
+            assertEquals("Disk full", exception.getMessage());
+
+            transaction.write("b.txt", outputStream -> outputStream.write("new b".getBytes(StandardCharsets.UTF_8)));
+            transaction.commit();
+
+            assertThrows(IOException.class, transaction::commit);
+        }
+
+        assertEquals("old content", Files.readString(tempDir.resolve("a.txt")));
+        assertEquals("new b", Files.readString(tempDir.resolve("b.txt")));
+        assertEquals(List.of("a.txt", "b.txt"), listFileNames(tempDir));
+    }
+
+    @Test
+    void onFailingSingleFileWrite_ShouldKeepExistingFile(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.json");
+        Files.writeString(destination, "[]");
+
+        assertThrows(IllegalStateException.class, () -> ExportTransaction.writeAtomically(destination,
+                outputStream -> {
+                    outputStream.write("[{".getBytes(StandardCharsets.UTF_8));
+                    throw new IllegalStateException("Serialization failed");
+                }));
+
+        assertEquals("[]", Files.readString(destination));
+        assertEquals(List.of("annotations.json"), listFileNames(tempDir));
+
+        ExportTransaction.writeAtomically(destination,
+                outputStream -> outputStream.write("[{}]".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("[{}]", Files.readString(destination));
+        assertEquals(List.of("annotations.json"), listFileNames(tempDir));
+    }
+
+    private static List<String> listFileNames(Path directory) throws IOException {
+        try(Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
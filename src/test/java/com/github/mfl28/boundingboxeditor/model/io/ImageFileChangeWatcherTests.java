@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ImageFileChangeWatcherTests {
+    @Test
+    void onReconcilingChangedFiles_ShouldClassifyImageFilesAndReadOnlyTheirMetaData(@TempDir Path tempDir)
+            throws Exception {
+        final Path sourceImage = getTestImage();
+        Files.copy(sourceImage, tempDir.resolve("a.jpg"));
+        Files.copy(sourceImage, tempDir.resolve("d.jpg"));
+        Files.copy(sourceImage, tempDir.resolve("c.jpg"));
+        Files.copy(sourceImage, tempDir.resolve("b.jpg"));
+        Files.writeString(tempDir.resolve("notes.txt"), "no image");
+        Files.writeString(tempDir.resolve("broken.jpg"), "no image");
+
+        final ImageFileChangeWatcher watcher = new ImageFileChangeWatcher(tempDir,
+                Set.of("a.jpg", "broken.jpg", "removed.jpg", "unchanged.jpg"), imageFileChanges -> {
+        });
+
+        final ImageFileChanges imageFileChanges = watcher.reconcile(
+                Set.of("a.jpg", "d.jpg", "c.jpg", "b.jpg", "notes.txt", "broken.jpg", "removed.jpg", "unknown.jpg"));
+
+        assertEquals(List.of("b.jpg", "c.jpg", "d.jpg"),
+                imageFileChanges.addedFiles().stream().map(File::getName).toList());
+        assertEquals(Set.of("broken.jpg", "removed.jpg"), imageFileChanges.removedFileNames());
+        assertEquals(List.of("a.jpg"), imageFileChanges.modifiedFiles().stream().map(File::getName).toList());
+        assertEquals(Set.of("a.jpg", "b.jpg", "c.jpg", "d.jpg"), imageFileChanges.fileNameToMetaData().keySet());
+
+        // Added image-files are known afterward.
+        Files.delete(tempDir.resolve("c.jpg"));
+        final ImageFileChanges nextImageFileChanges = watcher.reconcile(Set.of("b.jpg", "c.jpg"));
+
+        assertTrue(nextImageFileChanges.addedFiles().isEmpty());
+        assertEquals(Set.of("c.jpg"), nextImageFileChanges.removedFileNames());
+        assertEquals(List.of("b.jpg"), nextImageFileChanges.modifiedFiles().stream().map(File::getName).toList());
+    }
+
+    private static Path getTestImage() throws URISyntaxException {
+        return Path.of(Objects.requireNonNull(ImageFileChangeWatcherTests.class.getResource("/testimages/4/test.jpg"))
+                .toURI());
+    }
+}
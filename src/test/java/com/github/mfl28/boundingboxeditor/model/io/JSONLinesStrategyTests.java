@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.IOErrorInfoEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class JSONLinesStrategyTests {
+    private final ObjectCategory car = new ObjectCategory("car", Color.RED);
+    private final ObjectCategory wheel = new ObjectCategory("wheel", Color.BLUE);
+
+    @Test
+    void onSavingAndLoadingInParallel_ShouldReproduceAnnotations(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.jsonl");
+        final List<ImageAnnotation> imageAnnotations = createAnnotations(1000);
+
+        assertTrue(save(imageAnnotations, destination).getErrorTableEntries().isEmpty());
+        assertEquals(1000, Files.readAllLines(destination).size());
+
+        // A minimal chunk size forces the file to be split into several byte-ranges.
+        final ImageAnnotationImportResult importResult = new JSONLinesLoadStrategy(1).load(destination,
+                getFileNames(imageAnnotations), new HashMap<>(Map.of("car", car)), new SimpleDoubleProperty(0));
+
+        assertTrue(importResult.getErrorTableEntries().isEmpty());
+        assertEquals(1000, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(Map.of("car", 1000, "wheel", 1000),
+                importResult.getImageAnnotationData().categoryNameToBoundingShapeCountMap());
+        assertSame(car, importResult.getImageAnnotationData().categoryNameToCategoryMap().get("car"));
+
+        final List<ImageAnnotation> loadedAnnotations =
+                new ArrayList<>(importResult.getImageAnnotationData().imageAnnotations());
+
+        for(int i = 0; i < imageAnnotations.size(); ++i) {
+            assertEquals(imageAnnotations.get(i).getImageFileName(), loadedAnnotations.get(i).getImageFileName());
+            assertEquals(imageAnnotations.get(i).getBoundingShapeData(),
+                    loadedAnnotations.get(i).getBoundingShapeData());
+        }
+    }
+
+    @Test
+    void onSavingChangedAnnotations_ShouldOnlyAppendChangedLines(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.jsonl");
+        final List<ImageAnnotation> imageAnnotations = createAnnotations(100);
+        final Set<String> fileNames = getFileNames(imageAnnotations);
+
+        save(imageAnnotations, destination);
+        final List<String> initialLines = Files.readAllLines(destination);
+
+        imageAnnotations.set(5, createAnnotation("image5.png", 0.3));
+        imageAnnotations.remove(7);
+        assertTrue(save(imageAnnotations, destination).getErrorTableEntries().isEmpty());
+
+        final List<String> lines = Files.readAllLines(destination);
+
+        assertEquals(102, lines.size());
+        assertEquals(initialLines, lines.subList(0, 100));
+        assertTrue(lines.get(101).contains("image7.png"));
+
+        final ImageAnnotationImportResult importResult = new JSONLinesLoadStrategy().load(destination,
+                fileNames, new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertTrue(importResult.getErrorTableEntries().isEmpty());
+        assertEquals(99, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(99, importResult.getImageAnnotationData().categoryNameToBoundingShapeCountMap().get("car"));
+
+        final Map<String, ImageAnnotation> loadedAnnotations = new HashMap<>();
+        importResult.getImageAnnotationData().imageAnnotations()
+                .forEach(imageAnnotation -> loadedAnnotations.put(imageAnnotation.getImageFileName(),
+                        imageAnnotation));
+
+        assertFalse(loadedAnnotations.containsKey("image7.png"));
+        assertEquals(imageAnnotations.get(5).getBoundingShapeData(),
+                loadedAnnotations.get("image5.png").getBoundingShapeData());
+
+        // Saving unchanged annotations does not append anything.
+        save(imageAnnotations, destination);
+        assertEquals(102, Files.readAllLines(destination).size());
+    }
+
+    @Test
+    void onLoadingFileWithInvalidLine_ShouldOnlySkipThatLine(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.jsonl");
+        final List<ImageAnnotation> imageAnnotations = createAnnotations(3);
+
+        save(imageAnnotations, destination);
+
+        final List<String> lines = new ArrayList<>(Files.readAllLines(destination));
+        lines.set(1, lines.get(1).substring(0, lines.get(1).length() / 2));
+        Files.write(destination, lines);
+
+        final ImageAnnotationImportResult importResult = new JSONLinesLoadStrategy(1).load(destination,
+                getFileNames(imageAnnotations), new HashMap<>(), new SimpleDoubleProperty(0));
+
+        assertEquals(2, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(1, importResult.getErrorTableEntries().size());
+
+        final IOErrorInfoEntry errorEntry = importResult.getErrorTableEntries().getFirst();
+        assertEquals("annotations.jsonl", errorEntry.getSourceName());
+        assertTrue(errorEntry.getErrorDescription().startsWith("Line 2: "));
+
+        // An invalid existing file is rewritten completely.
+        assertTrue(save(imageAnnotations, destination).getErrorTableEntries().isEmpty());
+        assertEquals(3, Files.readAllLines(destination).size());
+    }
+
+    private List<ImageAnnotation> createAnnotations(int nrAnnotations) {
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>();
+
+        for(int i = 0; i < nrAnnotations; ++i) {
+            imageAnnotations.add(createAnnotation("image" + i + ".png", 0.1));
+        }
+
+        return imageAnnotations;
+    }
+
+    private ImageAnnotation createAnnotation(String fileName, double offset) {
+        final BoundingBoxData box = new BoundingBoxData(car, offset, offset, 0.5, 0.6, List.of("red", "new"));
+        box.setParts(List.of(new BoundingPolygonData(wheel, List.of(offset, 0.5, 0.2, 0.5, 0.15, 0.6),
+                Collections.emptyList())));
+
+        return new ImageAnnotation(new ImageMetaData(fileName, "folder", "url", 200, 100, 3),
+                new ArrayList<>(List.of(box)));
+    }
+
+    private static Set<String> getFileNames(List<ImageAnnotation> imageAnnotations) {
+        final Set<String> fileNames = new HashSet<>();
+        imageAnnotations.forEach(imageAnnotation -> fileNames.add(imageAnnotation.getImageFileName()));
+
+        return fileNames;
+    }
+
+    private ImageAnnotationExportResult save(List<ImageAnnotation> imageAnnotations, Path destination) {
+        return new JSONLinesSaveStrategy().save(
+                new ImageAnnotationData(imageAnnotations, Map.of("car", imageAnnotations.size(),
+                        "wheel", imageAnnotations.size()), Map.of("car", car, "wheel", wheel)),
+                destination, new SimpleDoubleProperty(0));
+    }
+}
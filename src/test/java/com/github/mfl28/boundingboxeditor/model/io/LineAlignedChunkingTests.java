@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+class LineAlignedChunkingTests {
+    @Test
+    void onCreatingChunks_ShouldSplitOnLineBoundaries(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("lines.txt");
+        final StringBuilder content = new StringBuilder("header\n");
+
+        for(int i = 0; i < 100; ++i) {
+            content.append("line").append(i).append('\n');
+        }
+
+        Files.writeString(source, content);
+
+        final long headerEnd;
+        final List<LineAlignedChunking.Chunk> chunks;
+
+        try(FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            headerEnd = LineAlignedChunking.findNextLineStart(channel, 0, channel.size());
+            chunks = LineAlignedChunking.createChunks(channel, headerEnd, channel.size(), 7);
+        }
+
+        assertEquals("header\n".length(), headerEnd);
+        assertEquals(7, chunks.size());
+        assertEquals(headerEnd, chunks.getFirst().start());
+        assertEquals(content.length(), chunks.getLast().end());
+
+        final StringBuilder readContent = new StringBuilder();
+
+        for(int i = 0; i < chunks.size(); ++i) {
+            if(i > 0) {
+                assertEquals(chunks.get(i - 1).end(), chunks.get(i).start());
+            }
+
+            try(InputStream inputStream = LineAlignedChunking.openChunkInputStream(source, chunks.get(i))) {
+                final String chunkContent = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+
+                assertEquals(chunks.get(i).length(), chunkContent.length());
+                assertTrue(chunkContent.startsWith("line") && chunkContent.endsWith("\n"));
+                readContent.append(chunkContent);
+            }
+        }
+
+        assertEquals(content.substring((int) headerEnd), readContent.toString());
+    }
+
+    @Test
+    void onCountingLineBreaks_ShouldOnlyCountLineBreaksInRange(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("lines.txt");
+        final StringBuilder content = new StringBuilder("header\n\n");
+
+        for(int i = 0; i < 5000; ++i) {
+            content.append("line").append(i).append('\n');
+        }
+
+        Files.writeString(source, content);
+
+        try(FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            assertEquals(5002, LineAlignedChunking.countLineBreaks(channel, 0, channel.size()));
+            assertEquals(1, LineAlignedChunking.countLineBreaks(channel, 0, "header\n".length()));
+            assertEquals(5001, LineAlignedChunking.countLineBreaks(channel, "header\n".length(), channel.size()));
+            assertEquals(0, LineAlignedChunking.countLineBreaks(channel, 1, 1));
+        }
+    }
+
+    @Test
+    void onCreatingChunksOfShortFile_ShouldNotReturnEmptyChunks(@TempDir Path tempDir) throws IOException {
+        final Path source = tempDir.resolve("lines.txt");
+        Files.writeString(source, "first line\nsecond line");
+
+        try(FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            final List<LineAlignedChunking.Chunk> chunks =
+                    LineAlignedChunking.createChunks(channel, 0, channel.size(), 8);
+
+            assertEquals(List.of(new LineAlignedChunking.Chunk(0, 11), new LineAlignedChunking.Chunk(11, 22)),
+                    chunks);
+        }
+    }
+}
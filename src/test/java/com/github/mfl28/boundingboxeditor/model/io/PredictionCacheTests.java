@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictionEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.ModelEntry;
+import com.github.mfl28.boundingboxeditor.model.io.results.BoundingBoxPredictionResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class PredictionCacheTests {
+    private static final List<BoundingBoxPredictionEntry> PREDICTIONS = List.of(
+            new BoundingBoxPredictionEntry(Map.of("car", List.of(10.0, 10.0, 50.0, 50.0)), 0.9),
+            new BoundingBoxPredictionEntry(Map.of("bike", List.of(20.0, 20.0, 60.0, 60.0)), 0.3));
+
+    @Test
+    void onExceedingSizeCap_ShouldEvictLeastRecentlyUsedEntries(@TempDir Path tempDir) {
+        final PredictionCache.Entry entry = new PredictionCache.Entry(PREDICTIONS, 200, 100);
+        final long entrySize = putAndMeasure(new PredictionCache(tempDir.resolve("measure"), Long.MAX_VALUE), entry);
+        final PredictionCache cache = new PredictionCache(tempDir.resolve("cache"), 3 * entrySize);
+
+        final List<PredictionCache.Key> keys = new ArrayList<>();
+
+        for(int i = 0; i < 4; ++i) {
+            keys.add(createKey("image" + i));
+        }
+
+        cache.put(keys.get(0), entry);
+        cache.put(keys.get(1), entry);
+        cache.put(keys.get(2), entry);
+        // Makes the first entry the most recently used one.
+        assertTrue(cache.get(keys.get(0)).isPresent());
+        cache.put(keys.get(3), entry);
+
+        assertEquals(3, cache.size());
+        assertEquals(3 * entrySize, cache.getSizeInBytes());
+        assertTrue(cache.get(keys.get(0)).isPresent());
+        assertTrue(cache.get(keys.get(1)).isEmpty());
+        assertEquals(entry, cache.get(keys.get(3)).orElseThrow());
+    }
+
+    @Test
+    void onReopeningCache_ShouldRestoreEntriesAndIgnoreCorruptedFiles(@TempDir Path tempDir) throws IOException {
+        final PredictionCache.Entry entry = new PredictionCache.Entry(PREDICTIONS, 200, 100);
+        final PredictionCache cache = new PredictionCache(tempDir, PredictionCache.DEFAULT_MAX_SIZE_IN_BYTES);
+
+        cache.put(createKey("image0"), entry);
+        cache.put(createKey("image1"), entry);
+
+        try(var files = Files.list(tempDir)) {
+            Files.writeString(files.findFirst().orElseThrow(), "{invalid", StandardCharsets.UTF_8);
+        }
+
+        final PredictionCache reopenedCache = new PredictionCache(tempDir, PredictionCache.DEFAULT_MAX_SIZE_IN_BYTES);
+        assertEquals(2, reopenedCache.size());
+
+        final long nrValidEntries = Stream.of(createKey("image0"), createKey("image1"))
+                                          .map(reopenedCache::get)
+                                          .filter(Optional::isPresent)
+                                          .count();
+
+        assertEquals(1, nrValidEntries);
+        assertEquals(1, reopenedCache.size());
+    }
+
+    @Test
+    void onConcurrentAccess_ShouldKeepIndexConsistentWithEntryFiles(@TempDir Path tempDir) throws Exception {
+        final PredictionCache.Entry entry = new PredictionCache.Entry(PREDICTIONS, 200, 100);
+        final long entrySize = putAndMeasure(new PredictionCache(tempDir.resolve("measure"), Long.MAX_VALUE), entry);
+        final Path cacheDirectory = tempDir.resolve("cache");
+        final PredictionCache cache = new PredictionCache(cacheDirectory, 20 * entrySize);
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        try {
+            final List<Callable<Boolean>> tasks = new ArrayList<>();
+
+            for(int thread = 0; thread < 8; ++thread) {
+                final int threadIndex = thread;
+
+                tasks.add(() -> {
+                    boolean allReadEntriesValid = true;
+
+                    for(int i = 0; i < 50; ++i) {
+                        final PredictionCache.Key key = createKey("image" + threadIndex + "-" + i);
+                        cache.put(key, entry);
+                        allReadEntriesValid &= cache.get(key).map(entry::equals).orElse(true);
+                    }
+
+                    return allReadEntriesValid;
+                });
+            }
+
+            for(Future<Boolean> future : executorService.invokeAll(tasks)) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(20, cache.size());
+        assertEquals(20 * entrySize, cache.getSizeInBytes());
+
+        try(var files = Files.list(cacheDirectory)) {
+            // Neither evicted entries nor temporary files are left behind.
+            assertEquals(20, files.count());
+        }
+    }
+
+    @Test
+    void onPredictingCachedImage_ShouldNotSendRequestAndApplyCurrentMinimumScore(@TempDir Path tempDir)
+            throws Exception {
+        final File imageFile = Files.writeString(tempDir.resolve("image.jpg"), "image").toFile();
+        final ImageMetaData imageMetaData = new ImageMetaData("image.jpg", "folder", "url", 200, 100, 3);
+        final PredictionCache cache = new PredictionCache(tempDir.resolve("cache"),
+                PredictionCache.DEFAULT_MAX_SIZE_IN_BYTES);
+        final CountingClient client = new CountingClient("model");
+
+        final BoundingBoxPredictorConfig config = new BoundingBoxPredictorConfig();
+        config.setResizeImages(false);
+        config.setCachePredictions(true);
+        config.setMinimumScore(0.5);
+
+        final BoundingBoxPredictionResult firstResult =
+                new BoundingBoxPredictor(client, config, cache).predict(imageFile, imageMetaData, new HashMap<>());
+        assertEquals(1, client.nrRequests.get());
+        assertEquals(1, firstResult.getImageAnnotationData().imageAnnotations().getFirst()
+                                   .getBoundingShapeData().size());
+
+        config.setMinimumScore(0.2);
+
+        final BoundingBoxPredictionResult secondResult =
+                new BoundingBoxPredictor(client, config, cache).predict(imageFile, imageMetaData, new HashMap<>());
+        assertEquals(1, client.nrRequests.get());
+        assertEquals(2, secondResult.getImageAnnotationData().imageAnnotations().getFirst()
+                                    .getBoundingShapeData().size());
+
+        // A different model or different preprocessing settings must not reuse the cached predictions.
+        new BoundingBoxPredictor(new CountingClient("other-model"), config, cache)
+                .predict(imageFile, imageMetaData, new HashMap<>());
+        config.setUploadEncoding(BoundingBoxPredictorConfig.UploadEncoding.JPEG);
+        new BoundingBoxPredictor(client, config, cache).predict(imageFile, imageMetaData, new HashMap<>());
+
+        assertEquals(2, client.nrRequests.get());
+        assertEquals(3, cache.size());
+    }
+
+    private static long putAndMeasure(PredictionCache cache, PredictionCache.Entry entry) {
+        cache.put(createKey("measure"), entry);
+        return cache.getSizeInBytes();
+    }
+
+    private static PredictionCache.Key createKey(String imageContent) {
+        return PredictionCache.createKey(imageContent.getBytes(StandardCharsets.UTF_8), "model", "resize=none");
+    }
+
+    private static class CountingClient implements BoundingBoxPredictorClient {
+        private final String modelName;
+        private final AtomicInteger nrRequests = new AtomicInteger();
+
+        CountingClient(String modelName) {
+            this.modelName = modelName;
+        }
+
+        @Override
+        public List<BoundingBoxPredictionEntry> predict(InputStream input) {
+            nrRequests.incrementAndGet();
+            return PREDICTIONS;
+        }
+
+        @Override
+        public List<ModelEntry> models() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getName() {
+            return "Counting";
+        }
+
+        @Override
+        public String getModelName() {
+            return modelName;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.BenchmarkUtils;
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.MockTorchServeServer;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.TorchServeHttpClient;
+import com.github.mfl28.boundingboxeditor.model.io.results.BatchBoundingBoxPredictionResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.BoundingBoxPredictionResult;
+import javafx.application.Platform;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the single-image and the batch prediction path end-to-end against a {@link MockTorchServeServer}
+ * for all combinations of upload encoding and image resizing.
+ */
+@Tag("benchmark")
+class PredictionThroughputBenchmark {
+    private static final String[] TEST_IMAGE_FOLDER_PATHS = {"/testimages/1", "/testimages/3"};
+    private static final int NR_COPIES_PER_IMAGE = 10;
+    private static final int MAX_IN_FLIGHT_REQUESTS = 8;
+    private static final int BATCH_SIZE = 32;
+    // Server settings resembling a single-GPU TorchServe instance running a detection model.
+    private static final MockTorchServeServer.LatencyDistribution LATENCY_DISTRIBUTION =
+            MockTorchServeServer.LatencyDistribution.logNormal(20, 0.5);
+    private static final double ERROR_RATE = 0.01;
+    private static final int SERVER_CONCURRENCY_LIMIT = 4;
+    private static final int NR_PREDICTIONS_PER_RESPONSE = 20;
+
+    @BeforeAll
+    static void startPlatform() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch(IllegalStateException e) {
+            // Platform already running.
+        }
+    }
+
+    @Test
+    void benchmarkPredictionThroughput() throws Exception {
+        final List<File> imageFiles = loadImageFiles();
+        final Map<String, ImageMetaData> imageFileNameToMetaData = new HashMap<>();
+
+        for(File imageFile : imageFiles) {
+            imageFileNameToMetaData.put(imageFile.getName(), ImageMetaData.fromFile(imageFile));
+        }
+
+        final List<File> workload = new ArrayList<>();
+
+        for(int i = 0; i < NR_COPIES_PER_IMAGE; ++i) {
+            workload.addAll(imageFiles);
+        }
+
+        try(MockTorchServeServer server = new MockTorchServeServer(LATENCY_DISTRIBUTION, ERROR_RATE,
+                SERVER_CONCURRENCY_LIMIT, NR_PREDICTIONS_PER_RESPONSE)) {
+            final BoundingBoxPredictorClient client = new TorchServeHttpClient(TorchServeHttpClient.createHttpClient(),
+                    server.createClientConfig(BoundingBoxPredictorClient.ServiceType.TORCH_SERVE_HTTP));
+
+            // Warm up the client, the codecs and the server to exclude class loading and connection setup.
+            runBatch(client, new BoundingBoxPredictorConfig(), workload, imageFileNameToMetaData);
+
+            for(BoundingBoxPredictorConfig.UploadEncoding uploadEncoding :
+                    BoundingBoxPredictorConfig.UploadEncoding.values()) {
+                for(boolean resizeImages : new boolean[]{false, true}) {
+                    final BoundingBoxPredictorConfig config = new BoundingBoxPredictorConfig();
+                    config.setUploadEncoding(uploadEncoding);
+                    config.setResizeImages(resizeImages);
+
+                    final String settings = uploadEncoding + (resizeImages ? " (resized)" : "");
+
+                    server.resetStatistics();
+                    report("Single image prediction " + settings,
+                            runSingle(client, config, imageFiles, imageFileNameToMetaData), server);
+
+                    server.resetStatistics();
+                    report("Batch prediction " + settings,
+                            runBatch(client, config, workload, imageFileNameToMetaData), server);
+                }
+            }
+        }
+    }
+
+    private static RunResult runSingle(BoundingBoxPredictorClient client, BoundingBoxPredictorConfig config,
+                                       List<File> imageFiles, Map<String, ImageMetaData> imageFileNameToMetaData)
+            throws Exception {
+        // Images are predicted one after another, like when the user predicts the currently shown image.
+        final BoundingBoxPredictor predictor = new BoundingBoxPredictor(client, config);
+        final double[] latencyMillis = new double[imageFiles.size()];
+        int nrErrors = 0;
+        final long startTime = System.nanoTime();
+
+        for(int i = 0; i < imageFiles.size(); ++i) {
+            final File imageFile = imageFiles.get(i);
+            final long requestStartTime = System.nanoTime();
+            final BoundingBoxPredictionResult result = predictor.predict(imageFile,
+                    imageFileNameToMetaData.get(imageFile.getName()), new HashMap<>());
+
+            latencyMillis[i] = (System.nanoTime() - requestStartTime) / 1e6;
+            nrErrors += result.getErrorTableEntries().size();
+        }
+
+        final double seconds = (System.nanoTime() - startTime) / 1e9;
+        Arrays.sort(latencyMillis);
+
+        return new RunResult(imageFiles.size(), nrErrors, imageFiles.size() / seconds,
+                BenchmarkUtils.percentile(latencyMillis, 50), BenchmarkUtils.percentile(latencyMillis, 99));
+    }
+
+    private static RunResult runBatch(BoundingBoxPredictorClient client, BoundingBoxPredictorConfig config,
+                                      List<File> workload, Map<String, ImageMetaData> imageFileNameToMetaData)
+            throws Exception {
+        final long startTime = System.nanoTime();
+
+        final BatchBoundingBoxPredictionResult result =
+                new BatchBoundingBoxPredictor(client, config, MAX_IN_FLIGHT_REQUESTS, BATCH_SIZE)
+                        .predict(workload, imageFileNameToMetaData, new HashMap<>(),
+                                batch -> {
+                                }, statistics -> {
+                                });
+
+        final double seconds = (System.nanoTime() - startTime) / 1e9;
+        final BatchBoundingBoxPredictor.PredictionStatistics statistics = result.getStatistics();
+
+        assertEquals(workload.size(),
+                result.getNrSuccessfullyProcessedItems() + result.getErrorTableEntries().size());
+
+        return new RunResult(workload.size(), result.getErrorTableEntries().size(), workload.size() / seconds,
+                statistics.p50LatencyMillis(), statistics.p99LatencyMillis());
+    }
+
+    private static void report(String benchmarkName, RunResult result, MockTorchServeServer server) {
+        BenchmarkUtils.report(benchmarkName,
+                "%.1f images/s, latency p50: %.1f ms, p99: %.1f ms, %.1f kB uploaded and %.1f kB downloaded " +
+                        "per image, %d errors (%d images, max. %d requests on the server)",
+                result.imagesPerSecond(), result.p50LatencyMillis(), result.p99LatencyMillis(),
+                server.getNrReceivedBytes() / 1e3 / result.nrImages(),
+                server.getNrSentBytes() / 1e3 / result.nrImages(), result.nrErrors(), result.nrImages(),
+                server.getMaxActiveRequests());
+    }
+
+    private static List<File> loadImageFiles() throws URISyntaxException, IOException {
+        final List<File> imageFiles = new ArrayList<>();
+
+        for(String folderPath : TEST_IMAGE_FOLDER_PATHS) {
+            final Path folder = Path.of(Objects.requireNonNull(
+                    PredictionThroughputBenchmark.class.getResource(folderPath)).toURI());
+
+            try(Stream<Path> files = Files.list(folder)) {
+                files.map(Path::toFile).sorted().forEach(imageFiles::add);
+            }
+        }
+
+        return imageFiles;
+    }
+
+    private record RunResult(int nrImages, int nrErrors, double imagesPerSecond, double p50LatencyMillis,
+                             double p99LatencyMillis) {
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class RecursiveFileWatcherTests {
+    private static final long BATCH_TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    void onCreatingNestedFiles_ShouldRegisterNewSubdirectoriesAndReportFilesUpToMaxDepth(@TempDir Path tempDir)
+            throws Exception {
+        final BlockingQueue<RecursiveFileWatcher.Changes> batches = new LinkedBlockingQueue<>();
+        final Thread watcherThread = startWatcher(new RecursiveFileWatcher(tempDir, 3, batches::add));
+
+        try {
+            final Path nestedDirectory = Files.createDirectories(tempDir.resolve("a").resolve("b").resolve("c"));
+            Files.writeString(tempDir.resolve("a").resolve("b").resolve("file.txt"), "content");
+            Files.writeString(nestedDirectory.resolve("too-deep.txt"), "content");
+
+            final Set<Path> changedPaths = collectChangedPaths(batches, tempDir.resolve("a").resolve("b")
+                    .resolve("file.txt"));
+
+            assertFalse(changedPaths.contains(nestedDirectory.resolve("too-deep.txt")));
+
+            // Files created in a registered subdirectory are reported.
+            Files.writeString(tempDir.resolve("a").resolve("b").resolve("later.txt"), "content");
+            assertTrue(collectChangedPaths(batches, tempDir.resolve("a").resolve("b").resolve("later.txt"))
+                               .contains(tempDir.resolve("a").resolve("b").resolve("later.txt")));
+        } finally {
+            watcherThread.interrupt();
+            watcherThread.join(BATCH_TIMEOUT_MILLIS);
+        }
+
+        assertFalse(watcherThread.isAlive());
+    }
+
+    @Test
+    void onRemovingSubdirectory_ShouldRescanOnlyItsSubtree(@TempDir Path tempDir) throws Exception {
+        final Path subdirectory = Files.createDirectories(tempDir.resolve("sub"));
+        Files.writeString(subdirectory.resolve("file.txt"), "content");
+        Files.writeString(tempDir.resolve("other.txt"), "content");
+
+        final BlockingQueue<RecursiveFileWatcher.Changes> batches = new LinkedBlockingQueue<>();
+        final Thread watcherThread = startWatcher(new RecursiveFileWatcher(tempDir, 2, batches::add));
+
+        try {
+            Files.delete(subdirectory.resolve("file.txt"));
+            Files.delete(subdirectory);
+
+            RecursiveFileWatcher.Changes changes;
+            boolean subdirectoryRescanned = false;
+
+            while(!subdirectoryRescanned
+                    && (changes = batches.poll(BATCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                subdirectoryRescanned = changes.rescannedDirectories().contains(subdirectory);
+
+                assertTrue(changes.affects(subdirectory.resolve("file.txt")));
+                assertFalse(changes.affects(tempDir.resolve("other.txt")));
+            }
+
+            assertTrue(subdirectoryRescanned);
+        } finally {
+            watcherThread.interrupt();
+            watcherThread.join(BATCH_TIMEOUT_MILLIS);
+        }
+    }
+
+    private static Thread startWatcher(RecursiveFileWatcher watcher) throws InterruptedException {
+        final Thread watcherThread = new Thread(() -> {
+            try {
+                watcher.watch();
+            } catch(Exception ignored) {
+                // Interrupted at the end of the test.
+            }
+        });
+
+        watcherThread.start();
+        // Gives the watcher time to register the existing directories.
+        Thread.sleep(RecursiveFileWatcher.QUIET_PERIOD_MILLIS);
+        return watcherThread;
+    }
+
+    private static Set<Path> collectChangedPaths(BlockingQueue<RecursiveFileWatcher.Changes> batches,
+                                                 Path expectedPath) throws InterruptedException {
+        final Set<Path> changedPaths = new HashSet<>();
+        RecursiveFileWatcher.Changes changes;
+
+        while(!changedPaths.contains(expectedPath)
+                && (changes = batches.poll(BATCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+            changedPaths.addAll(changes.changedPaths());
+        }
+
+        assertTrue(changedPaths.contains(expectedPath));
+        return changedPaths;
+    }
+}
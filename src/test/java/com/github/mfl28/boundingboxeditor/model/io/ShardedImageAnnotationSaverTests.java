@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ShardedImageAnnotationSaverTests {
+    private final ObjectCategory car = new ObjectCategory("car", Color.RED);
+    private final ObjectCategory bike = new ObjectCategory("bike", Color.BLUE);
+
+    @Test
+    void onAssigningSplits_ShouldBeDeterministicAndFollowFractions() {
+        final ShardedExportConfig config = new ShardedExportConfig(100, 0.7, 0.2);
+        final Map<ShardedExportConfig.Split, Integer> splitCounts = new EnumMap<>(ShardedExportConfig.Split.class);
+
+        for(int i = 0; i < 20_000; ++i) {
+            final String fileName = "image" + i + ".jpg";
+            final ShardedExportConfig.Split split = config.getSplit(fileName);
+
+            assertEquals(split, new ShardedExportConfig(5, 0.7, 0.2).getSplit(fileName));
+            splitCounts.merge(split, 1, Integer::sum);
+        }
+
+        assertEquals(0.7, splitCounts.get(ShardedExportConfig.Split.TRAIN) / 20_000.0, 0.02);
+        assertEquals(0.2, splitCounts.get(ShardedExportConfig.Split.VALIDATION) / 20_000.0, 0.02);
+        assertEquals(0.1, splitCounts.get(ShardedExportConfig.Split.TEST) / 20_000.0, 0.02);
+    }
+
+    @Test
+    void onCreatingShards_ShouldRespectShardSizeAndBeOrderIndependent() {
+        final ShardedExportConfig config = new ShardedExportConfig(10, 0.6, 0.2);
+        final List<ImageAnnotation> imageAnnotations = createAnnotations(95);
+        final List<ShardedImageAnnotationSaver.Shard> shards =
+                ShardedImageAnnotationSaver.createShards(imageAnnotations, config);
+
+        Collections.reverse(imageAnnotations);
+        final List<ShardedImageAnnotationSaver.Shard> shardsOfReversedInput =
+                ShardedImageAnnotationSaver.createShards(imageAnnotations, config);
+
+        assertEquals(95, shards.stream().mapToInt(shard -> shard.imageAnnotations().size()).sum());
+        assertTrue(shards.stream().allMatch(shard -> shard.imageAnnotations().size() <= 10));
+        assertEquals(shards, shardsOfReversedInput);
+    }
+
+    @Test
+    void onSavingShardedYOLODataset_ShouldWriteShardsWithCategoriesAndManifest(@TempDir Path tempDir)
+            throws Exception {
+        final ShardedExportConfig config = new ShardedExportConfig(10, 0.6, 0.2);
+        final List<ImageAnnotation> imageAnnotations = createAnnotations(45);
+
+        final ImageAnnotationExportResult exportResult =
+                new ShardedImageAnnotationSaver(ImageAnnotationSaveStrategy.Type.YOLO, config)
+                        .save(new ImageAnnotationData(imageAnnotations, Map.of("car", 23, "bike", 22),
+                                Map.of("car", car, "bike", bike)), tempDir);
+
+        assertTrue(exportResult.getErrorTableEntries().isEmpty());
+        assertEquals(45, exportResult.getNrSuccessfullyProcessedItems());
+
+        final JsonObject manifest = JsonParser.parseString(
+                Files.readString(tempDir.resolve(ShardedImageAnnotationSaver.MANIFEST_FILE_NAME))).getAsJsonObject();
+        final JsonArray shardEntries = manifest.getAsJsonArray("shards");
+
+        int nrImages = 0;
+
+        for(JsonElement shardElement : shardEntries) {
+            final JsonObject shardEntry = shardElement.getAsJsonObject();
+            final Path shardDirectory = tempDir.resolve(shardEntry.get("path").getAsString());
+
+            assertEquals(List.of("bike", "car"), Files.readAllLines(shardDirectory.resolve("object.data")));
+
+            try(var files = Files.list(shardDirectory)) {
+                assertEquals(shardEntry.get("nrImages").getAsInt() + 1, files.count());
+            }
+
+            assertEquals(64, shardEntry.get("sha256").getAsString().length());
+            nrImages += shardEntry.get("nrImages").getAsInt();
+        }
+
+        assertEquals(45, nrImages);
+        assertEquals("YOLO", manifest.get("format").getAsString());
+    }
+
+    @Test
+    void onSavingShardedSingleFileDataset_ShouldRecordFileChecksums(@TempDir Path tempDir) throws Exception {
+        final ShardedExportConfig config = new ShardedExportConfig(20, 0.5, 0.25);
+        final List<ImageAnnotation> imageAnnotations = createAnnotations(50);
+
+        final ImageAnnotationExportResult exportResult =
+                new ShardedImageAnnotationSaver(ImageAnnotationSaveStrategy.Type.JSON_LINES, config)
+                        .save(new ImageAnnotationData(imageAnnotations, Map.of("car", 25, "bike", 25),
+                                Map.of("car", car, "bike", bike)), tempDir);
+
+        assertTrue(exportResult.getErrorTableEntries().isEmpty());
+
+        final JsonObject manifest = JsonParser.parseString(
+                Files.readString(tempDir.resolve(ShardedImageAnnotationSaver.MANIFEST_FILE_NAME))).getAsJsonObject();
+
+        for(JsonElement shardElement : manifest.getAsJsonArray("shards")) {
+            final JsonObject shardEntry = shardElement.getAsJsonObject();
+            final Path shardFile = tempDir.resolve(shardEntry.get("path").getAsString());
+            final byte[] content = Files.readAllBytes(shardFile);
+
+            assertTrue(shardFile.getFileName().toString().endsWith(".jsonl"));
+            assertEquals(shardEntry.get("nrImages").getAsInt(), Files.readAllLines(shardFile).size());
+            assertEquals(content.length, shardEntry.get("sizeInBytes").getAsLong());
+            assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)),
+                    shardEntry.get("sha256").getAsString());
+        }
+    }
+
+    @Test
+    void onReSavingShardedYOLODataset_ShouldReplaceShardDirectories(@TempDir Path tempDir) throws Exception {
+        final ShardedExportConfig config = new ShardedExportConfig(10, 0.6, 0.2);
+        final ImageAnnotationData annotationData = new ImageAnnotationData(createAnnotations(45),
+                Map.of("car", 23, "bike", 22), Map.of("car", car, "bike", bike));
+        final ShardedImageAnnotationSaver saver =
+                new ShardedImageAnnotationSaver(ImageAnnotationSaveStrategy.Type.YOLO, config);
+        final Path manifestPath = tempDir.resolve(ShardedImageAnnotationSaver.MANIFEST_FILE_NAME);
+
+        assertTrue(saver.save(annotationData, tempDir).getErrorTableEntries().isEmpty());
+
+        final JsonArray initialShardEntries =
+                JsonParser.parseString(Files.readString(manifestPath)).getAsJsonObject().getAsJsonArray("shards");
+
+        // Files left over from a previous export must neither be kept nor counted.
+        for(JsonElement shardElement : initialShardEntries) {
+            Files.writeString(tempDir.resolve(shardElement.getAsJsonObject().get("path").getAsString())
+                    .resolve("stale.txt"), "stale");
+        }
+
+        final ImageAnnotationExportResult exportResult = saver.save(annotationData, tempDir);
+
+        assertTrue(exportResult.getErrorTableEntries().isEmpty());
+        assertEquals(45, exportResult.getNrSuccessfullyProcessedItems());
+
+        final JsonArray shardEntries =
+                JsonParser.parseString(Files.readString(manifestPath)).getAsJsonObject().getAsJsonArray("shards");
+
+        assertEquals(initialShardEntries, shardEntries);
+
+        for(JsonElement shardElement : shardEntries) {
+            final JsonObject shardEntry = shardElement.getAsJsonObject();
+            final Path shardDirectory = tempDir.resolve(shardEntry.get("path").getAsString());
+
+            assertFalse(Files.exists(shardDirectory.resolve("stale.txt")));
+
+            try(var files = Files.list(shardDirectory)) {
+                assertEquals(shardEntry.get("sizeInBytes").getAsLong(),
+                        files.mapToLong(file -> file.toFile().length()).sum());
+            }
+
+            try(var siblings = Files.list(shardDirectory.getParent())) {
+                assertTrue(siblings.noneMatch(sibling -> sibling.getFileName().toString().startsWith(".")));
+            }
+        }
+    }
+
+    private List<ImageAnnotation> createAnnotations(int nrAnnotations) {
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>();
+
+        for(int i = 0; i < nrAnnotations; ++i) {
+            final BoundingBoxData box = new BoundingBoxData(i % 2 == 0 ? car : bike, 0.1, 0.2, 0.5, 0.6,
+                    Collections.emptyList());
+            imageAnnotations.add(new ImageAnnotation(new ImageMetaData("image" + i + ".jpg", "folder", "url",
+                    200, 100, 3), new ArrayList<>(List.of(box))));
+        }
+
+        return imageAnnotations;
+    }
+}
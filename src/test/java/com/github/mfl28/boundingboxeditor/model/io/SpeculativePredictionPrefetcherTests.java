@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictionEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.ModelEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.PredictionClientException;
+import com.github.mfl28.boundingboxeditor.model.io.results.BoundingBoxPredictionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class SpeculativePredictionPrefetcherTests {
+    private final SpeculativePredictionPrefetcher prefetcher = new SpeculativePredictionPrefetcher();
+
+    @AfterEach
+    void shutdownPrefetcher() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    void onUsingPrefetchedPrediction_ShouldNotSendRequestOrModifyCategoriesBeforeUse(@TempDir Path tempDir)
+            throws Exception {
+        final List<File> imageFiles = createImageFiles(tempDir, 3);
+        final BlockingClient client = new BlockingClient();
+        client.release.countDown();
+        final BoundingBoxPredictor predictor = new BoundingBoxPredictor(client, createPredictorConfig());
+        final Map<String, ObjectCategory> categoryNameToCategoryMap = new HashMap<>();
+
+        prefetcher.prefetch(imageFiles, createMetaData(imageFiles), predictor);
+
+        final Future<BoundingBoxPredictor.PreparedImage> prefetch = prefetcher.take("image0.jpg");
+        assertNotNull(prefetch);
+        prefetch.get(5, TimeUnit.SECONDS);
+        assertTrue(categoryNameToCategoryMap.isEmpty());
+
+        final BoundingBoxPredictionResult result = predictor.predict(imageFiles.getFirst(),
+                createMetaData(imageFiles).get("image0.jpg"), categoryNameToCategoryMap, prefetch);
+
+        assertEquals(1, result.getNrSuccessfullyProcessedItems());
+        assertEquals(Set.of("car"), categoryNameToCategoryMap.keySet());
+        assertTrue(client.nrRequests.get() <= imageFiles.size());
+
+        final int nrRequestsBefore = client.nrRequests.get();
+        predictor.predict(imageFiles.getFirst(), createMetaData(imageFiles).get("image0.jpg"),
+                categoryNameToCategoryMap, null);
+        assertEquals(nrRequestsBefore + 1, client.nrRequests.get());
+
+        assertNull(prefetcher.take("image5.jpg"));
+        assertEquals(new SpeculativePredictionPrefetcher.HitStatistics(1, 2), prefetcher.getHitStatistics());
+        assertEquals(0.5, prefetcher.getHitStatistics().getHitRate());
+    }
+
+    @Test
+    void onMovingWindow_ShouldCancelPrefetchesOutsideWindow(@TempDir Path tempDir) throws Exception {
+        final List<File> imageFiles = createImageFiles(tempDir, 6);
+        final Map<String, ImageMetaData> imageFileNameToMetaData = createMetaData(imageFiles);
+        final BlockingClient client = new BlockingClient();
+        final BoundingBoxPredictor predictor = new BoundingBoxPredictor(client, createPredictorConfig());
+
+        prefetcher.prefetch(imageFiles.subList(0, 3), imageFileNameToMetaData, predictor);
+        prefetcher.prefetch(imageFiles.subList(3, 6), imageFileNameToMetaData, predictor);
+        client.release.countDown();
+
+        assertNull(prefetcher.take("image0.jpg"));
+        assertNull(prefetcher.take("image1.jpg"));
+
+        final Future<BoundingBoxPredictor.PreparedImage> prefetch = prefetcher.take("image4.jpg");
+        assertNotNull(prefetch);
+        assertNotNull(prefetch.get(5, TimeUnit.SECONDS).cachedPredictions());
+        // The first prefetch might have started before it was cancelled, the others must never run.
+        assertTrue(client.nrRequests.get() <= 4);
+    }
+
+    private static BoundingBoxPredictorConfig createPredictorConfig() {
+        final BoundingBoxPredictorConfig config = new BoundingBoxPredictorConfig();
+        config.setResizeImages(false);
+        config.setMergeCategories(false);
+        return config;
+    }
+
+    private static List<File> createImageFiles(Path directory, int nrImages) throws IOException {
+        final List<File> imageFiles = new ArrayList<>();
+
+        for(int i = 0; i < nrImages; ++i) {
+            imageFiles.add(Files.writeString(directory.resolve("image" + i + ".jpg"), "image").toFile());
+        }
+
+        return imageFiles;
+    }
+
+    private static Map<String, ImageMetaData> createMetaData(List<File> imageFiles) {
+        final Map<String, ImageMetaData> imageFileNameToMetaData = new HashMap<>();
+
+        for(File imageFile : imageFiles) {
+            imageFileNameToMetaData.put(imageFile.getName(),
+                    new ImageMetaData(imageFile.getName(), "folder", "url", 200, 100, 3));
+        }
+
+        return imageFileNameToMetaData;
+    }
+
+    private static class BlockingClient implements BoundingBoxPredictorClient {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger nrRequests = new AtomicInteger();
+
+        @Override
+        public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+            nrRequests.incrementAndGet();
+
+            try {
+                release.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PredictionClientException("Interrupted.");
+            }
+
+            return List.of(new BoundingBoxPredictionEntry(Map.of("car", List.of(10.0, 10.0, 50.0, 50.0)), 0.9));
+        }
+
+        @Override
+        public List<ModelEntry> models() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getName() {
+            return "Blocking";
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.BenchmarkUtils;
+import com.github.mfl28.boundingboxeditor.model.data.ImageMetaData;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictionEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.BoundingBoxPredictorClient;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.ModelEntry;
+import com.github.mfl28.boundingboxeditor.model.io.restclients.PredictionClientException;
+import com.github.mfl28.boundingboxeditor.model.io.results.BatchBoundingBoxPredictionResult;
+import javafx.application.Platform;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class UploadEncodingBenchmark {
+    private static final String[] TEST_IMAGE_FOLDER_PATHS = {"/testimages/1", "/testimages/3"};
+    private static final int NR_COPIES_PER_IMAGE = 10;
+    // Simulated upload bandwidth of 100 Mbit/s.
+    private static final double UPLOAD_BYTES_PER_MILLI = 12_500;
+
+    @BeforeAll
+    static void startPlatform() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch(IllegalStateException e) {
+            // Platform already running.
+        }
+    }
+
+    @Test
+    void benchmarkUploadEncodings() throws Exception {
+        final List<File> imageFiles = loadImageFiles();
+        final Map<String, ImageMetaData> imageFileNameToMetaData = new HashMap<>();
+
+        for(File imageFile : imageFiles) {
+            imageFileNameToMetaData.put(imageFile.getName(), ImageMetaData.fromFile(imageFile));
+        }
+
+        final List<File> workload = new ArrayList<>();
+
+        for(int i = 0; i < NR_COPIES_PER_IMAGE; ++i) {
+            workload.addAll(imageFiles);
+        }
+
+        for(BoundingBoxPredictorConfig.UploadEncoding uploadEncoding :
+                BoundingBoxPredictorConfig.UploadEncoding.values()) {
+            for(boolean resizeImages : new boolean[]{false, true}) {
+                final BoundingBoxPredictorConfig config = new BoundingBoxPredictorConfig();
+                config.setUploadEncoding(uploadEncoding);
+                config.setResizeImages(resizeImages);
+
+                final long startTime = System.nanoTime();
+
+                final BatchBoundingBoxPredictionResult result =
+                        new BatchBoundingBoxPredictor(new BandwidthLimitedClient(), config, 4, 32)
+                                .predict(workload, imageFileNameToMetaData, new HashMap<>(),
+                                        batch -> {
+                                        }, statistics -> {
+                                        });
+
+                final double seconds = (System.nanoTime() - startTime) / 1e9;
+                final BatchBoundingBoxPredictor.PredictionStatistics statistics = result.getStatistics();
+
+                assertTrue(result.getErrorTableEntries().isEmpty());
+
+                BenchmarkUtils.report("Upload encoding " + uploadEncoding + (resizeImages ? " (resized)" : ""),
+                        "%.1f kB per image on the wire, %.1f images/s, request latency p50: %d ms, p99: %d ms, " +
+                                "mean preprocessing: %.1f ms",
+                        statistics.uploadedBytes() / 1e3 / workload.size(), workload.size() / seconds,
+                        statistics.p50LatencyMillis(), statistics.p99LatencyMillis(),
+                        statistics.stageTimings().meanPreprocessingMillis());
+            }
+        }
+    }
+
+    private static List<File> loadImageFiles() throws URISyntaxException, IOException {
+        final List<File> imageFiles = new ArrayList<>();
+
+        for(String folderPath : TEST_IMAGE_FOLDER_PATHS) {
+            final Path folder = Path.of(Objects.requireNonNull(UploadEncodingBenchmark.class.getResource(folderPath))
+                    .toURI());
+
+            try(Stream<Path> files = Files.list(folder)) {
+                files.map(Path::toFile).sorted().forEach(imageFiles::add);
+            }
+        }
+
+        return imageFiles;
+    }
+
+    private static class BandwidthLimitedClient implements BoundingBoxPredictorClient {
+        @Override
+        public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+            try {
+                final int nrBytes = input.readAllBytes().length;
+                Thread.sleep((long) (nrBytes / UPLOAD_BYTES_PER_MILLI));
+            } catch(IOException | InterruptedException e) {
+                throw new PredictionClientException(e.getMessage());
+            }
+
+            return List.of(new BoundingBoxPredictionEntry(Map.of("car", List.of(10.0, 10.0, 50.0, 50.0)), 0.9));
+        }
+
+        @Override
+        public List<ModelEntry> models() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getName() {
+            return "Bandwidth limited";
+        }
+    }
+}
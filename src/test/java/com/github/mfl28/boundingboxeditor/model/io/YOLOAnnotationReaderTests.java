@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class YOLOAnnotationReaderTests {
+    @Test
+    void onReadingLines_ShouldCountLinesLikeBufferedReader(@TempDir Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("annotation.txt");
+        Files.writeString(file, "  0 0.5 \r\n\n\r1\t0.25\r   \n2");
+
+        final YOLOAnnotationReader reader = new YOLOAnnotationReader();
+        reader.open(file);
+
+        assertTrue(reader.nextLine());
+        assertEquals(1, reader.getLineNumber());
+        assertFalse(reader.isLineBlank());
+        assertTrue(reader.hasNextInt());
+        assertEquals(0, reader.nextInt());
+        assertTrue(reader.hasNextDouble());
+        assertEquals(0.5, reader.nextDouble());
+        assertFalse(reader.hasNextDouble());
+
+        assertTrue(reader.nextLine());
+        assertTrue(reader.isLineBlank());
+
+        assertTrue(reader.nextLine());
+        assertTrue(reader.isLineBlank());
+
+        assertTrue(reader.nextLine());
+        assertEquals(4, reader.getLineNumber());
+        assertTrue(reader.hasNextInt());
+        assertEquals(1, reader.nextInt());
+        assertTrue(reader.hasNextDouble());
+        assertEquals(0.25, reader.nextDouble());
+
+        assertTrue(reader.nextLine());
+        assertTrue(reader.isLineBlank());
+
+        assertTrue(reader.nextLine());
+        assertEquals(6, reader.getLineNumber());
+        assertTrue(reader.hasNextInt());
+        assertEquals(2, reader.nextInt());
+
+        assertFalse(reader.nextLine());
+    }
+
+    @Test
+    void onParsingNumbers_ShouldMatchJdkParsing(@TempDir Path tempDir) throws IOException {
+        final List<String> numbers = List.of("0", "-0", "1", "0.5", ".5", "5.", "0.123456", "+0.987654321",
+                "1e-3", "2.5E+2", "0.30000000000000004", "0.1234567890123456789", "1e-30", "NaN", "-Infinity");
+        final Path file = tempDir.resolve("annotation.txt");
+        Files.writeString(file, String.join(" ", numbers) + " abc 0.5");
+
+        final YOLOAnnotationReader reader = new YOLOAnnotationReader();
+        reader.open(file);
+        assertTrue(reader.nextLine());
+
+        for (String number : numbers) {
+            assertTrue(reader.hasNextDouble(), number);
+            assertEquals(Double.parseDouble(number), reader.nextDouble(), number);
+        }
+
+        assertFalse(reader.hasNextDouble());
+        assertFalse(reader.hasNextInt());
+    }
+
+    @Test
+    void onParsingCategoryIndex_ShouldRejectNonIntegerTokens(@TempDir Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("annotation.txt");
+        Files.writeString(file, "1.0\n-3\n2147483648\n");
+
+        final YOLOAnnotationReader reader = new YOLOAnnotationReader();
+        reader.open(file);
+
+        assertTrue(reader.nextLine());
+        assertFalse(reader.hasNextInt());
+
+        assertTrue(reader.nextLine());
+        assertTrue(reader.hasNextInt());
+        assertEquals(-3, reader.nextInt());
+
+        assertTrue(reader.nextLine());
+        assertFalse(reader.hasNextInt());
+    }
+
+    @Test
+    void onReleasingLargeFile_ShouldDropContentAndKeepReaderUsable(@TempDir Path tempDir) throws IOException {
+        final Path largeFile = tempDir.resolve("large.txt");
+        Files.writeString(largeFile, "0 0.5 0.5 0.1 0.1\n".repeat(100_000));
+
+        final YOLOAnnotationReader reader = new YOLOAnnotationReader();
+        reader.open(largeFile);
+        assertTrue(reader.nextLine());
+
+        reader.release();
+        assertFalse(reader.nextLine());
+
+        final Path smallFile = tempDir.resolve("small.txt");
+        Files.writeString(smallFile, "3 0.25\n");
+
+        reader.open(smallFile);
+        assertTrue(reader.nextLine());
+        assertTrue(reader.hasNextInt());
+        assertEquals(3, reader.nextInt());
+        assertTrue(reader.hasNextDouble());
+        assertEquals(0.25, reader.nextDouble());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.BenchmarkUtils;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class YOLOLoadStrategyBenchmark {
+    private static final int NR_FILES = 20_000;
+    private static final int NR_BOXES_PER_FILE = 10;
+    private static final int NR_WARMUP_RUNS = 2;
+    private static final int NR_MEASURED_RUNS = 5;
+
+    @Test
+    void benchmarkYOLOLoading(@TempDir Path tempDir) throws IOException {
+        final Set<String> filesToLoad = createAnnotationFiles(tempDir);
+
+        for (int i = 0; i < NR_WARMUP_RUNS; ++i) {
+            load(tempDir, filesToLoad);
+        }
+
+        long totalNanos = 0;
+        long totalAllocatedBytes = 0;
+
+        for (int i = 0; i < NR_MEASURED_RUNS; ++i) {
+            final long allocatedBytesBefore = BenchmarkUtils.getTotalAllocatedBytes();
+            final long startTime = System.nanoTime();
+
+            final ImageAnnotationImportResult result = load(tempDir, filesToLoad);
+
+            totalNanos += System.nanoTime() - startTime;
+            totalAllocatedBytes += BenchmarkUtils.getTotalAllocatedBytes() - allocatedBytesBefore;
+
+            assertEquals(NR_FILES, result.getNrSuccessfullyProcessedItems());
+            assertTrue(result.getErrorTableEntries().isEmpty());
+        }
+
+        final double seconds = totalNanos / 1e9;
+        final long nrBoxes = (long) NR_FILES * NR_BOXES_PER_FILE * NR_MEASURED_RUNS;
+
+        BenchmarkUtils.report("YOLO load", "%.0f files/s, %.0f boxes/s, %.1f bytes allocated per box",
+                NR_FILES * NR_MEASURED_RUNS / seconds, nrBoxes / seconds, (double) totalAllocatedBytes / nrBoxes);
+    }
+
+    private static ImageAnnotationImportResult load(Path directory, Set<String> filesToLoad) throws IOException {
+        return new YOLOLoadStrategy().load(directory, filesToLoad, new HashMap<>(), new SimpleDoubleProperty(0));
+    }
+
+    private static Set<String> createAnnotationFiles(Path directory) throws IOException {
+        Files.writeString(directory.resolve("object.data"), "cat\ndog\nbird\n");
+
+        final Random random = new Random(42);
+        final Set<String> filesToLoad = new HashSet<>();
+        final StringBuilder content = new StringBuilder();
+
+        for (int i = 0; i < NR_FILES; ++i) {
+            content.setLength(0);
+
+            for (int j = 0; j < NR_BOXES_PER_FILE; ++j) {
+                content.append(String.format(Locale.ENGLISH, "%d %.6f %.6f %.6f %.6f%n", random.nextInt(3),
+                        0.25 + random.nextDouble() * 0.5, 0.25 + random.nextDouble() * 0.5,
+                        random.nextDouble() * 0.5, random.nextDouble() * 0.5));
+            }
+
+            Files.writeString(directory.resolve("image" + i + ".txt"), content);
+            filesToLoad.add("image" + i + ".jpg");
+        }
+
+        return filesToLoad;
+    }
+}
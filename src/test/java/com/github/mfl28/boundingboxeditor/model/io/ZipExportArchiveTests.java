@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io;
+
+import com.github.mfl28.boundingboxeditor.model.data.*;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationExportResult;
+import com.github.mfl28.boundingboxeditor.model.io.results.ImageAnnotationImportResult;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class ZipExportArchiveTests {
+    @Test
+    void onSavingPVOCToArchive_ShouldBeLoadableFromArchive(@TempDir Path tempDir) throws IOException {
+        final ObjectCategory car = new ObjectCategory("car", Color.RED);
+        final List<ImageAnnotation> imageAnnotations = new ArrayList<>();
+
+        for(int i = 0; i < 10; ++i) {
+            imageAnnotations.add(new ImageAnnotation(new ImageMetaData("image" + i + ".png", "folder", "url",
+                    200, 100, 3), new ArrayList<>(List.of(new BoundingBoxData(car, 0.1, 0.2, 0.5, 0.6,
+                    Collections.emptyList())))));
+        }
+
+        final Path destination = tempDir.resolve("annotations.zip");
+        final ImageAnnotationExportResult exportResult = new PVOCSaveStrategy().save(
+                new ImageAnnotationData(imageAnnotations, Map.of("car", 10), Map.of("car", car)),
+                destination, new SimpleDoubleProperty(0));
+
+        assertTrue(exportResult.getErrorTableEntries().isEmpty());
+        assertEquals(10, exportResult.getNrSuccessfullyProcessedItems());
+        assertEquals(List.of("annotations.zip"), listFileNames(tempDir));
+
+        try(ZipFile zipFile = new ZipFile(destination.toFile())) {
+            assertEquals(10, zipFile.size());
+            assertNotNull(zipFile.getEntry("image0_png_A.xml"));
+        }
+
+        final Set<String> imageFileNames = new HashSet<>();
+        imageAnnotations.forEach(imageAnnotation -> imageFileNames.add(imageAnnotation.getImageFileName()));
+
+        final ImageAnnotationImportResult importResult = new PVOCLoadStrategy().load(destination, imageFileNames,
+                new HashMap<>(Map.of("car", car)), new SimpleDoubleProperty(0));
+
+        assertTrue(importResult.getErrorTableEntries().isEmpty());
+        assertEquals(10, importResult.getNrSuccessfullyProcessedItems());
+        assertEquals(Map.of("car", 10), importResult.getImageAnnotationData().categoryNameToBoundingShapeCountMap());
+    }
+
+    @Test
+    void onSavingSingleFileFormatToArchive_ShouldNameEntryAfterArchive(@TempDir Path tempDir) throws IOException {
+        final ObjectCategory car = new ObjectCategory("car", Color.RED);
+        final ImageAnnotation imageAnnotation = new ImageAnnotation(new ImageMetaData("image.png", "folder", "url",
+                200, 100, 3), new ArrayList<>(List.of(new BoundingBoxData(car, 0.1, 0.2, 0.5, 0.6,
+                Collections.emptyList()))));
+
+        final Path destination = tempDir.resolve("dataset.zip");
+        final ImageAnnotationExportResult exportResult = new JSONSaveStrategy().save(
+                new ImageAnnotationData(List.of(imageAnnotation), Map.of("car", 1), Map.of("car", car)),
+                destination, new SimpleDoubleProperty(0));
+
+        assertTrue(exportResult.getErrorTableEntries().isEmpty());
+
+        try(ZipFile zipFile = new ZipFile(destination.toFile())) {
+            assertEquals(1, zipFile.size());
+            assertNotNull(zipFile.getEntry("dataset.json"));
+        }
+
+        final ImageAnnotationImportResult importResult = new JSONLoadStrategy().load(destination,
+                Set.of("image.png"), new HashMap<>(Map.of("car", car)), new SimpleDoubleProperty(0));
+
+        assertEquals(1, importResult.getNrSuccessfullyProcessedItems());
+    }
+
+    @Test
+    void onWritingMoreThan65535Entries_ShouldWriteZip64Archive(@TempDir Path tempDir) throws IOException {
+        final int nrEntries = 70_000;
+        final Path destination = tempDir.resolve("many.zip");
+
+        try(ZipExportArchive archive = ZipExportArchive.create(destination)) {
+            IntStream.range(0, nrEntries).parallel().forEach(i -> {
+                try {
+                    archive.write("file" + i + ".txt",
+                            outputStream -> outputStream.write(("content " + i).getBytes(StandardCharsets.UTF_8)));
+                } catch(IOException e) {
+                    fail(e);
+                }
+            });
+
+            archive.commit();
+        }
+
+        try(ZipFile zipFile = new ZipFile(destination.toFile())) {
+            assertEquals(nrEntries, zipFile.size());
+
+            final ZipEntry entry = zipFile.getEntry("file69999.txt");
+            assertNotNull(entry);
+            assertEquals("content 69999", new String(zipFile.getInputStream(entry).readAllBytes(),
+                    StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void onWritingLargeEntries_ShouldStreamEntriesWithDataDescriptor(@TempDir Path tempDir) throws IOException {
+        final byte[] largeContent = new byte[2 * ZipExportArchive.MAX_BUFFERED_ENTRY_SIZE];
+        new Random(42).nextBytes(largeContent);
+        final Path destination = tempDir.resolve("large.zip");
+
+        try(ZipExportArchive archive = ZipExportArchive.create(destination)) {
+            IntStream.range(0, 20).parallel().forEach(i -> {
+                try {
+                    archive.write("file" + i + ".bin", outputStream -> outputStream.write(
+                            i % 5 == 0 ? largeContent : ("content " + i).getBytes(StandardCharsets.UTF_8)));
+                } catch(IOException e) {
+                    fail(e);
+                }
+            });
+
+            archive.commit();
+        }
+
+        try(ZipFile zipFile = new ZipFile(destination.toFile())) {
+            assertEquals(20, zipFile.size());
+            assertArrayEquals(largeContent, zipFile.getInputStream(zipFile.getEntry("file5.bin")).readAllBytes());
+        }
+
+        final Map<String, byte[]> streamedContents = new HashMap<>();
+
+        try(ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(destination))) {
+            ZipEntry entry;
+
+            while((entry = zipInputStream.getNextEntry()) != null) {
+                streamedContents.put(entry.getName(), zipInputStream.readAllBytes());
+            }
+        }
+
+        assertEquals(20, streamedContents.size());
+        assertArrayEquals(largeContent, streamedContents.get("file10.bin"));
+        assertEquals("content 3", new String(streamedContents.get("file3.bin"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void onSavingSingleFileFormatToArchive_ShouldStreamEntry(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("dataset.zip");
+
+        AnnotationExportSink.writeSingleFile(destination, ".json",
+                outputStream -> outputStream.write("{}".getBytes(StandardCharsets.UTF_8)));
+
+        final ByteBuffer localFileHeader = ByteBuffer.wrap(Files.readAllBytes(destination))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        // General purpose flag bit 3: Sizes and checksum follow the content in a data descriptor.
+        assertEquals(0x0008, localFileHeader.getShort(6) & 0x0008);
+
+        try(ZipFile zipFile = new ZipFile(destination.toFile())) {
+            assertEquals("{}", new String(zipFile.getInputStream(zipFile.getEntry("dataset.json")).readAllBytes(),
+                    StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void onFailingStreamedEntry_ShouldNotCommitArchive(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.zip");
+
+        try(ZipExportArchive archive = ZipExportArchive.create(destination)) {
+            assertThrows(IOException.class, () -> archive.writeStreamed("file.txt", outputStream -> {
+                outputStream.write(new byte[ZipExportArchive.MAX_BUFFERED_ENTRY_SIZE]);
+                throw new IOException("Content could not be generated.");
+            }));
+            assertThrows(IOException.class, archive::commit);
+        }
+
+        assertTrue(listFileNames(tempDir).isEmpty());
+    }
+
+    @Test
+    void onCloseWithoutCommit_ShouldNotCreateArchive(@TempDir Path tempDir) throws IOException {
+        final Path destination = tempDir.resolve("annotations.zip");
+
+        try(ZipExportArchive archive = ZipExportArchive.create(destination)) {
+            archive.write("file.txt", outputStream -> outputStream.write(1));
+        }
+
+        assertTrue(listFileNames(tempDir).isEmpty());
+    }
+
+    private static List<String> listFileNames(Path directory) throws IOException {
+        try(Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
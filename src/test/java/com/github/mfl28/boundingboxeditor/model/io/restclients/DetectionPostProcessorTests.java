@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class DetectionPostProcessorTests {
+    // Three candidates with two classes each: center x, center y, width, height, score class 0, score class 1.
+    private static final float[][] CANDIDATES = {
+            {50, 50, 20, 40, 0.9f, 0.1f},
+            {300, 200, 100, 50, 0.2f, 0.7f},
+            {10, 10, 4, 4, 0.01f, 0.02f}
+    };
+
+    @Test
+    void onDecodingOutputsOfBothLayouts_ShouldReturnSameDetections() {
+        final FloatBuffer candidatesFirstOutput = FloatBuffer.allocate(18);
+        final FloatBuffer valuesFirstOutput = FloatBuffer.allocate(18);
+
+        for(int candidate = 0; candidate < 3; ++candidate) {
+            for(int value = 0; value < 6; ++value) {
+                candidatesFirstOutput.put(candidate * 6 + value, CANDIDATES[candidate][value]);
+                valuesFirstOutput.put(value * 3 + candidate, CANDIDATES[candidate][value]);
+            }
+        }
+
+        final List<DetectionPostProcessor.Detection> detections =
+                DetectionPostProcessor.decode(candidatesFirstOutput, 3, 2, true, 0.05f);
+
+        assertEquals(List.of(new DetectionPostProcessor.Detection(0, 0.9f, 40, 30, 60, 70),
+                new DetectionPostProcessor.Detection(1, 0.7f, 250, 175, 350, 225)), detections);
+        assertEquals(detections, DetectionPostProcessor.decode(valuesFirstOutput, 3, 2, false, 0.05f));
+    }
+
+    @Test
+    void onNonMaximumSuppression_ShouldOnlySuppressOverlappingDetectionsOfSameClass() {
+        final DetectionPostProcessor.Detection best = new DetectionPostProcessor.Detection(0, 0.9f, 0, 0, 10, 10);
+        final DetectionPostProcessor.Detection overlapping =
+                new DetectionPostProcessor.Detection(0, 0.8f, 1, 1, 11, 11);
+        final DetectionPostProcessor.Detection otherClass =
+                new DetectionPostProcessor.Detection(1, 0.7f, 1, 1, 11, 11);
+        final DetectionPostProcessor.Detection separate =
+                new DetectionPostProcessor.Detection(0, 0.6f, 20, 20, 30, 30);
+
+        assertEquals(List.of(best, otherClass, separate), DetectionPostProcessor.nonMaximumSuppression(
+                List.of(separate, overlapping, otherClass, best), 0.45f, 300));
+        assertEquals(List.of(best, otherClass), DetectionPostProcessor.nonMaximumSuppression(
+                List.of(separate, overlapping, otherClass, best), 0.45f, 2));
+        assertEquals(4, DetectionPostProcessor.nonMaximumSuppression(
+                List.of(separate, overlapping, otherClass, best), 0.9f, 300).size());
+    }
+
+    @Test
+    void onComputingIntersectionOverUnion_ShouldHandleDisjointAndContainedBoxes() {
+        final DetectionPostProcessor.Detection box = new DetectionPostProcessor.Detection(0, 1, 0, 0, 10, 10);
+
+        assertEquals(1, box.intersectionOverUnion(box), 1e-6);
+        assertEquals(0.25, box.intersectionOverUnion(new DetectionPostProcessor.Detection(0, 1, 0, 0, 5, 5)),
+                1e-6);
+        assertEquals(0, box.intersectionOverUnion(new DetectionPostProcessor.Detection(0, 1, 10, 0, 20, 10)));
+    }
+
+    @Test
+    void onFillingInput_ShouldWritePlanarRgbAndPadRemainingArea() {
+        // 2 x 1 image: a red and a blue pixel.
+        final int[] pixels = {0xFFFF0000, 0xFF0000FF};
+        final FloatBuffer input = FloatBuffer.allocate(DetectionPostProcessor.getInputSize(4, 2));
+
+        assertEquals(1.0, DetectionPostProcessor.fillInput(pixels, 2, 1, input, 4, 2));
+        assertEquals(0, input.position());
+        // Red plane
+        assertEquals(1f, input.get(0));
+        assertEquals(0f, input.get(1));
+        // Blue plane
+        assertEquals(0f, input.get(16));
+        assertEquals(1f, input.get(17));
+        // Padding
+        assertEquals(114 / 255f, input.get(2));
+        assertEquals(114 / 255f, input.get(4));
+        assertEquals(114 / 255f, input.get(23));
+
+        // An image twice as large as the input is downscaled by a factor of 2.
+        final int[] largePixels = new int[8 * 4];
+        largePixels[2] = 0xFF00FF00;
+
+        assertEquals(2.0, DetectionPostProcessor.fillInput(largePixels, 8, 4, input, 4, 2));
+        assertEquals(1f, input.get(8 + 1));
+        assertEquals(0f, input.get(8));
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class LoadBalancingPredictorClientTests {
+    private static final byte[] PREDICTIONS_RESPONSE =
+            "[{\"car\": [1.0, 2.0, 3.0, 4.0], \"score\": 0.9}]".getBytes(StandardCharsets.UTF_8);
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void onCreatingClientWithSeveralInferenceAddresses_ShouldCreateLoadBalancingClient() {
+        final BoundingBoxPredictorClientConfig clientConfig = new BoundingBoxPredictorClientConfig();
+        clientConfig.setServiceType(BoundingBoxPredictorClient.ServiceType.TORCH_SERVE_HTTP);
+        assertInstanceOf(TorchServeHttpClient.class, BoundingBoxPredictorClient.create(null, clientConfig));
+
+        clientConfig.setAdditionalInferenceAddresses(List.of("http://localhost:8090"));
+        assertEquals(List.of("http://localhost:8080", "http://localhost:8090"), clientConfig.getInferenceAddresses());
+
+        final BoundingBoxPredictorClientConfig endpointConfig =
+                clientConfig.withInferenceAddress("http://localhost:8090");
+        assertEquals("http://localhost", endpointConfig.getInferenceUrl());
+        assertEquals(8090, endpointConfig.getInferencePort());
+        assertEquals(List.of("http://localhost:8090"), endpointConfig.getInferenceAddresses());
+
+        final LoadBalancingPredictorClient loadBalancingClient = assertInstanceOf(LoadBalancingPredictorClient.class,
+                BoundingBoxPredictorClient.create(null, clientConfig));
+        assertEquals(2, loadBalancingClient.getEndpointStatistics().size());
+    }
+
+    @Test
+    void onPredictingConcurrently_ShouldRouteMostRequestsToLeastBusyServer() throws Exception {
+        final AtomicInteger nrSlowServerRequests = new AtomicInteger();
+        final AtomicInteger nrFastServerRequests = new AtomicInteger();
+        final HttpServer slowServer = startServer(200, 200, nrSlowServerRequests);
+        final HttpServer fastServer = startServer(200, 5, nrFastServerRequests);
+
+        final BoundingBoxPredictorClient client = BoundingBoxPredictorClient.create(null,
+                createClientConfig(slowServer, fastServer));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Future<List<BoundingBoxPredictionEntry>>> futures = new ArrayList<>();
+
+            for(int i = 0; i < 60; ++i) {
+                futures.add(executor.submit(() -> client.predict(new ByteArrayInputStream(new byte[16]))));
+            }
+
+            for(Future<List<BoundingBoxPredictionEntry>> future : futures) {
+                assertEquals(1, future.get().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(60, nrSlowServerRequests.get() + nrFastServerRequests.get());
+        assertTrue(nrFastServerRequests.get() > 3 * nrSlowServerRequests.get());
+
+        final List<LoadBalancingPredictorClient.EndpointStatistics> statistics =
+                ((LoadBalancingPredictorClient) client).getEndpointStatistics();
+        assertEquals(nrSlowServerRequests.get(), statistics.get(0).nrRequests());
+        assertEquals(nrFastServerRequests.get(), statistics.get(1).nrRequests());
+        assertTrue(statistics.get(0).meanLatencyMillis() > statistics.get(1).meanLatencyMillis());
+        assertEquals(0, statistics.get(0).nrOutstandingRequests());
+    }
+
+    @Test
+    void onConsecutiveFailures_ShouldEjectFailingServer() throws Exception {
+        final AtomicInteger nrFailingServerRequests = new AtomicInteger();
+        final AtomicInteger nrHealthyServerRequests = new AtomicInteger();
+        final HttpServer failingServer = startServer(503, 0, nrFailingServerRequests);
+        final HttpServer healthyServer = startServer(200, 0, nrHealthyServerRequests);
+
+        final LoadBalancingPredictorClient client = (LoadBalancingPredictorClient) BoundingBoxPredictorClient.create(
+                null, createClientConfig(failingServer, healthyServer));
+
+        int nrErrors = 0;
+
+        for(int i = 0; i < 20; ++i) {
+            try {
+                client.predict(new ByteArrayInputStream(new byte[16]));
+            } catch(PredictionClientException e) {
+                ++nrErrors;
+            }
+        }
+
+        assertEquals(LoadBalancingPredictorClient.DEFAULT_MAX_CONSECUTIVE_FAILURES, nrErrors);
+        assertEquals(LoadBalancingPredictorClient.DEFAULT_MAX_CONSECUTIVE_FAILURES, nrFailingServerRequests.get());
+        assertEquals(20 - nrErrors, nrHealthyServerRequests.get());
+
+        final LoadBalancingPredictorClient.EndpointStatistics failingServerStatistics =
+                client.getEndpointStatistics().getFirst();
+        assertTrue(failingServerStatistics.ejected());
+        assertEquals(nrErrors, failingServerStatistics.nrErrors());
+        assertFalse(client.getEndpointStatistics().get(1).ejected());
+    }
+
+    @Test
+    void onEjectionEnd_ShouldRetryServerAndEjectAgainOnFailure() throws Exception {
+        final FakeClient failingClient = new FakeClient(true);
+        final FakeClient healthyClient = new FakeClient(false);
+        final LoadBalancingPredictorClient client = new LoadBalancingPredictorClient(List.of("failing", "healthy"),
+                address -> address.equals("failing") ? failingClient : healthyClient, 2, Duration.ofMillis(200));
+
+        for(int i = 0; i < 6; ++i) {
+            try {
+                client.predict(InputStream.nullInputStream());
+            } catch(PredictionClientException e) {
+                // Expected for requests routed to the failing client.
+            }
+        }
+
+        assertEquals(2, failingClient.nrRequests.get());
+        assertTrue(client.getEndpointStatistics().getFirst().ejected());
+
+        Thread.sleep(300);
+
+        // The first request after the ejection ended probes the server again, a single failure ejects it anew.
+        for(int i = 0; i < 6; ++i) {
+            try {
+                client.predict(InputStream.nullInputStream());
+            } catch(PredictionClientException e) {
+                // Expected for requests routed to the failing client.
+            }
+        }
+
+        assertEquals(3, failingClient.nrRequests.get());
+        assertEquals(9, healthyClient.nrRequests.get());
+        assertTrue(client.getEndpointStatistics().getFirst().ejected());
+    }
+
+    @Test
+    void onAllServersEjected_ShouldStillRouteRequests() {
+        final FakeClient failingClient = new FakeClient(true);
+        final LoadBalancingPredictorClient client = new LoadBalancingPredictorClient(List.of("first", "second"),
+                address -> failingClient, 1, Duration.ofMinutes(1));
+
+        for(int i = 0; i < 5; ++i) {
+            assertThrows(PredictionClientException.class, () -> client.predict(InputStream.nullInputStream()));
+        }
+
+        assertEquals(5, failingClient.nrRequests.get());
+        assertTrue(client.getEndpointStatistics().stream()
+                         .allMatch(LoadBalancingPredictorClient.EndpointStatistics::ejected));
+    }
+
+    private HttpServer startServer(int statusCode, long responseDelayMillis, AtomicInteger nrRequests)
+            throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/predictions/detector", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            nrRequests.incrementAndGet();
+
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchange.sendResponseHeaders(statusCode, PREDICTIONS_RESPONSE.length);
+
+            try(OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(PREDICTIONS_RESPONSE);
+            }
+        });
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static BoundingBoxPredictorClientConfig createClientConfig(HttpServer primaryServer,
+                                                                       HttpServer additionalServer) {
+        final BoundingBoxPredictorClientConfig clientConfig = new BoundingBoxPredictorClientConfig();
+        clientConfig.setServiceType(BoundingBoxPredictorClient.ServiceType.TORCH_SERVE_HTTP);
+        clientConfig.setInferenceUrl("http://127.0.0.1");
+        clientConfig.setInferencePort(primaryServer.getAddress().getPort());
+        clientConfig.setAdditionalInferenceAddresses(
+                List.of("http://127.0.0.1:" + additionalServer.getAddress().getPort()));
+        clientConfig.setInferenceModelName("detector");
+        return clientConfig;
+    }
+
+    private static class FakeClient implements BoundingBoxPredictorClient {
+        private final boolean failing;
+        private final AtomicInteger nrRequests = new AtomicInteger();
+
+        FakeClient(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public List<BoundingBoxPredictionEntry> predict(InputStream input) throws PredictionClientException {
+            nrRequests.incrementAndGet();
+
+            if(failing) {
+                throw new PredictionClientException("Server error.");
+            }
+
+            return List.of();
+        }
+
+        @Override
+        public List<ModelEntry> models() {
+            return List.of();
+        }
+
+        @Override
+        public String getName() {
+            return "Fake";
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for a TorchServe server to be used in tests and benchmarks. The server answers
+ * prediction requests of a single model after a simulated inference time and serves the model list
+ * of the management API on the same port. Requests above the concurrency limit are queued, like jobs
+ * waiting for a free TorchServe worker. A share of the prediction requests can be answered with
+ * "503 Service Unavailable".
+ */
+public class MockTorchServeServer implements AutoCloseable {
+    public static final String MODEL_NAME = "detector";
+    private static final String[] CATEGORY_NAMES = {"car", "bike", "person", "dog"};
+    private static final String ERROR_RESPONSE =
+            "{\"code\": 503, \"type\": \"ServiceUnavailableException\", \"message\": \"Model is overloaded.\"}";
+    private static final String MODELS_RESPONSE =
+            "{\"models\": [{\"modelName\": \"" + MODEL_NAME + "\", \"modelUrl\": \"" + MODEL_NAME + ".mar\"}]}";
+    private final LatencyDistribution latencyDistribution;
+    private final double errorRate;
+    private final byte[] predictionsResponse;
+    private final Random random = new Random(42);
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong nrPredictionRequests = new AtomicLong();
+    private final AtomicLong nrErrorResponses = new AtomicLong();
+    private final AtomicLong nrReceivedBytes = new AtomicLong();
+    private final AtomicLong nrSentBytes = new AtomicLong();
+    private final AtomicInteger nrActiveRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+    /**
+     * Creates and starts a new mock server listening on a free port of the loopback address.
+     *
+     * @param latencyDistribution      the distribution of the simulated inference time
+     * @param errorRate                the probability in [0, 1] of answering a prediction request with an error
+     * @param concurrencyLimit         the number of requests processed at the same time
+     * @param nrPredictionsPerResponse the number of bounding boxes returned per prediction request
+     * @throws IOException if the server could not be started
+     */
+    public MockTorchServeServer(LatencyDistribution latencyDistribution, double errorRate, int concurrencyLimit,
+                                int nrPredictionsPerResponse) throws IOException {
+        if(errorRate < 0 || errorRate > 1 || concurrencyLimit < 1 || nrPredictionsPerResponse < 0) {
+            throw new IllegalArgumentException("Invalid mock server settings.");
+        }
+
+        this.latencyDistribution = latencyDistribution;
+        this.errorRate = errorRate;
+        this.predictionsResponse = createPredictionsResponse(nrPredictionsPerResponse);
+
+        executor = Executors.newFixedThreadPool(concurrencyLimit);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/predictions/" + MODEL_NAME, this::handlePredictionRequest);
+        server.createContext("/models", exchange -> respond(exchange, 200,
+                MODELS_RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        server.start();
+    }
+
+    /**
+     * Creates a client config for the TorchServe-clients pointing to this server.
+     *
+     * @param serviceType the type of client
+     * @return the config
+     */
+    public BoundingBoxPredictorClientConfig createClientConfig(BoundingBoxPredictorClient.ServiceType serviceType) {
+        final BoundingBoxPredictorClientConfig clientConfig = new BoundingBoxPredictorClientConfig();
+        clientConfig.setServiceType(serviceType);
+        clientConfig.setInferenceUrl("http://127.0.0.1");
+        clientConfig.setInferencePort(getPort());
+        clientConfig.setManagementUrl("http://127.0.0.1");
+        clientConfig.setManagementPort(getPort());
+        clientConfig.setInferenceModelName(MODEL_NAME);
+        return clientConfig;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getNrPredictionRequests() {
+        return nrPredictionRequests.get();
+    }
+
+    public long getNrErrorResponses() {
+        return nrErrorResponses.get();
+    }
+
+    /**
+     * Returns the number of bytes of all received request bodies.
+     *
+     * @return the number of bytes
+     */
+    public long getNrReceivedBytes() {
+        return nrReceivedBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes of all sent response bodies.
+     *
+     * @return the number of bytes
+     */
+    public long getNrSentBytes() {
+        return nrSentBytes.get();
+    }
+
+    public int getMaxActiveRequests() {
+        return maxActiveRequests.get();
+    }
+
+    /**
+     * Resets the request statistics.
+     */
+    public void resetStatistics() {
+        nrPredictionRequests.set(0);
+        nrErrorResponses.set(0);
+        nrReceivedBytes.set(0);
+        nrSentBytes.set(0);
+        maxActiveRequests.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handlePredictionRequest(HttpExchange exchange) throws IOException {
+        maxActiveRequests.accumulateAndGet(nrActiveRequests.incrementAndGet(), Math::max);
+
+        try {
+            nrPredictionRequests.incrementAndGet();
+            nrReceivedBytes.addAndGet(exchange.getRequestBody().readAllBytes().length);
+
+            final boolean fails;
+            final long latencyInMillis;
+
+            synchronized(random) {
+                fails = random.nextDouble() < errorRate;
+                latencyInMillis = latencyDistribution.sampleMillis(random);
+            }
+
+            Thread.sleep(latencyInMillis);
+
+            if(fails) {
+                nrErrorResponses.incrementAndGet();
+                respond(exchange, 503, ERROR_RESPONSE.getBytes(StandardCharsets.UTF_8));
+            } else {
+                respond(exchange, 200, predictionsResponse);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } finally {
+            nrActiveRequests.decrementAndGet();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, body.length);
+
+        try(OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+
+        nrSentBytes.addAndGet(body.length);
+    }
+
+    private static byte[] createPredictionsResponse(int nrPredictions) {
+        final StringBuilder response = new StringBuilder("[");
+
+        for(int i = 0; i < nrPredictions; ++i) {
+            final double xMin = 5.0 + (i * 7) % 60;
+            final double yMin = 5.0 + (i * 11) % 60;
+
+            response.append(i == 0 ? "" : ", ")
+                    .append(String.format(Locale.ENGLISH, "{\"%s\": [%.1f, %.1f, %.1f, %.1f], \"score\": %.3f}",
+                            CATEGORY_NAMES[i % CATEGORY_NAMES.length], xMin, yMin, xMin + 30, yMin + 25,
+                            0.99 - 0.5 * i / Math.max(nrPredictions, 1)));
+        }
+
+        return response.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The distribution of the simulated inference time of a prediction request.
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+        static LatencyDistribution constant(long millis) {
+            return random -> millis;
+        }
+
+        static LatencyDistribution uniform(long minMillis, long maxMillis) {
+            return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+        }
+
+        /**
+         * Returns a log-normal distribution, which has the long tail typical for inference times.
+         *
+         * @param medianMillis the median latency
+         * @param sigma        the standard deviation of the logarithm of the latency
+         * @return the distribution
+         */
+        static LatencyDistribution logNormal(double medianMillis, double sigma) {
+            return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+
+        long sampleMillis(Random random);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import com.github.mfl28.boundingboxeditor.BenchmarkUtils;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class PredictorClientBenchmark {
+    private static final int NR_REQUESTS = 500;
+    private static final int CONCURRENCY = 8;
+    private static final int IMAGE_SIZE_IN_BYTES = 200_000;
+    // Simulated model inference time of the stub server.
+    private static final long INFERENCE_MILLIS = 5;
+    private static final byte[] PREDICTIONS_RESPONSE =
+            ("[{\"car\": [1.0, 2.0, 3.0, 4.0], \"score\": 0.9}, {\"bike\": [5.0, 6.0, 7.0, 8.0], \"score\": 0.8}]")
+                    .getBytes(StandardCharsets.UTF_8);
+    private final byte[] image = new byte[IMAGE_SIZE_IN_BYTES];
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private BoundingBoxPredictorClientConfig clientConfig;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new Random(42).nextBytes(image);
+
+        serverExecutor = Executors.newFixedThreadPool(CONCURRENCY);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/predictions/detector", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+
+            try {
+                Thread.sleep(INFERENCE_MILLIS);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, PREDICTIONS_RESPONSE.length);
+
+            try(OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(PREDICTIONS_RESPONSE);
+            }
+        });
+        server.start();
+
+        clientConfig = new BoundingBoxPredictorClientConfig();
+        clientConfig.setInferenceUrl("http://127.0.0.1");
+        clientConfig.setInferencePort(server.getAddress().getPort());
+        clientConfig.setInferenceModelName("detector");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void benchmarkPredictorClients() throws Exception {
+        final Client jerseyClient = ClientBuilder.newBuilder()
+                                                 .register(MultiPartFeature.class)
+                                                 .register(GsonMessageBodyHandler.class)
+                                                 .build();
+
+        try {
+            final BoundingBoxPredictorClient jerseyPredictorClient =
+                    new TorchServeRestClient(jerseyClient, clientConfig);
+            // Warm up both clients to exclude class loading and connection setup.
+            runBlocking(jerseyPredictorClient, 50);
+            report("Jersey client (blocking)", runBlocking(jerseyPredictorClient, NR_REQUESTS));
+        } finally {
+            jerseyClient.close();
+        }
+
+        final TorchServeHttpClient httpPredictorClient =
+                new TorchServeHttpClient(TorchServeHttpClient.createHttpClient(), clientConfig);
+        runBlocking(httpPredictorClient, 50);
+        report("java.net.http client (blocking)", runBlocking(httpPredictorClient, NR_REQUESTS));
+        report("java.net.http client (async)", runAsync(httpPredictorClient, NR_REQUESTS));
+    }
+
+    private RunResult runBlocking(BoundingBoxPredictorClient client, int nrRequests) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        final List<Future<Double>> latencies = new ArrayList<>(nrRequests);
+        final long startTime = System.nanoTime();
+
+        try {
+            for(int i = 0; i < nrRequests; ++i) {
+                latencies.add(executor.submit(() -> {
+                    final long requestStartTime = System.nanoTime();
+                    assertEquals(2, client.predict(new ByteArrayInputStream(image)).size());
+                    return (System.nanoTime() - requestStartTime) / 1e6;
+                }));
+            }
+
+            return collectResults(latencies.stream().map(future -> {
+                try {
+                    return future.get();
+                } catch(InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList(), startTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RunResult runAsync(TorchServeHttpClient client, int nrRequests) {
+        // Requests are issued with at most CONCURRENCY in flight without dedicating a thread to each.
+        final Semaphore permits = new Semaphore(CONCURRENCY);
+        final List<CompletableFuture<Double>> latencies = new ArrayList<>(nrRequests);
+        final long startTime = System.nanoTime();
+
+        for(int i = 0; i < nrRequests; ++i) {
+            permits.acquireUninterruptibly();
+            final long requestStartTime = System.nanoTime();
+
+            latencies.add(client.predictAsync(new ByteArrayInputStream(image))
+                                .whenComplete((predictions, throwable) -> permits.release())
+                                .thenApply(predictions -> {
+                                    assertEquals(2, predictions.size());
+                                    return (System.nanoTime() - requestStartTime) / 1e6;
+                                }));
+        }
+
+        return collectResults(latencies.stream().map(CompletableFuture::join).toList(), startTime);
+    }
+
+    private static RunResult collectResults(List<Double> latencies, long startTime) {
+        final double seconds = (System.nanoTime() - startTime) / 1e9;
+        return new RunResult(latencies.size() / seconds,
+                             latencies.stream().mapToDouble(Double::doubleValue).sorted().toArray());
+    }
+
+    private static void report(String clientName, RunResult result) {
+        BenchmarkUtils.report("Predictor client " + clientName,
+                "%.1f requests/s, latency p50: %.1f ms, p99: %.1f ms (%d requests, %d concurrent, %d kB images)",
+                result.requestsPerSecond(), BenchmarkUtils.percentile(result.sortedLatencyMillis(), 50),
+                BenchmarkUtils.percentile(result.sortedLatencyMillis(), 99), result.sortedLatencyMillis().length,
+                CONCURRENCY, IMAGE_SIZE_IN_BYTES / 1000);
+    }
+
+    private record RunResult(double requestsPerSecond, double[] sortedLatencyMillis) {
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.model.io.restclients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class TorchServeHttpClientTests {
+    private static final String PREDICTIONS_RESPONSE = "[{\"car\": [1.0, 2.0, 3.0, 4.0], \"score\": 0.9}]";
+    private static final String MODELS_RESPONSE =
+            "{\"models\": [{\"modelName\": \"detector\", \"modelUrl\": \"detector.mar\"}]}";
+    private static final Duration SLOW_RESPONSE_DELAY = Duration.ofSeconds(2);
+    private final AtomicReference<String> lastRequestBody = new AtomicReference<>();
+    private HttpServer server;
+    private TorchServeHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/predictions/detector", exchange -> {
+            lastRequestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1));
+            respond(exchange, 200, PREDICTIONS_RESPONSE);
+        });
+        server.createContext("/predictions/broken", exchange -> respond(exchange, 200, "{\"car\": 1}"));
+        server.createContext("/predictions/failing", exchange -> respond(exchange, 503, "unavailable"));
+        server.createContext("/predictions/slow", exchange -> {
+            try {
+                Thread.sleep(SLOW_RESPONSE_DELAY.toMillis());
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            respond(exchange, 200, PREDICTIONS_RESPONSE);
+        });
+        server.createContext("/models", exchange -> respond(exchange, 200, MODELS_RESPONSE));
+        server.start();
+
+        client = new TorchServeHttpClient(TorchServeHttpClient.createHttpClient(),
+                                          createClientConfig(server.getAddress().getPort(), "detector"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void onPredicting_ShouldSendMultipartImageAndParsePredictions() throws PredictionClientException {
+        final List<BoundingBoxPredictionEntry> predictions =
+                client.predict(new ByteArrayInputStream("image-bytes".getBytes(StandardCharsets.ISO_8859_1)));
+
+        assertEquals(1, predictions.size());
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0), predictions.getFirst().categoryToBoundingBoxes().get("car"));
+        assertEquals(0.9, predictions.getFirst().score());
+
+        final String requestBody = lastRequestBody.get();
+        assertTrue(requestBody.contains("name=\"data\""));
+        assertTrue(requestBody.contains("\r\n\r\nimage-bytes\r\n--"));
+    }
+
+    @Test
+    void onPredictingAsynchronously_ShouldCompleteAllRequests() throws Exception {
+        final List<CompletableFuture<List<BoundingBoxPredictionEntry>>> futures = new ArrayList<>();
+
+        for(int i = 0; i < 32; ++i) {
+            futures.add(client.predictAsync(new ByteArrayInputStream(new byte[1024])));
+        }
+
+        for(CompletableFuture<List<BoundingBoxPredictionEntry>> future : futures) {
+            assertEquals(1, future.get().size());
+        }
+    }
+
+    @Test
+    void onPredictingWithErrorResponses_ShouldThrowPredictionClientException() {
+        final TorchServeHttpClient failingClient = new TorchServeHttpClient(TorchServeHttpClient.createHttpClient(),
+                createClientConfig(server.getAddress().getPort(), "failing"));
+        final PredictionClientException statusException = assertThrows(PredictionClientException.class,
+                () -> failingClient.predict(new ByteArrayInputStream(new byte[1])));
+        assertTrue(statusException.getMessage().endsWith("503"));
+        assertTrue(statusException.isOverloadSignal());
+
+        final TorchServeHttpClient brokenClient = new TorchServeHttpClient(TorchServeHttpClient.createHttpClient(),
+                createClientConfig(server.getAddress().getPort(), "broken"));
+        final ExecutionException formatException = assertThrows(ExecutionException.class,
+                () -> brokenClient.predictAsync(new ByteArrayInputStream(new byte[1])).get());
+        assertInstanceOf(PredictionClientException.class, formatException.getCause());
+        assertEquals("Invalid inference server response format for resource \"predictions\".",
+                     formatException.getCause().getMessage());
+        assertFalse(((PredictionClientException) formatException.getCause()).isOverloadSignal());
+    }
+
+    @Test
+    void onPredictingWithUnreachableServer_ShouldThrowConnectionError() {
+        final int port = server.getAddress().getPort();
+        server.stop(0);
+
+        final PredictionClientException exception = assertThrows(PredictionClientException.class,
+                () -> client.predict(new ByteArrayInputStream(new byte[1])));
+        assertEquals("Could not connect to inference server.", exception.getMessage());
+
+        final TorchServeHttpClient unreachableClient = new TorchServeHttpClient(
+                TorchServeHttpClient.createHttpClient(), createClientConfig(port, "detector"));
+        assertThrows(PredictionClientException.class, unreachableClient::models);
+    }
+
+    @Test
+    void onPredictingWithSlowServer_ShouldThrowTimeoutError() {
+        final TorchServeHttpClient slowClient = new TorchServeHttpClient(TorchServeHttpClient.createHttpClient(),
+                createClientConfig(server.getAddress().getPort(), "slow"), Duration.ofMillis(200));
+
+        final PredictionClientException exception = assertThrows(PredictionClientException.class,
+                () -> slowClient.predict(new ByteArrayInputStream(new byte[1])));
+        assertEquals("Inference server did not respond in time.", exception.getMessage());
+        assertTrue(exception.isOverloadSignal());
+
+        final ExecutionException asyncException = assertThrows(ExecutionException.class,
+                () -> slowClient.predictAsync(new ByteArrayInputStream(new byte[1])).get());
+        assertInstanceOf(PredictionClientException.class, asyncException.getCause());
+        assertEquals("Inference server did not respond in time.", asyncException.getCause().getMessage());
+    }
+
+    @Test
+    void onFetchingModels_ShouldParseModelEntries() throws PredictionClientException {
+        assertEquals(List.of(new ModelEntry("detector", "detector.mar")), client.models());
+    }
+
+    private static BoundingBoxPredictorClientConfig createClientConfig(int port, String modelName) {
+        final BoundingBoxPredictorClientConfig clientConfig = new BoundingBoxPredictorClientConfig();
+        clientConfig.setServiceType(BoundingBoxPredictorClient.ServiceType.TORCH_SERVE_HTTP);
+        clientConfig.setInferenceUrl("http://127.0.0.1");
+        clientConfig.setInferencePort(port);
+        clientConfig.setManagementUrl("http://127.0.0.1");
+        clientConfig.setManagementPort(port);
+        clientConfig.setInferenceModelName(modelName);
+        return clientConfig;
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+
+        try(OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.ui;
+
+import com.github.mfl28.boundingboxeditor.BoundingBoxEditorTestBase;
+import com.github.mfl28.boundingboxeditor.model.data.BoundingBoxData;
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import javafx.geometry.Point2D;
+import javafx.scene.control.TreeItem;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.testfx.api.FxRobot;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testfx.api.FxAssert.verifyThat;
+
+@Tag("ui")
+class BoundingShapeBatchRenderingTests extends BoundingBoxEditorTestBase {
+    private static final Point2D EMPTY_IMAGE_POINT_RATIOS = new Point2D(0.25, 0.25);
+    private static final Point2D CENTER_BOX_POINT_RATIOS = new Point2D(0.5, 0.5);
+
+    @Start
+    void start(Stage stage) {
+        super.onStart(stage);
+        controller.loadImageFiles(new File(getClass().getResource(TEST_IMAGE_FOLDER_PATH_1).getFile()));
+    }
+
+    @Test
+    void onExceedingBatchRenderingThreshold_ShouldDrawNonSelectedShapesOnCanvas(FxRobot robot, TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+        moveToImageViewPoint(robot, EMPTY_IMAGE_POINT_RATIOS);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes(3);
+
+        verifyThat(mainView.getEditorImagePane().isBatchRenderingActive(), Matchers.is(true),
+                   saveScreenshot(testinfo));
+        verifyThat(mainView.getEditorImagePane().getBoundingShapeCanvas().getNrDrawnShapes(), Matchers.equalTo(3),
+                   saveScreenshot(testinfo));
+
+        for(BoundingShapeViewable boundingShape : boundingShapes) {
+            verifyThat(isDrawnOnCanvas(boundingShape), Matchers.is(true), saveScreenshot(testinfo));
+        }
+    }
+
+    @Test
+    void onHoveringShape_ShouldPromoteShapeToSceneGraphUntilMouseLeaves(FxRobot robot, TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+        moveToImageViewPoint(robot, EMPTY_IMAGE_POINT_RATIOS);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes(3);
+        final BoundingShapeViewable centerBox = boundingShapes.get(1);
+
+        verifyThat(isDrawnOnCanvas(centerBox), Matchers.is(true), saveScreenshot(testinfo));
+
+        moveToImageViewPoint(robot, CENTER_BOX_POINT_RATIOS);
+
+        timeOutAssertDrawnOnCanvas(centerBox, false, testinfo);
+        verifyThat(centerBox.getViewData().getHighlighted().get(), Matchers.is(true), saveScreenshot(testinfo));
+        verifyThat(isDrawnOnCanvas(boundingShapes.get(0)), Matchers.is(true), saveScreenshot(testinfo));
+
+        moveToImageViewPoint(robot, EMPTY_IMAGE_POINT_RATIOS);
+
+        timeOutAssertDrawnOnCanvas(centerBox, true, testinfo);
+        verifyThat(centerBox.getViewData().getHighlighted().get(), Matchers.is(false), saveScreenshot(testinfo));
+    }
+
+    @Test
+    void onSelectingAndDeselectingShape_ShouldPromoteAndDemoteShape(FxRobot robot, TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+        moveToImageViewPoint(robot, EMPTY_IMAGE_POINT_RATIOS);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes(3);
+        final BoundingShapeViewable topLeftBox = boundingShapes.get(0);
+        final BoundingShapeViewable centerBox = boundingShapes.get(1);
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getObjectTree().getSelectionModel()
+                                                .select(getTreeItem(topLeftBox)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(topLeftBox.getViewData().isSelected(), Matchers.is(true), saveScreenshot(testinfo));
+        timeOutAssertDrawnOnCanvas(topLeftBox, false, testinfo);
+        verifyThat(mainView.getEditorImagePane().getBoundingShapeCanvas().getNrDrawnShapes(), Matchers.equalTo(2),
+                   saveScreenshot(testinfo));
+
+        // Selecting another shape demotes the previously selected one.
+        WaitForAsyncUtils.asyncFx(() -> mainView.getObjectTree().getSelectionModel()
+                                                .select(getTreeItem(centerBox)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        timeOutAssertDrawnOnCanvas(centerBox, false, testinfo);
+        timeOutAssertDrawnOnCanvas(topLeftBox, true, testinfo);
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getObjectTree().getSelectionModel().clearSelection());
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(centerBox.getViewData().isSelected(), Matchers.is(false), saveScreenshot(testinfo));
+        timeOutAssertDrawnOnCanvas(centerBox, true, testinfo);
+        verifyThat(mainView.getEditorImagePane().getBoundingShapeCanvas().getNrDrawnShapes(), Matchers.equalTo(3),
+                   saveScreenshot(testinfo));
+    }
+
+    @Test
+    void onRemovingShapes_ShouldNotLeaveStaleCanvasEntries(FxRobot robot, TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+        moveToImageViewPoint(robot, EMPTY_IMAGE_POINT_RATIOS);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes(2);
+        final BoundingShapeViewable removedBox = boundingShapes.get(0);
+
+        verifyThat(isDrawnOnCanvas(removedBox), Matchers.is(true), saveScreenshot(testinfo));
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getEditorImagePane()
+                                                .removeAllFromCurrentBoundingShapes(List.of(removedBox)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(mainView.getEditorImagePane().isBatchRenderingActive(), Matchers.is(true),
+                   saveScreenshot(testinfo));
+        verifyThat(mainView.getEditorImagePane().getBoundingShapeCanvas().isDrawn(removedBox), Matchers.is(false),
+                   saveScreenshot(testinfo));
+        verifyThat(mainView.getEditorImagePane().getBoundingShapeCanvas().getNrDrawnShapes(), Matchers.equalTo(2),
+                   saveScreenshot(testinfo));
+        verifyThat(removedBox.getViewData().getNodeGroup().getScene(), Matchers.nullValue(),
+                   saveScreenshot(testinfo));
+
+        // A removed shape must neither be picked when hovered nor be reattached.
+        moveToImageViewPoint(robot, new Point2D(0.05, 0.05));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(removedBox.getViewData().getNodeGroup().getScene(), Matchers.nullValue(),
+                   saveScreenshot(testinfo));
+    }
+
+    @Test
+    void onDroppingBelowBatchRenderingThreshold_ShouldRestoreShapeNodes(FxRobot robot, TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+        moveToImageViewPoint(robot, EMPTY_IMAGE_POINT_RATIOS);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes(3);
+
+        verifyThat(mainView.getEditorImagePane().isBatchRenderingActive(), Matchers.is(true),
+                   saveScreenshot(testinfo));
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getEditorImagePane()
+                                                .removeAllFromCurrentBoundingShapes(List.of(boundingShapes.get(0))));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(mainView.getEditorImagePane().isBatchRenderingActive(), Matchers.is(false),
+                   saveScreenshot(testinfo));
+        verifyThat(mainView.getEditorImagePane().getBoundingShapeCanvas().getNrDrawnShapes(), Matchers.equalTo(0),
+                   saveScreenshot(testinfo));
+
+        for(BoundingShapeViewable boundingShape : boundingShapes.subList(1, boundingShapes.size())) {
+            verifyThat(boundingShape.getViewData().getNodeGroup().getScene(), Matchers.notNullValue(),
+                       saveScreenshot(testinfo));
+        }
+    }
+
+    private List<BoundingShapeViewable> loadTestBoundingBoxes(int batchRenderingMinShapeCount) {
+        final ObjectCategory category = new ObjectCategory("Test", Color.RED);
+        final List<BoundingShapeData> boundingShapeData = List.of(
+                new BoundingBoxData(category, 0.02, 0.02, 0.08, 0.08, List.of()),
+                new BoundingBoxData(category, 0.45, 0.45, 0.55, 0.55, List.of()),
+                new BoundingBoxData(category, 0.92, 0.92, 0.98, 0.98, List.of()));
+
+        WaitForAsyncUtils.asyncFx(() -> {
+            mainView.getEditorImagePane().setBatchRenderingMinShapeCount(batchRenderingMinShapeCount);
+            mainView.loadBoundingShapeViewsFromAnnotation(
+                    new ImageAnnotation(model.getCurrentImageMetaData(), boundingShapeData));
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(mainView.getCurrentBoundingShapes(), Matchers.hasSize(boundingShapeData.size()));
+        return List.copyOf(mainView.getCurrentBoundingShapes());
+    }
+
+    private void moveToImageViewPoint(FxRobot robot, Point2D ratios) {
+        robot.moveTo(getScreenPointFromRatios(mainView.getEditorImageView(), ratios));
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    private TreeItem<Object> getTreeItem(BoundingShapeViewable boundingShape) {
+        return mainView.getObjectTree().getRoot().getChildren().stream()
+                       .flatMap(categoryTreeItem -> categoryTreeItem.getChildren().stream())
+                       .filter(treeItem -> treeItem.getValue() == boundingShape)
+                       .findFirst()
+                       .orElseThrow();
+    }
+
+    private boolean isDrawnOnCanvas(BoundingShapeViewable boundingShape) {
+        return mainView.getEditorImagePane().getBoundingShapeCanvas().isDrawn(boundingShape)
+                && boundingShape.getViewData().getNodeGroup().getScene() == null;
+    }
+
+    private void timeOutAssertDrawnOnCanvas(BoundingShapeViewable boundingShape, boolean drawn,
+                                            TestInfo testinfo) {
+        Assertions.assertDoesNotThrow(() -> WaitForAsyncUtils.waitFor(TIMEOUT_DURATION_IN_SEC, TimeUnit.SECONDS,
+                                                                      () -> WaitForAsyncUtils.asyncFx(
+                                                                              () -> hasRenderingState(boundingShape,
+                                                                                                      drawn))
+                                                                                             .get()),
+                                      () -> saveScreenshotAndReturnMessage(testinfo,
+                                                                           "Expected canvas drawing state " + drawn +
+                                                                                   " was not reached within " +
+                                                                                   TIMEOUT_DURATION_IN_SEC +
+                                                                                   " sec."));
+    }
+
+    private boolean hasRenderingState(BoundingShapeViewable boundingShape, boolean drawn) {
+        final boolean attached = boundingShape.getViewData().getNodeGroup().getScene() != null;
+        return mainView.getEditorImagePane().getBoundingShapeCanvas().isDrawn(boundingShape) == drawn
+                && attached != drawn;
+    }
+}
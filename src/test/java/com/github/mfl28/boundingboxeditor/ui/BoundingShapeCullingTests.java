@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.ui;
+
+import com.github.mfl28.boundingboxeditor.BoundingBoxEditorTestBase;
+import com.github.mfl28.boundingboxeditor.model.data.BoundingBoxData;
+import com.github.mfl28.boundingboxeditor.model.data.BoundingShapeData;
+import com.github.mfl28.boundingboxeditor.model.data.ImageAnnotation;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import javafx.geometry.Point2D;
+import javafx.scene.control.TreeItem;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseButton;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.testfx.api.FxRobot;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testfx.api.FxAssert.verifyThat;
+
+@Tag("ui")
+class BoundingShapeCullingTests extends BoundingBoxEditorTestBase {
+    private static final double ZOOM_FACTOR = 6;
+
+    @Start
+    void start(Stage stage) {
+        super.onStart(stage);
+        controller.loadImageFiles(new File(getClass().getResource(TEST_IMAGE_FOLDER_PATH_1).getFile()));
+    }
+
+    @Test
+    void onZoomingAndScrolling_ShouldDetachOffScreenShapesAndReattachShapesInView(TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes();
+        final BoundingShapeViewable topLeftBox = boundingShapes.get(0);
+        final BoundingShapeViewable centerBox = boundingShapes.get(1);
+        final BoundingShapeViewable bottomRightBox = boundingShapes.get(2);
+
+        timeOutAssertCulled(topLeftBox, false, testinfo);
+        timeOutAssertCulled(centerBox, false, testinfo);
+        timeOutAssertCulled(bottomRightBox, false, testinfo);
+
+        zoomIntoImageCenter();
+
+        timeOutAssertCulled(topLeftBox, true, testinfo);
+        timeOutAssertCulled(centerBox, false, testinfo);
+        timeOutAssertCulled(bottomRightBox, true, testinfo);
+
+        // Scroll to the top-left corner of the image.
+        WaitForAsyncUtils.asyncFx(() -> {
+            mainView.getEditorImagePane().setHvalue(0);
+            mainView.getEditorImagePane().setVvalue(0);
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        timeOutAssertCulled(topLeftBox, false, testinfo);
+        timeOutAssertCulled(centerBox, true, testinfo);
+        timeOutAssertCulled(bottomRightBox, true, testinfo);
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getEditorImagePane().resetImageViewSize());
+        WaitForAsyncUtils.waitForFxEvents();
+
+        timeOutAssertCulled(topLeftBox, false, testinfo);
+        timeOutAssertCulled(centerBox, false, testinfo);
+        timeOutAssertCulled(bottomRightBox, false, testinfo);
+    }
+
+    @Test
+    void onSelectingCulledShapeInObjectTree_ShouldReattachShape(TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes();
+        final BoundingShapeViewable topLeftBox = boundingShapes.get(0);
+
+        zoomIntoImageCenter();
+        timeOutAssertCulled(topLeftBox, true, testinfo);
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getObjectTree().getSelectionModel()
+                                                .select(getTreeItem(topLeftBox)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(topLeftBox.getViewData().isSelected(), Matchers.is(true), saveScreenshot(testinfo));
+        timeOutAssertCulled(topLeftBox, false, testinfo);
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getObjectTree().getSelectionModel().clearSelection());
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(topLeftBox.getViewData().isSelected(), Matchers.is(false), saveScreenshot(testinfo));
+        timeOutAssertCulled(topLeftBox, true, testinfo);
+    }
+
+    @Test
+    void onMovingSelectedShapeOutOfView_ShouldNotCullShape(TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+
+        final List<BoundingShapeViewable> boundingShapes = loadTestBoundingBoxes();
+        final BoundingShapeViewable centerBox = boundingShapes.get(1);
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.getObjectTree().getSelectionModel()
+                                                .select(getTreeItem(centerBox)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        zoomIntoImageCenter();
+
+        WaitForAsyncUtils.asyncFx(() -> {
+            mainView.getEditorImagePane().setHvalue(0);
+            mainView.getEditorImagePane().setVvalue(0);
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        timeOutAssertCulled(boundingShapes.get(2), true, testinfo);
+        verifyThat(centerBox.getViewData().isSelected(), Matchers.is(true), saveScreenshot(testinfo));
+        verifyThat(mainView.getEditorImagePane().isCulled(centerBox), Matchers.is(false), saveScreenshot(testinfo));
+        verifyThat(centerBox.getViewData().getNodeGroup().getScene(), Matchers.notNullValue(),
+                   saveScreenshot(testinfo));
+    }
+
+    @Test
+    void onMovingPolygonUnderConstructionOutOfView_ShouldNotCullPolygon(FxRobot robot, TestInfo testinfo) {
+        waitUntilCurrentImageIsLoaded(testinfo);
+
+        enterNewCategory(robot, "Test", testinfo);
+
+        timeOutClickOn(robot, "#polygon-mode-button-icon", testinfo);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        moveAndClickRelativeToImageView(robot, MouseButton.PRIMARY, new Point2D(0.05, 0.05),
+                                        new Point2D(0.05, 0.1), new Point2D(0.1, 0.1));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        Assertions.assertDoesNotThrow(() -> WaitForAsyncUtils.waitFor(TIMEOUT_DURATION_IN_SEC, TimeUnit.SECONDS,
+                                                                      () -> mainView.getCurrentBoundingShapes()
+                                                                                    .size() == 1),
+                                      () -> saveScreenshotAndReturnMessage(testinfo,
+                                                                           "Expected number of bounding polygons " +
+                                                                                   "not found in " +
+                                                                                   TIMEOUT_DURATION_IN_SEC +
+                                                                                   " sec."));
+
+        verifyThat(mainView.getCurrentBoundingShapes().get(0), Matchers.instanceOf(BoundingPolygonView.class),
+                   saveScreenshot(testinfo));
+
+        final BoundingPolygonView boundingPolygon = (BoundingPolygonView) mainView.getCurrentBoundingShapes().get(0);
+        verifyThat(boundingPolygon.isConstructing(), Matchers.is(true), saveScreenshot(testinfo));
+
+        zoomIntoImageCenter();
+
+        verifyThat(boundingPolygon.isConstructing(), Matchers.is(true), saveScreenshot(testinfo));
+        verifyThat(mainView.getEditorImagePane().isCulled(boundingPolygon), Matchers.is(false),
+                   saveScreenshot(testinfo));
+        verifyThat(boundingPolygon.getViewData().getNodeGroup().getScene(), Matchers.notNullValue(),
+                   saveScreenshot(testinfo));
+    }
+
+    private List<BoundingShapeViewable> loadTestBoundingBoxes() {
+        final ObjectCategory category = new ObjectCategory("Test", Color.RED);
+        final List<BoundingShapeData> boundingShapeData = List.of(
+                new BoundingBoxData(category, 0.02, 0.02, 0.08, 0.08, List.of()),
+                new BoundingBoxData(category, 0.45, 0.45, 0.55, 0.55, List.of()),
+                new BoundingBoxData(category, 0.92, 0.92, 0.98, 0.98, List.of()));
+
+        WaitForAsyncUtils.asyncFx(() -> mainView.loadBoundingShapeViewsFromAnnotation(
+                new ImageAnnotation(model.getCurrentImageMetaData(), boundingShapeData)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        verifyThat(mainView.getCurrentBoundingShapes(), Matchers.hasSize(boundingShapeData.size()));
+        return List.copyOf(mainView.getCurrentBoundingShapes());
+    }
+
+    private void zoomIntoImageCenter() {
+        WaitForAsyncUtils.asyncFx(() -> {
+            final ImageView imageView = mainView.getEditorImageView();
+            imageView.setFitWidth(imageView.getFitWidth() * ZOOM_FACTOR);
+            imageView.setFitHeight(imageView.getFitHeight() * ZOOM_FACTOR);
+            mainView.getEditorImagePane().layout();
+            mainView.getEditorImagePane().setHvalue(0.5);
+            mainView.getEditorImagePane().setVvalue(0.5);
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    private TreeItem<Object> getTreeItem(BoundingShapeViewable boundingShape) {
+        return mainView.getObjectTree().getRoot().getChildren().stream()
+                       .flatMap(categoryTreeItem -> categoryTreeItem.getChildren().stream())
+                       .filter(treeItem -> treeItem.getValue() == boundingShape)
+                       .findFirst()
+                       .orElseThrow();
+    }
+
+    private void timeOutAssertCulled(BoundingShapeViewable boundingShape, boolean culled, TestInfo testinfo) {
+        Assertions.assertDoesNotThrow(() -> WaitForAsyncUtils.waitFor(TIMEOUT_DURATION_IN_SEC, TimeUnit.SECONDS,
+                                                                      () -> WaitForAsyncUtils.asyncFx(
+                                                                              () -> hasCullingState(boundingShape,
+                                                                                                    culled))
+                                                                                             .get()),
+                                      () -> saveScreenshotAndReturnMessage(testinfo,
+                                                                           "Expected culling state " + culled +
+                                                                                   " was not reached within " +
+                                                                                   TIMEOUT_DURATION_IN_SEC +
+                                                                                   " sec."));
+    }
+
+    private boolean hasCullingState(BoundingShapeViewable boundingShape, boolean culled) {
+        final boolean attached = boundingShape.getViewData().getNodeGroup().getScene() != null;
+        return mainView.getEditorImagePane().isCulled(boundingShape) == culled && attached != culled;
+    }
+}
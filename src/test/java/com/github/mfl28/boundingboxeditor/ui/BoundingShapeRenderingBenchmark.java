@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2025 Markus Fleischhacker <markus.fleischhacker28@gmail.com>
+ *
+ * This file is part of Bounding Box Editor
+ *
+ * Bounding Box Editor is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Bounding Box Editor is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Bounding Box Editor. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.mfl28.boundingboxeditor.ui;
+
+import com.github.mfl28.boundingboxeditor.BenchmarkUtils;
+import com.github.mfl28.boundingboxeditor.model.data.BoundingBoxData;
+import com.github.mfl28.boundingboxeditor.model.data.ObjectCategory;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@ExtendWith(ApplicationExtension.class)
+class BoundingShapeRenderingBenchmark {
+    private static final int[] NR_SHAPES = {1_000, 5_000, 20_000};
+    private static final int NR_CATEGORIES = 20;
+    private static final int NR_FRAMES = 120;
+    private static final int IMAGE_WIDTH = 2000;
+    private static final int IMAGE_HEIGHT = 1500;
+    private static final double ZOOM_FACTOR = 2.0;
+
+    private EditorImagePaneView editorImagePane;
+
+    @Start
+    void start(Stage stage) {
+        editorImagePane = new EditorImagePaneView();
+        stage.setScene(new Scene(editorImagePane, 1000, 750));
+        stage.show();
+        editorImagePane.updateImage(new WritableImage(IMAGE_WIDTH, IMAGE_HEIGHT), "benchmark-image");
+    }
+
+    @Test
+    void benchmarkNodeAgainstCanvasRendering() throws InterruptedException {
+        for(int nrShapes : NR_SHAPES) {
+            for(boolean batchRendering : new boolean[]{false, true}) {
+                runBenchmark(nrShapes, batchRendering);
+            }
+        }
+    }
+
+    private void runBenchmark(int nrShapes, boolean batchRendering) throws InterruptedException {
+        final String name = (batchRendering ? "Canvas" : "Nodes") + " " + nrShapes + " shapes";
+        final List<BoundingShapeViewable> boundingShapes = createBoundingShapes(nrShapes);
+        final long[] loadNanos = new long[1];
+
+        WaitForAsyncUtils.asyncFx(() -> {
+            editorImagePane.batchRenderingProperty().set(batchRendering);
+            resetZoom();
+
+            final long startTime = System.nanoTime();
+            boundingShapes.forEach(viewable -> viewable.autoScaleWithBoundsAndInitialize(
+                    editorImagePane.getImageView().boundsInParentProperty(), IMAGE_WIDTH, IMAGE_HEIGHT));
+            editorImagePane.setAllCurrentBoundingShapes(boundingShapes);
+            editorImagePane.addBoundingShapesToSceneGroup(boundingShapes);
+            loadNanos[0] = System.nanoTime() - startTime;
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertEquals(batchRendering, editorImagePane.isBatchRenderingActive());
+        final long nrLoadedNodes = countBoundingShapeNodes(boundingShapes);
+
+        if(batchRendering) {
+            assertEquals(nrShapes, editorImagePane.getBoundingShapeCanvas().getNrDrawnShapes());
+        }
+
+        final double[] zoomFrameMillis = measureFrames(frame -> {
+            final ImageView imageView = editorImagePane.getImageView();
+            final double factor = frame % 2 == 0 ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+            imageView.setFitWidth(imageView.getFitWidth() * factor);
+            imageView.setFitHeight(imageView.getFitHeight() * factor);
+        });
+
+        WaitForAsyncUtils.asyncFx(() -> {
+            final ImageView imageView = editorImagePane.getImageView();
+            imageView.setFitWidth(imageView.getFitWidth() * ZOOM_FACTOR);
+            imageView.setFitHeight(imageView.getFitHeight() * ZOOM_FACTOR);
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        final long nrZoomedInNodes = countBoundingShapeNodes(boundingShapes);
+
+        final double[] panFrameMillis = measureFrames(frame -> {
+            final double value = (double) (frame % NR_FRAMES) / NR_FRAMES;
+            editorImagePane.setHvalue(value);
+            editorImagePane.setVvalue(value);
+        });
+
+        BenchmarkUtils.report(name, "load: %.1f ms, scene-graph nodes: %d",
+                loadNanos[0] / 1e6, nrLoadedNodes);
+        BenchmarkUtils.report(name, "scene-graph nodes when zoomed in: %d", nrZoomedInNodes);
+        BenchmarkUtils.report(name, "zoom frames: p50 %.1f ms, p99 %.1f ms",
+                BenchmarkUtils.percentile(zoomFrameMillis, 50), BenchmarkUtils.percentile(zoomFrameMillis, 99));
+        BenchmarkUtils.report(name, "pan frames: p50 %.1f ms, p99 %.1f ms",
+                BenchmarkUtils.percentile(panFrameMillis, 50), BenchmarkUtils.percentile(panFrameMillis, 99));
+
+        WaitForAsyncUtils.asyncFx(() -> {
+            editorImagePane.removeAllCurrentBoundingShapes();
+            editorImagePane.removeBoundingShapesFromSceneGroup(boundingShapes);
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    private double[] measureFrames(IntConsumer frameUpdate) throws InterruptedException {
+        final List<Long> frameTimestamps = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch finishedLatch = new CountDownLatch(1);
+
+        final AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                frameTimestamps.add(now);
+
+                if(frameTimestamps.size() > NR_FRAMES) {
+                    stop();
+                    finishedLatch.countDown();
+                } else {
+                    frameUpdate.accept(frameTimestamps.size());
+                }
+            }
+        };
+
+        WaitForAsyncUtils.asyncFx(timer::start);
+        assertTrue(finishedLatch.await(5, TimeUnit.MINUTES));
+
+        final double[] frameMillis = new double[NR_FRAMES];
+
+        for(int i = 0; i < NR_FRAMES; ++i) {
+            frameMillis[i] = (frameTimestamps.get(i + 1) - frameTimestamps.get(i)) / 1e6;
+        }
+
+        Arrays.sort(frameMillis);
+        return frameMillis;
+    }
+
+    private void resetZoom() {
+        editorImagePane.resetImageViewSize();
+        editorImagePane.setHvalue(0);
+        editorImagePane.setVvalue(0);
+        editorImagePane.layout();
+    }
+
+    private long countBoundingShapeNodes(List<BoundingShapeViewable> boundingShapes) {
+        return boundingShapes.stream()
+                .filter(viewable -> viewable.getViewData().getNodeGroup().getScene() != null)
+                .count();
+    }
+
+    private static List<BoundingShapeViewable> createBoundingShapes(int nrShapes) {
+        final Random random = new Random(42);
+        final List<ObjectCategory> categories = new ArrayList<>(NR_CATEGORIES);
+
+        for(int i = 0; i < NR_CATEGORIES; ++i) {
+            categories.add(new ObjectCategory("category" + i, Color.hsb(360.0 * i / NR_CATEGORIES, 1, 1)));
+        }
+
+        final List<BoundingShapeViewable> boundingShapes = new ArrayList<>(nrShapes);
+
+        for(int i = 0; i < nrShapes; ++i) {
+            final double xMin = random.nextDouble() * 0.95;
+            final double yMin = random.nextDouble() * 0.95;
+            final BoundingBoxData boundingBoxData = new BoundingBoxData(categories.get(i % NR_CATEGORIES), xMin, yMin,
+                    xMin + 0.01 + random.nextDouble() * 0.04, yMin + 0.01 + random.nextDouble() * 0.04, List.of());
+            boundingShapes.add(BoundingBoxView.fromData(boundingBoxData, IMAGE_WIDTH, IMAGE_HEIGHT));
+        }
+
+        return boundingShapes;
+    }
+}
@@ -41,6 +41,8 @@ import org.testfx.util.WaitForAsyncUtils;
 import java.io.File;
 import java.nio.file.Files;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -68,7 +70,7 @@ class ImageFolderOpenedBasicTests extends BoundingBoxEditorTestBase {
     }
 
     @Test
-    void onImageFolderOpened_WhenImageFileChanges_ShouldForceReloadFolder(FxRobot robot, @TempDir File tempDir,
+    void onImageFolderOpened_WhenImageFileChanges_ShouldUpdateOrReloadFolder(FxRobot robot, @TempDir File tempDir,
                                                                           TestInfo testinfo) {
         waitUntilCurrentImageIsLoaded(testinfo);
 
@@ -98,9 +100,12 @@ class ImageFolderOpenedBasicTests extends BoundingBoxEditorTestBase {
                                       () -> saveScreenshotAndReturnMessage(testinfo, "Could not rename image file in " +
                                               "temporary directory."));
 
-        final Stage alert = timeOutGetTopModalStage(robot, "Image Files Changed", testinfo);
-        timeOutLookUpInStageAndClickOn(robot, alert, "OK", testinfo);
-        timeOutAssertTopModalStageClosed(robot, "Image Files Changed", testinfo);
+        // Renamed image files are reconciled without reloading the folder.
+        Assertions.assertDoesNotThrow(() -> WaitForAsyncUtils.waitFor(TIMEOUT_DURATION_IN_SEC, TimeUnit.SECONDS,
+                                                                      () -> model.getImageFileNameSet()
+                                                                                 .equals(Set.of("bar.jpg"))),
+                                      () -> saveScreenshotAndReturnMessage(testinfo, "Renamed image file was not " +
+                                              "reconciled."));
 
         WaitForAsyncUtils.waitForFxEvents();
         waitUntilCurrentImageIsLoaded(testinfo);